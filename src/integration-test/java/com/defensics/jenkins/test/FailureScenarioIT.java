@@ -33,7 +33,7 @@ import com.defensics.apiserver.client.DefensicsApiV2Client;
 import com.defensics.apiserver.model.SuiteInstance;
 import com.defensics.client.DefensicsRequestException;
 import com.defensics.client.UnsafeTlsConfigurator;
-import com.defensics.jenkins.result.HtmlReportPublisherTarget.HtmlReportAction;
+import com.defensics.jenkins.result.ReportAction;
 import com.defensics.jenkins.result.ResultPackageAction;
 import com.defensics.jenkins.test.utils.CredentialsUtil;
 import com.defensics.jenkins.test.utils.HttpSutRule;
@@ -774,11 +774,11 @@ public class FailureScenarioIT {
       assertThat(logHas(run, "100.0%"), is(true));
     }
     assertThat(run.getResult(), is(equalTo(expectedResult)));
-    assertThat(run.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
+    assertThat(run.getActions(ReportAction.class).size(), is(equalTo(1)));
     assertThat(run.getActions(HTMLAction.class).size(), is(equalTo(0)));
-    assertThat(project.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
-    assertThat(project.getAction(HtmlReportAction.class).getUrlName(),
-        is(equalTo(run.getActions(HtmlReportAction.class).get(0).getUrlName())));
+    assertThat(project.getActions(ReportAction.class).size(), is(equalTo(1)));
+    assertThat(project.getAction(ReportAction.class).getUrlName(),
+        is(equalTo(run.getActions(ReportAction.class).get(0).getUrlName())));
     assertThat(run.getLog(100).contains(PIPELINE_ERROR_TEXT), is(shouldLogPipelineError));
   }
 
@@ -800,10 +800,10 @@ public class FailureScenarioIT {
   }
 
   private void checkNoReport(WorkflowRun run) {
-    assertThat(run.getActions(HtmlReportAction.class).size(), is(equalTo(0)));
+    assertThat(run.getActions(ReportAction.class).size(), is(equalTo(0)));
     assertThat(run.getActions(HTMLAction.class).size(), is(equalTo(0)));
-    assertThat(project.getActions(HtmlReportAction.class).size(), is(equalTo(0)));
-    assertThat(project.getAction(HtmlReportAction.class),
+    assertThat(project.getActions(ReportAction.class).size(), is(equalTo(0)));
+    assertThat(project.getAction(ReportAction.class),
         is(nullValue()));
   }
 
@@ -29,7 +29,7 @@ import static org.hamcrest.Matchers.nullValue;
 
 import com.defensics.apiserver.model.RunState;
 import com.defensics.apiserver.model.RunVerdict;
-import com.defensics.jenkins.result.HtmlReportPublisherTarget.HtmlReportAction;
+import com.defensics.jenkins.result.ReportAction;
 import com.defensics.jenkins.result.ResultPublisher;
 import com.defensics.jenkins.result.history.ProjectHistoryAction;
 import com.defensics.jenkins.test.utils.CredentialsUtil;
@@ -102,7 +102,7 @@ public class ResultIT {
 
       FreeStyleBuild run = project.scheduleBuild2(0).get();
 
-      assertThat(run.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
+      assertThat(run.getActions(ReportAction.class).size(), is(equalTo(1)));
       doAssertionsOnReport(
           webClient.getPage(project),
           expectedTabNames);
@@ -122,7 +122,7 @@ public class ResultIT {
 
       FreeStyleBuild run = project.scheduleBuild2(0).get();
 
-      assertThat(run.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
+      assertThat(run.getActions(ReportAction.class).size(), is(equalTo(1)));
       doAssertionsOnReport(
           webClient.getPage(project),
           expectedTabNames);
@@ -147,7 +147,7 @@ public class ResultIT {
     try (JenkinsRule.WebClient webClient = jenkinsRule.createWebClient()) {
       FreeStyleBuild run = project.scheduleBuild2(0).get();
 
-      assertThat(run.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
+      assertThat(run.getActions(ReportAction.class).size(), is(equalTo(1)));
       doAssertionsOnReport(
           webClient.getPage(project),
           expectedTabNames);
@@ -28,7 +28,7 @@ import static org.hamcrest.Matchers.notNullValue;
 
 import com.defensics.apiserver.model.RunState;
 import com.defensics.apiserver.model.RunVerdict;
-import com.defensics.jenkins.result.HtmlReportPublisherTarget.HtmlReportAction;
+import com.defensics.jenkins.result.ReportAction;
 import com.defensics.jenkins.result.ResultPackageAction;
 import com.defensics.jenkins.test.utils.CredentialsUtil;
 import com.defensics.jenkins.test.utils.DefensicsMockServer;
@@ -90,10 +90,10 @@ public class RunFreestyleIT {
     FreeStyleBuild run = project.scheduleBuild2(0).get();
 
     assertThat(run.getResult(), is(equalTo(Result.SUCCESS)));
-    assertThat(run.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
+    assertThat(run.getActions(ReportAction.class).size(), is(equalTo(1)));
     assertThat(run.getActions(HTMLAction.class).size(), is(equalTo(0)));
-    assertThat(project.getAction(HtmlReportAction.class).getUrlName(),
-        is(equalTo(run.getActions(HtmlReportAction.class).get(0).getUrlName())));
+    assertThat(project.getAction(ReportAction.class).getUrlName(),
+        is(equalTo(run.getActions(ReportAction.class).get(0).getUrlName())));
 
     assertThat(run.getActions(ResultPackageAction.class).size(), is(1));
     final ResultPackageAction resultPackageAction =
@@ -124,10 +124,10 @@ public class RunFreestyleIT {
     FreeStyleBuild run = project.scheduleBuild2(0).get();
 
     assertThat(run.getResult(), is(equalTo(Result.SUCCESS)));
-    assertThat(run.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
+    assertThat(run.getActions(ReportAction.class).size(), is(equalTo(1)));
     assertThat(run.getActions(HTMLAction.class).size(), is(equalTo(0)));
-    assertThat(project.getAction(HtmlReportAction.class).getUrlName(),
-        is(equalTo(run.getActions(HtmlReportAction.class).get(0).getUrlName())));
+    assertThat(project.getAction(ReportAction.class).getUrlName(),
+        is(equalTo(run.getActions(ReportAction.class).get(0).getUrlName())));
   }
 
   @Test
@@ -149,10 +149,10 @@ public class RunFreestyleIT {
     FreeStyleBuild run = project.scheduleBuild2(0).get();
 
     assertThat(run.getResult(), is(equalTo(Result.SUCCESS)));
-    assertThat(run.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
+    assertThat(run.getActions(ReportAction.class).size(), is(equalTo(1)));
     assertThat(run.getActions(HTMLAction.class).size(), is(equalTo(0)));
-    assertThat(project.getAction(HtmlReportAction.class).getUrlName(),
-        is(equalTo(run.getActions(HtmlReportAction.class).get(0).getUrlName())));
+    assertThat(project.getAction(ReportAction.class).getUrlName(),
+        is(equalTo(run.getActions(ReportAction.class).get(0).getUrlName())));
   }
 
   @Test
@@ -179,9 +179,9 @@ public class RunFreestyleIT {
     FreeStyleBuild run = runFuture.get();
 
     assertThat(run.getResult(), is(equalTo(Result.ABORTED)));
-    assertThat(run.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
+    assertThat(run.getActions(ReportAction.class).size(), is(equalTo(1)));
     assertThat(run.getActions(HTMLAction.class).size(), is(equalTo(0)));
-    assertThat(project.getAction(HtmlReportAction.class), is(notNullValue()));
+    assertThat(project.getAction(ReportAction.class), is(notNullValue()));
   }
 
   @Test
@@ -201,8 +201,8 @@ public class RunFreestyleIT {
     FreeStyleBuild run = project.scheduleBuild2(0).get();
 
     assertThat(run.getResult(), is(equalTo(Result.FAILURE)));
-    assertThat(run.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
-    assertThat(project.getAction(HtmlReportAction.class), is(notNullValue()));
+    assertThat(run.getActions(ReportAction.class).size(), is(equalTo(1)));
+    assertThat(project.getAction(ReportAction.class), is(notNullValue()));
   }
 
   @Test
@@ -223,9 +223,9 @@ public class RunFreestyleIT {
     FreeStyleBuild run = project.scheduleBuild2(0).get();
 
     assertThat(run.getResult(), is(equalTo(Result.FAILURE)));
-    assertThat(run.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
+    assertThat(run.getActions(ReportAction.class).size(), is(equalTo(1)));
     assertThat(run.getActions(HTMLAction.class).size(), is(equalTo(0)));
-    assertThat(project.getAction(HtmlReportAction.class).getUrlName(),
-        is(equalTo(run.getActions(HtmlReportAction.class).get(0).getUrlName())));
+    assertThat(project.getAction(ReportAction.class).getUrlName(),
+        is(equalTo(run.getActions(ReportAction.class).get(0).getUrlName())));
   }
 }
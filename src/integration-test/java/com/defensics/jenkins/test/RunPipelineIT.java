@@ -27,7 +27,7 @@ import static org.hamcrest.Matchers.notNullValue;
 
 import com.defensics.apiserver.model.RunState;
 import com.defensics.apiserver.model.RunVerdict;
-import com.defensics.jenkins.result.HtmlReportPublisherTarget.HtmlReportAction;
+import com.defensics.jenkins.result.ReportAction;
 import com.defensics.jenkins.result.ResultPackageAction;
 import com.defensics.jenkins.test.utils.CredentialsUtil;
 import com.defensics.jenkins.test.utils.DefensicsMockServer;
@@ -112,11 +112,11 @@ public class RunPipelineIT {
     dumpRunLog(run);
 
     assertThat(run.getResult(), is(equalTo(Result.SUCCESS)));
-    assertThat(run.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
+    assertThat(run.getActions(ReportAction.class).size(), is(equalTo(1)));
     assertThat(run.getActions(HTMLAction.class).size(), is(equalTo(0)));
-    assertThat(project.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
-    assertThat(project.getAction(HtmlReportAction.class).getUrlName(),
-        is(equalTo(run.getActions(HtmlReportAction.class).get(0).getUrlName())));
+    assertThat(project.getActions(ReportAction.class).size(), is(equalTo(1)));
+    assertThat(project.getAction(ReportAction.class).getUrlName(),
+        is(equalTo(run.getActions(ReportAction.class).get(0).getUrlName())));
     assertThat(run.getLog(100).contains(PIPELINE_ERROR_TEXT), is(false));
 
     assertThat(run.getActions(ResultPackageAction.class).size(), is(1));
@@ -148,11 +148,11 @@ public class RunPipelineIT {
     dumpRunLog(run);
 
     assertThat(run.getResult(), is(equalTo(Result.FAILURE)));
-    assertThat(run.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
+    assertThat(run.getActions(ReportAction.class).size(), is(equalTo(1)));
     assertThat(run.getActions(HTMLAction.class).size(), is(equalTo(0)));
-    assertThat(project.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
-    assertThat(project.getAction(HtmlReportAction.class).getUrlName(),
-        is(equalTo(run.getActions(HtmlReportAction.class).get(0).getUrlName())));
+    assertThat(project.getActions(ReportAction.class).size(), is(equalTo(1)));
+    assertThat(project.getAction(ReportAction.class).getUrlName(),
+        is(equalTo(run.getActions(ReportAction.class).get(0).getUrlName())));
     assertThat(run.getLog(100).contains(PIPELINE_ERROR_TEXT), is(true));
     assertThat(run.getLog(100).contains("ERROR: Fuzzing completed with verdict FAIL and 0 "
         + "failures. See Defensics Results for details."), is(true));
@@ -187,10 +187,10 @@ public class RunPipelineIT {
     dumpRunLog(run);
 
     assertThat(run.getResult(), is(equalTo(Result.ABORTED)));
-    assertThat(run.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
+    assertThat(run.getActions(ReportAction.class).size(), is(equalTo(1)));
     assertThat(run.getActions(HTMLAction.class).size(), is(equalTo(0)));
-    assertThat(project.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
-    assertThat(project.getAction(HtmlReportAction.class), is(notNullValue()));
+    assertThat(project.getActions(ReportAction.class).size(), is(equalTo(1)));
+    assertThat(project.getAction(ReportAction.class), is(notNullValue()));
   }
 
   @Test
@@ -211,10 +211,10 @@ public class RunPipelineIT {
     dumpRunLog(run);
 
     assertThat(run.getResult(), is(equalTo(Result.FAILURE)));
-    assertThat(run.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
+    assertThat(run.getActions(ReportAction.class).size(), is(equalTo(1)));
     assertThat(run.getActions(HTMLAction.class).size(), is(equalTo(0)));
-    assertThat(project.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
-    assertThat(project.getAction(HtmlReportAction.class), is(notNullValue()));
+    assertThat(project.getActions(ReportAction.class).size(), is(equalTo(1)));
+    assertThat(project.getAction(ReportAction.class), is(notNullValue()));
     assertThat(run.getLog(100).contains(PIPELINE_ERROR_TEXT), is(true));
   }
 
@@ -236,11 +236,11 @@ public class RunPipelineIT {
     dumpRunLog(run);
 
     assertThat(run.getResult(), is(equalTo(Result.FAILURE)));
-    assertThat(run.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
+    assertThat(run.getActions(ReportAction.class).size(), is(equalTo(1)));
     assertThat(run.getActions(HTMLAction.class).size(), is(equalTo(0)));
-    assertThat(project.getActions(HtmlReportAction.class).size(), is(equalTo(1)));
-    assertThat(project.getAction(HtmlReportAction.class).getUrlName(),
-        is(equalTo(run.getActions(HtmlReportAction.class).get(0).getUrlName())));
+    assertThat(project.getActions(ReportAction.class).size(), is(equalTo(1)));
+    assertThat(project.getAction(ReportAction.class).getUrlName(),
+        is(equalTo(run.getActions(ReportAction.class).get(0).getUrlName())));
     assertThat(run.getLog(100).contains(PIPELINE_ERROR_TEXT), is(true));
     String expectedSummary = "ERROR: Fuzzing completed with verdict NONE and 0 failures. "
         + "See Defensics Results for details.";
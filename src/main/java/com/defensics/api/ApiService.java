@@ -216,6 +216,26 @@ public class ApiService {
     }
   }
 
+  /**
+   * Get individual run, or empty optional if the server doesn't know the run anymore. Unlike
+   * {@link #getRun(String)}, missing run is not treated as an error.
+   *
+   * @param runId run id for the run to get
+   * @return Run wrapped in Optional, or empty optional if run was not found
+   * @throws DefensicsRequestException if server responds with error
+   * @throws InterruptedException if request was interrupted
+   */
+  public Optional<Run> findRun(String runId)
+      throws DefensicsRequestException, InterruptedException {
+    try {
+      return defensicsClient.getRun(runId, false);
+    } catch (DefensicsClientException e) {
+      mapAndThrow(e);
+      // Should not reach this
+      return Optional.empty();
+    }
+  }
+
   /**
    * Makes a request to stop the test run. Test run must be running or paused.
    *
@@ -231,28 +251,51 @@ public class ApiService {
   }
 
   /**
-   * Downloads the report for this job from Defensics.
+   * Downloads HTML report of the run and passes it to given handler straight from the download
+   * stream, without storing the archive anywhere first.
    *
-   * @throws IOException               if there's an issue communicating with the server or writing
-   *                                   report file
+   * @param run     Defensics run
+   * @param format  Report type to download
+   * @param handler Stores the report
+   * @return Number of bytes handled
+   * @throws IOException               if there's an issue communicating with the server or storing
+   *                                   the report
    * @throws DefensicsRequestException if server responds with error
-   * @throws InterruptedException      if reading test plan file is interrupted
+   * @throws InterruptedException      if downloading is interrupted
    */
-  public void saveResults(Run run, FilePath reportFolder)
+  public long saveReport(Run run, HtmlReport format, DownloadHandler handler)
       throws IOException, DefensicsRequestException, InterruptedException {
+    return saveReport(run.getResultId(), format, handler);
+  }
 
-    try (InputStream cloudReportStream = defensicsClient.downloadReport(
-          run.getResultId(),
-          HtmlReport.Cloud.toString()
+  /**
+   * Downloads HTML report of a result and passes it to given handler. Used also for fetching
+   * reports of earlier runs, which may have already been deleted, by their result ID.
+   * {@link HtmlReport#Single Single} report is a plain HTML file, all other formats are zip
+   * archives.
+   *
+   * @param resultId Defensics result ID
+   * @param format   Report type to download
+   * @param handler  Stores the report
+   * @return Number of bytes handled
+   * @throws IOException               if there's an issue communicating with the server or storing
+   *                                   the report
+   * @throws DefensicsRequestException if server responds with error
+   * @throws InterruptedException      if downloading is interrupted
+   */
+  public long saveReport(String resultId, HtmlReport format, DownloadHandler handler)
+      throws IOException, DefensicsRequestException, InterruptedException {
+    try (InputStream reportStream = defensicsClient.downloadReport(
+          resultId,
+          format.toString()
     )) {
-      reportFolder.mkdirs();
-
-      // Extract contents of the zip if report contains multiple files.
-      // NOTE: There was code path to handle downloading HTML report as well but now only
-      // zipped report is handled.
-      reportFolder.unzipFrom(cloudReportStream);
+      return handler.handle(reportStream);
     } catch (DefensicsClientException e) {
       mapAndThrow(e);
+      // Should not reach this
+      return 0;
+    } catch (InterruptedIOException e) {
+      throw new InterruptedException(e.getMessage());
     }
   }
 
@@ -274,6 +317,31 @@ public class ApiService {
     }
   }
 
+  /**
+   * Downloads result package of the run and passes it to given handler straight from the
+   * download stream, without storing the package.
+   *
+   * @param run     Defensics run
+   * @param handler Reads the package zip
+   * @return Number of bytes handled
+   * @throws IOException               if there's an issue communicating with the server or the
+   *                                   handler fails
+   * @throws DefensicsRequestException if server responds with error
+   * @throws InterruptedException      if downloading is interrupted
+   */
+  public long readResultPackage(Run run, DownloadHandler handler)
+      throws IOException, DefensicsRequestException, InterruptedException {
+    try (InputStream resultPackage = defensicsClient.downloadResultPackage(run.getResultId())) {
+      return handler.handle(resultPackage);
+    } catch (DefensicsClientException e) {
+      mapAndThrow(e);
+      // Should not reach this
+      return 0;
+    } catch (InterruptedIOException e) {
+      throw new InterruptedException(e.getMessage());
+    }
+  }
+
   /**
    * Creates new empty Defensics run. This need to be configured by uploading testplan (later on
    * other configuration options can be available).
@@ -409,7 +477,7 @@ public class ApiService {
       throw new DefensicsRequestException(message, cause);
     }
 
-    throw new DefensicsRequestException(message);
+    throw new DefensicsRequestException(message, e.getStatusCode());
   }
 
   /**
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a file downloaded from Defensics straight from the download stream, e.g. a report archive
+ * or a result package. The stream is closed by {@link ApiService} once the handler returns.
+ */
+@FunctionalInterface
+public interface DownloadHandler {
+
+  /**
+   * Handles the downloaded content.
+   *
+   * @param content Download stream
+   * @return Number of bytes handled
+   * @throws IOException if reading the stream or storing its content fails
+   */
+  long handle(InputStream content) throws IOException;
+}
@@ -151,12 +151,29 @@ public interface DefensicsApiClient {
    * Check the cause exception for further details.
    */
   class DefensicsClientException extends RuntimeException {
+    private final int statusCode;
+
     public DefensicsClientException(String message) {
+      this(message, 0);
+    }
+
+    public DefensicsClientException(String message, int statusCode) {
       super(message);
+      this.statusCode = statusCode;
     }
 
     public DefensicsClientException(String message, Throwable cause) {
       super(message, cause);
+      this.statusCode = 0;
+    }
+
+    /**
+     * Returns HTTP status code of the failed request.
+     *
+     * @return Status code, or 0 if the failure wasn't an error response
+     */
+    public int getStatusCode() {
+      return statusCode;
     }
   }
 }
@@ -22,7 +22,11 @@ import com.defensics.apiserver.client.DefensicsApiClient.DefensicsClientExceptio
 import com.defensics.apiserver.model.HealthCheckResult;
 import com.defensics.apiserver.model.Item;
 import com.defensics.apiserver.model.ItemArray;
+import com.defensics.metrics.DefensicsMetrics;
+import com.defensics.tracing.Span;
+import com.defensics.tracing.Tracer;
 import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.http.HttpClient;
@@ -30,6 +34,7 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -54,6 +59,16 @@ public class DefensicsApiClientConnect {
    */
   private final ObjectMapper objectMapper;
 
+  /**
+   * Operation name used in metrics for health check requests.
+   */
+  private static final String HEALTH_CHECK_OPERATION = "get health check";
+
+  /**
+   * W3C Trace Context header.
+   */
+  private static final String TRACEPARENT_HEADER = "traceparent";
+
   // Token used in requests. If null, authorization header is omitted.
   private final char[] token;
 
@@ -82,22 +97,22 @@ public class DefensicsApiClientConnect {
    * @return Response as a stream
    */
   protected InputStream getInputStream(HttpUrl url, String operationString) {
-    HttpRequest request = HttpRequest.newBuilder(url.getUri())
+    HttpRequest.Builder request = HttpRequest.newBuilder(url.getUri())
         .GET()
-        .headers(getCommonHeaders())
-        .build();
+        .headers(getCommonHeaders());
     try {
-      HttpResponse<InputStream> response = httpClient.send(request, BodyHandlers.ofInputStream());
+      HttpResponse<InputStream> response = send(
+          request, BodyHandlers.ofInputStream(), operationString);
       if (response.statusCode() >= 400) {
         try (InputStream autoCloseResponse = response.body()) {
           String message = DefensicsApiClientUtility.errorMessageForFailingJaxRsRequest(
               "Could not " + operationString,
               response
           );
-          throw new DefensicsClientException(message);
+          throw new DefensicsClientException(message, response.statusCode());
         }
       }
-      return new BufferedInputStream(response.body());
+      return new BufferedInputStream(new CountingInputStream(response.body()));
     } catch (IOException | InterruptedException e) {
       throw new DefensicsClientException(
           String.format("Could not %s: %s", operationString, e.getMessage()), e
@@ -141,18 +156,17 @@ public class DefensicsApiClientConnect {
    * @param operation operation for logging.
    */
   protected void delete(HttpUrl url, String operation) {
-    HttpRequest request = HttpRequest.newBuilder(url.getUri())
+    HttpRequest.Builder request = HttpRequest.newBuilder(url.getUri())
         .DELETE()
-        .headers(getCommonHeaders())
-        .build();
+        .headers(getCommonHeaders());
     try {
-      HttpResponse<String> response = httpClient.send(request, BodyHandlers.ofString());
+      HttpResponse<String> response = send(request, BodyHandlers.ofString(), operation);
       if (response.statusCode() >= 400) {
         String message = DefensicsApiClientUtility.errorMessageForFailingJaxRsRequest(
             "Could not " + operation,
             response
         );
-        throw new DefensicsClientException(message);
+        throw new DefensicsClientException(message, response.statusCode());
       }
     } catch (IOException | InterruptedException e) {
       throw new DefensicsClientException("Could not " + operation + ": " + e.getMessage(), e);
@@ -177,20 +191,19 @@ public class DefensicsApiClientConnect {
       String operationString,
       TypeReference<Item<T>> typeReference
   ) {
-    HttpRequest request = HttpRequest.newBuilder(url.getUri())
+    HttpRequest.Builder request = HttpRequest.newBuilder(url.getUri())
         .POST(body.getBodyPublisher())
         .headers(getCommonHeaders())
-        .header("Content-Type", body.getContentType())
-        .build();
+        .header("Content-Type", body.getContentType());
     try {
-      HttpResponse<byte[]> response = httpClient.send(request, BodyHandlers.ofByteArray());
+      HttpResponse<byte[]> response = send(request, BodyHandlers.ofByteArray(), operationString);
       if (response.statusCode() >= 400) {
         String message = DefensicsApiClientUtility.errorMessageForFailingJaxRsRequest(
             "Could not " + operationString,
             response
         );
 
-        throw new DefensicsClientException(message);
+        throw new DefensicsClientException(message, response.statusCode());
       }
       if (typeReference != null) {
         return Optional.of(response)
@@ -227,19 +240,18 @@ public class DefensicsApiClientConnect {
       String operationString,
       TypeReference<ItemArray<T>> typeReference
   ) {
-    HttpRequest request = HttpRequest.newBuilder(url.getUri())
+    HttpRequest.Builder request = HttpRequest.newBuilder(url.getUri())
         .GET()
-        .headers(getCommonHeaders())
-        .build();
+        .headers(getCommonHeaders());
     try {
-      HttpResponse<String> response = httpClient.send(request, BodyHandlers.ofString());
+      HttpResponse<String> response = send(request, BodyHandlers.ofString(), operationString);
       if (response.statusCode() >= 400) {
         String message = DefensicsApiClientUtility.errorMessageForFailingJaxRsRequest(
             "Could not " + operationString,
             response
         );
 
-        throw new DefensicsClientException(message);
+        throw new DefensicsClientException(message, response.statusCode());
       }
 
       return Optional.of(response)
@@ -273,12 +285,11 @@ public class DefensicsApiClientConnect {
       String operationString,
       TypeReference<Item<T>> typeReference
   ) {
-    HttpRequest request = HttpRequest.newBuilder(url.getUri())
+    HttpRequest.Builder request = HttpRequest.newBuilder(url.getUri())
         .GET()
-        .headers(getCommonHeaders())
-        .build();
+        .headers(getCommonHeaders());
     try {
-      HttpResponse<byte[]> response = httpClient.send(request, BodyHandlers.ofByteArray());
+      HttpResponse<byte[]> response = send(request, BodyHandlers.ofByteArray(), operationString);
       if (response.statusCode() == 404) {
         return Optional.empty();
       }
@@ -288,7 +299,7 @@ public class DefensicsApiClientConnect {
             response
         );
 
-        throw new DefensicsClientException(message);
+        throw new DefensicsClientException(message, response.statusCode());
       }
 
       return Optional.of(response)
@@ -311,6 +322,96 @@ public class DefensicsApiClientConnect {
     }
   }
 
+  /**
+   * Sends request and records its latency, status and transferred bytes in
+   * {@link DefensicsMetrics}. For streamed responses latency covers the time until response
+   * headers were received, and received bytes are counted while the stream is read.
+   *
+   * <p>If tracing is enabled, request is sent in its own span and the span context is propagated
+   * to the server in W3C {@code traceparent} header.
+   *
+   * @param request         Request to send
+   * @param bodyHandler     Response body handler
+   * @param operationString Operation name used as metric label
+   * @param <T>             Response body type
+   * @return Response
+   * @throws IOException if sending fails
+   * @throws InterruptedException if interrupted while waiting for the response
+   */
+  private <T> HttpResponse<T> send(
+      HttpRequest.Builder request,
+      HttpResponse.BodyHandler<T> bodyHandler,
+      String operationString
+  ) throws IOException, InterruptedException {
+    try (Span span = Tracer.get().startSpan(operationString)) {
+      if (span.isRecording()) {
+        request.header(TRACEPARENT_HEADER, span.getTraceparent());
+      }
+      final HttpRequest httpRequest = request.build();
+      span.setAttribute("http.request.method", httpRequest.method())
+          .setAttribute("url.full", httpRequest.uri());
+
+      // Content length is negative when it isn't known up front
+      httpRequest.bodyPublisher()
+          .map(HttpRequest.BodyPublisher::contentLength)
+          .filter(length -> length >= 0)
+          .ifPresent(DefensicsMetrics.API_BYTES_SENT.labels()::inc);
+      final long started = System.nanoTime();
+      final HttpResponse<T> response;
+      try {
+        response = httpClient.send(httpRequest, bodyHandler);
+      } catch (IOException e) {
+        DefensicsMetrics.API_ERRORS.labels(operationString, "io").inc();
+        span.setError(e.getMessage());
+        throw e;
+      }
+      DefensicsMetrics.API_REQUEST_SECONDS.labels(operationString)
+          .observeNanos(System.nanoTime() - started);
+      span.setAttribute("http.response.status_code", response.statusCode());
+      if (response.statusCode() >= 400) {
+        DefensicsMetrics.API_ERRORS
+            .labels(operationString, String.valueOf(response.statusCode()))
+            .inc();
+        span.setError("HTTP " + response.statusCode());
+      }
+      final T body = response.body();
+      if (body instanceof byte[]) {
+        DefensicsMetrics.API_BYTES_RECEIVED.labels().inc(((byte[]) body).length);
+      } else if (body instanceof String) {
+        // String bodies are decoded from UTF-8, count the bytes that came over the wire
+        DefensicsMetrics.API_BYTES_RECEIVED.labels()
+            .inc(((String) body).getBytes(StandardCharsets.UTF_8).length);
+      }
+      return response;
+    }
+  }
+
+  /**
+   * Input stream which counts read bytes to {@link DefensicsMetrics#API_BYTES_RECEIVED}.
+   */
+  private static class CountingInputStream extends FilterInputStream {
+
+    CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int value = super.read();
+      if (value >= 0) {
+        DefensicsMetrics.API_BYTES_RECEIVED.labels().inc();
+      }
+      return value;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      final int count = super.read(b, off, len);
+      DefensicsMetrics.API_BYTES_RECEIVED.labels().inc(count);
+      return count;
+    }
+  }
+
   /**
    * Returns authorization header for the request. Later on, this can be changed to
    * getCommonHeaders() to return also e.g. User-Agent.
@@ -337,12 +438,12 @@ public class DefensicsApiClientConnect {
         healthcheckUrl.getUri()
     );
 
-    HttpRequest request = HttpRequest.newBuilder(healthcheckUrl.getUri())
+    HttpRequest.Builder request = HttpRequest.newBuilder(healthcheckUrl.getUri())
         .GET()
-        .headers(getCommonHeaders())
-        .build();
+        .headers(getCommonHeaders());
     try {
-      HttpResponse<byte[]> response = httpClient.send(request, BodyHandlers.ofByteArray());
+      HttpResponse<byte[]> response = send(
+          request, BodyHandlers.ofByteArray(), HEALTH_CHECK_OPERATION);
       if (response.statusCode() == 404) {
         return Optional.empty();
       }
@@ -353,7 +454,7 @@ public class DefensicsApiClientConnect {
             response
         );
 
-        throw new DefensicsClientException(message);
+        throw new DefensicsClientException(message, response.statusCode());
       }
 
       return Optional.of(response)
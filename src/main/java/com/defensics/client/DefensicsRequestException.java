@@ -18,11 +18,28 @@ package com.defensics.client;
 
 public class DefensicsRequestException extends Exception {
 
+  private final int statusCode;
+
   public DefensicsRequestException(String message) {
+    this(message, 0);
+  }
+
+  public DefensicsRequestException(String message, int statusCode) {
     super(message);
+    this.statusCode = statusCode;
   }
 
   public DefensicsRequestException(String message, Exception cause) {
     super(message, cause);
+    this.statusCode = 0;
+  }
+
+  /**
+   * Returns HTTP status code the server responded with.
+   *
+   * @return Status code, or 0 if the request didn't fail with an error response
+   */
+  public int getStatusCode() {
+    return statusCode;
   }
 }
@@ -25,29 +25,60 @@ import com.defensics.apiserver.model.RunState;
 import com.defensics.apiserver.model.RunVerdict;
 import com.defensics.apiserver.model.SuiteInstance;
 import com.defensics.client.DefensicsRequestException;
+import com.defensics.client.model.HtmlReport;
+import com.defensics.jenkins.cleanup.RunCanceller;
+import com.defensics.jenkins.cleanup.RunCleanupQueue;
+import com.defensics.jenkins.cleanup.RunTracker;
 import com.defensics.jenkins.configuration.AuthenticationTokenProvider;
 import com.defensics.jenkins.configuration.InstanceConfiguration;
-import com.defensics.jenkins.result.HtmlReport;
+import com.defensics.jenkins.configuration.PluginConfiguration;
+import com.defensics.jenkins.progress.RunProgress;
+import com.defensics.jenkins.progress.RunProgressAction;
+import com.defensics.jenkins.result.AssetStore;
+import com.defensics.jenkins.result.FailureDiffAction;
+import com.defensics.jenkins.result.FailureFingerprints;
+import com.defensics.jenkins.result.JUnitReportMode;
+import com.defensics.jenkins.result.JUnitReportWriter;
+import com.defensics.jenkins.result.ReportAction;
+import com.defensics.jenkins.result.ReportAction.Report;
+import com.defensics.jenkins.result.ReportFormat;
+import com.defensics.jenkins.result.ReportWriter;
 import com.defensics.jenkins.result.ResultPackageAction;
 import com.defensics.jenkins.result.ResultPublisher;
+import com.defensics.jenkins.result.StepResult;
+import com.defensics.jenkins.result.SummaryReport;
+import com.defensics.jenkins.timing.Phase;
+import com.defensics.jenkins.timing.PhaseTimer;
+import com.defensics.jenkins.timing.PhaseTimingAction;
 import com.defensics.jenkins.util.DefensicsUtils;
+import com.defensics.jenkins.util.RunActions;
+import com.defensics.jenkins.util.ZipExtractor;
+import com.defensics.metrics.DefensicsMetrics;
+import com.defensics.metrics.Gauge;
+import com.defensics.tracing.Span;
+import com.defensics.tracing.Tracer;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import hudson.AbortException;
 import hudson.FilePath;
 import hudson.Launcher;
-import hudson.Plugin;
-import hudson.PluginManager;
 import hudson.model.Result;
-import hudson.util.VersionNumber;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.net.URL;
 import java.nio.channels.ClosedByInterruptException;
 import java.util.Arrays;
-import java.util.List;
+import java.util.EnumSet;
+import java.util.Enumeration;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import jenkins.model.Jenkins;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import jenkins.model.GlobalConfiguration;
+import jenkins.util.SystemProperties;
 
 /**
  * This class handles the process of starting a fuzz test with Defensics and monitoring its
@@ -55,11 +86,39 @@ import jenkins.model.Jenkins;
  */
 public class FuzzJobRunner {
 
+  /**
+   * Workspace directory the JUnit reports are written to.
+   */
+  public static final String JUNIT_REPORT_DIR = "defensics-junit";
+
+  /**
+   * Maximum number of previously failed test cases replayed before the full test plan.
+   */
+  static final int MAX_REPLAYED_CASES = SystemProperties.getInteger(
+      FuzzJobRunner.class.getName() + ".maxReplayedCases", 1000);
+
   private ApiService defensicsClient;
   private PollingIntervals pollingIntervals;
 
   private Logger logger;
 
+  private RunProgress progress;
+  private PhaseTimer phaseTimer = new PhaseTimer();
+  private Span buildSpan;
+  private Span phaseSpan;
+  /** Fuzzing start and end as System.nanoTime() values, 0 if not started or ended yet. */
+  private long fuzzingStartedNanos;
+  private long fuzzingEndedNanos;
+  private String instanceName;
+  private int progressLogInterval = 0;
+  private Set<RunVerdict> lazyReportVerdicts = EnumSet.noneOf(RunVerdict.class);
+  private ReportFormat reportFormat = ReportFormat.CLOUD;
+  private JUnitReportMode junitReportMode = JUnitReportMode.NONE;
+  private boolean recordFailures = false;
+  private boolean failuresFirst = false;
+  /** Run replaying previous failures while it's executing, or null. */
+  private Run replayRun;
+
   /**
    * Default constructor.
    *
@@ -71,6 +130,62 @@ public class FuzzJobRunner {
   public FuzzJobRunner() {
   }
 
+  /**
+   * Sets how sparsely run progress is written to the console.
+   *
+   * @param progressLogInterval Minimum progress in percents between logged statuses, or 0 to log
+   *                            status on every poll
+   */
+  public void setProgressLogInterval(int progressLogInterval) {
+    this.progressLogInterval = progressLogInterval;
+  }
+
+  /**
+   * Sets verdicts whose reports are not downloaded until they are opened.
+   *
+   * @param lazyReportVerdicts Verdicts of completed runs whose reports are fetched lazily
+   */
+  public void setLazyReportVerdicts(Set<RunVerdict> lazyReportVerdicts) {
+    this.lazyReportVerdicts = lazyReportVerdicts;
+  }
+
+  /**
+   * Sets format of the published report.
+   *
+   * @param reportFormat Report format
+   */
+  public void setReportFormat(ReportFormat reportFormat) {
+    this.reportFormat = reportFormat;
+  }
+
+  /**
+   * Sets how results are converted into a JUnit report in the workspace.
+   *
+   * @param junitReportMode JUnit report mode, or {@link JUnitReportMode#NONE} for no report
+   */
+  public void setJUnitReportMode(JUnitReportMode junitReportMode) {
+    this.junitReportMode = junitReportMode;
+  }
+
+  /**
+   * Sets whether failures of the test cases are recorded for {@link FailureDiffAction}.
+   *
+   * @param recordFailures true to record failures
+   */
+  public void setRecordFailures(boolean recordFailures) {
+    this.recordFailures = recordFailures;
+  }
+
+  /**
+   * Sets whether test cases which failed in the latest failing build are run first, before the
+   * full test plan.
+   *
+   * @param failuresFirst true to replay previous failures first
+   */
+  public void setFailuresFirst(boolean failuresFirst) {
+    this.failuresFirst = failuresFirst;
+  }
+
   /**
    * Run fuzz tests with Defensics and publish resulting HTML report.
    *
@@ -86,7 +201,31 @@ public class FuzzJobRunner {
       Logger logger, FilePath testPlan, String configurationOverrides,
       InstanceConfiguration instanceConfiguration, boolean saveResultPackage)
       throws AbortException {
+    buildSpan = Tracer.get().startSpan("Defensics fuzz test");
+    buildSpan.setAttribute("jenkins.build", jenkinsRun.getExternalizableId())
+        .setAttribute("defensics.instance", instanceConfiguration.getName())
+        .setAttribute("defensics.test_plan", testPlan.getName());
+    try {
+      runFuzzJob(jenkinsRun, workspace, launcher, logger, testPlan, configurationOverrides,
+          instanceConfiguration, saveResultPackage);
+    } catch (AbortException e) {
+      buildSpan.setError(e.getMessage());
+      throw e;
+    } finally {
+      endPhase();
+      buildSpan.close();
+    }
+  }
+
+  private void runFuzzJob(hudson.model.Run<?, ?> jenkinsRun, FilePath workspace,
+      Launcher launcher, Logger logger, FilePath testPlan, String configurationOverrides,
+      InstanceConfiguration instanceConfiguration, boolean saveResultPackage)
+      throws AbortException {
     this.logger = logger;
+    this.phaseTimer = new PhaseTimer();
+    this.fuzzingStartedNanos = 0;
+    this.fuzzingEndedNanos = 0;
+    this.instanceName = instanceConfiguration.getName();
 
     // Denotes if job has been interrupted. If so, the interrupt flag should be reset after cleanup
     // has been done.
@@ -97,44 +236,25 @@ public class FuzzJobRunner {
 
     Run defensicsRun = null;
     Result runResult = null;
+    Gauge.Child activeRuns = null;
 
     try {
+      beginPhase(Phase.CONNECTION);
       pollingIntervals = getPollingIntervals(jenkinsRun, launcher, logger);
       setUpDefensicsConnection(instanceConfiguration);
 
-      logger.println("Creating new run.");
-      defensicsRun = defensicsClient.createNewRun();
-
-      logger.println("Uploading test configuration from " + testPlan);
-      defensicsClient.uploadTestPlan(defensicsRun.getId(), testPlan);
-
-      final String suiteLoadingMessage = defensicsClient.getSuiteInformationForRun(defensicsRun)
-          .map(suite -> String.format("Waiting for %s %s suite to load.",
-              suite.getName(),
-              suite.getVersion()
-              )
-          ).orElse("Waiting for suite to load.");
-
-      logger.println(suiteLoadingMessage);
-      waitForSuiteLoading(defensicsRun);
-
-      if (isNotBlank(configurationOverrides)) {
-        logger.println(
-            "Overriding test configuration file settings with values: " + configurationOverrides);
-        defensicsClient.setTestConfigurationSettings(defensicsRun.getId(), configurationOverrides);
-        // Some settings require reload so check if suite is reloading and wait its completion
-        SuiteInstance suiteInstance = defensicsClient.getConfigurationSuite(defensicsRun.getId())
-            .orElseThrow(() -> new AbortException("Defensics suite not found anymore"));
-        if (suiteInstance.getState().equals(RunState.LOADING)) {
-          logger.println("Used setting requires suite reload");
-          waitForSuiteLoading(defensicsRun);
-        }
-      }
-      logger.println("Fuzz testing is starting.");
-      defensicsClient.startRun(defensicsRun.getId());
-      logger.println("Fuzz testing is RUNNING.");
+      activeRuns = DefensicsMetrics.ACTIVE_RUNS.labels(instanceConfiguration.getName());
+      activeRuns.inc();
 
-      defensicsRun = trackRunStatus(defensicsRun.getId(), logger);
+      if (failuresFirst) {
+        defensicsRun = replayPreviousFailures(jenkinsRun, testPlan, configurationOverrides,
+            instanceConfiguration);
+      }
+      if (defensicsRun == null) {
+        defensicsRun = createRun(jenkinsRun, instanceConfiguration);
+        prepareRun(defensicsRun, testPlan, configurationOverrides, instanceConfiguration);
+        defensicsRun = fuzz(defensicsRun, instanceConfiguration);
+      }
 
       if (defensicsRun.getState().equals(RunState.COMPLETED))  {
         logger.println("Fuzz testing is COMPLETED.");
@@ -146,7 +266,7 @@ public class FuzzJobRunner {
       logger.println("Failures: " + DefensicsUtils.countRunFailures(defensicsRun));
       logger.println("Verdict: " + defensicsRun.getVerdict());
 
-      publishResults(jenkinsRun, defensicsRun, workspace, testPlan.getName());
+      publishResults(jenkinsRun, defensicsRun, testPlan.getName());
       reportDownloaded = true;
 
       if (saveResultPackage) {
@@ -154,17 +274,29 @@ public class FuzzJobRunner {
         resultPackageDownloaded = true;
       }
 
+      if (defensicsRun.getResultId() != null) {
+        // Replaying failures needs them recorded in the failing builds
+        if (recordFailures || failuresFirst) {
+          final FailureFingerprints failures =
+              recordFailures(jenkinsRun, defensicsRun, testPlan, resultPackageDownloaded);
+          if (failures != null && reportFormat == ReportFormat.SUMMARY) {
+            // Failed cases are known only now, so the summary is written again to list them
+            writeSummaryReport(jenkinsRun, defensicsRun, testPlan.getName(), failures);
+          }
+        }
+        if (junitReportMode != JUnitReportMode.NONE) {
+          publishCaseResults(jenkinsRun, workspace, defensicsRun, testPlan,
+              resultPackageDownloaded);
+        }
+      }
+
       if (defensicsRun.getVerdict().equals(RunVerdict.PASS)
           && defensicsRun.getState().equals(RunState.COMPLETED)
       ) {
         runResult = Result.SUCCESS;
-        defensicsClient.deleteRun(defensicsRun.getId());
-        defensicsRun = null;
       } else {
         RunVerdict verdict = defensicsRun.getVerdict();
         int failureCount = DefensicsUtils.countRunFailures(defensicsRun);
-        defensicsClient.deleteRun(defensicsRun.getId());
-        defensicsRun = null;
         throw new AbortException("Fuzzing completed with verdict " + verdict
             + " and " + failureCount + " failures. "
             + "See Defensics Results for details.");
@@ -173,22 +305,29 @@ public class FuzzJobRunner {
       // Let's clear the thread interrupted flag now, otherwise e.g. HttpClient doesn't do
       // any of the cleanup requests. Reset interrupt flag after cleanup.
       wasInterrupted = Thread.interrupted();
+      if (defensicsRun == null) {
+        defensicsRun = replayRun;
+      }
+      if (fuzzingStartedNanos != 0 && fuzzingEndedNanos == 0) {
+        fuzzingEndedNanos = System.nanoTime();
+      }
 
       if (defensicsRun != null) {
-        handleRunInterruption(defensicsRun);
-
-        if (!reportDownloaded || (saveResultPackage && !resultPackageDownloaded)) {
+        // If run couldn't be stopped in time, don't hold the executor any longer. Cleanup queue
+        // keeps stopping and deleting it.
+        if (handleRunInterruption(defensicsRun)
+            && (!reportDownloaded || (saveResultPackage && !resultPackageDownloaded))) {
           try {
             // Refresh run to get latest state and try to retrieve results. As the build was
             // interrupted, this may not succeed if user/jenkins stops the build after interrupt.
-            defensicsRun = defensicsClient.getRun(defensicsRun.getId());
-            if (defensicsRun != null && defensicsRun.getResultId() != null) {
+            final Run refreshedRun = defensicsClient.getRun(defensicsRun.getId());
+            if (refreshedRun != null && refreshedRun.getResultId() != null) {
               logger.println("Downloading results for the interrupted job");
               if (!reportDownloaded) {
-                publishResults(jenkinsRun, defensicsRun, workspace, testPlan.getName());
+                publishResults(jenkinsRun, refreshedRun, testPlan.getName());
               }
               if (saveResultPackage && !resultPackageDownloaded) {
-                publishResultPackage(jenkinsRun, defensicsRun, testPlan);
+                publishResultPackage(jenkinsRun, refreshedRun, testPlan);
               }
             }
           } catch (Exception ex) {
@@ -209,15 +348,22 @@ public class FuzzJobRunner {
       // are errors in the fuzzing process.
       throw new AbortException(e.getMessage() != null ? e.getMessage() : "");
     } finally {
+      beginPhase(Phase.CLEANUP);
       if (defensicsRun != null) {
-        try {
-          // Delete run if normal code path did not yet delete it.
-          // If run is not deleted, the loaded suite and run will remain in the server
-          defensicsClient.deleteRun(defensicsRun.getId());
-          logger.println("Unloaded suite and deleted the run from API server");
-        } catch (DefensicsRequestException | InterruptedException e) {
-          logger.logError("Could not delete run in API server: " + e.getMessage());
-        }
+        // Unloading the suite can take a while, so the run is deleted in the background and the
+        // build can finish as soon as the verdict is known. If the run can't be deleted, it will
+        // remain in the server until orphaned run reaper cleans it up.
+        getRunCleanupQueue().submit(
+            defensicsRun.getId(),
+            instanceConfiguration.getName(),
+            jenkinsRun.getFullDisplayName(),
+            defensicsClient);
+        logger.println("Run deletion and suite unload continue in the background.");
+      }
+      endPhase();
+      publishPhaseTimings(jenkinsRun, testPlan.getName());
+      if (activeRuns != null) {
+        activeRuns.dec();
       }
 
       if (runResult == null) {
@@ -297,10 +443,11 @@ public class FuzzJobRunner {
     long nextSleepDuration = pollingIntervals.getInitialRunPollingInterval();
     int errorCounter = 0;
 
-    final RunLogger runLogger = new RunLogger(logger);
+    final RunLogger runLogger = new RunLogger(logger, progressLogInterval);
     while (errorCounter <= 10) {
       TimeUnit.SECONDS.sleep(nextSleepDuration);
       final Run run = defensicsClient.getRun(runId);
+      progress.update(run);
 
       switch (run.getState()) {
         case FATAL:
@@ -361,52 +508,83 @@ public class FuzzJobRunner {
 
   /**
    * Publish results. Handles publishing HTML report and adding actions to both build and job
-   * level.
+   * level. The report is extracted straight into the build directory, except for its static
+   * assets which are shared with other builds of the job through {@link AssetStore}. If the
+   * verdict is one of the lazy report verdicts, the report is left in Defensics and only fetched
+   * when it's first opened. Summary reports are written from the run summary without
+   * downloading anything.
    *
    * @param jenkinsRun   The Jenkins run whose results are being published
    * @param defensicsRun The Defensics run whose results are being published
-   * @param workspace    Jenkins workspace, used to temporarily store report files.
    * @param testPlanName Testplan filename. This is used as title for the report tab, which helps
    *                     identify results if there are multiple Defensics steps in the Jenkins job.
    * @throws DefensicsRequestException If server responds with error
-   * @throws IOException               If deleting the temporary report files in workspace fails
-   * @throws InterruptedException      If deleting the temporary report files in workspace is
-   *                                   interrupted.
+   * @throws IOException               If downloading or storing the report fails
+   * @throws InterruptedException      If publishing is interrupted.
    */
   public void publishResults(hudson.model.Run<?, ?> jenkinsRun, Run defensicsRun,
-      FilePath workspace, String testPlanName)
+      String testPlanName)
       throws Exception {
-    // HTML report publishing doesn't work properly without HTML Publisher version 1.20 or newer.
-    // With 1.19, for example, one result is published ok, but two results don't show up properly.
-    // Plugin manager class name needs to be checked because of a bug in Jenkins test harness
-    // (https://issues.jenkins-ci.org/browse/JENKINS-48885) that causes pluginmanager not to have
-    // any plugins when running Jenkins test harness, even though the plugins are there and usable.
-    Plugin htmlPublisherPlugin = getHtmlPublisher();
-    if (!getJenkinsPluginManager().getClass().getName()
-        .equals("org.jvnet.hudson.test.TestPluginManager")
-        && (htmlPublisherPlugin == null
-        || htmlPublisherPlugin.getWrapper().getVersionNumber().compareTo(
-        new VersionNumber("1.20")) < 0)) {
-      logger.logError("Results can't be published without HTML Publisher Plugin 1.20 or newer. "
-          + "Please install/update in Manage Jenkins > Manage Plugins. ");
-      return;
+    final String reportFileName = getReportFileName(defensicsRun);
+    final Report report;
+    if (reportFormat == ReportFormat.SUMMARY) {
+      logger.println("Writing summary report.");
+      writeSummaryReport(jenkinsRun, defensicsRun, testPlanName, null);
+      report = new Report(testPlanName, defensicsRun.getId(), reportFileName);
+    } else if (isLazyReport(defensicsRun)) {
+      logger.println("Verdict is " + defensicsRun.getVerdict()
+          + ", report will be fetched from Defensics when it's first opened.");
+      report = Report.lazy(testPlanName, defensicsRun.getId(), reportFileName,
+          defensicsRun.getResultId(), instanceName, reportFormat);
+    } else {
+      beginPhase(Phase.REPORT_DOWNLOAD);
+      logger.println("Downloading report.");
+      final ReportWriter reportWriter = new ReportWriter(
+          ReportAction.getReportDir(jenkinsRun, defensicsRun.getId()), reportFileName,
+          AssetStore.forJob(jenkinsRun.getParent()), isReportCompressionEnabled());
+      final long reportBytes;
+      try {
+        final HtmlReport format = reportFormat.getHtmlReport();
+        reportBytes = defensicsClient.saveReport(defensicsRun, format,
+            content -> reportWriter.write(content, format));
+        reportWriter.finish();
+      } catch (Exception e) {
+        // Assets are added to the store only once the whole report has been downloaded
+        reportWriter.discard();
+        throw e;
+      }
+      phaseTimer.addBytes(Phase.REPORT_DOWNLOAD, reportBytes);
+      report = new Report(testPlanName, defensicsRun.getId(), reportFileName,
+          reportWriter.getAssets());
     }
 
-    logger.println("Downloading report.");
-    workspace.mkdirs();
-    final FilePath resultsDir = workspace.createTempDir("defensics-results", null);
-    defensicsClient.saveResults(defensicsRun, resultsDir);
+    beginPhase(Phase.PUBLISHING);
+    getResultPublisher().publishResults(jenkinsRun, defensicsRun, report,
+        StepResult.of(testPlanName, instanceName, defensicsRun, getFuzzingMillis()));
+  }
 
-    HtmlReport report = null;
-    try {
-      report = new HtmlReport(resultsDir, defensicsRun.getId(), testPlanName);
-      final ResultPublisher resultPublisher = getResultPublisher();
-      resultPublisher.publishResults(jenkinsRun, defensicsRun, report, logger, workspace);
-    } finally {
-      if (report != null) {
-        report.delete();
-      }
-    }
+  /**
+   * Writes summary report of the run into the report directory of the build.
+   *
+   * @param failures Failures recorded from the result package, or null if not recorded
+   */
+  private void writeSummaryReport(hudson.model.Run<?, ?> jenkinsRun, Run defensicsRun,
+      String testPlanName, @CheckForNull FailureFingerprints failures) throws IOException {
+    SummaryReport.write(
+        new File(ReportAction.getReportDir(jenkinsRun, defensicsRun.getId()),
+            getReportFileName(defensicsRun)),
+        defensicsRun, StepResult.of(testPlanName, instanceName, defensicsRun, getFuzzingMillis()),
+        failures, isReportCompressionEnabled());
+  }
+
+  private static String getReportFileName(Run defensicsRun) {
+    return "report-" + defensicsRun.getId() + ".html";
+  }
+
+  private boolean isLazyReport(Run defensicsRun) {
+    return lazyReportVerdicts.contains(defensicsRun.getVerdict())
+        && RunState.COMPLETED.equals(defensicsRun.getState())
+        && defensicsRun.getResultId() != null;
   }
 
   /**
@@ -425,120 +603,365 @@ public class FuzzJobRunner {
       FilePath testPlan
   )
       throws Exception {
+    beginPhase(Phase.RESULT_PACKAGE_DOWNLOAD);
     logger.println("Downloading result package.");
-    final String resultFile = String
-        .format("defensics-b%s-%s.zip", jenkinsRun.getId(), defensicsRun.getId());
+    final String resultFile = getResultPackageName(jenkinsRun, defensicsRun);
     final FilePath filePath = new FilePath(jenkinsRun.getRootDir())
         .child(ResultPackageAction.URL_NAME);
     defensicsClient.saveResultPackage(filePath, resultFile, defensicsRun);
-    ResultPackageAction resultPackageAction = jenkinsRun.getAction(ResultPackageAction.class);
+    phaseTimer.addBytes(Phase.RESULT_PACKAGE_DOWNLOAD, sizeOf(filePath.child(resultFile)));
     // Use only testplan name without .testplan extension in the link description to match
     // the tab wording in the HTML report view
     String description = testPlan.getName().replaceFirst(".testplan$", "");
-    if (resultPackageAction == null) {
-      resultPackageAction = new ResultPackageAction(resultFile, description);
-    } else {
-      resultPackageAction.addResultPackage(resultFile, description);
-    }
-    jenkinsRun.addOrReplaceAction(resultPackageAction);
+    RunActions.getOrAdd(jenkinsRun, ResultPackageAction.class, ResultPackageAction::new)
+        .addResultPackage(resultFile, description);
   }
 
   /**
-   * Handles that Defensics run is properly stopped if Jenkins run gets interrupted.
+   * Runs only the test cases which failed with the same test plan in the latest failing build of
+   * the job, selected with {@code --index} setting. If they still fail, the replay run is the
+   * result of the step and the full test plan is not run. Otherwise the replay run is cleaned up
+   * and the full test plan is run as usual. If the replay fails for another reason than
+   * interruption, the error is logged and the full test plan is run.
+   *
+   * @return Replay run which still failed, or null if the full test plan should be run
+   * @throws Exception if interrupted while replaying
    */
-  private void handleRunInterruption(Run run) {
-    logger.println("Fuzzing was interrupted.");
-
-    if (run == null) {
-      // Not much to do since run either was not created at all or was completed and deleted
-      // already.
-      return;
+  private Run replayPreviousFailures(hudson.model.Run<?, ?> jenkinsRun, FilePath testPlan,
+      String configurationOverrides, InstanceConfiguration instanceConfiguration)
+      throws Exception {
+    final String suiteName = getSuiteName(testPlan);
+    final hudson.model.Run<?, ?> failingBuild =
+        FailureDiffAction.findLastFailingBuild(jenkinsRun, suiteName);
+    if (failingBuild == null) {
+      logger.println("No earlier failures recorded for " + suiteName
+          + ", running the full test plan.");
+      return null;
     }
+    final long[] caseIndexes = failingBuild.getAction(FailureDiffAction.class)
+        .getFailures(suiteName).getCaseIndexes(MAX_REPLAYED_CASES);
+    final String indexRanges = DefensicsUtils.formatIndexRanges(caseIndexes);
+    logger.println("Replaying " + caseIndexes.length + " test cases which failed in "
+        + failingBuild.getFullDisplayName() + ": " + indexRanges);
 
+    boolean completed = false;
+    boolean stillFailing = false;
     try {
-      // Update run to get latest information
-      run = defensicsClient.getRun(run.getId());
-      if (run == null) {
-        return;
-      }
+      replayRun = createRun(jenkinsRun, instanceConfiguration);
+      // Setting given last wins, so the index selection overrides one in the user's overrides
+      prepareRun(replayRun, testPlan,
+          (isNotBlank(configurationOverrides) ? configurationOverrides + " " : "")
+              + "--index " + indexRanges,
+          instanceConfiguration);
+      replayRun = fuzz(replayRun, instanceConfiguration);
+      completed = true;
+      stillFailing = RunState.COMPLETED.equals(replayRun.getState())
+          && RunVerdict.FAIL.equals(replayRun.getVerdict());
+    } catch (InterruptedException | ClosedByInterruptException | InterruptedIOException e) {
+      // Replay run is stopped and cleaned up by the interruption handling of run()
+      throw e;
+    } catch (Exception e) {
+      logger.logWarning("Replaying previous failures failed, running the full test plan: "
+          + e.getMessage());
+    }
+    final Run run = replayRun;
+    replayRun = null;
+    if (stillFailing) {
+      logger.println("Previously failing test cases still fail, skipping the full test plan.");
+      return run;
+    }
+    if (run != null) {
+      getRunCleanupQueue().submit(run.getId(), instanceConfiguration.getName(),
+          jenkinsRun.getFullDisplayName(), defensicsClient);
+    }
+    if (completed) {
+      logger.println("Previously failing test cases passed, running the full test plan.");
+    }
+    return null;
+  }
+
+  /**
+   * Creates new Defensics run and starts tracking it.
+   */
+  private Run createRun(hudson.model.Run<?, ?> jenkinsRun,
+      InstanceConfiguration instanceConfiguration) throws Exception {
+    logger.println("Creating new run.");
+    final Run defensicsRun = defensicsClient.createNewRun();
+    buildSpan.setAttribute("defensics.run_id", defensicsRun.getId());
+    getRunTracker().track(
+        defensicsRun.getId(), instanceConfiguration.getName(), jenkinsRun.getExternalizableId());
+    progress = RunActions
+        .getOrAdd(jenkinsRun, RunProgressAction.class, RunProgressAction::new)
+        .start(defensicsRun.getId(), instanceConfiguration.getName());
+    return defensicsRun;
+  }
+
+  /**
+   * Uploads test plan to the run, waits for the suite to load and applies setting overrides.
+   */
+  private void prepareRun(Run defensicsRun, FilePath testPlan, String configurationOverrides,
+      InstanceConfiguration instanceConfiguration) throws Exception {
+    beginPhase(Phase.UPLOAD);
+    logger.println("Uploading test configuration from " + testPlan);
+    defensicsClient.uploadTestPlan(defensicsRun.getId(), testPlan);
+    phaseTimer.addBytes(Phase.UPLOAD, sizeOf(testPlan));
+
+    beginPhase(Phase.SUITE_LOAD);
+
+    final String suiteLoadingMessage = defensicsClient.getSuiteInformationForRun(defensicsRun)
+        .map(suite -> String.format("Waiting for %s %s suite to load.",
+            suite.getName(),
+            suite.getVersion()
+            )
+        ).orElse("Waiting for suite to load.");
 
-      // We can't stop test run if suite isn't loaded so let's make sure it is
-      final Optional<SuiteInstance> suiteMaybe = defensicsClient.getConfigurationSuite(run.getId());
+    logger.println(suiteLoadingMessage);
+    final long suiteLoadStarted = System.nanoTime();
+    waitForSuiteLoading(defensicsRun);
+    DefensicsMetrics.SUITE_LOAD_SECONDS.labels(instanceConfiguration.getName())
+        .observeNanos(System.nanoTime() - suiteLoadStarted);
 
-      if (suiteMaybe.isPresent() && suiteMaybe.get().getState().equals(RunState.LOADING)) {
-        logger.println("Suite loading is ongoing. Waiting for suite to load before unloading it.");
-        waitForSuiteLoading(run);
+    if (isNotBlank(configurationOverrides)) {
+      beginPhase(Phase.SUITE_RELOAD);
+      logger.println(
+          "Overriding test configuration file settings with values: " + configurationOverrides);
+      defensicsClient.setTestConfigurationSettings(defensicsRun.getId(), configurationOverrides);
+      // Some settings require reload so check if suite is reloading and wait its completion
+      SuiteInstance suiteInstance = defensicsClient.getConfigurationSuite(defensicsRun.getId())
+          .orElseThrow(() -> new AbortException("Defensics suite not found anymore"));
+      if (suiteInstance.getState().equals(RunState.LOADING)) {
+        logger.println("Used setting requires suite reload");
+        waitForSuiteLoading(defensicsRun);
       }
+    }
+  }
 
-      // Stop job if it has been started. Starting and pausing runs might not be stoppable, but
-      // they likely can transition to next states which can be stopped so include those to state
-      // list. Interrupt handler stop-run retry mechanism should handle these cases.
-      List<RunState> stoppableStates = Arrays.asList(
-          RunState.STARTING,
-          RunState.RUNNING,
-          RunState.PAUSING,
-          RunState.PAUSED
-      );
-      if (stoppableStates.contains(run.getState())) {
-        final String runId = run.getId();
-        logger.println("Stopping run.");
-        try {
-          defensicsClient.stopRun(runId);
-        } catch (DefensicsRequestException e) {
-          // Some suite states doesn't yet allow immediate stopping, giving 409 Conflict so retry
-          // after brief delay. There's not yet apt exception for conflict state so check exception
-          // message for 409.
-          final boolean wasConflict = Optional.ofNullable(e.getCause())
-              .map(Throwable::getMessage)
-              .filter(message -> message.contains("409"))
-              .isPresent();
-
-          if (wasConflict) {
-            logger.println("Couldn't yet stop run. Retrying.");
-            TimeUnit.SECONDS.sleep(5);
-            defensicsClient.stopRun(runId);
-          }
-        }
-        int errorCounter = 0;
-        while (errorCounter <= 3) {
-          TimeUnit.SECONDS.sleep(1);
-          run = defensicsClient.getRun(runId);
-          switch (run.getState()) {
-            case FATAL:
-            case ERROR:
-              logger.logError("Test run is in error state, couldn't stop run.");
-              return;
-            case STARTING:
-            case RUNNING:
-            case STOPPING:
-              errorCounter = 0;
-              break;
-            case COMPLETED:
-              logger.println("Stopping succeeded.");
-              return;
-            default:
-              errorCounter++;
-              break;
+  /**
+   * Starts the run and tracks it until it's finished.
+   *
+   * @return Finished run
+   */
+  private Run fuzz(Run defensicsRun, InstanceConfiguration instanceConfiguration)
+      throws Exception {
+    beginPhase(Phase.FUZZING);
+    logger.println("Fuzz testing is starting.");
+    fuzzingStartedNanos = System.nanoTime();
+    fuzzingEndedNanos = 0;
+    defensicsClient.startRun(defensicsRun.getId());
+    logger.println("Fuzz testing is RUNNING.");
+
+    final Run finishedRun = trackRunStatus(defensicsRun.getId(), logger);
+    fuzzingEndedNanos = System.nanoTime();
+    final double fuzzingSeconds = getFuzzingMillis() / 1e3;
+    if (fuzzingSeconds > 0 && finishedRun.getTestCasesExecuted() > 0) {
+      DefensicsMetrics.CASES_PER_SECOND.labels(instanceConfiguration.getName())
+          .observe(finishedRun.getTestCasesExecuted() / fuzzingSeconds);
+    }
+    return finishedRun;
+  }
+
+  private static String getSuiteName(FilePath testPlan) {
+    return testPlan.getName().replaceFirst("\\.(testplan|set)$", "");
+  }
+
+  private static String getResultPackageName(hudson.model.Run<?, ?> jenkinsRun,
+      Run defensicsRun) {
+    return String.format("defensics-b%s-%s.zip", jenkinsRun.getId(), defensicsRun.getId());
+  }
+
+  /**
+   * Reads failure fingerprints of the test cases from the main logs of the result package and
+   * stores them for {@link FailureDiffAction}.
+   *
+   * @param jenkinsRun         Jenkins run
+   * @param defensicsRun       Defensics run
+   * @param testPlan           Test plan file, used to match failures between builds
+   * @param resultPackageSaved Whether the result package was saved for the build
+   * @return Recorded failures, or null if the result package has no test cases
+   * @throws Exception if downloading the result package or storing the failures fails
+   */
+  private FailureFingerprints recordFailures(hudson.model.Run<?, ?> jenkinsRun, Run defensicsRun,
+      FilePath testPlan, boolean resultPackageSaved) throws Exception {
+    beginPhase(Phase.PUBLISHING);
+    if (!resultPackageSaved) {
+      logger.println("Reading failures from result package.");
+    }
+    final FailureFingerprints.Builder failures =
+        new FailureFingerprints.Builder(getSuiteName(testPlan));
+    readCaseLogs(jenkinsRun, defensicsRun, resultPackageSaved, failures);
+    if (failures.getCaseCount() == 0) {
+      logger.println("Result package has no test cases, failures not recorded.");
+      return null;
+    }
+    final FailureFingerprints fingerprints = failures.build();
+    FailureDiffAction.save(jenkinsRun, defensicsRun.getId(), fingerprints);
+    RunActions.getOrAdd(jenkinsRun, FailureDiffAction.class, FailureDiffAction::new);
+    return fingerprints;
+  }
+
+  /**
+   * Converts test cases of the run in the main logs of the result package into a JUnit report in
+   * {@value #JUNIT_REPORT_DIR} directory of the workspace, so it can be published with the JUnit
+   * test result tooling of Jenkins. If the result package was saved, only its main logs are read
+   * from the saved package. Otherwise the package is streamed from Defensics and converted
+   * without storing it.
+   *
+   * @param jenkinsRun         Jenkins run
+   * @param workspace          Workspace the report is written to
+   * @param defensicsRun       Defensics run
+   * @param testPlan           Test plan file, used as the name of the test suite
+   * @param resultPackageSaved Whether the result package was saved for the build
+   * @throws Exception if downloading the result package or writing the report fails
+   */
+  public void publishCaseResults(hudson.model.Run<?, ?> jenkinsRun, FilePath workspace,
+      Run defensicsRun, FilePath testPlan, boolean resultPackageSaved) throws Exception {
+    beginPhase(Phase.PUBLISHING);
+    final FilePath target = workspace.child(JUNIT_REPORT_DIR)
+        .child(getResultPackageName(jenkinsRun, defensicsRun).replaceFirst("\\.zip$", ".xml"));
+    if (!resultPackageSaved) {
+      logger.println("Converting result package into JUnit report.");
+    }
+    final long cases;
+    try (OutputStream out = target.write()) {
+      final JUnitReportWriter writer =
+          new JUnitReportWriter(getSuiteName(testPlan), junitReportMode, out);
+      readCaseLogs(jenkinsRun, defensicsRun, resultPackageSaved, writer);
+      writer.finish();
+      cases = writer.getCaseCount();
+    }
+    if (cases == 0) {
+      logger.println("Result package has no test cases.");
+      target.delete();
+      return;
+    }
+    logger.println("JUnit report of " + cases + " test cases written to "
+        + JUNIT_REPORT_DIR + "/" + target.getName());
+  }
+
+  /**
+   * Passes every file of the result package to given handler. If the package was saved for the
+   * build, only the main logs are read from the saved package. Otherwise the package is streamed
+   * from Defensics.
+   *
+   * @param jenkinsRun         Jenkins run
+   * @param defensicsRun       Defensics run
+   * @param resultPackageSaved Whether the result package was saved for the build
+   * @param handler            Handles the files of the package
+   */
+  private void readCaseLogs(hudson.model.Run<?, ?> jenkinsRun, Run defensicsRun,
+      boolean resultPackageSaved, ZipExtractor.EntryHandler handler) throws Exception {
+    if (!resultPackageSaved) {
+      defensicsClient.readResultPackage(defensicsRun,
+          content -> ZipExtractor.forEachEntry(content, handler));
+      return;
+    }
+    final File resultPackage = new File(new File(jenkinsRun.getRootDir(),
+        ResultPackageAction.URL_NAME), getResultPackageName(jenkinsRun, defensicsRun));
+    try (ZipFile zip = new ZipFile(resultPackage)) {
+      final Enumeration<? extends ZipEntry> entries = zip.entries();
+      while (entries.hasMoreElements()) {
+        final ZipEntry entry = entries.nextElement();
+        if (JUnitReportWriter.isCaseLog(entry.getName())) {
+          try (InputStream in = zip.getInputStream(entry)) {
+            handler.handle(entry.getName(), in);
           }
         }
       }
-    } catch (DefensicsRequestException | IOException | InterruptedException exception) {
-      logger.logError(
-          "Couldn't track that run was COMPLETED, there is a possibility that run configuration "
-              + "can't be removed automatically and suite will be left loaded!");
-      if (exception.getMessage() != null) {
-        logger.logError("Error message: " + exception.getMessage());
+    }
+  }
+
+  /**
+   * Returns how long the run has been fuzzing. If the build was interrupted while fuzzing, this is
+   * the time until now.
+   */
+  private long getFuzzingMillis() {
+    if (fuzzingStartedNanos == 0) {
+      return 0;
+    }
+    final long end = fuzzingEndedNanos != 0 ? fuzzingEndedNanos : System.nanoTime();
+    return (end - fuzzingStartedNanos) / 1_000_000;
+  }
+
+  /**
+   * Ends the current phase and starts measuring given phase. Each phase is traced in its own
+   * span.
+   *
+   * @param phase Phase to start
+   */
+  private void beginPhase(Phase phase) {
+    endPhase();
+    phaseTimer.begin(phase);
+    phaseSpan = Tracer.get().startSpan(phase.getDisplayName());
+  }
+
+  /**
+   * Ends the current phase, if any.
+   */
+  private void endPhase() {
+    phaseTimer.end();
+    if (phaseSpan != null) {
+      phaseSpan.close();
+      phaseSpan = null;
+    }
+  }
+
+  /**
+   * Stores phase timings of this step in the build.
+   *
+   * @param jenkinsRun Jenkins run
+   * @param stepName   Name of the step, i.e. test plan name
+   */
+  private void publishPhaseTimings(hudson.model.Run<?, ?> jenkinsRun, String stepName) {
+    RunActions.getOrAdd(jenkinsRun, PhaseTimingAction.class, PhaseTimingAction::new)
+        .addTimings(phaseTimer.getTimings(stepName));
+  }
+
+  /**
+   * Returns size of a file or total size of files in a directory. Size is only used for
+   * statistics, so errors are ignored.
+   *
+   * @param path File or directory
+   * @return Size in bytes, or 0 if size can't be determined
+   * @throws InterruptedException if interrupted while accessing the files
+   */
+  private static long sizeOf(FilePath path) throws InterruptedException {
+    if (path == null) {
+      return 0;
+    }
+    try {
+      if (!path.isDirectory()) {
+        return path.length();
       }
+      long size = 0;
+      for (FilePath file : path.list("**/*")) {
+        size += file.length();
+      }
+      return size;
+    } catch (IOException e) {
+      return 0;
     }
   }
 
   /**
-   * HtmlPublisher getter to allow overriding in the unit tests.
+   * Handles that Defensics run is properly stopped if Jenkins run gets interrupted. Waits for the
+   * run to stop at most the cancellation deadline.
    *
-   * @return HtmlPublisher plugin
+   * @param run Run to stop
+   * @return true if run is not executing anymore, false if it's still running and needs to be
+   *     cleaned up in the background
    */
-  Plugin getHtmlPublisher() {
-    return Jenkins.get().getPlugin("htmlpublisher");
+  private boolean handleRunInterruption(Run run) {
+    logger.println("Fuzzing was interrupted.");
+
+    try {
+      return getRunCanceller().cancel(run.getId());
+    } catch (DefensicsRequestException | InterruptedException exception) {
+      logger.logError("Couldn't track that run was COMPLETED.");
+      if (exception.getMessage() != null) {
+        logger.logError("Error message: " + exception.getMessage());
+      }
+      return false;
+    }
   }
 
   /**
@@ -551,12 +974,41 @@ public class FuzzJobRunner {
   }
 
   /**
-   * Jenkins plugin manager getter to allow overriding in the unit tests.
+   * Report compression setting getter to allow overriding in the unit tests.
+   *
+   * @return true if HTML reports should be stored compressed
+   */
+  boolean isReportCompressionEnabled() {
+    final PluginConfiguration configuration =
+        GlobalConfiguration.all().getInstance(PluginConfiguration.class);
+    return configuration != null && configuration.isCompressReports();
+  }
+
+  /**
+   * RunCanceller getter to allow overriding in the unit tests.
+   *
+   * @return RunCanceller for the current run
+   */
+  RunCanceller getRunCanceller() {
+    return new RunCanceller(defensicsClient, logger, RunCanceller.DEFAULT_DEADLINE_MILLIS);
+  }
+
+  /**
+   * RunCleanupQueue getter to allow overriding in the unit tests.
+   *
+   * @return RunCleanupQueue
+   */
+  RunCleanupQueue getRunCleanupQueue() {
+    return RunCleanupQueue.get();
+  }
+
+  /**
+   * RunTracker getter to allow overriding in the unit tests.
    *
-   * @return PluginManager
+   * @return RunTracker
    */
-  PluginManager getJenkinsPluginManager() {
-    return Jenkins.get().getPluginManager();
+  RunTracker getRunTracker() {
+    return RunTracker.get();
   }
 
   /**
@@ -21,6 +21,8 @@ import com.google.inject.Inject;
 import com.defensics.jenkins.configuration.InstanceConfiguration;
 import com.defensics.jenkins.configuration.PluginConfiguration;
 import com.defensics.jenkins.configuration.StepConfigurationValidator;
+import com.defensics.jenkins.result.JUnitReportMode;
+import com.defensics.jenkins.result.ReportFormat;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.AbortException;
 import hudson.Extension;
@@ -76,6 +78,24 @@ public class FuzzPipelineStep extends Step {
    */
   private boolean saveResultPackage = false;
 
+  /**
+   * Minimum progress in percents between progress lines in the console, 0 logs every status.
+   */
+  private int progressLogInterval = 0;
+
+  /**
+   * Verdicts whose reports are not downloaded until opened, e.g. "PASS".
+   */
+  private String lazyReportVerdicts = "";
+
+  /**
+   * Format of the published report.
+   */
+  private ReportFormat reportFormat = ReportFormat.CLOUD;
+  private JUnitReportMode junitReport = JUnitReportMode.NONE;
+  private boolean recordFailures = false;
+  private boolean failuresFirst = false;
+
   /**
    * Defensics testplan used.
    */
@@ -123,6 +143,62 @@ public class FuzzPipelineStep extends Step {
     this.saveResultPackage = saveResultPackage;
   }
 
+  public int getProgressLogInterval() {
+    return progressLogInterval;
+  }
+
+  @DataBoundSetter
+  public void setProgressLogInterval(int progressLogInterval) {
+    this.progressLogInterval = progressLogInterval;
+  }
+
+  public String getLazyReportVerdicts() {
+    return lazyReportVerdicts;
+  }
+
+  @DataBoundSetter
+  public void setLazyReportVerdicts(String lazyReportVerdicts) {
+    this.lazyReportVerdicts = lazyReportVerdicts;
+  }
+
+  public ReportFormat getReportFormat() {
+    // Steps saved before the format could be chosen don't have it
+    return reportFormat == null ? ReportFormat.CLOUD : reportFormat;
+  }
+
+  @DataBoundSetter
+  public void setReportFormat(ReportFormat reportFormat) {
+    this.reportFormat = reportFormat;
+  }
+
+  public JUnitReportMode getJunitReport() {
+    // Steps saved before JUnit reports were supported don't have it
+    return junitReport == null ? JUnitReportMode.NONE : junitReport;
+  }
+
+  @DataBoundSetter
+  public void setJunitReport(JUnitReportMode junitReport) {
+    this.junitReport = junitReport;
+  }
+
+  public boolean isRecordFailures() {
+    return recordFailures;
+  }
+
+  @DataBoundSetter
+  public void setRecordFailures(boolean recordFailures) {
+    this.recordFailures = recordFailures;
+  }
+
+  public boolean isFailuresFirst() {
+    return failuresFirst;
+  }
+
+  @DataBoundSetter
+  public void setFailuresFirst(boolean failuresFirst) {
+    this.failuresFirst = failuresFirst;
+  }
+
   @Override
   public StepExecution start(StepContext context) {
     final FuzzPipelineStepExecution fuzzPipelineStepExecution = new FuzzPipelineStepExecution(
@@ -183,6 +259,12 @@ public class FuzzPipelineStep extends Step {
               fuzzPipelineStep.configurationOverrides,
               fuzzPipelineStep.saveResultPackage
           );
+          fuzzStep.setProgressLogInterval(fuzzPipelineStep.progressLogInterval);
+          fuzzStep.setLazyReportVerdicts(fuzzPipelineStep.lazyReportVerdicts);
+          fuzzStep.setReportFormat(fuzzPipelineStep.getReportFormat());
+          fuzzStep.setJUnitReportMode(fuzzPipelineStep.getJunitReport());
+          fuzzStep.setRecordFailures(fuzzPipelineStep.isRecordFailures());
+          fuzzStep.setFailuresFirst(fuzzPipelineStep.isFailuresFirst());
           fuzzStep.perform(
               run,
               workspace,
@@ -305,5 +387,10 @@ public class FuzzPipelineStep extends Step {
         @QueryParameter final String configurationOverrides) {
       return stepConfigurationValidator.validateConfigurationOverrides(configurationOverrides);
     }
+
+    public FormValidation doCheckLazyReportVerdicts(
+        @QueryParameter final String lazyReportVerdicts) {
+      return stepConfigurationValidator.validateLazyReportVerdicts(lazyReportVerdicts);
+    }
   }
 }
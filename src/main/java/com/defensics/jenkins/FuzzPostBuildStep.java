@@ -20,6 +20,8 @@ import com.google.inject.Inject;
 import com.defensics.jenkins.configuration.InstanceConfiguration;
 import com.defensics.jenkins.configuration.PluginConfiguration;
 import com.defensics.jenkins.configuration.StepConfigurationValidator;
+import com.defensics.jenkins.result.JUnitReportMode;
+import com.defensics.jenkins.result.ReportFormat;
 import hudson.AbortException;
 import hudson.Extension;
 import hudson.ExtensionPoint;
@@ -51,6 +53,12 @@ public class FuzzPostBuildStep extends Recorder implements SimpleBuildStep {
   private String selectedDefensicsInstanceName;
   private String configurationOverrides;
   private boolean saveResultPackage = false;
+  private int progressLogInterval = 0;
+  private String lazyReportVerdicts = "";
+  private ReportFormat reportFormat = ReportFormat.CLOUD;
+  private JUnitReportMode junitReport = JUnitReportMode.NONE;
+  private boolean recordFailures = false;
+  private boolean failuresFirst = false;
 
   /**
    * Constructor.
@@ -95,6 +103,62 @@ public class FuzzPostBuildStep extends Recorder implements SimpleBuildStep {
     this.saveResultPackage = saveResultPackage;
   }
 
+  public int getProgressLogInterval() {
+    return progressLogInterval;
+  }
+
+  @DataBoundSetter
+  public void setProgressLogInterval(int progressLogInterval) {
+    this.progressLogInterval = progressLogInterval;
+  }
+
+  public String getLazyReportVerdicts() {
+    return lazyReportVerdicts;
+  }
+
+  @DataBoundSetter
+  public void setLazyReportVerdicts(String lazyReportVerdicts) {
+    this.lazyReportVerdicts = lazyReportVerdicts;
+  }
+
+  public ReportFormat getReportFormat() {
+    // Steps saved before the format could be chosen don't have it
+    return reportFormat == null ? ReportFormat.CLOUD : reportFormat;
+  }
+
+  @DataBoundSetter
+  public void setReportFormat(ReportFormat reportFormat) {
+    this.reportFormat = reportFormat;
+  }
+
+  public JUnitReportMode getJunitReport() {
+    // Steps saved before JUnit reports were supported don't have it
+    return junitReport == null ? JUnitReportMode.NONE : junitReport;
+  }
+
+  @DataBoundSetter
+  public void setJunitReport(JUnitReportMode junitReport) {
+    this.junitReport = junitReport;
+  }
+
+  public boolean isRecordFailures() {
+    return recordFailures;
+  }
+
+  @DataBoundSetter
+  public void setRecordFailures(boolean recordFailures) {
+    this.recordFailures = recordFailures;
+  }
+
+  public boolean isFailuresFirst() {
+    return failuresFirst;
+  }
+
+  @DataBoundSetter
+  public void setFailuresFirst(boolean failuresFirst) {
+    this.failuresFirst = failuresFirst;
+  }
+
   @Override
   public void perform(Run<?, ?> run, @NonNull FilePath workspace, @NonNull Launcher launcher,
       @NonNull TaskListener listener)
@@ -106,6 +170,12 @@ public class FuzzPostBuildStep extends Recorder implements SimpleBuildStep {
           configurationFilePath,
           configurationOverrides,
           saveResultPackage);
+      fuzzStep.setProgressLogInterval(progressLogInterval);
+      fuzzStep.setLazyReportVerdicts(lazyReportVerdicts);
+      fuzzStep.setReportFormat(getReportFormat());
+      fuzzStep.setJUnitReportMode(getJunitReport());
+      fuzzStep.setRecordFailures(isRecordFailures());
+      fuzzStep.setFailuresFirst(isFailuresFirst());
       try {
         fuzzStep.perform(run, workspace, launcher, listener);
       } catch (AbortException e) {
@@ -193,5 +263,10 @@ public class FuzzPostBuildStep extends Recorder implements SimpleBuildStep {
         @QueryParameter final String configurationOverrides) {
       return stepConfigurationValidator.validateConfigurationOverrides(configurationOverrides);
     }
+
+    public FormValidation doCheckLazyReportVerdicts(
+        @QueryParameter final String lazyReportVerdicts) {
+      return stepConfigurationValidator.validateLazyReportVerdicts(lazyReportVerdicts);
+    }
   }
 }
@@ -16,8 +16,12 @@
 
 package com.defensics.jenkins;
 
+import com.defensics.apiserver.model.RunVerdict;
 import com.defensics.jenkins.configuration.InstanceConfiguration;
 import com.defensics.jenkins.configuration.MissingConfigurationException;
+import com.defensics.jenkins.configuration.StepConfigurationValidator;
+import com.defensics.jenkins.result.JUnitReportMode;
+import com.defensics.jenkins.result.ReportFormat;
 import hudson.AbortException;
 import hudson.FilePath;
 import hudson.Launcher;
@@ -25,6 +29,7 @@ import hudson.model.Run;
 import hudson.model.TaskListener;
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 public class FuzzStep {
 
@@ -33,6 +38,12 @@ public class FuzzStep {
   private final String settingFilePath;
   private final String configurationOverrides;
   private final boolean saveResultPackage;
+  private int progressLogInterval = 0;
+  private String lazyReportVerdicts = "";
+  private ReportFormat reportFormat = ReportFormat.CLOUD;
+  private JUnitReportMode junitReportMode = JUnitReportMode.NONE;
+  private boolean recordFailures = false;
+  private boolean failuresFirst = false;
 
   FuzzStep(FuzzStepDescriptor descriptor, String selectedDefensicsInstanceName,
       String settingFilePath, String configurationOverrides, boolean saveResultPackage) {
@@ -43,20 +54,53 @@ public class FuzzStep {
     this.saveResultPackage = saveResultPackage;
   }
 
+  void setProgressLogInterval(int progressLogInterval) {
+    this.progressLogInterval = progressLogInterval;
+  }
+
+  void setLazyReportVerdicts(String lazyReportVerdicts) {
+    this.lazyReportVerdicts = lazyReportVerdicts;
+  }
+
+  void setReportFormat(ReportFormat reportFormat) {
+    this.reportFormat = reportFormat;
+  }
+
+  void setJUnitReportMode(JUnitReportMode junitReportMode) {
+    this.junitReportMode = junitReportMode;
+  }
+
+  void setRecordFailures(boolean recordFailures) {
+    this.recordFailures = recordFailures;
+  }
+
+  void setFailuresFirst(boolean failuresFirst) {
+    this.failuresFirst = failuresFirst;
+  }
+
   void perform(Run<?, ?> run, FilePath workspace, Launcher launcher, TaskListener listener)
       throws AbortException {
     Logger logger = new Logger(listener);
     FilePath testPlan;
     InstanceConfiguration configuration;
+    Set<RunVerdict> lazyVerdicts;
     try {
       testPlan = getTestPlan(workspace);
       configuration = getDefensicsInstance(selectedDefensicsInstanceName);
-    } catch (MissingConfigurationException e) {
+      lazyVerdicts = StepConfigurationValidator.parseVerdicts(lazyReportVerdicts);
+    } catch (MissingConfigurationException | IllegalArgumentException e) {
       logger.logError(e.getMessage());
       throw new AbortException(e.getMessage());
     }
 
-    new FuzzJobRunner().run(
+    final FuzzJobRunner fuzzJobRunner = new FuzzJobRunner();
+    fuzzJobRunner.setProgressLogInterval(progressLogInterval);
+    fuzzJobRunner.setLazyReportVerdicts(lazyVerdicts);
+    fuzzJobRunner.setReportFormat(reportFormat);
+    fuzzJobRunner.setJUnitReportMode(junitReportMode);
+    fuzzJobRunner.setRecordFailures(recordFailures);
+    fuzzJobRunner.setFailuresFirst(failuresFirst);
+    fuzzJobRunner.run(
         run, workspace, launcher, logger, testPlan, configurationOverrides, configuration,
         saveResultPackage);
   }
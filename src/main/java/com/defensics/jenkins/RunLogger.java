@@ -25,8 +25,27 @@ public class RunLogger {
 
   private final Logger logger;
 
+  /**
+   * Progress is logged only when it has advanced at least this many percents. 0 logs every
+   * status.
+   */
+  private final int logIntervalPercent;
+  private int lastLoggedStep = -1;
+
   public RunLogger(Logger logger) {
+    this(logger, 0);
+  }
+
+  /**
+   * Constructor for sparse progress logging.
+   *
+   * @param logger             Logger to write status to
+   * @param logIntervalPercent Minimum progress in percents between logged statuses, or 0 to log
+   *                           every status
+   */
+  public RunLogger(Logger logger, int logIntervalPercent) {
     this.logger = logger;
+    this.logIntervalPercent = Math.max(0, logIntervalPercent);
   }
 
   /**
@@ -42,6 +61,13 @@ public class RunLogger {
       // Do not log initial states where total amount of cases isn't yet determined.
       return;
     }
+    if (logIntervalPercent > 0 && run.getState() == RunState.RUNNING) {
+      final int step = (int) (getPercentage(run) / logIntervalPercent);
+      if (step <= lastLoggedStep) {
+        return;
+      }
+      lastLoggedStep = step;
+    }
     final int paddingSize = getNumberLength(totalCases);
     final String status = String.format(
         "%4.1f%% (%" + paddingSize + "d/%d) of tests run. %s",
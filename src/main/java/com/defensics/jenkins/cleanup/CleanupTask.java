@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.cleanup;
+
+import com.defensics.api.ApiService;
+import java.util.Date;
+
+/**
+ * Run deletion waiting or being processed in the {@link RunCleanupQueue}.
+ */
+public final class CleanupTask {
+
+  /**
+   * State of the cleanup task.
+   */
+  public enum State {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  private final String runId;
+  private final String instanceName;
+  private final String buildName;
+  private final long submitted;
+  private final ApiService apiService;
+
+  private volatile State state = State.PENDING;
+  private volatile int attempts;
+  private volatile String lastError;
+  private volatile long finished;
+
+  /**
+   * Constructor.
+   *
+   * @param runId        Defensics run to delete
+   * @param instanceName Name of the Defensics instance the run lives in
+   * @param buildName    Display name of the build which created the run
+   * @param apiService   API service connected to the Defensics instance
+   */
+  CleanupTask(String runId, String instanceName, String buildName, ApiService apiService) {
+    this.runId = runId;
+    this.instanceName = instanceName;
+    this.buildName = buildName;
+    this.apiService = apiService;
+    this.submitted = System.currentTimeMillis();
+  }
+
+  public String getRunId() {
+    return runId;
+  }
+
+  public String getInstanceName() {
+    return instanceName;
+  }
+
+  public String getBuildName() {
+    return buildName;
+  }
+
+  public long getSubmitted() {
+    return submitted;
+  }
+
+  public Date getSubmittedDate() {
+    return new Date(submitted);
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  public int getAttempts() {
+    return attempts;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  public long getFinished() {
+    return finished;
+  }
+
+  ApiService getApiService() {
+    return apiService;
+  }
+
+  void started() {
+    state = State.RUNNING;
+    attempts++;
+  }
+
+  void failed(String error, boolean retrying) {
+    lastError = error;
+    if (retrying) {
+      state = State.PENDING;
+    } else {
+      state = State.FAILED;
+      finished = System.currentTimeMillis();
+    }
+  }
+
+  void completed() {
+    state = State.COMPLETED;
+    finished = System.currentTimeMillis();
+  }
+
+  boolean isActive() {
+    return state == State.PENDING || state == State.RUNNING;
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.cleanup;
+
+import com.defensics.api.ApiService;
+import com.defensics.apiserver.model.Run;
+import com.defensics.client.DefensicsRequestException;
+import com.defensics.jenkins.configuration.InstanceConfiguration;
+import com.defensics.jenkins.configuration.PluginConfiguration;
+import hudson.Extension;
+import hudson.model.AsyncPeriodicWork;
+import hudson.model.TaskListener;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.GlobalConfiguration;
+
+/**
+ * Periodically checks Defensics runs tracked by {@link RunTracker} and stops and deletes runs
+ * whose Jenkins build is not running anymore. Such runs are left behind if the build was killed,
+ * Jenkins crashed, or if the normal cleanup failed, and they would otherwise keep their suite
+ * loaded in the Defensics server.
+ *
+ * <p>Reclaiming is rate limited so that a large backlog of orphans doesn't flood the servers.
+ * Runs which can't be reclaimed in one round are retried in the next round.
+ */
+@Extension
+public class OrphanedRunReaper extends AsyncPeriodicWork {
+
+  private static final Logger LOGGER = Logger.getLogger(OrphanedRunReaper.class.getName());
+
+  private static final long RECURRENCE_PERIOD = TimeUnit.MINUTES.toMillis(15);
+
+  /**
+   * Runs younger than this are never reclaimed. Gives newly created runs time to get their
+   * build properly registered.
+   */
+  private static final long GRACE_PERIOD = TimeUnit.MINUTES.toMillis(5);
+
+  /**
+   * Maximum number of runs reclaimed in one round.
+   */
+  private static final int MAX_RECLAIMS_PER_ROUND = 10;
+
+  /**
+   * Delay between reclaimed runs.
+   */
+  private static final long RECLAIM_DELAY_MILLIS = 2000;
+
+  public OrphanedRunReaper() {
+    super("Defensics orphaned run reaper");
+  }
+
+  @Override
+  public long getRecurrencePeriod() {
+    return RECURRENCE_PERIOD;
+  }
+
+  @Override
+  protected void execute(TaskListener listener) throws IOException, InterruptedException {
+    final RunTracker runTracker = RunTracker.get();
+    final long now = System.currentTimeMillis();
+    final Map<String, ApiService> apiServices = new HashMap<>();
+
+    int reclaimed = 0;
+    int failed = 0;
+    for (TrackedRun trackedRun : runTracker.getTrackedRuns()) {
+      if (reclaimed + failed >= MAX_RECLAIMS_PER_ROUND) {
+        listener.getLogger().println(
+            "Reclaim limit reached, continuing with remaining runs in the next round.");
+        break;
+      }
+      if (now - trackedRun.getCreated() < GRACE_PERIOD || isBuildRunning(trackedRun)
+          || RunCleanupQueue.get().isPending(trackedRun.getRunId())) {
+        continue;
+      }
+
+      final Optional<InstanceConfiguration> instance = getPluginConfiguration()
+          .findDefensicsInstance(trackedRun.getInstanceName());
+      if (instance.isEmpty()) {
+        listener.getLogger().println(String.format(
+            "Defensics instance '%s' of orphaned run %s is not configured anymore, "
+                + "stopping tracking the run.",
+            trackedRun.getInstanceName(), trackedRun.getRunId()));
+        runTracker.untrack(trackedRun.getRunId());
+        continue;
+      }
+
+      try {
+        final ApiService apiService = apiServices.computeIfAbsent(
+            trackedRun.getInstanceName(), name -> createApiService(instance.get()));
+        if (apiService == null) {
+          failed++;
+          continue;
+        }
+        reclaim(apiService, trackedRun, listener);
+        runTracker.untrack(trackedRun.getRunId());
+        reclaimed++;
+      } catch (DefensicsRequestException e) {
+        failed++;
+        listener.getLogger().println(String.format(
+            "Could not reclaim orphaned run %s: %s", trackedRun.getRunId(), e.getMessage()));
+      }
+      TimeUnit.MILLISECONDS.sleep(RECLAIM_DELAY_MILLIS);
+    }
+
+    if (reclaimed > 0 || failed > 0) {
+      LOGGER.log(Level.INFO,
+          "Reclaimed {0} orphaned Defensics run(s), {1} could not be reclaimed",
+          new Object[] {reclaimed, failed});
+    }
+    listener.getLogger().println(String.format(
+        "Reclaimed %d orphaned run(s), %d failed, %d run(s) tracked.",
+        reclaimed, failed, runTracker.getTrackedRuns().size()));
+  }
+
+  /**
+   * Stops the run if needed, waits for it to stop and deletes it, which also unloads the suite.
+   */
+  private void reclaim(ApiService apiService, TrackedRun trackedRun, TaskListener listener)
+      throws DefensicsRequestException, InterruptedException {
+    final Optional<Run> run = apiService.findRun(trackedRun.getRunId());
+    if (run.isEmpty()) {
+      listener.getLogger().println(String.format(
+          "Orphaned run %s doesn't exist in the server anymore.", trackedRun.getRunId()));
+      return;
+    }
+
+    if (RunCanceller.ACTIVE_STATES.contains(run.get().getState())) {
+      listener.getLogger().println(String.format(
+          "Stopping orphaned run %s of build %s.",
+          trackedRun.getRunId(), trackedRun.getBuildId()));
+      // Run can be deleted only after it has stopped
+      final RunCanceller canceller = new RunCanceller(apiService,
+          new com.defensics.jenkins.Logger(listener), RunCanceller.DEFAULT_DEADLINE_MILLIS);
+      if (!canceller.cancel(trackedRun.getRunId())) {
+        throw new DefensicsRequestException("Run did not stop within the deadline");
+      }
+    }
+    apiService.deleteRun(trackedRun.getRunId());
+    listener.getLogger().println(String.format(
+        "Deleted orphaned run %s of build %s from Defensics instance '%s'.",
+        trackedRun.getRunId(), trackedRun.getBuildId(), trackedRun.getInstanceName()));
+  }
+
+  private ApiService createApiService(InstanceConfiguration instance) {
+    try {
+      return instance.createApiService();
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING,
+          "Could not connect to Defensics instance " + instance.getName(), e);
+      return null;
+    }
+  }
+
+  /**
+   * Checks if the build which created the run is still running.
+   *
+   * @param trackedRun Tracked run
+   * @return true if build exists and is still running
+   */
+  boolean isBuildRunning(TrackedRun trackedRun) {
+    if (trackedRun.getBuildId() == null) {
+      return false;
+    }
+    final hudson.model.Run<?, ?> build =
+        hudson.model.Run.fromExternalizableId(trackedRun.getBuildId());
+    return build != null && build.isBuilding();
+  }
+
+  private PluginConfiguration getPluginConfiguration() {
+    return GlobalConfiguration.all().getInstance(PluginConfiguration.class);
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.cleanup;
+
+import com.defensics.api.ApiService;
+import com.defensics.apiserver.model.Run;
+import com.defensics.apiserver.model.RunState;
+import com.defensics.apiserver.model.SuiteInstance;
+import com.defensics.client.DefensicsRequestException;
+import com.defensics.jenkins.Logger;
+import java.net.HttpURLConnection;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import jenkins.util.SystemProperties;
+
+/**
+ * Cancels Defensics run of an interrupted build. The run is stopped as soon as the server state
+ * allows it, but the caller is never held longer than the given deadline. If the run can't be
+ * stopped in time, cleanup is continued in {@link RunCleanupQueue} after the build has released
+ * its executor.
+ */
+public class RunCanceller {
+
+  /**
+   * Default time the build waits for the run to stop.
+   */
+  public static final long DEFAULT_DEADLINE_MILLIS = TimeUnit.SECONDS.toMillis(
+      SystemProperties.getLong(RunCanceller.class.getName() + ".deadlineSeconds", 30L));
+
+  private static final long INITIAL_BACKOFF_MILLIS = 250;
+  private static final long MAX_BACKOFF_MILLIS = 2000;
+  private static final long STATE_POLL_MILLIS = 500;
+
+  /**
+   * Starting and pausing runs might not be stoppable, but they likely can transition to next
+   * states which can be stopped so those are included. Conflicting stop requests are retried.
+   */
+  static final List<RunState> STOPPABLE_STATES = Arrays.asList(
+      RunState.STARTING,
+      RunState.RUNNING,
+      RunState.PAUSING,
+      RunState.PAUSED
+  );
+
+  /**
+   * States in which the run is still executing or about to stop. Runs in these states must be
+   * cancelled before they can be deleted.
+   */
+  static final List<RunState> ACTIVE_STATES = Arrays.asList(
+      RunState.STARTING,
+      RunState.RUNNING,
+      RunState.PAUSING,
+      RunState.PAUSED,
+      RunState.STOPPING
+  );
+
+  private final ApiService defensicsClient;
+  private final Logger logger;
+  private final long deadlineMillis;
+
+  /**
+   * Constructor.
+   *
+   * @param defensicsClient API service used for the run
+   * @param logger          Logger to print progress to build log
+   * @param deadlineMillis  Maximum time to wait for the run to stop
+   */
+  public RunCanceller(ApiService defensicsClient, Logger logger, long deadlineMillis) {
+    this.defensicsClient = defensicsClient;
+    this.logger = logger;
+    this.deadlineMillis = deadlineMillis;
+  }
+
+  /**
+   * Cancels given run. If the suite is still loading, there's nothing to stop and the run can be
+   * deleted right away without waiting for the load to complete.
+   *
+   * @param runId Run to cancel
+   * @return true if run is not executing anymore and can be deleted, false if the run couldn't be
+   *     stopped before the deadline
+   * @throws DefensicsRequestException if server responds with error
+   * @throws InterruptedException if cancelling was interrupted
+   */
+  public boolean cancel(String runId) throws DefensicsRequestException, InterruptedException {
+    final long deadline = System.currentTimeMillis() + deadlineMillis;
+
+    final Optional<SuiteInstance> suiteMaybe = defensicsClient.getConfigurationSuite(runId);
+    if (suiteMaybe.isPresent() && suiteMaybe.get().getState().equals(RunState.LOADING)) {
+      logger.println("Suite loading is ongoing. Unloading suite without waiting for the load.");
+      return true;
+    }
+
+    long backoff = INITIAL_BACKOFF_MILLIS;
+    boolean stopAttempted = false;
+    boolean stopRequested = false;
+    int unexpectedStates = 0;
+    while (System.currentTimeMillis() < deadline) {
+      final Run run = defensicsClient.getRun(runId);
+      final RunState state = run.getState();
+
+      if (state == RunState.COMPLETED) {
+        if (stopRequested) {
+          logger.println("Stopping succeeded.");
+        }
+        return true;
+      }
+      if (state == RunState.ERROR || state == RunState.FATAL) {
+        logger.logError("Test run is in error state, couldn't stop run.");
+        return true;
+      }
+      if (!ACTIVE_STATES.contains(state)) {
+        // Run hasn't been started or it's already unloading, so there's nothing to stop. Allow
+        // few polls in case state is transient.
+        if (++unexpectedStates > 3) {
+          return true;
+        }
+        sleepUntil(deadline, STATE_POLL_MILLIS);
+        continue;
+      }
+      unexpectedStates = 0;
+
+      if (!stopRequested && STOPPABLE_STATES.contains(state)) {
+        if (!stopAttempted) {
+          logger.println("Stopping run.");
+          stopAttempted = true;
+        }
+        try {
+          defensicsClient.stopRun(runId);
+          stopRequested = true;
+        } catch (DefensicsRequestException e) {
+          // Some suite states don't yet allow immediate stopping, giving 409 Conflict so retry
+          // with increasing delay until the deadline.
+          if (!isConflict(e)) {
+            throw e;
+          }
+          logger.println("Couldn't yet stop run. Retrying.");
+          sleepUntil(deadline, backoff);
+          backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+          continue;
+        }
+      }
+      sleepUntil(deadline, STATE_POLL_MILLIS);
+    }
+
+    logger.logWarning(String.format(
+        "Run could not be stopped within %d seconds.",
+        TimeUnit.MILLISECONDS.toSeconds(deadlineMillis)));
+    return false;
+  }
+
+  /**
+   * Checks if request failed because the run state didn't yet allow the operation.
+   *
+   * @param e Exception to check
+   * @return true if server responded with 409 Conflict
+   */
+  static boolean isConflict(DefensicsRequestException e) {
+    return e.getStatusCode() == HttpURLConnection.HTTP_CONFLICT;
+  }
+
+  private static void sleepUntil(long deadline, long millis) throws InterruptedException {
+    final long remaining = deadline - System.currentTimeMillis();
+    if (remaining > 0) {
+      TimeUnit.MILLISECONDS.sleep(Math.min(millis, remaining));
+    }
+  }
+}
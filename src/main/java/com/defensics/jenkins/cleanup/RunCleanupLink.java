@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.cleanup;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.ManagementLink;
+import hudson.security.Permission;
+import java.util.List;
+import jenkins.model.Jenkins;
+
+/**
+ * Shows Defensics run cleanup queue in Manage Jenkins page.
+ */
+@Extension
+public class RunCleanupLink extends ManagementLink {
+
+  @Override
+  public String getIconFileName() {
+    return "/plugin/defensics/images/48x48/defensics-logo.png";
+  }
+
+  @Override
+  public String getDisplayName() {
+    return "Defensics Run Cleanup";
+  }
+
+  @Override
+  public String getDescription() {
+    return "Defensics runs which are being stopped and deleted after their builds have finished.";
+  }
+
+  @Override
+  public String getUrlName() {
+    return "defensics-run-cleanup";
+  }
+
+  @NonNull
+  @Override
+  public Permission getRequiredPermission() {
+    return Jenkins.ADMINISTER;
+  }
+
+  @NonNull
+  @Override
+  public Category getCategory() {
+    return Category.STATUS;
+  }
+
+  public List<CleanupTask> getTasks() {
+    return RunCleanupQueue.get().getTasks();
+  }
+
+  public int getPendingCount() {
+    return RunCleanupQueue.get().getPendingCount();
+  }
+
+  public int getTrackedCount() {
+    return RunTracker.get().getTrackedRuns().size();
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.cleanup;
+
+import com.defensics.api.ApiService;
+import com.defensics.apiserver.model.Run;
+import com.defensics.client.DefensicsRequestException;
+import hudson.model.Computer;
+import hudson.model.TaskListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.util.SystemProperties;
+import jenkins.util.Timer;
+
+/**
+ * Controller-side queue which stops and deletes Defensics runs after the build has got its
+ * verdict. Deleting a run unloads the suite, which may take a while, so builds hand the run over
+ * to this queue instead of waiting for it. Runs which are still executing are stopped with
+ * {@link RunCanceller} and deleted once they have stopped. Failing deletions are retried with
+ * increasing delay and runs which can't be deleted at all are left to {@link OrphanedRunReaper}.
+ *
+ * <p>Queued and recently finished tasks are shown in {@link RunCleanupLink}.
+ */
+public class RunCleanupQueue {
+
+  private static final Logger LOGGER = Logger.getLogger(RunCleanupQueue.class.getName());
+
+  private static final RunCleanupQueue INSTANCE = new RunCleanupQueue();
+
+  private static final int MAX_ATTEMPTS =
+      SystemProperties.getInteger(RunCleanupQueue.class.getName() + ".maxAttempts", 8);
+  private static final long INITIAL_RETRY_SECONDS = 5;
+  private static final long MAX_RETRY_SECONDS = TimeUnit.MINUTES.toSeconds(5);
+
+  /**
+   * Number of finished tasks kept for display.
+   */
+  private static final int MAX_FINISHED_TASKS = 50;
+
+  private final Map<String, CleanupTask> tasks = new LinkedHashMap<>();
+
+  RunCleanupQueue() {
+  }
+
+  public static RunCleanupQueue get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Queues given run for stopping and deletion. Does nothing if the run is already queued.
+   *
+   * @param runId        Defensics run to delete
+   * @param instanceName Name of the Defensics instance the run lives in
+   * @param buildName    Display name of the build which created the run
+   * @param apiService   API service connected to the Defensics instance
+   */
+  public void submit(String runId, String instanceName, String buildName, ApiService apiService) {
+    final CleanupTask task = new CleanupTask(runId, instanceName, buildName, apiService);
+    synchronized (this) {
+      final CleanupTask existing = tasks.get(runId);
+      if (existing != null && existing.isActive()) {
+        return;
+      }
+      tasks.remove(runId);
+      tasks.put(runId, task);
+      pruneFinished();
+    }
+    schedule(task, 0);
+  }
+
+  /**
+   * Checks if given run is waiting or being processed by the queue.
+   *
+   * @param runId Defensics run ID
+   * @return true if queue is still working on the run
+   */
+  public synchronized boolean isPending(String runId) {
+    final CleanupTask task = tasks.get(runId);
+    return task != null && task.isActive();
+  }
+
+  /**
+   * Returns queued and recently finished tasks, newest first.
+   *
+   * @return Copy of the task list
+   */
+  public synchronized List<CleanupTask> getTasks() {
+    final List<CleanupTask> result = new ArrayList<>(tasks.values());
+    Collections.reverse(result);
+    return result;
+  }
+
+  /**
+   * Number of tasks the queue is still working on.
+   *
+   * @return Count of pending and running tasks
+   */
+  public synchronized int getPendingCount() {
+    return (int) tasks.values().stream().filter(CleanupTask::isActive).count();
+  }
+
+  void schedule(CleanupTask task, long delaySeconds) {
+    // Waiting for the run to stop may take a while, so don't hold the shared timer thread.
+    Timer.get().schedule(
+        () -> Computer.threadPoolForRemoting.submit(() -> process(task)),
+        delaySeconds, TimeUnit.SECONDS);
+  }
+
+  RunCanceller createCanceller(ApiService apiService) {
+    return new RunCanceller(apiService, new com.defensics.jenkins.Logger(TaskListener.NULL),
+        RunCanceller.DEFAULT_DEADLINE_MILLIS);
+  }
+
+  void process(CleanupTask task) {
+    task.started();
+    try {
+      final ApiService apiService = task.getApiService();
+      final Optional<Run> run = apiService.findRun(task.getRunId());
+      if (run.isPresent()) {
+        // Deleting is rejected until the run has stopped, so wait for it instead of burning
+        // retries on conflicts.
+        if (RunCanceller.ACTIVE_STATES.contains(run.get().getState())
+            && !createCanceller(apiService).cancel(task.getRunId())) {
+          throw new DefensicsRequestException("Run did not stop within the deadline");
+        }
+        apiService.deleteRun(task.getRunId());
+      }
+      RunTracker.get().untrack(task.getRunId());
+      task.completed();
+      LOGGER.log(Level.FINE, "Deleted Defensics run {0}", task.getRunId());
+    } catch (DefensicsRequestException | InterruptedException | RuntimeException e) {
+      final boolean retrying = task.getAttempts() < MAX_ATTEMPTS;
+      task.failed(e.getMessage(), retrying);
+      if (retrying) {
+        schedule(task, retryDelaySeconds(task.getAttempts()));
+      } else {
+        LOGGER.log(Level.WARNING, "Could not delete Defensics run " + task.getRunId()
+            + ". Leaving it to orphaned run reaper.", e);
+      }
+    }
+  }
+
+  static long retryDelaySeconds(int attempts) {
+    final long delay = INITIAL_RETRY_SECONDS << Math.min(attempts - 1, 16);
+    return Math.min(delay, MAX_RETRY_SECONDS);
+  }
+
+  private void pruneFinished() {
+    int finished = (int) tasks.values().stream().filter(task -> !task.isActive()).count();
+    final Iterator<CleanupTask> iterator = tasks.values().iterator();
+    while (finished > MAX_FINISHED_TASKS && iterator.hasNext()) {
+      if (!iterator.next().isActive()) {
+        iterator.remove();
+        finished--;
+      }
+    }
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.cleanup;
+
+import hudson.XmlFile;
+import hudson.model.Saveable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+
+/**
+ * Keeps track of all Defensics runs this plugin has created but not yet deleted. The list is
+ * persisted on the controller so runs left behind by crashed or killed builds can be found and
+ * cleaned up by {@link OrphanedRunReaper} even after Jenkins restart.
+ *
+ * <p>Tracker works without Jenkins instance too (e.g. in unit tests), in which case the runs are
+ * only kept in memory.
+ */
+public final class RunTracker implements Saveable {
+
+  private static final Logger LOGGER = Logger.getLogger(RunTracker.class.getName());
+
+  private static final RunTracker INSTANCE = new RunTracker();
+
+  /**
+   * Tracked runs by run ID.
+   */
+  private final Map<String, TrackedRun> runs = new LinkedHashMap<>();
+
+  private transient boolean loaded = false;
+
+  private RunTracker() {
+  }
+
+  public static RunTracker get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Starts tracking given run.
+   *
+   * @param runId        Defensics run ID
+   * @param instanceName Name of the Defensics instance the run was created in
+   * @param buildId      Externalizable ID of the Jenkins build which created the run
+   */
+  public synchronized void track(String runId, String instanceName, String buildId) {
+    load();
+    runs.put(runId, new TrackedRun(runId, instanceName, buildId, System.currentTimeMillis()));
+    saveQuietly();
+  }
+
+  /**
+   * Stops tracking given run. Should be called when run has been deleted from the server.
+   *
+   * @param runId Defensics run ID
+   */
+  public synchronized void untrack(String runId) {
+    load();
+    if (runs.remove(runId) != null) {
+      saveQuietly();
+    }
+  }
+
+  /**
+   * Returns snapshot of currently tracked runs, oldest first.
+   *
+   * @return Tracked runs
+   */
+  public synchronized List<TrackedRun> getTrackedRuns() {
+    load();
+    return new ArrayList<>(runs.values());
+  }
+
+  @Override
+  public synchronized void save() throws IOException {
+    final XmlFile configFile = getConfigFile();
+    if (configFile != null) {
+      configFile.write(this);
+    }
+  }
+
+  private void saveQuietly() {
+    try {
+      save();
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not save tracked Defensics runs", e);
+    }
+  }
+
+  private void load() {
+    if (loaded) {
+      return;
+    }
+    loaded = true;
+    final XmlFile configFile = getConfigFile();
+    if (configFile == null || !configFile.exists()) {
+      return;
+    }
+    try {
+      configFile.unmarshal(this);
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not load tracked Defensics runs", e);
+    }
+  }
+
+  private XmlFile getConfigFile() {
+    final Jenkins jenkins = Jenkins.getInstanceOrNull();
+    if (jenkins == null) {
+      return null;
+    }
+    return new XmlFile(
+        Jenkins.XSTREAM2,
+        new File(jenkins.getRootDir(), RunTracker.class.getName() + ".xml"));
+  }
+}
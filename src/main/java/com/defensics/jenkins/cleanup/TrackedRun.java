@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.cleanup;
+
+/**
+ * Defensics run created by this plugin. Contains enough information to find the Defensics
+ * instance the run lives in and the Jenkins build which created it.
+ */
+public final class TrackedRun {
+
+  private final String runId;
+  private final String instanceName;
+  private final String buildId;
+  private final long created;
+
+  /**
+   * Constructor.
+   *
+   * @param runId        Defensics run ID
+   * @param instanceName Name of the Defensics instance configuration used for the run
+   * @param buildId      Externalizable ID of the Jenkins build which created the run
+   * @param created      Creation time in milliseconds since epoch
+   */
+  public TrackedRun(String runId, String instanceName, String buildId, long created) {
+    this.runId = runId;
+    this.instanceName = instanceName;
+    this.buildId = buildId;
+    this.created = created;
+  }
+
+  public String getRunId() {
+    return runId;
+  }
+
+  public String getInstanceName() {
+    return instanceName;
+  }
+
+  public String getBuildId() {
+    return buildId;
+  }
+
+  public long getCreated() {
+    return created;
+  }
+}
@@ -92,6 +92,22 @@ public class InstanceConfiguration extends
     return getName() + " (" + getUrl() + ")";
   }
 
+  /**
+   * Creates API service for this Defensics instance using configured credentials. Used by
+   * controller-side tasks which are not tied to any build.
+   *
+   * @return ApiService connected to this instance
+   * @throws MalformedURLException if instance URL is not valid
+   * @throws AuthenticationTokenNotFoundException if configured credentials can't be found
+   */
+  public ApiService createApiService()
+      throws MalformedURLException, AuthenticationTokenNotFoundException {
+    return new ApiService(
+        url,
+        AuthenticationTokenProvider.getAuthenticationToken(new URL(url), credentialsId),
+        certificateValidationDisabled);
+  }
+
   @Override
   public final boolean equals(Object o) {
     if (this == o) {
@@ -16,11 +16,13 @@
 
 package com.defensics.jenkins.configuration;
 
+import com.defensics.jenkins.tracing.TracingSetup;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.Extension;
 import hudson.util.ListBoxModel;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import jenkins.model.GlobalConfiguration;
 import net.sf.json.JSONObject;
 import org.kohsuke.stapler.StaplerRequest;
@@ -31,13 +33,20 @@ public class PluginConfiguration extends GlobalConfiguration {
   public static final String DEFENSICS_PLUGIN_NAME = "defensics";
   /** Display name for both configuration and steps. */
   public static final String DISPLAY_NAME = "Defensics fuzz test";
+  /** Default number of builds kept in each job's long-horizon fuzzing history. */
+  public static final int DEFAULT_HISTORY_RETENTION = 5000;
 
   private final transient InstanceConfigurationValidator instanceConfigurationValidator =
       new InstanceConfigurationValidator();
   private List<InstanceConfiguration> defensicsInstances = new ArrayList<>();
+  private boolean tracingEnabled = false;
+  private String traceFile;
+  private Integer historyRetention;
+  private boolean compressReports = false;
 
   public PluginConfiguration() {
     super.load();
+    TracingSetup.configure(tracingEnabled, traceFile);
   }
 
   public List<InstanceConfiguration> getDefensicsInstances() {
@@ -49,6 +58,61 @@ public class PluginConfiguration extends GlobalConfiguration {
     this.defensicsInstances = defensicsInstances;
   }
 
+  public boolean isTracingEnabled() {
+    return tracingEnabled;
+  }
+
+  public void setTracingEnabled(boolean tracingEnabled) {
+    this.tracingEnabled = tracingEnabled;
+  }
+
+  public String getTraceFile() {
+    return traceFile;
+  }
+
+  public void setTraceFile(String traceFile) {
+    this.traceFile = traceFile;
+  }
+
+  /**
+   * Returns the number of builds kept in each job's fuzzing history.
+   *
+   * @return Number of builds, or 0 if history isn't limited
+   */
+  public int getHistoryRetention() {
+    return historyRetention == null ? DEFAULT_HISTORY_RETENTION : historyRetention;
+  }
+
+  public void setHistoryRetention(int historyRetention) {
+    this.historyRetention = Math.max(0, historyRetention);
+  }
+
+  /**
+   * Returns whether text files of new HTML reports are stored gzip-compressed in the build
+   * directory.
+   *
+   * @return true if reports are compressed
+   */
+  public boolean isCompressReports() {
+    return compressReports;
+  }
+
+  public void setCompressReports(boolean compressReports) {
+    this.compressReports = compressReports;
+  }
+
+  /**
+   * Finds Defensics instance configuration by its name.
+   *
+   * @param name Name of the Defensics instance
+   * @return Instance configuration, or empty optional if there's no instance with given name
+   */
+  public Optional<InstanceConfiguration> findDefensicsInstance(String name) {
+    return getDefensicsInstances().stream()
+        .filter(instance -> instance.getName().equals(name))
+        .findFirst();
+  }
+
   @Override
   public boolean configure(StaplerRequest req, JSONObject formDataJson) throws FormException {
     List<InstanceConfiguration> defensicsInstances = req.bindJSONToList(
@@ -58,6 +122,11 @@ public class PluginConfiguration extends GlobalConfiguration {
     instanceConfigurationValidator.validate(defensicsInstances);
 
     setDefensicsInstances(defensicsInstances);
+    setTracingEnabled(formDataJson.optBoolean("tracingEnabled"));
+    setTraceFile(formDataJson.optString("traceFile", null));
+    setHistoryRetention(formDataJson.optInt("historyRetention", DEFAULT_HISTORY_RETENTION));
+    setCompressReports(formDataJson.optBoolean("compressReports"));
+    TracingSetup.configure(tracingEnabled, traceFile);
     save();
     return true;
   }
@@ -18,7 +18,11 @@ package com.defensics.jenkins.configuration;
 
 import static org.apache.commons.lang.StringUtils.isBlank;
 
+import com.defensics.apiserver.model.RunVerdict;
 import hudson.util.FormValidation;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -72,4 +76,53 @@ public class StepConfigurationValidator {
       }
     }
   }
+
+  /**
+   * Validation method for verdicts whose reports are fetched only when opened.
+   *
+   * @param lazyReportVerdicts The verdicts the user has entered
+   * @return OK if all verdicts are known, or the value is empty. Otherwise Error.
+   */
+  public FormValidation validateLazyReportVerdicts(String lazyReportVerdicts) {
+    try {
+      parseVerdicts(lazyReportVerdicts);
+      return FormValidation.ok();
+    } catch (IllegalArgumentException e) {
+      return FormValidation.error(e.getMessage());
+    }
+  }
+
+  /**
+   * Parses comma or space separated list of run verdicts, e.g. "PASS, WARNING". Case is ignored.
+   *
+   * @param verdicts Verdicts to parse, may be empty or null
+   * @return Parsed verdicts
+   * @throws IllegalArgumentException if a verdict is not PASS, WARNING or FAIL
+   */
+  public static Set<RunVerdict> parseVerdicts(String verdicts) {
+    final Set<RunVerdict> parsed = EnumSet.noneOf(RunVerdict.class);
+    if (isBlank(verdicts)) {
+      return parsed;
+    }
+    for (String verdict : verdicts.trim().split("[,\\s]+")) {
+      if (verdict.isEmpty()) {
+        continue;
+      }
+      switch (verdict.toUpperCase(Locale.ROOT)) {
+        case "PASS":
+          parsed.add(RunVerdict.PASS);
+          break;
+        case "WARNING":
+          parsed.add(RunVerdict.WARNING);
+          break;
+        case "FAIL":
+          parsed.add(RunVerdict.FAIL);
+          break;
+        default:
+          throw new IllegalArgumentException(
+              "Unknown verdict '" + verdict + "'. Use PASS, WARNING or FAIL.");
+      }
+    }
+    return parsed;
+  }
 }
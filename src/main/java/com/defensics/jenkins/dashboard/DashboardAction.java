@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.dashboard;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Util;
+import hudson.model.Action;
+import hudson.model.Job;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import jenkins.model.Jenkins;
+
+/**
+ * Fuzzing dashboard listing latest Defensics results of every job in Jenkins or in one folder.
+ * Results are read from {@link DashboardIndex}, so showing the dashboard doesn't load any builds.
+ */
+public class DashboardAction implements Action {
+
+  public static final String URL_NAME = "defensics-dashboard";
+
+  private final String folderFullName;
+
+  /**
+   * Constructor.
+   *
+   * @param folderFullName Full name of the folder whose jobs are listed, or empty string for all
+   *                       jobs
+   */
+  public DashboardAction(String folderFullName) {
+    this.folderFullName = folderFullName;
+  }
+
+  @CheckForNull
+  @Override
+  public String getIconFileName() {
+    return "/plugin/defensics/images/48x48/defensics-logo.png";
+  }
+
+  @CheckForNull
+  @Override
+  public String getDisplayName() {
+    return "Defensics Dashboard";
+  }
+
+  @CheckForNull
+  @Override
+  public String getUrlName() {
+    return URL_NAME;
+  }
+
+  /**
+   * Returns latest results of jobs the current user can see, sorted by job full name.
+   *
+   * @return Dashboard rows
+   */
+  public List<Row> getRows() {
+    final Jenkins jenkins = Jenkins.get();
+    final List<Row> rows = new ArrayList<>();
+    for (Map.Entry<String, JobSummary> entry :
+        DashboardIndex.get().getSummaries(folderFullName).entrySet()) {
+      final Job<?, ?> job = jenkins.getItemByFullName(entry.getKey(), Job.class);
+      if (job != null) {
+        rows.add(new Row(job, entry.getValue()));
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Latest results of one job.
+   */
+  public static final class Row {
+
+    private final Job<?, ?> job;
+    private final JobSummary summary;
+
+    Row(Job<?, ?> job, JobSummary summary) {
+      this.job = job;
+      this.summary = summary;
+    }
+
+    public Job<?, ?> getJob() {
+      return job;
+    }
+
+    public JobSummary getSummary() {
+      return summary;
+    }
+
+    public String getDuration() {
+      return Util.getTimeSpanString(summary.getDurationMillis());
+    }
+
+    public String getCasesPerSecond() {
+      return String.format(Locale.ROOT, "%.1f", summary.getCasesPerSecond());
+    }
+
+    public String getInstances() {
+      return String.join(", ", summary.getInstanceNames());
+    }
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.dashboard;
+
+import hudson.XmlFile;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.Saveable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+
+/**
+ * Latest Defensics results of every job, keyed by job full name. The index is updated as builds
+ * complete and jobs get deleted, moved or renamed, so the fuzzing dashboard never has to walk jobs
+ * or load builds. The index is persisted on the controller and seeded once from the last completed
+ * build of each job when it doesn't exist yet.
+ *
+ * <p>Index works without Jenkins instance too (e.g. in unit tests), in which case summaries are
+ * only kept in memory.
+ */
+public final class DashboardIndex implements Saveable {
+
+  private static final Logger LOGGER = Logger.getLogger(DashboardIndex.class.getName());
+
+  private static final DashboardIndex INSTANCE = new DashboardIndex();
+
+  /**
+   * Job summaries by job full name.
+   */
+  private final Map<String, JobSummary> summaries = new TreeMap<>();
+
+  /**
+   * Whether the index has been seeded from existing builds.
+   */
+  private boolean seeded = false;
+
+  private transient boolean loaded = false;
+
+  DashboardIndex() {
+  }
+
+  public static DashboardIndex get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Records results of a completed build. Results of an older build than the one already indexed
+   * are ignored.
+   *
+   * @param fullName Full name of the job
+   * @param summary  Results of the build
+   */
+  public synchronized void update(String fullName, JobSummary summary) {
+    load();
+    final JobSummary previous = summaries.get(fullName);
+    if (previous != null && previous.getBuildNumber() > summary.getBuildNumber()) {
+      return;
+    }
+    summaries.put(fullName, summary);
+    saveQuietly();
+  }
+
+  /**
+   * Removes the job and, if the item is a folder, all jobs inside it.
+   *
+   * @param fullName Full name of the deleted item
+   */
+  public synchronized void remove(String fullName) {
+    load();
+    final boolean removed = summaries.remove(fullName) != null
+        | summaries.keySet().removeIf(name -> name.startsWith(fullName + "/"));
+    if (removed) {
+      saveQuietly();
+    }
+  }
+
+  /**
+   * Moves summaries of a renamed or moved item and, if the item is a folder, of all jobs inside it.
+   *
+   * @param oldFullName Old full name of the item
+   * @param newFullName New full name of the item
+   */
+  public synchronized void rename(String oldFullName, String newFullName) {
+    load();
+    final Map<String, JobSummary> moved = new TreeMap<>();
+    summaries.entrySet().removeIf(entry -> {
+      final String name = entry.getKey();
+      if (name.equals(oldFullName)) {
+        moved.put(newFullName, entry.getValue());
+        return true;
+      }
+      if (name.startsWith(oldFullName + "/")) {
+        moved.put(newFullName + name.substring(oldFullName.length()), entry.getValue());
+        return true;
+      }
+      return false;
+    });
+    if (!moved.isEmpty()) {
+      summaries.putAll(moved);
+      saveQuietly();
+    }
+  }
+
+  /**
+   * Returns snapshot of summaries of jobs under given folder.
+   *
+   * @param folderFullName Full name of the folder, or empty string for all jobs
+   * @return Summaries by job full name, sorted by name
+   */
+  public synchronized Map<String, JobSummary> getSummaries(String folderFullName) {
+    load();
+    if (folderFullName.isEmpty()) {
+      return new TreeMap<>(summaries);
+    }
+    final String prefix = folderFullName + "/";
+    final Map<String, JobSummary> result = new TreeMap<>();
+    summaries.forEach((name, summary) -> {
+      if (name.startsWith(prefix)) {
+        result.put(name, summary);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Seeds the index from the last completed build of each job, once. Does nothing if the index
+   * has already been seeded, also in earlier Jenkins sessions.
+   */
+  public void seedIfNeeded() {
+    final Jenkins jenkins = Jenkins.getInstanceOrNull();
+    if (jenkins == null) {
+      return;
+    }
+    synchronized (this) {
+      load();
+      if (seeded) {
+        return;
+      }
+    }
+    final Map<String, JobSummary> found = new TreeMap<>();
+    for (Job<?, ?> job : jenkins.allItems(Job.class)) {
+      final Run<?, ?> run = job.getLastCompletedBuild();
+      final JobSummary summary = run == null ? null : JobSummary.of(run);
+      if (summary != null) {
+        found.put(job.getFullName(), summary);
+      }
+    }
+    synchronized (this) {
+      // Builds completed during seeding are already in the index and are newer.
+      found.forEach(summaries::putIfAbsent);
+      seeded = true;
+      saveQuietly();
+    }
+    LOGGER.log(Level.FINE, "Seeded Defensics dashboard index with {0} job(s)", found.size());
+  }
+
+  @Override
+  public synchronized void save() throws IOException {
+    final XmlFile configFile = getConfigFile();
+    if (configFile != null) {
+      configFile.write(this);
+    }
+  }
+
+  private void saveQuietly() {
+    try {
+      save();
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not save Defensics dashboard index", e);
+    }
+  }
+
+  private void load() {
+    if (loaded) {
+      return;
+    }
+    loaded = true;
+    final XmlFile configFile = getConfigFile();
+    if (configFile == null || !configFile.exists()) {
+      return;
+    }
+    try {
+      configFile.unmarshal(this);
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not load Defensics dashboard index", e);
+    }
+  }
+
+  private XmlFile getConfigFile() {
+    final Jenkins jenkins = Jenkins.getInstanceOrNull();
+    if (jenkins == null) {
+      return null;
+    }
+    return new XmlFile(
+        Jenkins.XSTREAM2,
+        new File(jenkins.getRootDir(), DashboardIndex.class.getName() + ".xml"));
+  }
+}
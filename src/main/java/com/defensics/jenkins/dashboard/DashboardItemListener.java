@@ -0,0 +1,38 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.dashboard;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.listeners.ItemListener;
+
+/**
+ * Keeps {@link DashboardIndex} up to date as jobs and folders get deleted, renamed or moved.
+ */
+@Extension
+public class DashboardItemListener extends ItemListener {
+
+  @Override
+  public void onDeleted(Item item) {
+    DashboardIndex.get().remove(item.getFullName());
+  }
+
+  @Override
+  public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+    DashboardIndex.get().rename(oldFullName, newFullName);
+  }
+}
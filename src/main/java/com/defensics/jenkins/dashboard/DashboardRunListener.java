@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.dashboard;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.util.Timer;
+
+/**
+ * Keeps {@link DashboardIndex} up to date as builds complete.
+ */
+@Extension
+public class DashboardRunListener extends RunListener<Run<?, ?>> {
+
+  @Override
+  public void onCompleted(Run<?, ?> run, @NonNull TaskListener listener) {
+    final JobSummary summary = JobSummary.of(run);
+    if (summary != null) {
+      DashboardIndex.get().update(run.getParent().getFullName(), summary);
+    }
+  }
+
+  /**
+   * Seeds the dashboard index in the background after jobs have been loaded, so existing results
+   * show up in the dashboard after the plugin has been installed.
+   */
+  @Initializer(after = InitMilestone.JOB_CONFIG_ADAPTED)
+  public static void seedIndex() {
+    Timer.get().submit(() -> {
+      try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+        DashboardIndex.get().seedIfNeeded();
+      }
+    });
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.dashboard;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.AbstractItem;
+import hudson.model.Action;
+import hudson.model.ItemGroup;
+import hudson.model.Job;
+import java.util.Collection;
+import java.util.Collections;
+import jenkins.model.TransientActionFactory;
+
+/**
+ * Adds fuzzing dashboard of the jobs inside a folder to every folder.
+ */
+@Extension
+public class FolderDashboardActionFactory extends TransientActionFactory<AbstractItem> {
+
+  @Override
+  public Class<AbstractItem> type() {
+    return AbstractItem.class;
+  }
+
+  @NonNull
+  @Override
+  public Collection<? extends Action> createFor(@NonNull AbstractItem target) {
+    if (!(target instanceof ItemGroup) || target instanceof Job) {
+      return Collections.emptyList();
+    }
+    return Collections.singleton(new DashboardAction(target.getFullName()));
+  }
+}
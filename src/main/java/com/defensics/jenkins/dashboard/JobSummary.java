@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.dashboard;
+
+import com.defensics.jenkins.result.BuildResultAction;
+import com.defensics.jenkins.result.StepResult;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.model.Result;
+import hudson.model.Run;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Latest Defensics results of one job, as shown in the fuzzing dashboard. Summaries are small and
+ * immutable so the dashboard can be drawn without loading any builds.
+ */
+public final class JobSummary {
+
+  private final int buildNumber;
+  private final long timestamp;
+  private final String result;
+  private final String verdict;
+  private final long failureCount;
+  private final long testCasesExecuted;
+  private final long durationMillis;
+  private final List<String> instanceNames;
+
+  /**
+   * Constructor.
+   *
+   * @param buildNumber       Number of the build the results are from
+   * @param timestamp         Build start time in milliseconds since epoch
+   * @param result            Jenkins build result, or null if not known
+   * @param verdict           Defensics verdict, or null if not known
+   * @param failureCount      Number of failures found
+   * @param testCasesExecuted Number of executed test cases
+   * @param durationMillis    Fuzzing duration in milliseconds
+   * @param instanceNames     Names of the Defensics instances which ran the tests
+   */
+  public JobSummary(int buildNumber, long timestamp, @CheckForNull String result,
+      @CheckForNull String verdict, long failureCount, long testCasesExecuted,
+      long durationMillis, List<String> instanceNames) {
+    this.buildNumber = buildNumber;
+    this.timestamp = timestamp;
+    this.result = result;
+    this.verdict = verdict;
+    this.failureCount = failureCount;
+    this.testCasesExecuted = testCasesExecuted;
+    this.durationMillis = durationMillis;
+    this.instanceNames = new ArrayList<>(instanceNames);
+  }
+
+  /**
+   * Creates summary of a completed build.
+   *
+   * @param run Completed build
+   * @return Summary, or null if the build has no Defensics results
+   */
+  @CheckForNull
+  public static JobSummary of(Run<?, ?> run) {
+    final BuildResultAction action = run.getAction(BuildResultAction.class);
+    if (action == null) {
+      return null;
+    }
+    final Set<String> verdicts = new LinkedHashSet<>();
+    final Set<String> instances = new LinkedHashSet<>();
+    for (StepResult stepResult : action.getStepResults()) {
+      if (stepResult.getVerdict() != null) {
+        verdicts.add(stepResult.getVerdict());
+      }
+      if (stepResult.getInstanceName() != null) {
+        instances.add(stepResult.getInstanceName());
+      }
+    }
+    final Result result = run.getResult();
+    return new JobSummary(
+        run.getNumber(),
+        run.getTimeInMillis(),
+        result == null ? null : result.toString(),
+        verdicts.isEmpty() ? null : String.join(", ", verdicts),
+        action.getFailureCount(),
+        action.getTestCasesExecuted(),
+        action.getDurationMillis(),
+        new ArrayList<>(instances));
+  }
+
+  public int getBuildNumber() {
+    return buildNumber;
+  }
+
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  public Date getDate() {
+    return new Date(timestamp);
+  }
+
+  @CheckForNull
+  public String getResult() {
+    return result;
+  }
+
+  @CheckForNull
+  public String getVerdict() {
+    return verdict;
+  }
+
+  public long getFailureCount() {
+    return failureCount;
+  }
+
+  public long getTestCasesExecuted() {
+    return testCasesExecuted;
+  }
+
+  public long getDurationMillis() {
+    return durationMillis;
+  }
+
+  /**
+   * Returns test case execution rate of the build.
+   *
+   * @return Executed cases per second, or 0 if duration isn't known
+   */
+  public double getCasesPerSecond() {
+    return durationMillis > 0 ? testCasesExecuted * 1000d / durationMillis : 0;
+  }
+
+  public List<String> getInstanceNames() {
+    return Collections.unmodifiableList(instanceNames);
+  }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.dashboard;
+
+import hudson.Extension;
+import hudson.model.RootAction;
+
+/**
+ * Fuzzing dashboard of all jobs, shown in the Jenkins main page.
+ */
+@Extension
+public class RootDashboardAction extends DashboardAction implements RootAction {
+
+  public RootDashboardAction() {
+    super("");
+  }
+}
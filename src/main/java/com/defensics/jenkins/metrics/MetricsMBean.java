@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.metrics;
+
+import com.defensics.metrics.DefensicsMetrics;
+import com.defensics.metrics.MetricsRegistry;
+import com.defensics.metrics.Sample;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.init.Terminator;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * Exposes plugin metrics over JMX. Every metric sample is a read-only attribute named like the
+ * sample in Prometheus format, e.g. {@code defensics_api_request_seconds_count{operation="get
+ * run"}}.
+ */
+public class MetricsMBean implements DynamicMBean {
+
+  private static final Logger LOGGER = Logger.getLogger(MetricsMBean.class.getName());
+
+  static final String OBJECT_NAME = "com.defensics.jenkins:type=Metrics";
+
+  private final MetricsRegistry registry;
+
+  MetricsMBean(MetricsRegistry registry) {
+    this.registry = registry;
+  }
+
+  /**
+   * Registers metrics MBean to the platform MBean server.
+   */
+  @Initializer(after = InitMilestone.PLUGINS_STARTED)
+  public static void register() {
+    try {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      final ObjectName name = new ObjectName(OBJECT_NAME);
+      if (!server.isRegistered(name)) {
+        server.registerMBean(new MetricsMBean(DefensicsMetrics.REGISTRY), name);
+      }
+    } catch (JMException e) {
+      LOGGER.log(Level.WARNING, "Could not register Defensics metrics MBean", e);
+    }
+  }
+
+  /**
+   * Unregisters metrics MBean when Jenkins shuts down.
+   */
+  @Terminator
+  public static void unregister() {
+    try {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      final ObjectName name = new ObjectName(OBJECT_NAME);
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+    } catch (JMException e) {
+      LOGGER.log(Level.FINE, "Could not unregister Defensics metrics MBean", e);
+    }
+  }
+
+  private Map<String, Double> getValues() {
+    final Map<String, Double> values = new LinkedHashMap<>();
+    for (Sample sample : registry.collect()) {
+      values.put(sample.getFullName(), sample.getValue());
+    }
+    return values;
+  }
+
+  @Override
+  public Object getAttribute(String attribute) throws AttributeNotFoundException {
+    final Double value = getValues().get(attribute);
+    if (value == null) {
+      throw new AttributeNotFoundException(attribute);
+    }
+    return value;
+  }
+
+  @Override
+  public AttributeList getAttributes(String[] attributes) {
+    final Map<String, Double> values = getValues();
+    final AttributeList list = new AttributeList();
+    for (String attribute : attributes) {
+      final Double value = values.get(attribute);
+      if (value != null) {
+        list.add(new Attribute(attribute, value));
+      }
+    }
+    return list;
+  }
+
+  /**
+   * Metrics are read-only, so setting fails the same way as for read-only attributes of standard
+   * MBeans.
+   */
+  @Override
+  public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+    throw new AttributeNotFoundException(
+        "Defensics metric " + attribute.getName() + " is read-only");
+  }
+
+  @Override
+  public AttributeList setAttributes(AttributeList attributes) {
+    return new AttributeList();
+  }
+
+  /**
+   * Metrics MBean has no operations, so invoking fails like invoking an unknown operation of a
+   * standard MBean.
+   */
+  @Override
+  public Object invoke(String actionName, Object[] params, String[] signature)
+      throws ReflectionException {
+    throw new ReflectionException(new NoSuchMethodException(actionName),
+        "Defensics metrics have no operations");
+  }
+
+  @Override
+  public MBeanInfo getMBeanInfo() {
+    final MBeanAttributeInfo[] attributes = getValues().keySet().stream()
+        .map(name -> new MBeanAttributeInfo(
+            name, Double.class.getName(), name, true, false, false))
+        .toArray(MBeanAttributeInfo[]::new);
+    return new MBeanInfo(
+        MetricsMBean.class.getName(),
+        "Defensics plugin metrics",
+        attributes,
+        null,
+        null,
+        null);
+  }
+}
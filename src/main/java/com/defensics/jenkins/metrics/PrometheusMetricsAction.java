@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.metrics;
+
+import com.defensics.metrics.DefensicsMetrics;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Extension;
+import hudson.model.RootAction;
+import java.io.IOException;
+import java.io.Writer;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+/**
+ * Serves plugin metrics in Prometheus text format from {@code <jenkins>/defensics-metrics/}.
+ * Requires system read permission, so scrapers need to authenticate with an API token.
+ */
+@Extension
+public class PrometheusMetricsAction implements RootAction {
+
+  public static final String URL_NAME = "defensics-metrics";
+
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  @CheckForNull
+  @Override
+  public String getIconFileName() {
+    return null;
+  }
+
+  @CheckForNull
+  @Override
+  public String getDisplayName() {
+    return "Defensics Metrics";
+  }
+
+  @CheckForNull
+  @Override
+  public String getUrlName() {
+    return URL_NAME;
+  }
+
+  /**
+   * Writes metrics to the response.
+   *
+   * @param request  Stapler request
+   * @param response Stapler response
+   * @throws IOException if writing the response fails
+   */
+  public void doIndex(StaplerRequest request, StaplerResponse response) throws IOException {
+    Jenkins.get().checkPermission(Jenkins.SYSTEM_READ);
+    response.setContentType(CONTENT_TYPE);
+    response.setHeader("Cache-Control", "no-cache");
+    try (Writer writer = response.getWriter()) {
+      DefensicsMetrics.REGISTRY.writePrometheus(writer);
+    }
+  }
+}
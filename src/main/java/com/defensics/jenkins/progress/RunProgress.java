@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.progress;
+
+import com.defensics.apiserver.model.FailureSummaryEntry;
+import com.defensics.apiserver.model.Run;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * Latest progress of one Defensics run. Progress is updated on every status poll.
+ */
+@ExportedBean(defaultVisibility = 2)
+public class RunProgress {
+
+  /**
+   * Weight of the latest sample in the smoothed execution rate.
+   */
+  private static final double RATE_SMOOTHING = 0.3;
+
+  private final String runId;
+  private final String instanceName;
+
+  private String state;
+  private long casesExecuted;
+  private long casesToBeExecuted;
+  private double casesPerSecond;
+  private Map<String, Integer> failuresByLevel = new LinkedHashMap<>();
+  private long updated;
+
+  /**
+   * Constructor.
+   *
+   * @param runId        Defensics run ID
+   * @param instanceName Name of the Defensics instance executing the run
+   */
+  public RunProgress(String runId, String instanceName) {
+    this.runId = runId;
+    this.instanceName = instanceName;
+  }
+
+  /**
+   * Updates progress from latest run status.
+   *
+   * @param run Run status received from Defensics
+   */
+  public void update(Run run) {
+    update(run, System.currentTimeMillis());
+  }
+
+  synchronized void update(Run run, long now) {
+    final long executed = run.getTestCasesExecuted();
+    if (updated > 0 && now > updated && executed >= casesExecuted) {
+      final double sample = (executed - casesExecuted) * 1000d / (now - updated);
+      casesPerSecond = casesPerSecond == 0
+          ? sample
+          : RATE_SMOOTHING * sample + (1 - RATE_SMOOTHING) * casesPerSecond;
+    }
+
+    final Map<String, Integer> failures = new LinkedHashMap<>();
+    for (FailureSummaryEntry entry : run.getFailureSummary()) {
+      failures.merge(String.valueOf(entry.getLevel()), entry.getCount(), Integer::sum);
+    }
+
+    state = String.valueOf(run.getState());
+    casesExecuted = executed;
+    casesToBeExecuted = run.getCasesToBeExecuted();
+    failuresByLevel = failures;
+    updated = now;
+  }
+
+  @Exported
+  public String getRunId() {
+    return runId;
+  }
+
+  @Exported
+  public String getInstanceName() {
+    return instanceName;
+  }
+
+  @Exported
+  public synchronized String getState() {
+    return state;
+  }
+
+  @Exported
+  public synchronized long getCasesExecuted() {
+    return casesExecuted;
+  }
+
+  @Exported
+  public synchronized long getCasesToBeExecuted() {
+    return casesToBeExecuted;
+  }
+
+  /**
+   * Percentage of executed cases, or 0 if case count isn't yet known.
+   *
+   * @return Percent done between 0 and 100
+   */
+  @Exported
+  public synchronized double getPercentDone() {
+    if (casesToBeExecuted <= 0) {
+      return 0;
+    }
+    return Math.min(100d, casesExecuted * 100d / casesToBeExecuted);
+  }
+
+  @Exported
+  public synchronized double getCasesPerSecond() {
+    return casesPerSecond;
+  }
+
+  /**
+   * Estimated time until all cases have been executed with the current execution rate.
+   *
+   * @return Estimated seconds left, or -1 if it can't be estimated yet
+   */
+  @Exported
+  public synchronized long getEtaSeconds() {
+    if (casesPerSecond <= 0 || casesToBeExecuted <= 0) {
+      return -1;
+    }
+    return Math.round(Math.max(0, casesToBeExecuted - casesExecuted) / casesPerSecond);
+  }
+
+  @Exported
+  public synchronized int getFailures() {
+    return failuresByLevel.values().stream().mapToInt(Integer::intValue).sum();
+  }
+
+  @Exported
+  public synchronized Map<String, Integer> getFailuresByLevel() {
+    return Collections.unmodifiableMap(failuresByLevel);
+  }
+
+  /**
+   * Time of the latest update.
+   *
+   * @return Epoch millis, or 0 if progress hasn't been received yet
+   */
+  @Exported
+  public synchronized long getUpdated() {
+    return updated;
+  }
+}
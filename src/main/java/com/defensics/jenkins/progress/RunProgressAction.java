@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.progress;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.model.Api;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import jenkins.model.RunAction2;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * Holds latest progress of the Defensics runs of a build. Each Defensics step, including steps in
+ * parallel branches, has its own entry keyed by the Defensics run ID. Progress is available as
+ * JSON from {@code <build>/defensicsProgress/api/json}, so it can be followed without reading the
+ * console log. Last snapshots are stored with the build.
+ */
+@ExportedBean
+public class RunProgressAction implements RunAction2 {
+
+  public static final String URL_NAME = "defensicsProgress";
+
+  private transient hudson.model.Run<?, ?> owner;
+
+  private final Map<String, RunProgress> runs = new LinkedHashMap<>();
+
+  @Override
+  public void onAttached(hudson.model.Run<?, ?> r) {
+    owner = r;
+  }
+
+  @Override
+  public void onLoad(hudson.model.Run<?, ?> r) {
+    owner = r;
+  }
+
+  public hudson.model.Run<?, ?> getOwner() {
+    return owner;
+  }
+
+  @CheckForNull
+  @Override
+  public String getIconFileName() {
+    return null;
+  }
+
+  @CheckForNull
+  @Override
+  public String getDisplayName() {
+    return "Defensics Progress";
+  }
+
+  @CheckForNull
+  @Override
+  public String getUrlName() {
+    return URL_NAME;
+  }
+
+  public Api getApi() {
+    return new Api(this);
+  }
+
+  /**
+   * Starts following progress of given run. Returns existing entry if the run is already
+   * followed.
+   *
+   * @param runId        Defensics run ID
+   * @param instanceName Name of the Defensics instance executing the run
+   * @return Progress entry of the run
+   */
+  public synchronized RunProgress start(String runId, String instanceName) {
+    return runs.computeIfAbsent(runId, id -> new RunProgress(id, instanceName));
+  }
+
+  /**
+   * Returns progress of given run.
+   *
+   * @param runId Defensics run ID
+   * @return Progress of the run, or null if the run isn't followed
+   */
+  @CheckForNull
+  public synchronized RunProgress getRun(String runId) {
+    return runs.get(runId);
+  }
+
+  /**
+   * Progress of all Defensics runs of the build in the order they were started.
+   *
+   * @return Copy of the progress entries
+   */
+  @Exported(inline = true)
+  public synchronized List<RunProgress> getRuns() {
+    return new ArrayList<>(runs.values());
+  }
+
+  /**
+   * Tells whether the build is still running, so clients know if they should keep polling.
+   *
+   * @return true if build is in progress
+   */
+  @Exported
+  public boolean isBuilding() {
+    return owner != null && owner.isBuilding();
+  }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import com.defensics.jenkins.util.ZipExtractor;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Util;
+import hudson.XmlFile;
+import hudson.model.Job;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+import jenkins.model.Jenkins;
+
+/**
+ * Content-addressed store for static report assets of one job, like style sheets, scripts and
+ * images. Each unique asset is stored once in the job directory, named by the SHA-256 hash of its
+ * content, and reports of the builds refer to the assets by hash.
+ *
+ * <p>The store counts references to each asset. Builds add a reference for every asset of their
+ * reports and {@link ReportRunListener} releases the references when a build is deleted. Asset
+ * is deleted when its last reference is released.
+ */
+public final class AssetStore {
+
+  private static final Logger LOGGER = Logger.getLogger(AssetStore.class.getName());
+
+  /**
+   * Directory under job root directory where the assets are stored.
+   */
+  public static final String DIR_NAME = "defensics-assets";
+
+  static final String INDEX_FILE_NAME = "assets.xml";
+
+  private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+  /**
+   * Loaded stores. Weak keys so stores of deleted and reloaded jobs go away with the job.
+   */
+  private static final Map<Job<?, ?>, AssetStore> STORES = new WeakHashMap<>();
+
+  /**
+   * Reference counts by asset hash.
+   */
+  private final Map<String, Integer> references = new TreeMap<>();
+
+  private final transient File dir;
+
+  AssetStore(@CheckForNull File dir) {
+    this.dir = dir;
+  }
+
+  /**
+   * Returns asset store of given job, loading it if needed. Store is reloaded if the job has been
+   * renamed or moved, since the assets move with the job directory.
+   *
+   * @param job Jenkins job
+   * @return Asset store of the job
+   */
+  public static AssetStore forJob(Job<?, ?> job) {
+    final File rootDir = job.getRootDir();
+    final File dir = rootDir == null ? null : new File(rootDir, DIR_NAME);
+    synchronized (STORES) {
+      AssetStore store = STORES.get(job);
+      if (store == null || !Objects.equals(store.dir, dir)) {
+        store = load(dir);
+        STORES.put(job, store);
+      }
+      return store;
+    }
+  }
+
+  static AssetStore load(@CheckForNull File dir) {
+    final AssetStore store = new AssetStore(dir);
+    final XmlFile xmlFile = store.getXmlFile();
+    if (xmlFile != null && xmlFile.exists()) {
+      try {
+        xmlFile.unmarshal(store);
+      } catch (IOException e) {
+        LOGGER.log(Level.WARNING, "Could not load Defensics asset store " + dir, e);
+      }
+    }
+    return store;
+  }
+
+  /**
+   * Adds a reference to given asset, storing the asset if the store doesn't have it yet.
+   *
+   * @param content  Asset content. Not closed by this method.
+   * @param compress Whether the asset is stored gzip-compressed, if it's new to the store
+   * @return Hash of the asset
+   * @throws IOException if storing the asset fails
+   */
+  public String add(InputStream content, boolean compress) throws IOException {
+    final StagedAsset asset = stage(content, compress);
+    addAll(Collections.singletonList(asset));
+    return asset.getHash();
+  }
+
+  /**
+   * Writes asset into a temporary file in the store directory. Content is hashed while it's
+   * written, so no lock is held. The asset is not referenced until it's added with
+   * {@link #addAll(Collection)}.
+   *
+   * @param content  Asset content. Not closed by this method.
+   * @param compress Whether the asset is stored gzip-compressed, if it's new to the store
+   * @return Staged asset
+   * @throws IOException if writing the asset fails
+   */
+  public StagedAsset stage(InputStream content, boolean compress) throws IOException {
+    if (dir == null) {
+      throw new IOException("Job has no directory for Defensics report assets");
+    }
+    Files.createDirectories(dir.toPath());
+    final Path temp = Files.createTempFile(dir.toPath(), "asset", ".tmp");
+    try {
+      final MessageDigest digest = newDigest();
+      try (OutputStream out = compress
+          ? new GZIPOutputStream(Files.newOutputStream(temp))
+          : Files.newOutputStream(temp)) {
+        new DigestInputStream(content, digest).transferTo(out);
+      }
+      return new StagedAsset(temp, Util.toHexString(digest.digest()), compress);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+  }
+
+  /**
+   * Adds a reference to each staged asset, moving the assets the store doesn't have yet into
+   * place. The store is saved once for all of them, so adding the assets of a report takes a
+   * single write. Temporary files of the staged assets are deleted. If adding fails, none of the
+   * assets are referenced.
+   *
+   * @param assets Assets staged with {@link #stage(InputStream, boolean)}
+   * @throws IOException if moving an asset into place fails
+   */
+  public synchronized void addAll(Collection<StagedAsset> assets) throws IOException {
+    final List<String> added = new ArrayList<>(assets.size());
+    try {
+      for (StagedAsset asset : assets) {
+        if (getFile(asset.hash) == null) {
+          Files.move(asset.temp, new File(dir,
+              asset.compressed ? asset.hash + ZipExtractor.GZIP_SUFFIX : asset.hash).toPath(),
+              StandardCopyOption.REPLACE_EXISTING);
+        }
+        references.merge(asset.hash, 1, Integer::sum);
+        added.add(asset.hash);
+      }
+    } catch (IOException e) {
+      release(added);
+      throw e;
+    } finally {
+      for (StagedAsset asset : assets) {
+        asset.discard();
+      }
+    }
+    save();
+  }
+
+  /**
+   * Releases references to given assets. Assets which are no longer referenced are deleted. Hash
+   * is released as many times as it occurs in the collection.
+   *
+   * @param hashes Asset hashes
+   */
+  public synchronized void release(Collection<String> hashes) {
+    if (hashes.isEmpty()) {
+      return;
+    }
+    for (String hash : hashes) {
+      final Integer count = references.get(hash);
+      if (count == null) {
+        continue;
+      }
+      if (count > 1) {
+        references.put(hash, count - 1);
+        continue;
+      }
+      references.remove(hash);
+      final File file = getFile(hash);
+      if (file != null && !file.delete()) {
+        LOGGER.log(Level.WARNING, "Could not delete Defensics report asset {0}", file);
+      }
+    }
+    save();
+  }
+
+  /**
+   * Returns stored asset file. File name has {@value ZipExtractor#GZIP_SUFFIX} suffix if the
+   * asset is stored compressed.
+   *
+   * @param hash Asset hash
+   * @return Asset file, or null if the store doesn't have the asset
+   */
+  @CheckForNull
+  public synchronized File getFile(String hash) {
+    if (dir == null || !HASH.matcher(hash).matches()) {
+      return null;
+    }
+    final File plain = new File(dir, hash);
+    if (plain.isFile()) {
+      return plain;
+    }
+    final File compressed = new File(dir, hash + ZipExtractor.GZIP_SUFFIX);
+    return compressed.isFile() ? compressed : null;
+  }
+
+  /**
+   * Returns reference counts by asset hash.
+   *
+   * @return Snapshot of the reference counts
+   */
+  public synchronized Map<String, Integer> getReferences() {
+    return Collections.unmodifiableMap(new TreeMap<>(references));
+  }
+
+  private void save() {
+    final XmlFile xmlFile = getXmlFile();
+    if (xmlFile == null) {
+      return;
+    }
+    try {
+      xmlFile.write(this);
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not save Defensics asset store " + dir, e);
+    }
+  }
+
+  @CheckForNull
+  private XmlFile getXmlFile() {
+    return dir == null ? null : new XmlFile(Jenkins.XSTREAM2, new File(dir, INDEX_FILE_NAME));
+  }
+
+  /**
+   * Asset written into the store directory, but not added to the store yet.
+   */
+  public static final class StagedAsset {
+
+    private final Path temp;
+    private final String hash;
+    private final boolean compressed;
+
+    StagedAsset(Path temp, String hash, boolean compressed) {
+      this.temp = temp;
+      this.hash = hash;
+      this.compressed = compressed;
+    }
+
+    public String getHash() {
+      return hash;
+    }
+
+    /**
+     * Deletes the temporary file of the asset, if it's not moved into the store.
+     */
+    public void discard() {
+      try {
+        Files.deleteIfExists(temp);
+      } catch (IOException e) {
+        LOGGER.log(Level.WARNING, "Could not delete temporary Defensics report asset " + temp, e);
+      }
+    }
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported", e);
+    }
+  }
+}
@@ -18,11 +18,25 @@ package com.defensics.jenkins.result;
 
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import hudson.model.Action;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
+/**
+ * Defensics results of a build. Steps running in parallel branches of the build add their results
+ * to the same action, so the results are guarded by the action's monitor.
+ */
 public class BuildResultAction implements Action {
 
   private final String reportUrl;
   private long failureCount;
+  /**
+   * Results of each Defensics step. Null for builds published by older plugin versions.
+   */
+  private List<StepResult> stepResults;
 
   /**
    * Helps displaying Defensics run result in build page.
@@ -57,11 +71,81 @@ public class BuildResultAction implements Action {
     return reportUrl;
   }
 
-  public long getFailureCount() {
+  public synchronized long getFailureCount() {
     return failureCount;
   }
 
-  public void setFailureCount(long failureCount) {
+  public synchronized void setFailureCount(long failureCount) {
     this.failureCount = failureCount;
   }
+
+  /**
+   * Adds failures of a Defensics step to the failure count of the build.
+   *
+   * @param count Number of failures to add
+   */
+  public synchronized void addFailureCount(long count) {
+    this.failureCount += count;
+  }
+
+  /**
+   * Returns results of each Defensics step of the build.
+   *
+   * @return Step results. Empty if the build was published by an older plugin version.
+   */
+  public synchronized List<StepResult> getStepResults() {
+    return stepResults == null
+        ? Collections.emptyList()
+        : Collections.unmodifiableList(new ArrayList<>(stepResults));
+  }
+
+  public synchronized void addStepResult(StepResult stepResult) {
+    if (stepResults == null) {
+      stepResults = new ArrayList<>();
+    }
+    stepResults.add(stepResult);
+  }
+
+  /**
+   * Returns failure counts by failure level, summed over all Defensics steps of the build.
+   *
+   * @return Failure counts by level. Empty if the build was published by an older plugin version.
+   */
+  public Map<String, Long> getFailuresByLevel() {
+    return sum(StepResult::getFailuresByLevel);
+  }
+
+  /**
+   * Returns failure counts by failure source, summed over all Defensics steps of the build.
+   *
+   * @return Failure counts by source. Empty if the build was published by an older plugin version.
+   */
+  public Map<String, Long> getFailuresBySource() {
+    return sum(StepResult::getFailuresBySource);
+  }
+
+  public long getTestCasesExecuted() {
+    return getStepResults().stream().mapToLong(StepResult::getTestCasesExecuted).sum();
+  }
+
+  public long getCasesToBeExecuted() {
+    return getStepResults().stream().mapToLong(StepResult::getCasesToBeExecuted).sum();
+  }
+
+  /**
+   * Returns total fuzzing duration of all Defensics steps.
+   *
+   * @return Duration in milliseconds
+   */
+  public long getDurationMillis() {
+    return getStepResults().stream().mapToLong(StepResult::getDurationMillis).sum();
+  }
+
+  private Map<String, Long> sum(Function<StepResult, Map<String, Long>> counts) {
+    final Map<String, Long> sums = new LinkedHashMap<>();
+    for (StepResult stepResult : getStepResults()) {
+      counts.apply(stepResult).forEach((key, count) -> sums.merge(key, count, Long::sum));
+    }
+    return sums;
+  }
 }
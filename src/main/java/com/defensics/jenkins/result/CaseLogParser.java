@@ -0,0 +1,282 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import com.defensics.apiserver.model.FailureLevel;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads executed test cases from the main log of a Defensics result one case at a time. The log
+ * has one record per line: a ten digit sequence number, a record type character and the fields
+ * of the record separated by spaces, with spaces inside a field encoded as {@code +}, e.g.
+ * {@code 0000000046V 15 pass -}. The records read are:
+ * <ul>
+ *   <li>{@code T <index> TEST CASE} starts a test case</li>
+ *   <li>{@code G <name> ...} names the case, e.g. {@code http-suite.valid}</li>
+ *   <li>{@code I <index> <source> <result> <message>} is a result of an instrumentation source,
+ *   where result is {@code pass}, {@code warning} or {@code fail}</li>
+ *   <li>{@code V <index> <verdict> <reason>} is the verdict of the case</li>
+ *   <li>{@code t <index> ...} ends the case</li>
+ * </ul>
+ * Other records, e.g. the sent and received messages, are skipped. Only the case being read is
+ * kept in memory, so logs of any size can be read.
+ */
+final class CaseLogParser {
+
+  /**
+   * Maximum number of failures kept per test case. The rest are only counted.
+   */
+  static final int MAX_FAILURES = 20;
+
+  /**
+   * Failure source of a failed verdict without failed instrumentation results.
+   */
+  static final String VERDICT_SOURCE = "verdict";
+
+  static final String PASS = "pass";
+  static final String FAIL = "fail";
+  static final String WARNING = "warning";
+
+  private final BufferedReader reader;
+  private TestCase current;
+
+  CaseLogParser(Reader reader) {
+    this.reader = new BufferedReader(reader, 1 << 16);
+  }
+
+  /**
+   * Reads next test case.
+   *
+   * @return Test case, or null at the end of the log
+   * @throws IOException if reading the log fails
+   */
+  @CheckForNull
+  TestCase next() throws IOException {
+    String line;
+    while ((line = reader.readLine()) != null) {
+      int typeAt = 0;
+      while (typeAt < line.length() && Character.isDigit(line.charAt(typeAt))) {
+        typeAt++;
+      }
+      if (typeAt == 0 || typeAt >= line.length()) {
+        continue;
+      }
+      final String[] fields = line.substring(typeAt + 1).trim().split(" ");
+      switch (line.charAt(typeAt)) {
+        case 'T':
+          final long index = parseIndex(fields[0]);
+          if (index < 0) {
+            break;
+          }
+          final TestCase finished = current;
+          current = new TestCase(index);
+          if (finished != null) {
+            return finished;
+          }
+          break;
+        case 'G':
+          if (current != null && current.name.isEmpty()) {
+            current.name = fields[0];
+          }
+          break;
+        case 'I':
+          if (current != null && fields.length >= 3) {
+            final String result = fields[2].toLowerCase(Locale.ROOT);
+            if (FAIL.equals(result) || WARNING.equals(result)) {
+              current.addFailure(new Failure(decode(fields[1]),
+                  FAIL.equals(result) ? FailureLevel.ERROR : FailureLevel.WARNING,
+                  fields.length > 3 ? decode(fields[3]) : ""));
+            }
+          }
+          break;
+        case 'V':
+          if (current != null && fields.length >= 2) {
+            current.setVerdict(fields[1].toLowerCase(Locale.ROOT),
+                fields.length > 2 ? decode(fields[2]) : "");
+          }
+          break;
+        case 't':
+          if (current != null) {
+            final TestCase completed = current;
+            current = null;
+            return completed;
+          }
+          break;
+        default:
+          break;
+      }
+    }
+    final TestCase last = current;
+    current = null;
+    return last;
+  }
+
+  private static long parseIndex(String field) {
+    try {
+      return Long.parseLong(field);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Decodes a record field. Spaces are encoded as {@code +} and a lone {@code -} stands for an
+   * empty field.
+   */
+  static String decode(String field) {
+    if ("-".equals(field)) {
+      return "";
+    }
+    try {
+      return URLDecoder.decode(field, StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      // Not URL encoded after all, e.g. a lone % in the text
+      return field.replace('+', ' ');
+    }
+  }
+
+  /**
+   * Executed test case.
+   */
+  static final class TestCase {
+
+    private final long index;
+    private String name = "";
+    private String verdict = "";
+    private List<Failure> failures = Collections.emptyList();
+    private int failureCount;
+
+    TestCase(long index) {
+      this.index = index;
+    }
+
+    long getIndex() {
+      return index;
+    }
+
+    /**
+     * Returns name of the case, e.g. {@code http-suite.http-request.request.element}.
+     *
+     * @return Case name, or empty string if the log didn't have it
+     */
+    String getName() {
+      return name;
+    }
+
+    /**
+     * Returns group of the case, i.e. its name without the last part.
+     *
+     * @return Group name, or empty string if the case has no name
+     */
+    String getGroup() {
+      final int dot = name.lastIndexOf('.');
+      return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /**
+     * Returns verdict of the case, e.g. {@code pass} or {@code fail}.
+     *
+     * @return Verdict in lower case, or empty string if the case has no verdict record
+     */
+    String getVerdict() {
+      return verdict;
+    }
+
+    boolean isFailed() {
+      return FAIL.equals(verdict);
+    }
+
+    /**
+     * Returns the first {@value CaseLogParser#MAX_FAILURES} failures and warnings of the case.
+     */
+    List<Failure> getFailures() {
+      return failures;
+    }
+
+    int getFailureCount() {
+      return failureCount;
+    }
+
+    private void setVerdict(String verdict, String reason) {
+      this.verdict = verdict;
+      if (isFailed() && failures.stream().noneMatch(f -> f.getLevel() == FailureLevel.ERROR)) {
+        addFailure(new Failure(VERDICT_SOURCE, FailureLevel.ERROR, reason));
+      }
+    }
+
+    private void addFailure(Failure failure) {
+      if (failures.isEmpty()) {
+        failures = new ArrayList<>();
+      }
+      if (failures.size() < MAX_FAILURES) {
+        failures.add(failure);
+      }
+      failureCount++;
+    }
+  }
+
+  /**
+   * Failure or warning of a test case.
+   */
+  static final class Failure {
+
+    private final String source;
+    private final FailureLevel level;
+    private final String message;
+
+    Failure(String source, FailureLevel level, String message) {
+      this.source = source;
+      this.level = level;
+      this.message = message;
+    }
+
+    /**
+     * Returns the instrumentation source which reported the failure, or
+     * {@value CaseLogParser#VERDICT_SOURCE} if only the verdict of the case failed.
+     */
+    String getSource() {
+      return source;
+    }
+
+    FailureLevel getLevel() {
+      return level;
+    }
+
+    /**
+     * Returns failure message, or empty string if the log had none.
+     */
+    String getMessage() {
+      return message;
+    }
+
+    @Override
+    public String toString() {
+      return message.isEmpty()
+          ? level + " " + source
+          : level + " " + source + ": " + message;
+    }
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import com.defensics.apiserver.model.FailureLevel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jenkins.util.SystemProperties;
+
+/**
+ * Failures of a build compared with a baseline build: new failures, fixed failures and failures
+ * found in both. Steps are matched by their test plan names, and the fingerprints of matched
+ * steps are compared with one merge pass over their sorted arrays.
+ */
+public final class FailureDiff {
+
+  /**
+   * Maximum number of failures listed of each kind per step. All failures are counted.
+   */
+  static final int MAX_LISTED_FAILURES = SystemProperties.getInteger(
+      FailureDiff.class.getName() + ".maxListedFailures", 500);
+
+  private final List<StepDiff> steps;
+
+  private FailureDiff(List<StepDiff> steps) {
+    this.steps = steps;
+  }
+
+  /**
+   * Compares failures of a build with a baseline build.
+   *
+   * @param current  Failures of each step of the build
+   * @param baseline Failures of each step of the baseline build
+   * @return Differences by step of the build
+   */
+  public static FailureDiff compare(List<FailureFingerprints> current,
+      List<FailureFingerprints> baseline) {
+    // Same test plan can be run by several steps, so they are matched in order
+    final Map<String, Deque<FailureFingerprints>> baselineSteps = new HashMap<>();
+    for (FailureFingerprints step : baseline) {
+      baselineSteps.computeIfAbsent(step.getTestPlanName(), name -> new ArrayDeque<>())
+          .add(step);
+    }
+    final List<StepDiff> steps = new ArrayList<>();
+    for (FailureFingerprints step : current) {
+      final Deque<FailureFingerprints> candidates = baselineSteps.get(step.getTestPlanName());
+      steps.add(compare(step,
+          candidates == null || candidates.isEmpty() ? null : candidates.removeFirst()));
+    }
+    return new FailureDiff(steps);
+  }
+
+  private static StepDiff compare(FailureFingerprints current, FailureFingerprints baseline) {
+    final StepDiff diff = new StepDiff(current.getTestPlanName(), baseline != null);
+    final long[] a = current.getFingerprints();
+    final long[] b = baseline == null ? new long[0] : baseline.getFingerprints();
+    int i = 0;
+    int j = 0;
+    while (i < a.length || j < b.length) {
+      if (j >= b.length || (i < a.length && a[i] < b[j])) {
+        diff.newCount = add(diff.newFailures, diff.newCount, current, a[i++]);
+      } else if (i >= a.length || b[j] < a[i]) {
+        diff.fixedCount = add(diff.fixedFailures, diff.fixedCount, baseline, b[j++]);
+      } else {
+        diff.recurringCount =
+            add(diff.recurringFailures, diff.recurringCount, current, a[i++]);
+        j++;
+      }
+    }
+    return diff;
+  }
+
+  private static long add(List<Failure> failures, long count, FailureFingerprints step,
+      long fingerprint) {
+    if (failures.size() < MAX_LISTED_FAILURES) {
+      failures.add(new Failure(FailureFingerprints.caseIndex(fingerprint),
+          step.getSource(fingerprint), FailureFingerprints.level(fingerprint)));
+    }
+    return count + 1;
+  }
+
+  public List<StepDiff> getSteps() {
+    return Collections.unmodifiableList(steps);
+  }
+
+  public long getNewCount() {
+    return steps.stream().mapToLong(StepDiff::getNewCount).sum();
+  }
+
+  public long getFixedCount() {
+    return steps.stream().mapToLong(StepDiff::getFixedCount).sum();
+  }
+
+  public long getRecurringCount() {
+    return steps.stream().mapToLong(StepDiff::getRecurringCount).sum();
+  }
+
+  /**
+   * Failure differences of one step.
+   */
+  public static final class StepDiff {
+
+    private final String testPlanName;
+    private final boolean inBaseline;
+    private final List<Failure> newFailures = new ArrayList<>();
+    private final List<Failure> fixedFailures = new ArrayList<>();
+    private final List<Failure> recurringFailures = new ArrayList<>();
+    private long newCount;
+    private long fixedCount;
+    private long recurringCount;
+
+    private StepDiff(String testPlanName, boolean inBaseline) {
+      this.testPlanName = testPlanName;
+      this.inBaseline = inBaseline;
+    }
+
+    public String getTestPlanName() {
+      return testPlanName;
+    }
+
+    /**
+     * Tells if the baseline build ran the same test plan. If not, all failures are new.
+     */
+    public boolean isInBaseline() {
+      return inBaseline;
+    }
+
+    /**
+     * Failures which were not in the baseline, at most {@value #MAX_LISTED_FAILURES}.
+     */
+    public List<Failure> getNewFailures() {
+      return Collections.unmodifiableList(newFailures);
+    }
+
+    /**
+     * Failures of the baseline which are gone, at most {@value #MAX_LISTED_FAILURES}.
+     */
+    public List<Failure> getFixedFailures() {
+      return Collections.unmodifiableList(fixedFailures);
+    }
+
+    /**
+     * Failures found in both builds, at most {@value #MAX_LISTED_FAILURES}.
+     */
+    public List<Failure> getRecurringFailures() {
+      return Collections.unmodifiableList(recurringFailures);
+    }
+
+    public long getNewCount() {
+      return newCount;
+    }
+
+    public long getFixedCount() {
+      return fixedCount;
+    }
+
+    public long getRecurringCount() {
+      return recurringCount;
+    }
+  }
+
+  /**
+   * Failure of a test case.
+   */
+  public static final class Failure {
+
+    private final long caseIndex;
+    private final String source;
+    private final FailureLevel level;
+
+    Failure(long caseIndex, String source, FailureLevel level) {
+      this.caseIndex = caseIndex;
+      this.source = source;
+      this.level = level;
+    }
+
+    public long getCaseIndex() {
+      return caseIndex;
+    }
+
+    public String getSource() {
+      return source;
+    }
+
+    public FailureLevel getLevel() {
+      return level;
+    }
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Run;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.RunAction2;
+
+/**
+ * Compares failures of a build with the previous build having failure fingerprints, or with a
+ * chosen baseline build. Fingerprints of each Defensics step are stored in
+ * {@value #DIR_NAME} directory of the build when the step completes, and loaded when a diff is
+ * first requested. Loaded fingerprints are softly referenced, so they are kept for the next
+ * comparison unless memory runs low.
+ */
+public class FailureDiffAction implements RunAction2 {
+
+  public static final String URL_NAME = "defensicsFailureDiff";
+  public static final String DIR_NAME = "defensics-failures";
+
+  /**
+   * Maximum number of earlier builds searched for a baseline.
+   */
+  public static final int MAX_BASELINE_BUILDS = 50;
+
+  private static final Logger LOGGER = Logger.getLogger(FailureDiffAction.class.getName());
+  private static final String FILE_SUFFIX = ".bin";
+
+  private transient Run<?, ?> run;
+  private transient SoftReference<List<FailureFingerprints>> fingerprints;
+
+  @Override
+  public void onAttached(Run<?, ?> r) {
+    run = r;
+  }
+
+  @Override
+  public void onLoad(Run<?, ?> r) {
+    run = r;
+  }
+
+  public Run<?, ?> getRun() {
+    return run;
+  }
+
+  @CheckForNull
+  @Override
+  public String getIconFileName() {
+    return "/plugin/defensics/images/24x24/defensics-logo.png";
+  }
+
+  @CheckForNull
+  @Override
+  public String getDisplayName() {
+    return "Defensics Failure Diff";
+  }
+
+  @NonNull
+  @Override
+  public String getUrlName() {
+    return URL_NAME;
+  }
+
+  /**
+   * Stores failure fingerprints of a Defensics step.
+   *
+   * @param run            Jenkins build
+   * @param defensicsRunId Defensics run ID of the step
+   * @param failures       Failure fingerprints of the step
+   * @throws IOException if writing the fingerprints fails
+   */
+  public static void save(Run<?, ?> run, String defensicsRunId, FailureFingerprints failures)
+      throws IOException {
+    failures.write(new File(new File(run.getRootDir(), DIR_NAME), defensicsRunId + FILE_SUFFIX));
+  }
+
+  /**
+   * Returns failure fingerprints of each Defensics step of the build, in the order the steps
+   * completed.
+   *
+   * @return Fingerprints by step
+   */
+  public synchronized List<FailureFingerprints> getFingerprints() {
+    List<FailureFingerprints> loaded = fingerprints == null ? null : fingerprints.get();
+    if (loaded == null) {
+      loaded = load();
+      fingerprints = new SoftReference<>(loaded);
+    }
+    return loaded;
+  }
+
+  private List<FailureFingerprints> load() {
+    final File[] files = new File(run.getRootDir(), DIR_NAME)
+        .listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+    if (files == null) {
+      return Collections.emptyList();
+    }
+    Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+    final List<FailureFingerprints> steps = new ArrayList<>();
+    for (File file : files) {
+      try {
+        steps.add(FailureFingerprints.read(file));
+      } catch (IOException e) {
+        LOGGER.log(Level.WARNING, "Could not read failure fingerprints " + file, e);
+      }
+    }
+    return Collections.unmodifiableList(steps);
+  }
+
+  /**
+   * Returns failure fingerprints of the first step of the build which ran given suite and had
+   * failures.
+   *
+   * @param suiteName Suite name, i.e. test plan file name without the extension, under which the
+   *                  fingerprints were recorded
+   * @return Fingerprints, or null if the suite had no failures in this build
+   */
+  @CheckForNull
+  public FailureFingerprints getFailures(String suiteName) {
+    return getFingerprints().stream()
+        .filter(step -> step.getTestPlanName().equals(suiteName) && step.size() > 0)
+        .findFirst()
+        .orElse(null);
+  }
+
+  /**
+   * Finds the latest earlier build in which given suite had recorded failures. At most
+   * {@value #MAX_BASELINE_BUILDS} builds are searched.
+   *
+   * @param run       Build to start searching from. Not included in the search.
+   * @param suiteName Suite name, i.e. test plan file name without the extension
+   * @return Failing build, or null if none was found
+   */
+  @CheckForNull
+  public static Run<?, ?> findLastFailingBuild(Run<?, ?> run, String suiteName) {
+    Run<?, ?> previous = run.getPreviousBuild();
+    for (int i = 0; i < MAX_BASELINE_BUILDS && previous != null; i++) {
+      final FailureDiffAction action = previous.getAction(FailureDiffAction.class);
+      if (action != null && action.getFailures(suiteName) != null) {
+        return previous;
+      }
+      previous = previous.getPreviousBuild();
+    }
+    return null;
+  }
+
+  /**
+   * Returns earlier builds which can be used as a baseline, newest first.
+   *
+   * @return Builds with failure fingerprints
+   */
+  public List<Run<?, ?>> getBaselineCandidates() {
+    final List<Run<?, ?>> candidates = new ArrayList<>();
+    Run<?, ?> previous = run.getPreviousBuild();
+    for (int i = 0; i < MAX_BASELINE_BUILDS && previous != null; i++) {
+      if (previous.getAction(FailureDiffAction.class) != null) {
+        candidates.add(previous);
+      }
+      previous = previous.getPreviousBuild();
+    }
+    return candidates;
+  }
+
+  /**
+   * Returns the baseline build.
+   *
+   * @param buildNumber Number of the chosen baseline build, or null or empty for the previous
+   *                    build with failure fingerprints
+   * @return Baseline build, or null if there's none
+   */
+  @CheckForNull
+  public Run<?, ?> getBaseline(@CheckForNull String buildNumber) {
+    if (buildNumber == null || buildNumber.trim().isEmpty()) {
+      final List<Run<?, ?>> candidates = getBaselineCandidates();
+      return candidates.isEmpty() ? null : candidates.get(0);
+    }
+    try {
+      final Run<?, ?> baseline = run.getParent().getBuildByNumber(
+          Integer.parseInt(buildNumber.trim()));
+      return baseline != null && baseline.getAction(FailureDiffAction.class) != null
+          ? baseline : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Compares failures of the build with a baseline build.
+   *
+   * @param baseline Baseline build, see {@link #getBaseline(String)}
+   * @return Failure differences
+   */
+  public FailureDiff getDiff(Run<?, ?> baseline) {
+    final FailureDiffAction baselineAction = baseline.getAction(FailureDiffAction.class);
+    return FailureDiff.compare(getFingerprints(), baselineAction == null
+        ? Collections.emptyList() : baselineAction.getFingerprints());
+  }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import com.defensics.apiserver.model.FailureLevel;
+import com.defensics.jenkins.result.CaseLogParser.Failure;
+import com.defensics.jenkins.result.CaseLogParser.TestCase;
+import com.defensics.jenkins.util.ZipExtractor.EntryHandler;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.commons.io.input.CountingInputStream;
+
+/**
+ * Failures of one Defensics step, as a sorted array of fingerprints. A fingerprint packs the test
+ * case index, a hash of the failure source and the failure level into one {@code long}, so the
+ * failures of two builds can be compared with a single merge pass and even millions of failures
+ * take only eight bytes each. Source names are kept in a small dictionary by their hash.
+ *
+ * <p>Fingerprints are stored in a binary file in the build directory when the step completes,
+ * since XML would take many times the space for large failure sets.
+ */
+public final class FailureFingerprints {
+
+  private static final int MAGIC = 0x44464650;
+  private static final int VERSION = 1;
+
+  private static final int LEVEL_BITS = 4;
+  private static final int SOURCE_BITS = 20;
+  private static final int CASE_SHIFT = LEVEL_BITS + SOURCE_BITS;
+  private static final long MAX_CASE_INDEX = Long.MAX_VALUE >>> CASE_SHIFT;
+
+  private final String testPlanName;
+  private final long[] fingerprints;
+  private final Map<Integer, String> sources;
+
+  FailureFingerprints(String testPlanName, long[] fingerprints, Map<Integer, String> sources) {
+    this.testPlanName = testPlanName;
+    this.fingerprints = fingerprints;
+    this.sources = sources;
+  }
+
+  public String getTestPlanName() {
+    return testPlanName;
+  }
+
+  public int size() {
+    return fingerprints.length;
+  }
+
+  /**
+   * Returns the fingerprints in ascending order. The array must not be modified.
+   */
+  long[] getFingerprints() {
+    return fingerprints;
+  }
+
+  /**
+   * Returns indexes of the failed test cases.
+   *
+   * @param max Maximum number of returned indexes
+   * @return Distinct case indexes in ascending order, at most {@code max} lowest ones
+   */
+  public long[] getCaseIndexes(int max) {
+    final long[] indexes = new long[Math.min(max, fingerprints.length)];
+    int count = 0;
+    for (int i = 0; i < fingerprints.length && count < indexes.length; i++) {
+      final long index = caseIndex(fingerprints[i]);
+      if (count == 0 || indexes[count - 1] != index) {
+        indexes[count++] = index;
+      }
+    }
+    return Arrays.copyOf(indexes, count);
+  }
+
+  /**
+   * Returns name of the failure source of a fingerprint.
+   *
+   * @param fingerprint Fingerprint of this step
+   * @return Source name
+   */
+  String getSource(long fingerprint) {
+    return sources.getOrDefault(sourceHash(fingerprint), "unknown");
+  }
+
+  Map<Integer, String> getSources() {
+    return Collections.unmodifiableMap(sources);
+  }
+
+  static long encode(long caseIndex, String source, FailureLevel level) {
+    if (caseIndex < 0 || caseIndex > MAX_CASE_INDEX) {
+      throw new IllegalArgumentException("Test case index out of range: " + caseIndex);
+    }
+    return caseIndex << CASE_SHIFT | (long) hash(source) << LEVEL_BITS | level.ordinal();
+  }
+
+  static long caseIndex(long fingerprint) {
+    return fingerprint >>> CASE_SHIFT;
+  }
+
+  static FailureLevel level(long fingerprint) {
+    final FailureLevel[] levels = FailureLevel.values();
+    final int ordinal = (int) (fingerprint & ((1 << LEVEL_BITS) - 1));
+    return ordinal < levels.length ? levels[ordinal] : FailureLevel.UNKNOWN_VALUE;
+  }
+
+  private static int sourceHash(long fingerprint) {
+    return (int) (fingerprint >>> LEVEL_BITS) & ((1 << SOURCE_BITS) - 1);
+  }
+
+  private static int hash(String source) {
+    final int hash = source.hashCode();
+    return (hash ^ (hash >>> SOURCE_BITS)) & ((1 << SOURCE_BITS) - 1);
+  }
+
+  /**
+   * Writes fingerprints into a file, replacing it atomically.
+   *
+   * @param file Target file
+   * @throws IOException if writing fails
+   */
+  public void write(File file) throws IOException {
+    Files.createDirectories(file.getParentFile().toPath());
+    final File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(temp.toPath())))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeUTF(testPlanName);
+      out.writeInt(sources.size());
+      for (Map.Entry<Integer, String> source : sources.entrySet()) {
+        out.writeInt(source.getKey());
+        out.writeUTF(source.getValue());
+      }
+      out.writeInt(fingerprints.length);
+      for (long fingerprint : fingerprints) {
+        out.writeLong(fingerprint);
+      }
+    }
+    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Reads fingerprints written by {@link #write(File)}.
+   *
+   * @param file Fingerprint file
+   * @return Fingerprints
+   * @throws IOException if reading fails or the file is not a fingerprint file
+   */
+  public static FailureFingerprints read(File file) throws IOException {
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new IOException("Not a failure fingerprint file: " + file);
+      }
+      final String testPlanName = in.readUTF();
+      final int sourceCount = in.readInt();
+      final Map<Integer, String> sources = new TreeMap<>();
+      for (int i = 0; i < sourceCount; i++) {
+        sources.put(in.readInt(), in.readUTF());
+      }
+      final long[] fingerprints = new long[in.readInt()];
+      for (int i = 0; i < fingerprints.length; i++) {
+        fingerprints[i] = in.readLong();
+      }
+      return new FailureFingerprints(testPlanName, fingerprints, sources);
+    }
+  }
+
+  /**
+   * Collects failure fingerprints of test cases as they are read from the case logs. Failures
+   * and warnings come from the instrumentation results of the case, with the instrumentation
+   * source as the failure source. A failed verdict without failed instrumentation results has
+   * source {@value CaseLogParser#VERDICT_SOURCE}.
+   */
+  public static final class Builder implements EntryHandler {
+
+    private final String testPlanName;
+    private final Map<Integer, String> sources = new TreeMap<>();
+    private long[] fingerprints = new long[64];
+    private int size;
+    private long cases;
+
+    public Builder(String testPlanName) {
+      this.testPlanName = testPlanName;
+    }
+
+    /**
+     * Reads failures of main log entries of a result package. Other entries are skipped.
+     *
+     * @param name    Entry name in the result package
+     * @param content Entry content. Not closed by this method.
+     * @return Number of bytes read
+     * @throws IOException if reading fails
+     */
+    @Override
+    public long handle(String name, InputStream content) throws IOException {
+      if (!JUnitReportWriter.isCaseLog(name)) {
+        return 0;
+      }
+      final CountingInputStream counted = new CountingInputStream(content);
+      read(counted);
+      return counted.getByteCount();
+    }
+
+    /**
+     * Reads failures of all test cases in case log.
+     *
+     * @param caseLog Main log of the result. Not closed by this method.
+     * @return Number of test cases read
+     * @throws IOException if reading fails
+     */
+    public long read(InputStream caseLog) throws IOException {
+      final CaseLogParser parser =
+          new CaseLogParser(new InputStreamReader(caseLog, StandardCharsets.UTF_8));
+      long logCases = 0;
+      TestCase testCase;
+      while ((testCase = parser.next()) != null) {
+        add(testCase);
+        logCases++;
+      }
+      cases += logCases;
+      return logCases;
+    }
+
+    /**
+     * Returns number of test cases read so far.
+     *
+     * @return Number of test cases
+     */
+    public long getCaseCount() {
+      return cases;
+    }
+
+    private void add(TestCase testCase) {
+      for (Failure failure : testCase.getFailures()) {
+        final String source = failure.getSource();
+        sources.putIfAbsent(hash(source), source);
+        if (size == fingerprints.length) {
+          fingerprints = Arrays.copyOf(fingerprints, size * 2);
+        }
+        fingerprints[size++] = encode(testCase.getIndex(), source, failure.getLevel());
+      }
+    }
+
+    /**
+     * Returns collected fingerprints, sorted and without duplicates.
+     */
+    public FailureFingerprints build() {
+      final long[] sorted = Arrays.copyOf(fingerprints, size);
+      Arrays.sort(sorted);
+      int unique = 0;
+      for (int i = 0; i < sorted.length; i++) {
+        if (i == 0 || sorted[i] != sorted[i - 1]) {
+          sorted[unique++] = sorted[i];
+        }
+      }
+      return new FailureFingerprints(testPlanName, Arrays.copyOf(sorted, unique),
+          new TreeMap<>(sources));
+    }
+  }
+}
@@ -27,6 +27,9 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 /**
  * This class exists to enable replacing the default graph icon html publisher uses
  * for html actions with our own icon.
+ *
+ * <p>Reports are nowadays published with {@link ReportAction}. This class is kept so that reports
+ * of builds published by older plugin versions can still be loaded and viewed.
  */
 public final class HtmlReportPublisherTarget extends HtmlPublisherTarget {
 
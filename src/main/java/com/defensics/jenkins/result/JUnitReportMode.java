@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+/**
+ * How Defensics results are converted into JUnit XML for the JUnit test result tooling of
+ * Jenkins.
+ */
+public enum JUnitReportMode {
+  NONE("No JUnit report"),
+  CASE_GROUPS("One test per test case group"),
+  FAILED_CASES("One test per failed test case");
+
+  private final String displayName;
+
+  JUnitReportMode(String displayName) {
+    this.displayName = displayName;
+  }
+
+  public String getDisplayName() {
+    return displayName;
+  }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import com.defensics.jenkins.result.CaseLogParser.Failure;
+import com.defensics.jenkins.result.CaseLogParser.TestCase;
+import com.defensics.jenkins.util.ZipExtractor.EntryHandler;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.apache.commons.io.input.CountingInputStream;
+
+/**
+ * Converts main logs of a Defensics result into a JUnit XML test report. The logs are parsed and
+ * the report written one test case at a time, so converting a result of millions of test cases
+ * takes the same amount of memory as a small one. Cases of every main log handled are appended to
+ * the same report. Counts are left out of the {@code testsuite} element, since they are known only
+ * at the end, and JUnit report readers count the tests themselves.
+ */
+public final class JUnitReportWriter implements EntryHandler {
+
+  /**
+   * Name of the main log in a result package. The log can be in a subdirectory of the package.
+   */
+  public static final String CASE_LOG_NAME = "main.log";
+
+  /**
+   * Name of the test which stands for all passed test cases, when only failed cases are reported.
+   */
+  static final String PASSED_CASES_NAME = "passed test cases";
+
+  /**
+   * Maximum number of failed cases listed in the failure of a test case group.
+   */
+  static final int MAX_LISTED_CASES = 100;
+
+  private final String suiteName;
+  private final JUnitReportMode mode;
+  private final OutputStream out;
+
+  private XMLStreamWriter xml;
+  private long cases;
+  private long passedCases;
+  private String group;
+  private long groupCases;
+  private long groupFailedCases;
+  private StringBuilder groupFailures;
+
+  /**
+   * Constructor.
+   *
+   * @param suiteName Name of the test suite in the report, e.g. the test plan name
+   * @param mode      How the cases are reported. Must not be {@link JUnitReportMode#NONE}.
+   * @param out       Report output. Not closed by this writer.
+   */
+  public JUnitReportWriter(String suiteName, JUnitReportMode mode, OutputStream out) {
+    if (mode == JUnitReportMode.NONE) {
+      throw new IllegalArgumentException("JUnit report mode must be chosen");
+    }
+    this.suiteName = suiteName;
+    this.mode = mode;
+    this.out = out;
+  }
+
+  /**
+   * Checks if a result package entry is the main log.
+   *
+   * @param entryName Entry name in the result package
+   * @return true if the entry is converted
+   */
+  public static boolean isCaseLog(String entryName) {
+    return entryName.equals(CASE_LOG_NAME) || entryName.endsWith("/" + CASE_LOG_NAME);
+  }
+
+  /**
+   * Appends test cases of main log entries of a result package to the report. Other entries are
+   * skipped.
+   *
+   * @param name    Entry name in the result package
+   * @param content Entry content. Not closed by this method.
+   * @return Number of bytes read
+   * @throws IOException if reading the log or writing the report fails
+   */
+  @Override
+  public long handle(String name, InputStream content) throws IOException {
+    if (!isCaseLog(name)) {
+      return 0;
+    }
+    final CountingInputStream counted = new CountingInputStream(content);
+    add(counted);
+    return counted.getByteCount();
+  }
+
+  /**
+   * Appends test cases of main log to the report.
+   *
+   * @param caseLog Main log of the result. Not closed by this method.
+   * @return Number of test cases read from the log
+   * @throws IOException if reading the log or writing the report fails
+   */
+  public long add(InputStream caseLog) throws IOException {
+    final CaseLogParser parser =
+        new CaseLogParser(new InputStreamReader(caseLog, StandardCharsets.UTF_8));
+    long logCases = 0;
+    try {
+      start();
+      TestCase testCase;
+      while ((testCase = parser.next()) != null) {
+        logCases++;
+        if (mode == JUnitReportMode.CASE_GROUPS) {
+          addToGroup(testCase);
+        } else if (testCase.isFailed()) {
+          writeFailedCase(testCase);
+        } else {
+          passedCases++;
+        }
+      }
+      // Groups don't continue from one log to another
+      if (group != null) {
+        writeGroup();
+        group = null;
+      }
+    } catch (XMLStreamException e) {
+      throw new IOException("Could not write JUnit report: " + e.getMessage(), e);
+    }
+    cases += logCases;
+    return logCases;
+  }
+
+  /**
+   * Ends the report. No cases can be added after this.
+   *
+   * @throws IOException if writing the report fails
+   */
+  public void finish() throws IOException {
+    try {
+      start();
+      if (passedCases > 0) {
+        writeTestCase(PASSED_CASES_NAME, null, passedCases + " test cases passed");
+      }
+      xml.writeEndElement();
+      xml.writeEndDocument();
+      xml.flush();
+      xml.close();
+    } catch (XMLStreamException e) {
+      throw new IOException("Could not write JUnit report: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Returns number of test cases added to the report so far.
+   *
+   * @return Number of test cases
+   */
+  public long getCaseCount() {
+    return cases;
+  }
+
+  /**
+   * Writes start of the report, if not written yet.
+   */
+  private void start() throws XMLStreamException {
+    if (xml != null) {
+      return;
+    }
+    xml = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+    xml.writeStartDocument("UTF-8", "1.0");
+    xml.writeStartElement("testsuite");
+    xml.writeAttribute("name", clean(suiteName));
+  }
+
+  /**
+   * Adds case to the current group. Cases of a group are executed one after another, so a group
+   * is written as soon as the next group starts.
+   */
+  private void addToGroup(TestCase testCase) throws XMLStreamException {
+    final String caseGroup =
+        testCase.getGroup().isEmpty() ? "Test case #" + testCase.getIndex() : testCase.getGroup();
+    if (!caseGroup.equals(group)) {
+      if (group != null) {
+        writeGroup();
+      }
+      group = caseGroup;
+      groupCases = 0;
+      groupFailedCases = 0;
+      groupFailures = new StringBuilder();
+    }
+    groupCases++;
+    if (testCase.isFailed()) {
+      groupFailedCases++;
+      if (groupFailedCases <= MAX_LISTED_CASES) {
+        groupFailures.append(describe(testCase)).append('\n');
+        for (Failure failure : testCase.getFailures()) {
+          groupFailures.append("  ").append(failure).append('\n');
+        }
+      }
+    }
+  }
+
+  private void writeGroup() throws XMLStreamException {
+    if (groupFailedCases == 0) {
+      writeTestCase(group, null, groupCases + " test cases passed");
+      return;
+    }
+    if (groupFailedCases > MAX_LISTED_CASES) {
+      groupFailures.append("... and ").append(groupFailedCases - MAX_LISTED_CASES)
+          .append(" more failed test cases\n");
+    }
+    writeTestCase(group, groupFailedCases + " of " + groupCases + " test cases failed",
+        groupFailures.toString());
+  }
+
+  private void writeFailedCase(TestCase testCase) throws XMLStreamException {
+    final StringBuilder details = new StringBuilder(describe(testCase)).append('\n');
+    for (Failure failure : testCase.getFailures()) {
+      details.append(failure).append('\n');
+    }
+    if (testCase.getFailureCount() > testCase.getFailures().size()) {
+      details.append("... and ")
+          .append(testCase.getFailureCount() - testCase.getFailures().size())
+          .append(" more failures\n");
+    }
+    final String message = testCase.getFailures().isEmpty()
+        ? "Test case failed" : testCase.getFailures().get(0).toString();
+    writeTestCase(testCase.getName().isEmpty() ? describe(testCase) : testCase.getName(),
+        message, details.toString());
+  }
+
+  /**
+   * Writes test case element.
+   *
+   * @param name    Test name
+   * @param failure Failure message, or null if the test passed
+   * @param details Failure details or standard output of a passed test
+   */
+  private void writeTestCase(String name, String failure, String details)
+      throws XMLStreamException {
+    xml.writeStartElement("testcase");
+    xml.writeAttribute("classname", clean(suiteName));
+    xml.writeAttribute("name", clean(name));
+    if (failure != null) {
+      xml.writeStartElement("failure");
+      xml.writeAttribute("message", clean(failure));
+      xml.writeCharacters(clean(details));
+      xml.writeEndElement();
+    } else {
+      xml.writeStartElement("system-out");
+      xml.writeCharacters(clean(details));
+      xml.writeEndElement();
+    }
+    xml.writeEndElement();
+  }
+
+  private static String describe(TestCase testCase) {
+    return testCase.getName().isEmpty()
+        ? "Test case #" + testCase.getIndex()
+        : "Test case #" + testCase.getIndex() + " " + testCase.getName();
+  }
+
+  /**
+   * Replaces characters which are not allowed in XML, e.g. control characters in fuzzed data
+   * echoed to the log.
+   */
+  static String clean(String text) {
+    StringBuilder cleaned = null;
+    for (int i = 0; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      final boolean valid = c == '\t' || c == '\n' || c == '\r'
+          || (c >= 0x20 && c <= 0xd7ff) || (c >= 0xe000 && c <= 0xfffd)
+          || (Character.isSurrogate(c) && isSurrogatePair(text, i));
+      if (!valid && cleaned == null) {
+        cleaned = new StringBuilder(text.length()).append(text, 0, i);
+      }
+      if (cleaned != null) {
+        cleaned.append(valid ? c : '?');
+      }
+    }
+    return cleaned == null ? text : cleaned.toString();
+  }
+
+  private static boolean isSurrogatePair(String text, int i) {
+    final char c = text.charAt(i);
+    if (Character.isHighSurrogate(c)) {
+      return i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1));
+    }
+    return i > 0 && Character.isHighSurrogate(text.charAt(i - 1));
+  }
+}
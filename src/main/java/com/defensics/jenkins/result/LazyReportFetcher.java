@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import com.defensics.api.ApiService;
+import com.defensics.client.DefensicsRequestException;
+import com.defensics.client.model.HtmlReport;
+import com.defensics.jenkins.configuration.InstanceConfiguration;
+import com.defensics.jenkins.configuration.PluginConfiguration;
+import com.defensics.jenkins.result.ReportAction.Report;
+import hudson.AbortException;
+import hudson.model.Run;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.GlobalConfiguration;
+
+/**
+ * Fetches reports which were left in Defensics when the build completed, see
+ * {@link Report#lazy(String, String, String, String, String, ReportFormat)}. The report is stored
+ * in the build the same way as reports downloaded during the build.
+ */
+final class LazyReportFetcher {
+
+  private static final Logger LOGGER = Logger.getLogger(LazyReportFetcher.class.getName());
+
+  private LazyReportFetcher() {
+  }
+
+  /**
+   * Downloads lazy report from the Defensics instance which ran the tests.
+   *
+   * @param run    Jenkins build the report belongs to
+   * @param report Lazy report
+   * @return Report stored in the build
+   * @throws IOException               if the Defensics instance is not configured anymore, or
+   *                                   downloading or storing the report fails
+   * @throws DefensicsRequestException if server responds with error, e.g. the result has been
+   *                                   deleted
+   * @throws InterruptedException      if downloading is interrupted
+   */
+  static Report fetch(Run<?, ?> run, Report report)
+      throws IOException, DefensicsRequestException, InterruptedException {
+    final PluginConfiguration configuration =
+        GlobalConfiguration.all().getInstance(PluginConfiguration.class);
+    final InstanceConfiguration instance = configuration == null ? null
+        : configuration.findDefensicsInstance(report.getInstanceName()).orElse(null);
+    if (instance == null) {
+      throw new AbortException("Defensics instance '" + report.getInstanceName()
+          + "' is not configured anymore");
+    }
+    final ApiService apiService = instance.createApiService();
+    final ReportWriter reportWriter = new ReportWriter(
+        ReportAction.getReportDir(run, report.getRunId()), report.getFileName(),
+        AssetStore.forJob(run.getParent()), configuration.isCompressReports());
+    try {
+      final HtmlReport format = report.getFormat().getHtmlReport();
+      final long bytes = apiService.saveReport(report.getResultId(), format,
+          content -> reportWriter.write(content, format));
+      reportWriter.finish();
+      LOGGER.log(Level.FINE, "Fetched {0} bytes of Defensics report {1} of {2}",
+          new Object[] {bytes, report.getRunId(), run.getFullDisplayName()});
+    } catch (IOException | DefensicsRequestException | InterruptedException e) {
+      reportWriter.discard();
+      throw e;
+    }
+    return new Report(report.getTitle(), report.getRunId(), report.getFileName(),
+        reportWriter.getAssets());
+  }
+}
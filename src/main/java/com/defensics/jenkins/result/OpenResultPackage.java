@@ -0,0 +1,226 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * Result package kept open for browsing. Opening a {@link ZipFile} reads the central directory of
+ * the archive, which is slow for packages of millions of entries, so recently browsed packages
+ * are kept open in a small LRU cache. Entry names are also kept sorted, so directories can be
+ * listed without going through the whole archive.
+ *
+ * <p>Packages are borrowed from the cache with {@link #open(File)} and given back with
+ * {@link #close()}. A package dropped from the cache is closed once nobody is reading it.
+ */
+final class OpenResultPackage implements Closeable {
+
+  private static final Map<String, OpenResultPackage> OPEN =
+      new LinkedHashMap<String, OpenResultPackage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, OpenResultPackage> eldest) {
+          if (size() <= ResultPackageBrowser.MAX_OPEN_PACKAGES) {
+            return false;
+          }
+          eldest.getValue().evict();
+          return true;
+        }
+      };
+
+  private final File file;
+  private final long lastModified;
+  private final long length;
+  private final ZipFile zip;
+  private final String[] names;
+
+  // Guarded by OPEN
+  private int users;
+  private boolean evicted;
+
+  private OpenResultPackage(File file) throws IOException {
+    this.file = file;
+    lastModified = file.lastModified();
+    length = file.length();
+    zip = new ZipFile(file);
+    try {
+      final String[] entryNames = new String[zip.size()];
+      int count = 0;
+      final Enumeration<? extends ZipEntry> entries = zip.entries();
+      while (entries.hasMoreElements() && count < entryNames.length) {
+        entryNames[count++] = entries.nextElement().getName();
+      }
+      names = Arrays.copyOf(entryNames, count);
+      Arrays.sort(names);
+    } catch (RuntimeException e) {
+      zip.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns open result package from the cache, opening it if it's not cached or the file has
+   * changed. Opening is never done under the cache lock, so concurrent requests for an uncached
+   * package may open it more than once.
+   *
+   * @param file Package file
+   * @return Open package. Must be closed by the caller.
+   * @throws ZipException if the file is not a valid zip archive
+   * @throws IOException  if reading the file fails
+   */
+  static OpenResultPackage open(File file) throws IOException {
+    final String key = file.getAbsolutePath();
+    synchronized (OPEN) {
+      final OpenResultPackage cached = OPEN.get(key);
+      if (cached != null) {
+        if (!cached.isStale()) {
+          cached.users++;
+          return cached;
+        }
+        OPEN.remove(key);
+        cached.evict();
+      }
+    }
+    final OpenResultPackage opened = new OpenResultPackage(file);
+    synchronized (OPEN) {
+      opened.users++;
+      final OpenResultPackage previous = OPEN.put(key, opened);
+      if (previous != null) {
+        previous.evict();
+      }
+    }
+    return opened;
+  }
+
+  /**
+   * Tells if the package file has changed since it was opened.
+   *
+   * @return true if the file has changed
+   */
+  boolean isStale() {
+    return file.lastModified() != lastModified || file.length() != length;
+  }
+
+  /**
+   * Finds entry by its name.
+   *
+   * @param name Entry name, i.e. path in the package
+   * @return Entry, or null if there's no such entry
+   */
+  ZipEntry getEntry(String name) {
+    return zip.getEntry(name);
+  }
+
+  /**
+   * Opens entry for reading.
+   *
+   * @param entry Entry of this package
+   * @return Decompressed content of the entry. Must be closed before the package.
+   * @throws IOException if reading the package fails
+   */
+  InputStream getInputStream(ZipEntry entry) throws IOException {
+    return zip.getInputStream(entry);
+  }
+
+  /**
+   * Tells if the package has any entries in given directory.
+   *
+   * @param directory Directory path ending with slash
+   * @return true if there are entries under the directory
+   */
+  boolean isDirectory(String directory) {
+    final int first = lowerBound(directory);
+    return first < names.length && names[first].startsWith(directory);
+  }
+
+  /**
+   * Lists files and subdirectories directly under given directory, in name order. Subdirectory
+   * names end with slash. Whole subdirectories are skipped with binary search, so listing a
+   * directory doesn't go through the entries of its subdirectories.
+   *
+   * @param directory  Directory path ending with slash, or empty string for the root
+   * @param maxEntries Maximum number of listed names
+   * @return Names relative to the directory
+   */
+  List<String> list(String directory, int maxEntries) {
+    final List<String> children = new ArrayList<>();
+    int i = lowerBound(directory);
+    while (i < names.length && children.size() < maxEntries
+        && names[i].startsWith(directory)) {
+      final String rest = names[i].substring(directory.length());
+      final int slash = rest.indexOf('/');
+      if (rest.isEmpty()) {
+        i++;
+      } else if (slash < 0) {
+        children.add(rest);
+        i++;
+      } else {
+        final String child = rest.substring(0, slash);
+        children.add(child + "/");
+        // '0' is the character after '/', so this is the first name outside the subdirectory
+        i = lowerBound(directory + child + '0');
+      }
+    }
+    return children;
+  }
+
+  /**
+   * Gives the package back to the cache. The archive is closed if the package has been dropped
+   * from the cache and nobody else is reading it.
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (OPEN) {
+      users--;
+      if (!evicted || users > 0) {
+        return;
+      }
+    }
+    zip.close();
+  }
+
+  /**
+   * Marks the package dropped from the cache, closing it if nobody is reading it. Called under
+   * the cache lock.
+   */
+  private void evict() {
+    evicted = true;
+    if (users == 0) {
+      try {
+        zip.close();
+      } catch (IOException e) {
+        // Nothing is lost, the archive was only read
+      }
+    }
+  }
+
+  private int lowerBound(String name) {
+    final int index = Arrays.binarySearch(names, name);
+    return index >= 0 ? index : -index - 1;
+  }
+}
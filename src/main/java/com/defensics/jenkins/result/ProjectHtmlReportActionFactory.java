@@ -30,9 +30,10 @@ import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.DoNotUse;
 
 /**
- * This class provides a link to the left sidebar menu for freestyle projects. For pipeline
- * projects, this is handled by WorkflowActionsFactory calling {@link
- * HtmlReportPublisherTarget#getProjectAction(AbstractItem)}.
+ * This class provides a link to the latest build's Defensics report to the left sidebar menu of
+ * projects. Builds published by older plugin versions have {@link HtmlReportAction}s of HTML
+ * Publisher instead of {@link ReportAction}; for their pipeline projects the link is handled by
+ * WorkflowActionsFactory calling {@link HtmlReportPublisherTarget#getProjectAction(AbstractItem)}.
  */
 @Restricted(DoNotUse.class)
 @Extension
@@ -47,10 +48,13 @@ public class ProjectHtmlReportActionFactory extends TransientActionFactory<Job>
   @NonNull
   public Collection<? extends Action> createFor(@NonNull Job project) {
     final Run<?,?> lastCompletedBuild = project.getLastCompletedBuild();
-    if (lastCompletedBuild != null) {
-      return lastCompletedBuild.getActions(HtmlReportAction.class);
-    } else {
+    if (lastCompletedBuild == null) {
       return Collections.emptyList();
     }
+    final ReportAction reportAction = lastCompletedBuild.getAction(ReportAction.class);
+    if (reportAction != null) {
+      return Collections.singleton(reportAction);
+    }
+    return lastCompletedBuild.getActions(HtmlReportAction.class);
   }
 }
@@ -0,0 +1,387 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import com.defensics.client.DefensicsRequestException;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.FilePath;
+import hudson.model.DirectoryBrowserSupport;
+import hudson.model.Run;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+import jenkins.model.RunAction2;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+/**
+ * Defensics HTML reports of a build. Each Defensics step adds its report once, and the report
+ * files are stored in their own directory under the build directory, so adding a report never
+ * touches the reports of earlier steps.
+ */
+public class ReportAction implements RunAction2 {
+
+  private static final Logger LOGGER = Logger.getLogger(ReportAction.class.getName());
+
+  /**
+   * Same URL name HTML Publisher used for the reports, so links to older builds keep working.
+   */
+  public static final String URL_NAME = "Defensics_20Results";
+
+  /**
+   * Directory under build root directory where the reports are stored.
+   */
+  public static final String REPORTS_DIR = "defensics-reports";
+
+  private transient Run<?, ?> run;
+
+  private final List<Report> reports = new ArrayList<>();
+
+  /**
+   * Reports by Defensics run ID and by step name. Built when first needed.
+   */
+  private transient Map<String, Report> index;
+
+  /**
+   * Adds report of a Defensics step. Report files should already be in the report directory, see
+   * {@link #getReportDir(Run, String)}.
+   *
+   * @param report Report to add
+   */
+  public synchronized void addReport(Report report) {
+    reports.add(report);
+    if (index != null) {
+      addToIndex(report);
+    }
+  }
+
+  public synchronized List<Report> getReports() {
+    return Collections.unmodifiableList(new ArrayList<>(reports));
+  }
+
+  /**
+   * Finds report by Defensics run ID or by step name, i.e. test plan name. If several steps used
+   * the same test plan, report of the first step is returned.
+   *
+   * @param key Defensics run ID or step name
+   * @return Report or null if not found
+   */
+  @CheckForNull
+  public synchronized Report getReport(String key) {
+    if (index == null) {
+      index = new HashMap<>();
+      reports.forEach(this::addToIndex);
+    }
+    return index.get(key);
+  }
+
+  private void addToIndex(Report report) {
+    index.put(report.getRunId(), report);
+    index.putIfAbsent(report.getTitle(), report);
+  }
+
+  /**
+   * Returns directory for the report files of one Defensics run.
+   *
+   * @param run   Jenkins build
+   * @param runId Defensics run ID
+   * @return Report directory
+   */
+  public static File getReportDir(Run<?, ?> run, String runId) {
+    return new File(new File(run.getRootDir(), REPORTS_DIR), runId);
+  }
+
+  public Run<?, ?> getRun() {
+    return run;
+  }
+
+  @Override
+  public void onAttached(Run<?, ?> r) {
+    run = r;
+  }
+
+  @Override
+  public void onLoad(Run<?, ?> r) {
+    run = r;
+  }
+
+  @CheckForNull
+  @Override
+  public String getIconFileName() {
+    return "/plugin/defensics/images/24x24/defensics-logo.png";
+  }
+
+  @CheckForNull
+  @Override
+  public String getDisplayName() {
+    return ResultPublisher.REPORT_NAME;
+  }
+
+  @NonNull
+  @Override
+  public String getUrlName() {
+    return URL_NAME;
+  }
+
+  /**
+   * Replaces a report, e.g. a lazy report with the fetched one.
+   *
+   * @param report      Report to replace
+   * @param replacement New version of the report
+   */
+  synchronized void replaceReport(Report report, Report replacement) {
+    final int position = reports.indexOf(report);
+    if (position >= 0) {
+      reports.set(position, replacement);
+      index = null;
+    }
+  }
+
+  /**
+   * Serves report files. Lazy reports are fetched from Defensics on the first request. Report
+   * assets are served from the asset store of the job, and files stored compressed are served
+   * compressed to browsers which accept it.
+   *
+   * @param req Stapler request
+   * @param rsp Stapler response
+   * @throws IOException      if reading the file or writing the response fails
+   * @throws ServletException if serving the file fails
+   */
+  public void doDynamic(StaplerRequest req, StaplerResponse rsp)
+      throws IOException, ServletException {
+    final String path = req.getRestOfPath();
+    Report report = findReport(path);
+    if (report != null && report.isLazy()) {
+      try {
+        report = fetchReport(report);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        rsp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+            "Fetching Defensics report was interrupted");
+        return;
+      } catch (IOException | DefensicsRequestException e) {
+        LOGGER.log(Level.WARNING, "Could not fetch Defensics report " + report.getRunId()
+            + " of " + run.getFullDisplayName(), e);
+        rsp.sendError(HttpServletResponse.SC_BAD_GATEWAY,
+            "Could not fetch Defensics report: " + e.getMessage());
+        return;
+      }
+    }
+    final ReportFile asset = report == null ? null : findAsset(report, path);
+    if (asset != null) {
+      asset.serve(req, rsp);
+      return;
+    }
+    final File reportsDir = new File(run.getRootDir(), REPORTS_DIR);
+    final ReportFile compressed = ReportFile.find(reportsDir, path);
+    if (compressed != null) {
+      compressed.serve(req, rsp);
+      return;
+    }
+    new DirectoryBrowserSupport(this, new FilePath(reportsDir), ResultPublisher.REPORT_NAME,
+        null, false).generateResponse(req, rsp, this);
+  }
+
+  /**
+   * Fetches lazy report, unless a concurrent request already did it.
+   */
+  private Report fetchReport(Report lazyReport)
+      throws IOException, DefensicsRequestException, InterruptedException {
+    synchronized (lazyReport) {
+      final Report current = getReport(lazyReport.getRunId());
+      if (current != null && !current.isLazy()) {
+        return current;
+      }
+      final Report fetched = LazyReportFetcher.fetch(run, lazyReport);
+      replaceReport(lazyReport, fetched);
+      run.save();
+      return fetched;
+    }
+  }
+
+  /**
+   * Finds report whose files the path points to, i.e. the report whose Defensics run ID is the
+   * first path segment.
+   */
+  @CheckForNull
+  private Report findReport(String path) {
+    final String relativePath = path.replaceFirst("^/+", "");
+    final int slash = relativePath.indexOf('/');
+    if (slash < 0) {
+      return null;
+    }
+    final String runId = relativePath.substring(0, slash);
+    final Report report = getReport(runId);
+    return report != null && report.getRunId().equals(runId) ? report : null;
+  }
+
+  @CheckForNull
+  private ReportFile findAsset(Report report, String path) {
+    final String relativePath = path.replaceFirst("^/+", "");
+    final String assetPath = relativePath.substring(relativePath.indexOf('/') + 1);
+    final String hash = report.getAssets().get(assetPath);
+    if (hash == null) {
+      return null;
+    }
+    final File file = AssetStore.forJob(run.getParent()).getFile(hash);
+    return file == null ? null : ReportFile.asset(file, assetPath);
+  }
+
+  /**
+   * HTML report of one Defensics step.
+   */
+  public static final class Report {
+
+    private final String title;
+    private final String runId;
+    private final String fileName;
+
+    /**
+     * Report assets in the {@link AssetStore} of the job, by path relative to the report
+     * directory. Null for reports which keep all files in the report directory.
+     */
+    private final Map<String, String> assets;
+
+    /**
+     * Defensics result ID and instance name of a report which hasn't been fetched yet. Null for
+     * reports stored in the build.
+     */
+    private final String resultId;
+    private final String instanceName;
+    private final ReportFormat format;
+
+    /**
+     * Constructor for report which keeps all files in the report directory.
+     *
+     * @param title    Report title, i.e. test plan name. Used as tab title in the report view.
+     * @param runId    Defensics run ID
+     * @param fileName Name of the report HTML file in the report directory
+     */
+    public Report(String title, String runId, String fileName) {
+      this(title, runId, fileName, Collections.emptyMap());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param title    Report title, i.e. test plan name. Used as tab title in the report view.
+     * @param runId    Defensics run ID
+     * @param fileName Name of the report HTML file in the report directory
+     * @param assets   Asset hashes by path relative to the report directory
+     */
+    public Report(String title, String runId, String fileName, Map<String, String> assets) {
+      this(title, runId, fileName, assets, null, null, null);
+    }
+
+    private Report(String title, String runId, String fileName, Map<String, String> assets,
+        String resultId, String instanceName, ReportFormat format) {
+      this.title = title;
+      this.runId = runId;
+      this.fileName = fileName;
+      this.assets = assets.isEmpty() ? null : new TreeMap<>(assets);
+      this.resultId = resultId;
+      this.instanceName = instanceName;
+      this.format = format;
+    }
+
+    /**
+     * Creates report which is left in Defensics until it's opened for the first time.
+     *
+     * @param title        Report title, i.e. test plan name
+     * @param runId        Defensics run ID
+     * @param fileName     Name for the report HTML file once it's fetched
+     * @param resultId     Defensics result ID the report is fetched with
+     * @param instanceName Name of the Defensics instance which has the result
+     * @param format       Format of the report to fetch
+     * @return Lazy report
+     */
+    public static Report lazy(String title, String runId, String fileName, String resultId,
+        String instanceName, ReportFormat format) {
+      return new Report(title, runId, fileName, Collections.emptyMap(), resultId, instanceName,
+          format);
+    }
+
+    public String getTitle() {
+      return title;
+    }
+
+    public String getRunId() {
+      return runId;
+    }
+
+    public String getFileName() {
+      return fileName;
+    }
+
+    /**
+     * Tells if the report is still in Defensics and is fetched when it's opened.
+     *
+     * @return true if the report hasn't been fetched yet
+     */
+    public boolean isLazy() {
+      return resultId != null;
+    }
+
+    @CheckForNull
+    public String getResultId() {
+      return resultId;
+    }
+
+    @CheckForNull
+    public String getInstanceName() {
+      return instanceName;
+    }
+
+    /**
+     * Returns format of the report to fetch. Reports fetched before formats could be chosen are
+     * cloud reports.
+     *
+     * @return Report format
+     */
+    public ReportFormat getFormat() {
+      return format == null ? ReportFormat.CLOUD : format;
+    }
+
+    /**
+     * Returns report assets stored in the {@link AssetStore} of the job.
+     *
+     * @return Asset hashes by path relative to the report directory
+     */
+    public Map<String, String> getAssets() {
+      return assets == null ? Collections.emptyMap() : Collections.unmodifiableMap(assets);
+    }
+
+    /**
+     * Returns path of the report HTML file relative to the action URL.
+     *
+     * @return Relative path
+     */
+    public String getPath() {
+      return runId + "/" + fileName;
+    }
+  }
+}
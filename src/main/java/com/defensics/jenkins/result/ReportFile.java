@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import com.defensics.jenkins.util.ZipExtractor;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import jenkins.util.SystemProperties;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+/**
+ * Serves report files which can't be served by {@code DirectoryBrowserSupport}: files stored
+ * gzip-compressed and report assets stored in {@link AssetStore} under their hash. Browsers
+ * accepting gzip get compressed files as they are with {@code Content-Encoding: gzip}, others get
+ * them decompressed on the fly.
+ */
+final class ReportFile {
+
+  /**
+   * Same Content-Security-Policy Jenkins uses for files served from build directories.
+   */
+  private static final String CSP = SystemProperties.getString(
+      "hudson.model.DirectoryBrowserSupport.CSP",
+      "sandbox; default-src 'none'; img-src 'self'; style-src 'self';");
+
+  private final File file;
+  private final String name;
+  private final boolean compressed;
+
+  private ReportFile(File file, String name, boolean compressed) {
+    this.file = file;
+    this.name = name;
+    this.compressed = compressed;
+  }
+
+  /**
+   * Finds compressed version of a report file.
+   *
+   * @param reportsDir Directory the path is relative to
+   * @param path       Path of the uncompressed file, as requested
+   * @return Compressed file, or null if the file isn't stored compressed
+   */
+  @CheckForNull
+  static ReportFile find(File reportsDir, String path) {
+    if (path.isEmpty() || path.endsWith("/")) {
+      return null;
+    }
+    final Path root = reportsDir.toPath().toAbsolutePath().normalize();
+    final Path compressed = root.resolve(path.replaceFirst("^/+", "") + ZipExtractor.GZIP_SUFFIX)
+        .normalize();
+    if (!compressed.startsWith(root) || !Files.isRegularFile(compressed)) {
+      return null;
+    }
+    final String fileName = compressed.getFileName().toString();
+    return new ReportFile(compressed.toFile(),
+        fileName.substring(0, fileName.length() - ZipExtractor.GZIP_SUFFIX.length()), true);
+  }
+
+  /**
+   * Returns report asset stored in asset store.
+   *
+   * @param file Asset file, see {@link AssetStore#getFile(String)}
+   * @param path Path of the asset in the report. Used for resolving the content type.
+   * @return Asset file
+   */
+  static ReportFile asset(File file, String path) {
+    return new ReportFile(file, path.substring(path.lastIndexOf('/') + 1),
+        file.getName().endsWith(ZipExtractor.GZIP_SUFFIX));
+  }
+
+  void serve(StaplerRequest req, StaplerResponse rsp) throws IOException {
+    final String contentType = req.getServletContext().getMimeType(name);
+    rsp.setContentType(contentType == null ? "application/octet-stream" : contentType);
+    rsp.setDateHeader("Last-Modified", file.lastModified());
+    setContentSecurityPolicy(rsp);
+    try (OutputStream out = rsp.getOutputStream()) {
+      if (!compressed) {
+        rsp.setContentLengthLong(file.length());
+        Files.copy(file.toPath(), out);
+        return;
+      }
+      rsp.setHeader("Vary", "Accept-Encoding");
+      if (acceptsGzip(req)) {
+        rsp.setHeader("Content-Encoding", "gzip");
+        rsp.setContentLengthLong(file.length());
+        Files.copy(file.toPath(), out);
+      } else {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+          in.transferTo(out);
+        }
+      }
+    }
+  }
+
+  /**
+   * Sets the same Content-Security-Policy Jenkins sets for files served from build directories,
+   * unless it's disabled.
+   */
+  static void setContentSecurityPolicy(StaplerResponse rsp) {
+    if (!CSP.trim().isEmpty()) {
+      rsp.setHeader("Content-Security-Policy", CSP);
+    }
+  }
+
+  private static boolean acceptsGzip(StaplerRequest req) {
+    final String acceptEncoding = req.getHeader("Accept-Encoding");
+    return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+  }
+}
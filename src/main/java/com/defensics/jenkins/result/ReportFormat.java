@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import com.defensics.client.model.HtmlReport;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+/**
+ * Format of the report published for a Defensics step.
+ */
+public enum ReportFormat {
+  CLOUD("Cloud HTML report", HtmlReport.Cloud),
+  MULTIPLE("Multi-page HTML report", HtmlReport.Multiple),
+  SINGLE("Single-page HTML report", HtmlReport.Single),
+  SUMMARY("Summary only", null);
+
+  private final String displayName;
+  private final HtmlReport htmlReport;
+
+  ReportFormat(String displayName, HtmlReport htmlReport) {
+    this.displayName = displayName;
+    this.htmlReport = htmlReport;
+  }
+
+  public String getDisplayName() {
+    return displayName;
+  }
+
+  /**
+   * Returns the report type downloaded from Defensics.
+   *
+   * @return Report type, or null if the report is written by the plugin itself
+   */
+  @CheckForNull
+  public HtmlReport getHtmlReport() {
+    return htmlReport;
+  }
+}
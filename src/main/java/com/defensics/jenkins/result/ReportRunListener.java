@@ -0,0 +1,42 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Releases the report assets of a build from the {@link AssetStore} of the job when the build is
+ * deleted.
+ */
+@Extension
+public class ReportRunListener extends RunListener<Run<?, ?>> {
+
+  @Override
+  public void onDeleted(Run<?, ?> run) {
+    final ReportAction action = run.getAction(ReportAction.class);
+    if (action == null) {
+      return;
+    }
+    final List<String> hashes = new ArrayList<>();
+    action.getReports().forEach(report -> hashes.addAll(report.getAssets().values()));
+    AssetStore.forJob(run.getParent()).release(hashes);
+  }
+}
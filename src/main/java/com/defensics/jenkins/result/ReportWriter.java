@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import com.defensics.client.model.HtmlReport;
+import com.defensics.jenkins.result.AssetStore.StagedAsset;
+import com.defensics.jenkins.util.ZipExtractor;
+import com.defensics.jenkins.util.ZipExtractor.EntryHandler;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.commons.io.input.CountingInputStream;
+
+/**
+ * Stores files of a downloaded report archive. The main report file is stored in the report
+ * directory of the build under given name. All other files are static assets shared by the
+ * reports, so they are put in the {@link AssetStore} of the job instead of every build keeping a
+ * copy of its own. Assets are staged as they are read and added to the store together by
+ * {@link #finish()}, so the store is saved once per report.
+ */
+public final class ReportWriter implements EntryHandler {
+
+  /**
+   * Name of the main report file in the report archive.
+   */
+  public static final String REPORT_FILE_NAME = "report.html";
+
+  private final File reportDir;
+  private final String reportFileName;
+  private final AssetStore assetStore;
+  private final boolean compress;
+  private final Map<String, StagedAsset> staged = new TreeMap<>();
+  private final Map<String, String> assets = new TreeMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param reportDir      Directory where the main report file is stored
+   * @param reportFileName Name for the main report file
+   * @param assetStore     Store for the other report files
+   * @param compress       Whether text files are stored gzip-compressed
+   */
+  public ReportWriter(File reportDir, String reportFileName, AssetStore assetStore,
+      boolean compress) {
+    this.reportDir = reportDir;
+    this.reportFileName = reportFileName;
+    this.assetStore = assetStore;
+    this.compress = compress;
+  }
+
+  /**
+   * Stores a downloaded report. {@link HtmlReport#Single Single} report isn't an archive, so it's
+   * stored as the main report file. Other formats are extracted entry by entry.
+   *
+   * @param report Download stream of the report
+   * @param format Format of the report
+   * @return Number of bytes handled
+   * @throws IOException if reading the report or storing its files fails
+   */
+  public long write(InputStream report, HtmlReport format) throws IOException {
+    if (format == HtmlReport.Single) {
+      return handle(REPORT_FILE_NAME, report);
+    }
+    return ZipExtractor.forEachEntry(report, this);
+  }
+
+  @Override
+  public long handle(String name, InputStream content) throws IOException {
+    if (REPORT_FILE_NAME.equals(name)) {
+      return ZipExtractor.write(content, new File(reportDir, reportFileName).toPath(),
+          compress && ZipExtractor.isCompressible(reportFileName));
+    }
+    final CountingInputStream counted = new CountingInputStream(content);
+    final StagedAsset previous = staged.put(name,
+        assetStore.stage(counted, compress && ZipExtractor.isCompressible(name)));
+    if (previous != null) {
+      previous.discard();
+    }
+    return counted.getByteCount();
+  }
+
+  /**
+   * Adds the assets of the report to the store. Called once all entries have been handled.
+   *
+   * @throws IOException if adding the assets fails
+   */
+  public void finish() throws IOException {
+    try {
+      assetStore.addAll(staged.values());
+      staged.forEach((name, asset) -> assets.put(name, asset.getHash()));
+    } finally {
+      staged.clear();
+    }
+  }
+
+  /**
+   * Deletes the staged assets, when the report couldn't be downloaded. Nothing is added to the
+   * store.
+   */
+  public void discard() {
+    staged.values().forEach(StagedAsset::discard);
+    staged.clear();
+  }
+
+  /**
+   * Returns assets added to the store.
+   *
+   * @return Asset hashes by path relative to the report directory
+   */
+  public Map<String, String> getAssets() {
+    return Collections.unmodifiableMap(assets);
+  }
+}
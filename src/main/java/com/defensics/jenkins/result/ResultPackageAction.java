@@ -20,15 +20,22 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.FilePath;
 import hudson.model.DirectoryBrowserSupport;
 import hudson.model.Run;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
+import javax.servlet.ServletException;
 import jenkins.model.RunAction2;
 import org.kohsuke.stapler.StaplerRequest;
 import org.kohsuke.stapler.StaplerResponse;
 
+/**
+ * Result packages of a build. Steps running in parallel branches of the build add their packages
+ * to the same action, so the packages are guarded by the action's monitor.
+ */
 public class ResultPackageAction implements RunAction2 {
 
   public static final String URL_NAME = "defensics";
@@ -39,6 +46,9 @@ public class ResultPackageAction implements RunAction2 {
    */
   private final Map<String, String> descriptions = new HashMap<>();
 
+  public ResultPackageAction() {
+  }
+
   public ResultPackageAction(String resultFile) {
     resultPackages.add(resultFile);
     descriptions.put(resultFile, "");
@@ -49,16 +59,16 @@ public class ResultPackageAction implements RunAction2 {
     descriptions.put(resultFile, description);
   }
 
-  public List<String> getResultPackages() {
-    return resultPackages;
+  public synchronized List<String> getResultPackages() {
+    return new ArrayList<>(resultPackages);
   }
 
-  public void addResultPackage(String resultPackage, String description) {
+  public synchronized void addResultPackage(String resultPackage, String description) {
     resultPackages.add(resultPackage);
     descriptions.put(resultPackage, description);
   }
 
-  public String getDescription(String resultFile) {
+  public synchronized String getDescription(String resultFile) {
     if (resultFile == null || descriptions == null) {
       return "";
     }
@@ -94,8 +104,24 @@ public class ResultPackageAction implements RunAction2 {
     return URL_NAME;
   }
 
-  public DirectoryBrowserSupport doDynamic(StaplerRequest req, StaplerResponse res) {
-    return new DirectoryBrowserSupport(this, new FilePath(run.getRootDir()).child(getUrlName()),
-        null, null, false);
+  /**
+   * Serves result packages. Paths under a package, e.g. {@code <package>/logs/main.log}, are
+   * browsed in the package without extracting it, see {@link ResultPackageBrowser}.
+   */
+  public void doDynamic(StaplerRequest req, StaplerResponse rsp)
+      throws IOException, ServletException {
+    final String path = req.getRestOfPath();
+    final int slash = path.indexOf('/', 1);
+    if (path.startsWith("/") && slash > 0) {
+      final String resultPackage = path.substring(1, slash);
+      if (getResultPackages().contains(resultPackage)) {
+        final File file = new File(new File(run.getRootDir(), getUrlName()), resultPackage);
+        ResultPackageBrowser.serve(this, resultPackage, file, path.substring(slash + 1), req,
+            rsp);
+        return;
+      }
+    }
+    new DirectoryBrowserSupport(this, new FilePath(run.getRootDir()).child(getUrlName()),
+        null, null, false).generateResponse(req, rsp, this);
   }
 }
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import hudson.Util;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+import jenkins.util.SystemProperties;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+/**
+ * Browses a result package without extracting it. Directory listings and single files are served
+ * straight from the archive, which is kept open in {@link OpenResultPackage} cache, so opening a
+ * log file in a package of millions of entries reads only that entry.
+ */
+public final class ResultPackageBrowser {
+
+  private static final Logger LOGGER = Logger.getLogger(ResultPackageBrowser.class.getName());
+
+  /**
+   * Maximum number of result packages kept open. An open package takes roughly a hundred bytes
+   * per entry.
+   */
+  static final int MAX_OPEN_PACKAGES = SystemProperties.getInteger(
+      ResultPackageBrowser.class.getName() + ".maxOpenPackages", 8);
+
+  /**
+   * Maximum number of names shown in one directory listing.
+   */
+  static final int MAX_LISTED_ENTRIES = SystemProperties.getInteger(
+      ResultPackageBrowser.class.getName() + ".maxListedEntries", 1000);
+
+  private final String packageName;
+  private final String directory;
+  private final List<Entry> entries;
+  private final boolean truncated;
+
+  private ResultPackageBrowser(String packageName, String directory, List<Entry> entries,
+      boolean truncated) {
+    this.packageName = packageName;
+    this.directory = directory;
+    this.entries = entries;
+    this.truncated = truncated;
+  }
+
+  /**
+   * Serves directory listing or file of result package.
+   *
+   * @param action      Action the request was made to. Listing page is rendered as its view.
+   * @param packageName Name of the package, as shown to the user
+   * @param file        Package file
+   * @param path        Path in the package. Empty for the root directory, directories end with
+   *                    slash.
+   */
+  static void serve(ResultPackageAction action, String packageName, File file, String path,
+      StaplerRequest req, StaplerResponse rsp) throws IOException, ServletException {
+    final OpenResultPackage resultPackage;
+    try {
+      resultPackage = OpenResultPackage.open(file);
+    } catch (ZipException e) {
+      LOGGER.log(Level.WARNING, "Could not read result package " + file, e);
+      rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
+      return;
+    }
+    try (resultPackage) {
+      serve(action, packageName, resultPackage, path, req, rsp);
+    }
+  }
+
+  private static void serve(ResultPackageAction action, String packageName,
+      OpenResultPackage resultPackage, String path, StaplerRequest req, StaplerResponse rsp)
+      throws IOException, ServletException {
+    if (path.isEmpty() || path.endsWith("/")) {
+      if (!path.isEmpty() && !resultPackage.isDirectory(path)) {
+        rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
+        return;
+      }
+      final List<String> names = resultPackage.list(path, MAX_LISTED_ENTRIES + 1);
+      final List<Entry> entries = new ArrayList<>();
+      for (String name : names.subList(0, Math.min(names.size(), MAX_LISTED_ENTRIES))) {
+        final ZipEntry entry = name.endsWith("/") ? null : resultPackage.getEntry(path + name);
+        entries.add(entry == null
+            ? new Entry(name, -1, 0)
+            : new Entry(name, entry.getSize(), entry.getTime()));
+      }
+      req.setAttribute("browser", new ResultPackageBrowser(packageName, path, entries,
+          names.size() > MAX_LISTED_ENTRIES));
+      req.getView(action, "browse.jelly").forward(req, rsp);
+      return;
+    }
+
+    final ZipEntry entry = resultPackage.getEntry(path);
+    if (entry == null || entry.isDirectory()) {
+      if (resultPackage.isDirectory(path + "/")) {
+        rsp.sendRedirect2(req.getRequestURI() + "/");
+      } else {
+        rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
+      }
+      return;
+    }
+    final String contentType = req.getServletContext().getMimeType(path);
+    rsp.setContentType(contentType != null ? contentType
+        : path.endsWith(".log") ? "text/plain" : "application/octet-stream");
+    if (entry.getSize() >= 0) {
+      rsp.setContentLengthLong(entry.getSize());
+    }
+    rsp.setDateHeader("Last-Modified", entry.getTime());
+    ReportFile.setContentSecurityPolicy(rsp);
+    try (InputStream in = resultPackage.getInputStream(entry);
+        OutputStream out = rsp.getOutputStream()) {
+      in.transferTo(out);
+    }
+  }
+
+  public String getPackageName() {
+    return packageName;
+  }
+
+  public String getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Relative link from this directory back to the root of the package.
+   */
+  public String getRootHref() {
+    final StringBuilder href = new StringBuilder("./");
+    for (int i = 0; i < directory.length(); i++) {
+      if (directory.charAt(i) == '/') {
+        href.append("../");
+      }
+    }
+    return href.toString();
+  }
+
+  public List<Entry> getEntries() {
+    return entries;
+  }
+
+  public boolean isTruncated() {
+    return truncated;
+  }
+
+  /**
+   * File or subdirectory in a listed directory.
+   */
+  public static final class Entry {
+
+    private final String name;
+    private final long size;
+    private final long lastModified;
+
+    Entry(String name, long size, long lastModified) {
+      this.name = name;
+      this.size = size;
+      this.lastModified = lastModified;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public String getHref() {
+      return name.endsWith("/")
+          ? Util.rawEncode(name.substring(0, name.length() - 1)) + "/"
+          : Util.rawEncode(name);
+    }
+
+    public boolean isDirectory() {
+      return name.endsWith("/");
+    }
+
+    /**
+     * Uncompressed size in bytes, or negative for directories.
+     */
+    public long getSize() {
+      return size;
+    }
+
+    public Date getLastModified() {
+      return lastModified > 0 ? new Date(lastModified) : null;
+    }
+  }
+}
@@ -17,98 +17,35 @@
 package com.defensics.jenkins.result;
 
 import com.defensics.apiserver.model.Run;
-import com.defensics.jenkins.Logger;
-import com.defensics.jenkins.result.HtmlReportPublisherTarget.HtmlReportAction;
+import com.defensics.jenkins.result.ReportAction.Report;
 import com.defensics.jenkins.util.DefensicsUtils;
-import htmlpublisher.HtmlPublisher;
-import htmlpublisher.HtmlPublisherTarget;
-import hudson.FilePath;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import com.defensics.jenkins.util.RunActions;
 
 public class ResultPublisher {
 
   public static final String REPORT_NAME = "Defensics Results";
 
   /**
-   * Publish HTML report from file in workspace.
+   * Publish HTML report and results of a Defensics step.
    *
    * @param jenkinsRun   The Jenkins run to publish report for.
    * @param defensicsRun The defensics run for which results are to be published.
-   * @param report       The html report to publish
-   * @param logger       The Defensics Plugin logger.
-   * @param workspace    The Jenkins workspace.
-   * @throws InterruptedException If publishing is interrupted.
+   * @param report       The html report to publish. Report files should already be in the
+   *                     report directory of the build.
+   * @param stepResult   Results of the Defensics step, kept for trends.
    */
   public void publishResults(hudson.model.Run<?, ?> jenkinsRun, Run defensicsRun,
-      HtmlReport report, Logger logger, FilePath workspace)
-      throws InterruptedException {
-    publishReportAction(jenkinsRun, workspace, logger, report, defensicsRun.getId());
-    publishBuildResultAction(jenkinsRun, DefensicsUtils.countRunFailures(defensicsRun));
+      Report report, StepResult stepResult) {
+    RunActions.getOrAdd(jenkinsRun, ReportAction.class, ReportAction::new).addReport(report);
+    publishBuildResultAction(jenkinsRun, defensicsRun, stepResult);
   }
 
-  private void publishReportAction(hudson.model.Run<?, ?> run, FilePath workspace,
-      Logger logger, HtmlReport report, String jobId)
-      throws InterruptedException {
-    List<HtmlPublisherTarget> targets = new ArrayList<>();
-    List<HtmlReportAction> deletedActions = deleteDuplicateActions(run);
-
-    HtmlReportPublisherTarget target = new HtmlReportPublisherTarget(
-        REPORT_NAME,
-        report.getResultDirectory(),
-        getOtherFileNames(deletedActions) + report.getFileName(),
-        getOtherTitles(deletedActions) + report.getReportTitle(),
-        jobId);
-    targets.add(target);
-    HtmlPublisher.publishReports(
-        run, workspace, logger.getListener(), targets, HtmlPublisher.class);
-    target.customizeActionForDefensics(run);
-  }
-
-  private List<HtmlReportAction> deleteDuplicateActions(hudson.model.Run<?, ?> run) {
-    List<HtmlReportAction> actions = run.getActions(HtmlReportAction.class);
-
-    for (HtmlReportAction action : actions) {
-      run.removeAction(action);
-    }
-    return actions;
-  }
-
-  private String getOtherTitles(List<HtmlReportAction> deletedActions) {
-    return joinAsCommaDelimitedString(
-        deletedActions.stream().map(action -> action.getHTMLTarget().getReportTitles()));
-  }
-
-  private String getOtherFileNames(List<HtmlReportAction> deletedActions) {
-    return joinAsCommaDelimitedString(
-        deletedActions.stream().map(action -> action.getHTMLTarget().getReportFiles()));
-  }
-
-  /**
-   * Join the string in the stream into a comma delimited string. Note! If the result is not an
-   * empty string, also adds a comma to the beginning so this can be easily appended to another
-   * string.
-   *
-   * @param strings The stream of strings to join together.
-   * @return A comma delimited string starting with a comma and containing all the string from the
-   *         stream. Or an empty string if there was nothing to join.
-   */
-  private String joinAsCommaDelimitedString(Stream<String> strings) {
-    String joinedString = strings.collect(Collectors.joining(","));
-    return joinedString.isEmpty() ? joinedString : joinedString + ",";
-  }
-
-  private void publishBuildResultAction(hudson.model.Run<?, ?> jenkinsRun, long failureCount) {
-    BuildResultAction buildResultAction = jenkinsRun.getAction(BuildResultAction.class);
-    if (buildResultAction == null) {
-      HtmlReportAction reportAction = jenkinsRun.getAction(HtmlReportAction.class);
-      buildResultAction = new BuildResultAction(reportAction.getUrlName(), failureCount);
-    } else {
-      final long prevFailureCount = buildResultAction.getFailureCount();
-      buildResultAction.setFailureCount(prevFailureCount + failureCount);
-    }
-    jenkinsRun.addOrReplaceAction(buildResultAction);
+  private void publishBuildResultAction(hudson.model.Run<?, ?> jenkinsRun, Run defensicsRun,
+      StepResult stepResult) {
+    final BuildResultAction buildResultAction = RunActions.getOrAdd(
+        jenkinsRun, BuildResultAction.class,
+        () -> new BuildResultAction(ReportAction.URL_NAME, 0));
+    buildResultAction.addFailureCount(DefensicsUtils.countRunFailures(defensicsRun));
+    buildResultAction.addStepResult(stepResult);
   }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import com.defensics.apiserver.model.FailureSummaryEntry;
+import com.defensics.apiserver.model.Run;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Results of one Defensics step of a build, kept in {@link BuildResultAction} so trends can show
+ * more than the total failure count.
+ */
+public final class StepResult {
+
+  private final String name;
+  private final String runId;
+  private final String instanceName;
+  private final String verdict;
+  private final Map<String, Long> failuresByLevel;
+  private final Map<String, Long> failuresBySource;
+  private final long testCasesExecuted;
+  private final long casesToBeExecuted;
+  private final long durationMillis;
+
+  /**
+   * Constructor.
+   *
+   * @param name              Step name, i.e. the test plan file name
+   * @param runId             Defensics run ID
+   * @param instanceName      Name of the Defensics instance which ran the tests
+   * @param verdict           Defensics run verdict
+   * @param failuresByLevel   Failure counts by failure level
+   * @param failuresBySource  Failure counts by failure source, e.g. instrumentation
+   * @param testCasesExecuted Number of executed test cases
+   * @param casesToBeExecuted Number of test cases planned for the run
+   * @param durationMillis    Fuzzing duration in milliseconds
+   */
+  public StepResult(String name, String runId, String instanceName, String verdict,
+      Map<String, Long> failuresByLevel, Map<String, Long> failuresBySource,
+      long testCasesExecuted, long casesToBeExecuted, long durationMillis) {
+    this.name = name;
+    this.runId = runId;
+    this.instanceName = instanceName;
+    this.verdict = verdict;
+    this.failuresByLevel = new LinkedHashMap<>(failuresByLevel);
+    this.failuresBySource = new LinkedHashMap<>(failuresBySource);
+    this.testCasesExecuted = testCasesExecuted;
+    this.casesToBeExecuted = casesToBeExecuted;
+    this.durationMillis = durationMillis;
+  }
+
+  /**
+   * Creates step result from a finished Defensics run.
+   *
+   * @param name           Step name
+   * @param instanceName   Name of the Defensics instance which ran the tests
+   * @param defensicsRun   Finished Defensics run
+   * @param durationMillis Fuzzing duration in milliseconds
+   * @return Step result
+   */
+  public static StepResult of(String name, String instanceName, Run defensicsRun,
+      long durationMillis) {
+    final Map<String, Long> byLevel = new LinkedHashMap<>();
+    final Map<String, Long> bySource = new LinkedHashMap<>();
+    for (FailureSummaryEntry entry : defensicsRun.getFailureSummary()) {
+      byLevel.merge(String.valueOf(entry.getLevel()), (long) entry.getCount(), Long::sum);
+      bySource.merge(String.valueOf(entry.getSource()), (long) entry.getCount(), Long::sum);
+    }
+    return new StepResult(name, defensicsRun.getId(), instanceName,
+        String.valueOf(defensicsRun.getVerdict()), byLevel, bySource,
+        defensicsRun.getTestCasesExecuted(), defensicsRun.getCasesToBeExecuted(), durationMillis);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getRunId() {
+    return runId;
+  }
+
+  public String getInstanceName() {
+    return instanceName;
+  }
+
+  public String getVerdict() {
+    return verdict;
+  }
+
+  public Map<String, Long> getFailuresByLevel() {
+    return Collections.unmodifiableMap(failuresByLevel);
+  }
+
+  public Map<String, Long> getFailuresBySource() {
+    return Collections.unmodifiableMap(failuresBySource);
+  }
+
+  public long getFailureCount() {
+    return failuresByLevel.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  public long getTestCasesExecuted() {
+    return testCasesExecuted;
+  }
+
+  public long getCasesToBeExecuted() {
+    return casesToBeExecuted;
+  }
+
+  public long getDurationMillis() {
+    return durationMillis;
+  }
+
+  /**
+   * Returns test case execution rate of the step.
+   *
+   * @return Executed cases per second, or 0 if duration isn't known
+   */
+  public double getCasesPerSecond() {
+    return durationMillis > 0 ? testCasesExecuted * 1000d / durationMillis : 0;
+  }
+}
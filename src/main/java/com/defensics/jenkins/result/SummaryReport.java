@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import com.defensics.apiserver.model.FailureSummaryEntry;
+import com.defensics.apiserver.model.Run;
+import com.defensics.jenkins.util.DefensicsUtils;
+import com.defensics.jenkins.util.ZipExtractor;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Util;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Small HTML report written by the plugin from the run summary, for steps which don't need the
+ * full report from Defensics. It has the verdict, test case counts and failures by source and
+ * level, so nothing has to be downloaded. Indexes of the failed test cases are listed only if the
+ * failures were recorded from the result package anyway, see {@link FailureFingerprints}.
+ */
+public final class SummaryReport {
+
+  /**
+   * Maximum number of failed test cases listed in the report.
+   */
+  static final int MAX_LISTED_CASES = 1000;
+
+  private SummaryReport() {
+  }
+
+  /**
+   * Writes summary report of a finished run.
+   *
+   * @param file         Report file
+   * @param defensicsRun Finished Defensics run, with failure summary
+   * @param stepResult   Results of the step
+   * @param failures     Failures recorded from the result package, or null if not recorded
+   * @param compress     Whether the report is stored gzip-compressed
+   * @return Size of the report in bytes, before compression
+   * @throws IOException if writing the report fails
+   */
+  public static long write(File file, Run defensicsRun, StepResult stepResult,
+      @CheckForNull FailureFingerprints failures, boolean compress) throws IOException {
+    final byte[] html =
+        render(defensicsRun, stepResult, failures).getBytes(StandardCharsets.UTF_8);
+    return ZipExtractor.write(new ByteArrayInputStream(html), file.toPath(), compress);
+  }
+
+  static String render(Run defensicsRun, StepResult stepResult,
+      @CheckForNull FailureFingerprints failures) {
+    final StringBuilder html = new StringBuilder()
+        .append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>")
+        .append(Util.escape(stepResult.getName()))
+        .append("</title>\n</head>\n<body>\n<h1>")
+        .append(Util.escape(stepResult.getName()))
+        .append("</h1>\n<table>\n");
+    row(html, "Verdict", stepResult.getVerdict());
+    row(html, "State", String.valueOf(defensicsRun.getState()));
+    row(html, "Test cases executed",
+        stepResult.getTestCasesExecuted() + " / " + stepResult.getCasesToBeExecuted());
+    row(html, "Fuzzing duration", Util.getTimeSpanString(stepResult.getDurationMillis()));
+    row(html, "Failures", String.valueOf(stepResult.getFailureCount()));
+    row(html, "Defensics run", stepResult.getRunId());
+    html.append("</table>\n");
+
+    final List<FailureSummaryEntry> sources = defensicsRun.getFailureSummary().stream()
+        .filter(entry -> entry.getCount() > 0)
+        .sorted(Comparator.comparingInt(FailureSummaryEntry::getCount).reversed())
+        .collect(Collectors.toList());
+    if (!sources.isEmpty()) {
+      html.append("<h2>Failures</h2>\n<table>\n")
+          .append("<tr><th>Source</th><th>Level</th><th>Count</th></tr>\n");
+      for (FailureSummaryEntry entry : sources) {
+        html.append("<tr><td>").append(Util.escape(String.valueOf(entry.getSource())))
+            .append("</td><td>").append(Util.escape(String.valueOf(entry.getLevel())))
+            .append("</td><td>").append(entry.getCount()).append("</td></tr>\n");
+      }
+      html.append("</table>\n");
+    }
+
+    if (failures != null && failures.size() > 0) {
+      final long[] indexes = failures.getCaseIndexes(MAX_LISTED_CASES + 1);
+      final boolean truncated = indexes.length > MAX_LISTED_CASES;
+      html.append("<h2>Failed test cases</h2>\n<p>")
+          .append(DefensicsUtils.formatIndexRanges(
+              truncated ? Arrays.copyOf(indexes, MAX_LISTED_CASES) : indexes)
+              .replace(",", ", "));
+      if (truncated) {
+        html.append(" and more");
+      }
+      html.append("</p>\n");
+    }
+    return html.append("</body>\n</html>\n").toString();
+  }
+
+  private static void row(StringBuilder html, String name, String value) {
+    html.append("<tr><th>").append(name).append("</th><td>").append(Util.escape(value))
+        .append("</td></tr>\n");
+  }
+}
@@ -0,0 +1,590 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result.history;
+
+import com.defensics.jenkins.result.BuildResultAction;
+import com.defensics.jenkins.result.ReportAction;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.model.Job;
+import hudson.model.Run;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fuzzing history of one job. The history keeps one compact point per build with Defensics results
+ * for as many builds as the configured retention allows. It's the only per-job store of build
+ * results: the failure trend of the latest builds, see {@link #getLatestBuilds(int)}, and the
+ * long-horizon history chart are both drawn from it. The history is kept up to date by
+ * {@link TrendRunListener} when builds complete or are deleted.
+ *
+ * <p>Points are stored in the job directory as CSV, one line per build, so a new build is a single
+ * appended line. The file is rewritten only when builds are deleted or when enough points have
+ * fallen out of retention.
+ *
+ * <p>If a job has no history file yet, e.g. after the plugin was updated, the latest builds of the
+ * job are added when its history is first read.
+ */
+public final class FuzzHistory {
+
+  private static final Logger LOGGER = Logger.getLogger(FuzzHistory.class.getName());
+
+  static final String FILE_NAME = "defensics-history.csv";
+  static final String HEADER =
+      "number,timestamp,duration,cases,failures,errors,warnings,fuzzingDuration,sources";
+
+  /**
+   * Loaded histories. Weak keys so histories of deleted and reloaded jobs go away with the job.
+   */
+  private static final Map<Job<?, ?>, FuzzHistory> HISTORIES = new WeakHashMap<>();
+
+  /**
+   * Points ordered by build number, oldest first.
+   */
+  private final List<Point> points = new ArrayList<>();
+
+  @CheckForNull
+  private final File file;
+  private int fileLines;
+  private long lastModified;
+
+  FuzzHistory(@CheckForNull File file) {
+    this.file = file;
+  }
+
+  /**
+   * Returns history of given job, loading it if needed. History is reloaded if the job has been
+   * renamed or moved since it was loaded. If the job has no history file, the history is started
+   * from the latest completed builds of the job.
+   *
+   * @param job Jenkins job
+   * @return History of the job, empty if the job has no builds with Defensics results
+   */
+  public static FuzzHistory forJob(Job<?, ?> job) {
+    final File rootDir = job.getRootDir();
+    final File file = rootDir == null ? null : new File(rootDir, FILE_NAME);
+    synchronized (HISTORIES) {
+      FuzzHistory history = HISTORIES.get(job);
+      if (history == null || !Objects.equals(history.file, file)) {
+        history = load(file);
+        if (file != null && !file.exists()) {
+          history.addLatestBuilds(job);
+        }
+        HISTORIES.put(job, history);
+      }
+      return history;
+    }
+  }
+
+  static FuzzHistory load(@CheckForNull File file) {
+    final FuzzHistory history = new FuzzHistory(file);
+    history.read();
+    return history;
+  }
+
+  private synchronized void read() {
+    if (file == null || !file.exists()) {
+      return;
+    }
+    try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        fileLines++;
+        final Point point = Point.parse(line);
+        if (point != null) {
+          insert(point);
+        }
+      }
+      lastModified = file.lastModified();
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not read Defensics history " + file, e);
+    }
+  }
+
+  /**
+   * Adds point of given build. Builds without Defensics results are not recorded.
+   *
+   * @param run       Completed build
+   * @param retention Maximum number of points to keep, or 0 to keep all
+   */
+  public synchronized void record(Run<?, ?> run, int retention) {
+    final Point point = Point.of(run);
+    if (point == null) {
+      return;
+    }
+    final boolean appended = points.isEmpty()
+        || points.get(points.size() - 1).getNumber() < point.getNumber();
+    if (appended) {
+      points.add(point);
+    } else {
+      points.removeIf(existing -> existing.getNumber() == point.getNumber());
+      insert(point);
+    }
+    final boolean trimmed = trim(retention);
+    lastModified = System.currentTimeMillis();
+
+    // Old points stay in the file until a quarter of retention has piled up so that each new
+    // build doesn't rewrite the whole file.
+    if (!appended || (trimmed && fileLines - 1 > retention + retention / 4)) {
+      rewrite();
+    } else {
+      append(point);
+    }
+  }
+
+  /**
+   * Adds points of the latest completed builds of the job. Called once for jobs which ran
+   * Defensics before the history was introduced. The file is written only if some of the builds
+   * had Defensics results, so jobs which don't run Defensics are read again after a restart.
+   */
+  private synchronized void addLatestBuilds(Job<?, ?> job) {
+    Run<?, ?> run = job.getLastCompletedBuild();
+    for (int i = 0; i < ProjectHistoryAction.MAX_BUILDS && run != null; i++) {
+      final Point point = Point.of(run);
+      if (point != null) {
+        insert(point);
+      }
+      run = run.getPreviousBuild();
+    }
+    if (!points.isEmpty()) {
+      lastModified = System.currentTimeMillis();
+      rewrite();
+    }
+  }
+
+  /**
+   * Removes point of given build.
+   *
+   * @param number Build number
+   */
+  public synchronized void remove(int number) {
+    if (points.removeIf(point -> point.getNumber() == number)) {
+      lastModified = System.currentTimeMillis();
+      rewrite();
+    }
+  }
+
+  /**
+   * Returns snapshot of all points, oldest first.
+   *
+   * @return History points
+   */
+  public synchronized List<Point> getPoints() {
+    return new ArrayList<>(points);
+  }
+
+  /**
+   * Returns at most {@code maxPoints} points of the latest {@code builds} builds. If there are
+   * more points, consecutive points are merged into buckets, see {@link #downsample(List, int)}.
+   *
+   * @param builds    Number of latest points to include, or 0 for all
+   * @param maxPoints Maximum number of points to return
+   * @return History points, oldest first
+   */
+  public synchronized List<Point> getPoints(int builds, int maxPoints) {
+    final int from = builds > 0 ? Math.max(0, points.size() - builds) : 0;
+    return downsample(points.subList(from, points.size()), maxPoints);
+  }
+
+  /**
+   * Returns points of builds between given build numbers. Used when zooming into a part of the
+   * history.
+   *
+   * @param from Lowest build number to include
+   * @param to   Highest build number to include
+   * @return History points, oldest first
+   */
+  public synchronized List<Point> getPointsBetween(int from, int to) {
+    final List<Point> selected = new ArrayList<>();
+    for (Point point : points) {
+      if (point.getNumber() >= from && point.getNumber() <= to) {
+        selected.add(point);
+      }
+    }
+    return selected;
+  }
+
+  /**
+   * Returns failure trend of the latest builds. Builds which are in the range of the latest builds
+   * but have no point didn't run Defensics, and they are included as such.
+   *
+   * @param builds Number of latest build numbers to include
+   * @return Trend records, newest first, or empty list if the history has no points
+   */
+  public synchronized List<TrendEntry> getLatestBuilds(int builds) {
+    if (points.isEmpty()) {
+      return new ArrayList<>();
+    }
+    final int newest = points.get(points.size() - 1).getNumber();
+    final int oldest = Math.max(1, newest - builds + 1);
+    final List<TrendEntry> entries = new ArrayList<>();
+    int position = points.size() - 1;
+    for (int number = newest; number >= oldest; number--) {
+      while (position >= 0 && points.get(position).getNumber() > number) {
+        position--;
+      }
+      if (position >= 0 && points.get(position).getNumber() == number) {
+        entries.add(TrendEntry.of(points.get(position--)));
+      } else {
+        entries.add(TrendEntry.notRun(number));
+      }
+    }
+    return entries;
+  }
+
+  public synchronized long getLastModified() {
+    return lastModified;
+  }
+
+  public synchronized int size() {
+    return points.size();
+  }
+
+  /**
+   * Merges consecutive points into at most {@code maxPoints} buckets. Merged point has number and
+   * time of the bucket's latest build. Failure counts are maximums so that spikes stay visible
+   * when zoomed out, whereas executed cases and durations are averages.
+   *
+   * @param points    Points ordered by build number
+   * @param maxPoints Maximum number of points to return
+   * @return Downsampled points
+   */
+  static List<Point> downsample(List<Point> points, int maxPoints) {
+    if (maxPoints <= 0 || points.size() <= maxPoints) {
+      return new ArrayList<>(points);
+    }
+    final List<Point> result = new ArrayList<>(maxPoints);
+    for (int bucket = 0; bucket < maxPoints; bucket++) {
+      final int from = (int) ((long) bucket * points.size() / maxPoints);
+      final int to = (int) ((long) (bucket + 1) * points.size() / maxPoints);
+      result.add(merge(points.subList(from, to)));
+    }
+    return result;
+  }
+
+  private static Point merge(List<Point> bucket) {
+    long duration = 0;
+    long cases = 0;
+    long fuzzingDuration = 0;
+    long failures = 0;
+    long errors = 0;
+    long warnings = 0;
+    final Map<String, Long> bySource = new TreeMap<>();
+    for (Point point : bucket) {
+      duration += point.getDuration();
+      cases += point.getCasesExecuted();
+      fuzzingDuration += point.getFuzzingDuration();
+      failures = Math.max(failures, point.getFailures());
+      errors = Math.max(errors, point.getErrors());
+      warnings = Math.max(warnings, point.getWarnings());
+      point.getFailuresBySource().forEach((source, count) -> bySource.merge(source, count,
+          Math::max));
+    }
+    final Point last = bucket.get(bucket.size() - 1);
+    return new Point(last.getNumber(), last.getTimestamp(), duration / bucket.size(),
+        cases / bucket.size(), failures, errors, warnings, fuzzingDuration / bucket.size(),
+        bySource);
+  }
+
+  private void insert(Point point) {
+    int position = points.size();
+    while (position > 0 && points.get(position - 1).getNumber() > point.getNumber()) {
+      position--;
+    }
+    if (position > 0 && points.get(position - 1).getNumber() == point.getNumber()) {
+      points.set(position - 1, point);
+    } else {
+      points.add(position, point);
+    }
+  }
+
+  private boolean trim(int retention) {
+    if (retention <= 0 || points.size() <= retention) {
+      return false;
+    }
+    points.subList(0, points.size() - retention).clear();
+    return true;
+  }
+
+  private void append(Point point) {
+    if (file == null) {
+      return;
+    }
+    try {
+      if (!file.exists()) {
+        rewrite();
+        return;
+      }
+      Files.write(file.toPath(), Collections.singletonList(point.toCsv()), StandardCharsets.UTF_8,
+          StandardOpenOption.APPEND);
+      fileLines++;
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not append to Defensics history " + file, e);
+    }
+  }
+
+  private void rewrite() {
+    if (file == null) {
+      return;
+    }
+    final File tmp = new File(file.getPath() + ".tmp");
+    try {
+      try (BufferedWriter writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+        writer.write(HEADER);
+        writer.newLine();
+        for (Point point : points) {
+          writer.write(point.toCsv());
+          writer.newLine();
+        }
+      }
+      Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      fileLines = points.size() + 1;
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not write Defensics history " + file, e);
+    }
+  }
+
+  /**
+   * Fuzzing results of one build, or a bucket of builds when downsampled.
+   */
+  public static final class Point {
+
+    private final int number;
+    private final long timestamp;
+    private final long duration;
+    private final long casesExecuted;
+    private final long failures;
+    private final long errors;
+    private final long warnings;
+    private final long fuzzingDuration;
+    private final Map<String, Long> failuresBySource;
+
+    Point(int number, long timestamp, long duration, long casesExecuted, long failures,
+        long errors, long warnings) {
+      this(number, timestamp, duration, casesExecuted, failures, errors, warnings, 0,
+          Collections.emptyMap());
+    }
+
+    Point(int number, long timestamp, long duration, long casesExecuted, long failures,
+        long errors, long warnings, long fuzzingDuration, Map<String, Long> failuresBySource) {
+      this.number = number;
+      this.timestamp = timestamp;
+      this.duration = duration;
+      this.casesExecuted = casesExecuted;
+      this.failures = failures;
+      this.errors = errors;
+      this.warnings = warnings;
+      this.fuzzingDuration = fuzzingDuration;
+      this.failuresBySource = Collections.unmodifiableMap(new TreeMap<>(failuresBySource));
+    }
+
+    @CheckForNull
+    static Point of(Run<?, ?> run) {
+      final BuildResultAction action = run.getAction(BuildResultAction.class);
+      if (action == null) {
+        return null;
+      }
+      final Map<String, Long> byLevel = action.getFailuresByLevel();
+      return new Point(run.getNumber(), run.getTimeInMillis(), run.getDuration(),
+          action.getTestCasesExecuted(), action.getFailureCount(),
+          byLevel.getOrDefault("ERROR", 0L), byLevel.getOrDefault("WARNING", 0L),
+          action.getDurationMillis(), action.getFailuresBySource());
+    }
+
+    @CheckForNull
+    static Point parse(String line) {
+      final String[] fields = line.split(",", -1);
+      if (fields.length < 7) {
+        return null;
+      }
+      try {
+        final long fuzzingDuration = fields.length > 7 ? Long.parseLong(fields[7]) : 0;
+        final Map<String, Long> bySource = new TreeMap<>();
+        if (fields.length > 8 && !fields[8].isEmpty()) {
+          for (String source : fields[8].split(";")) {
+            final int separator = source.lastIndexOf('=');
+            bySource.put(URLDecoder.decode(source.substring(0, separator), StandardCharsets.UTF_8),
+                Long.parseLong(source.substring(separator + 1)));
+          }
+        }
+        return new Point(Integer.parseInt(fields[0]), Long.parseLong(fields[1]),
+            Long.parseLong(fields[2]), Long.parseLong(fields[3]), Long.parseLong(fields[4]),
+            Long.parseLong(fields[5]), Long.parseLong(fields[6]), fuzzingDuration, bySource);
+      } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+        // Header line or a line cut short by a crash.
+        return null;
+      }
+    }
+
+    String toCsv() {
+      final StringBuilder sources = new StringBuilder();
+      failuresBySource.forEach((source, count) -> {
+        if (sources.length() > 0) {
+          sources.append(';');
+        }
+        sources.append(URLEncoder.encode(source, StandardCharsets.UTF_8)).append('=')
+            .append(count);
+      });
+      return number + "," + timestamp + "," + duration + "," + casesExecuted + "," + failures
+          + "," + errors + "," + warnings + "," + fuzzingDuration + "," + sources;
+    }
+
+    public int getNumber() {
+      return number;
+    }
+
+    public long getTimestamp() {
+      return timestamp;
+    }
+
+    /**
+     * Returns build duration.
+     *
+     * @return Duration in milliseconds
+     */
+    public long getDuration() {
+      return duration;
+    }
+
+    public long getCasesExecuted() {
+      return casesExecuted;
+    }
+
+    public long getFailures() {
+      return failures;
+    }
+
+    public long getErrors() {
+      return errors;
+    }
+
+    public long getWarnings() {
+      return warnings;
+    }
+
+    /**
+     * Returns fuzzing duration of the build's Defensics steps.
+     *
+     * @return Duration in milliseconds, 0 if not known
+     */
+    public long getFuzzingDuration() {
+      return fuzzingDuration;
+    }
+
+    public Map<String, Long> getFailuresBySource() {
+      return failuresBySource;
+    }
+
+    /**
+     * Returns test case execution rate during fuzzing.
+     *
+     * @return Executed cases per second, or 0 if fuzzing duration isn't known
+     */
+    public double getCasesPerSecond() {
+      return fuzzingDuration > 0 ? casesExecuted * 1000d / fuzzingDuration : 0;
+    }
+  }
+
+  /**
+   * Immutable trend record of one build, built from the build's history point so that charts
+   * don't need the build itself.
+   */
+  public static final class TrendEntry {
+
+    private final int number;
+    private final long timestamp;
+    private final boolean results;
+    private final long failureCount;
+    private final String reportUrl;
+
+    TrendEntry(int number, long timestamp, boolean results, long failureCount, String reportUrl) {
+      this.number = number;
+      this.timestamp = timestamp;
+      this.results = results;
+      this.failureCount = failureCount;
+      this.reportUrl = reportUrl;
+    }
+
+    static TrendEntry of(Point point) {
+      return new TrendEntry(point.getNumber(), point.getTimestamp(), true, point.getFailures(),
+          ReportAction.URL_NAME);
+    }
+
+    static TrendEntry notRun(int number) {
+      return new TrendEntry(number, 0, false, 0, null);
+    }
+
+    public int getNumber() {
+      return number;
+    }
+
+    public long getTimestamp() {
+      return timestamp;
+    }
+
+    public boolean hasResults() {
+      return results;
+    }
+
+    public long getFailureCount() {
+      return failureCount;
+    }
+
+    @CheckForNull
+    public String getReportUrl() {
+      return reportUrl;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof TrendEntry)) {
+        return false;
+      }
+      TrendEntry that = (TrendEntry) o;
+      return number == that.number
+          && timestamp == that.timestamp
+          && results == that.results
+          && failureCount == that.failureCount
+          && Objects.equals(reportUrl, that.reportUrl);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(number, timestamp, results, failureCount, reportUrl);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result.history;
+
+import hudson.util.DataSetBuilder;
+import hudson.util.ShiftedCategoryAxis;
+import java.io.IOException;
+import java.util.List;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.CategoryAxis;
+import org.jfree.chart.axis.CategoryLabelPositions;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.category.CategoryDataset;
+
+/**
+ * Failure chart of the long-horizon {@link FuzzHistory}. Unlike {@link TrendGraph}, this chart is
+ * drawn from history points only, so it doesn't load any builds.
+ */
+public class HistoryGraph {
+
+  static final String FAILURES = "Failures";
+  static final String ERRORS = "Errors";
+  static final String WARNINGS = "Warnings";
+
+  private final List<FuzzHistory.Point> points;
+
+  HistoryGraph(List<FuzzHistory.Point> points) {
+    this.points = points;
+  }
+
+  /**
+   * Draws the chart into a PNG image and the matching image map.
+   *
+   * @param width        Image width
+   * @param height       Image height
+   * @param etag         Entity tag identifying the chart
+   * @param lastModified Time the history was last changed
+   * @return Rendered chart
+   * @throws IOException if PNG encoding fails
+   */
+  RenderedTrendGraph render(int width, int height, String etag, long lastModified)
+      throws IOException {
+    return RenderedTrendGraph.render(createGraph(), width, height, etag, lastModified);
+  }
+
+  JFreeChart createGraph() {
+    final JFreeChart chart = ChartFactory.createLineChart(
+        null,
+        null,
+        "Count",
+        createDataset(),
+        PlotOrientation.VERTICAL,
+        true,
+        true,
+        false);
+
+    final CategoryPlot plot = chart.getCategoryPlot();
+    plot.getRenderer().setBaseToolTipGenerator((CategoryDataset dataset, int row, int column) ->
+        dataset.getColumnKey(column) + ": " + dataset.getValue(row, column) + " "
+            + dataset.getRowKey(row).toString().toLowerCase());
+
+    final CategoryAxis domainAxis = new ShiftedCategoryAxis(null);
+    plot.setDomainAxis(domainAxis);
+    domainAxis.setCategoryLabelPositions(CategoryLabelPositions.UP_90);
+    domainAxis.setLowerMargin(0.0);
+    domainAxis.setUpperMargin(0.0);
+    domainAxis.setCategoryMargin(0.0);
+
+    final NumberAxis rangeAxis = (NumberAxis) plot.getRangeAxis();
+    rangeAxis.setStandardTickUnits(NumberAxis.createIntegerTickUnits());
+    rangeAxis.setLowerBound(0);
+    return chart;
+  }
+
+  CategoryDataset createDataset() {
+    final DataSetBuilder<String, BuildNumber> builder = new DataSetBuilder<>();
+    for (FuzzHistory.Point point : points) {
+      final BuildNumber number = new BuildNumber(point.getNumber());
+      builder.add(point.getFailures(), FAILURES, number);
+      builder.add(point.getErrors(), ERRORS, number);
+      builder.add(point.getWarnings(), WARNINGS, number);
+    }
+    return builder.build();
+  }
+}
@@ -16,14 +16,13 @@
 
 package com.defensics.jenkins.result.history;
 
-import com.defensics.jenkins.result.BuildResultAction;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import hudson.model.Action;
 import hudson.model.Job;
-import hudson.model.Run;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import javax.servlet.http.HttpServletResponse;
 import org.kohsuke.stapler.StaplerRequest;
 import org.kohsuke.stapler.StaplerResponse;
 
@@ -33,35 +32,28 @@ import org.kohsuke.stapler.StaplerResponse;
 public class ProjectHistoryAction implements Action {
 
   public static final int MAX_BUILDS = 20;
-  private List<Run<?,?>> runs;
+  private static final int MAX_GRAPH_WIDTH = 2000;
+  private static final int MAX_GRAPH_HEIGHT = 1000;
+  /** Default and maximum number of points drawn in the history chart. */
+  static final int DEFAULT_HISTORY_POINTS = 100;
+  static final int MAX_HISTORY_POINTS = 500;
+  private final Job<?,?> job;
+  private final FuzzHistory history;
+  private final List<FuzzHistory.TrendEntry> entries;
+  private final long lastModified;
 
   /**
-   * Constructor.
+   * Constructor. Reads trend records of the latest builds from the job's {@link FuzzHistory}, so
+   * builds themselves are never loaded or kept in memory by this action.
    *
    * @param job The job for which this action should be created. The failures of the job's each run
    *            are used to create the trend chart.
    */
   public ProjectHistoryAction(Job<?,?> job) {
-    runs = new ArrayList<>();
-    Run<?,?> run = job.getLastCompletedBuild();
-    boolean hasDefensicsResults = false;
-    for (int i = 0; i < MAX_BUILDS; i++) {
-      if (run == null) {
-        break;
-      }
-
-      BuildResultAction buildResultAction = run.getAction(BuildResultAction.class);
-      if (buildResultAction != null) {
-        hasDefensicsResults = true;
-      }
-
-      runs.add(run);
-      run = run.getPreviousBuild();
-    }
-
-    if (!hasDefensicsResults) {
-      runs = new ArrayList<>();
-    }
+    this.job = job;
+    history = FuzzHistory.forJob(job);
+    entries = history.getLatestBuilds(MAX_BUILDS);
+    lastModified = history.getLastModified();
   }
 
   @CheckForNull
@@ -82,15 +74,152 @@ public class ProjectHistoryAction implements Action {
     return "defensicsHistory";
   }
 
+  public Job<?,?> getJob() {
+    return job;
+  }
+
   public boolean shouldShowTrendGraph() {
-    return runs.size() > 1;
+    return entries.size() > 1;
   }
 
   public void doTrendGraph(StaplerRequest request, StaplerResponse response) throws IOException {
-    new TrendGraph(runs).doPng(request, response);
+    final RenderedTrendGraph graph = getRenderedGraph(request);
+    if (graph == null) {
+      response.sendError(HttpServletResponse.SC_NOT_FOUND);
+      return;
+    }
+    graph.writePng(request, response);
+  }
+
+  public void doTrendMap(StaplerRequest request, StaplerResponse response) throws IOException {
+    final RenderedTrendGraph graph = getRenderedGraph(request);
+    if (graph == null) {
+      response.sendError(HttpServletResponse.SC_NOT_FOUND);
+      return;
+    }
+    graph.writeMap(request, response);
+  }
+
+  /**
+   * Tells if the job has long-horizon fuzzing history.
+   *
+   * @return true if at least one build has been recorded in the history
+   */
+  public boolean hasHistory() {
+    return history.size() > 0;
+  }
+
+  /**
+   * Draws chart of the job's {@link FuzzHistory}. Query parameter {@code builds} limits the chart
+   * to the latest builds and {@code points} sets the maximum number of points drawn, consecutive
+   * builds are merged if there are more.
+   */
+  public void doHistoryGraph(StaplerRequest request, StaplerResponse response)
+      throws IOException {
+    final RenderedTrendGraph graph = getRenderedHistoryGraph(request);
+    if (graph == null) {
+      response.sendError(HttpServletResponse.SC_NOT_FOUND);
+      return;
+    }
+    graph.writePng(request, response);
+  }
+
+  public void doHistoryMap(StaplerRequest request, StaplerResponse response) throws IOException {
+    final RenderedTrendGraph graph = getRenderedHistoryGraph(request);
+    if (graph == null) {
+      response.sendError(HttpServletResponse.SC_NOT_FOUND);
+      return;
+    }
+    graph.writeMap(request, response);
   }
 
-  public void doTrendMap(StaplerRequest request, StaplerResponse reponse) throws IOException {
-    new TrendGraph(runs).doMap(request, reponse);
+  /**
+   * Serves trend data as JSON for the client-side chart. Data comes from the job's
+   * {@link FuzzHistory}. Query parameters
+   * {@code from} and {@code to} select a range of build numbers when zooming, {@code builds}
+   * limits the data to the latest builds and {@code points} sets the maximum number of points,
+   * consecutive builds are merged if there are more.
+   */
+  public void doTrendData(StaplerRequest request, StaplerResponse response) throws IOException {
+    if (history.size() == 0) {
+      response.sendError(HttpServletResponse.SC_NOT_FOUND);
+      return;
+    }
+    final int from = getSize(request, "from", 1, Integer.MAX_VALUE);
+    final int to = getSize(request, "to", Integer.MAX_VALUE, Integer.MAX_VALUE);
+    final int builds = getSize(request, "builds", 0, Integer.MAX_VALUE);
+    final int maxPoints =
+        getSize(request, "points", DEFAULT_HISTORY_POINTS, MAX_HISTORY_POINTS);
+
+    List<FuzzHistory.Point> selected = history.getPointsBetween(from, to);
+    if (builds > 0 && selected.size() > builds) {
+      selected = selected.subList(selected.size() - builds, selected.size());
+    }
+    final List<FuzzHistory.Point> points = FuzzHistory.downsample(selected, maxPoints);
+    final TrendData data = TrendData.fromHistory(points, points.size() < selected.size());
+    final long dataLastModified = history.getLastModified();
+
+    final String etag = "\"data-" + Long.toHexString(dataLastModified) + "-" + from + "-" + to
+        + "-" + builds + "-" + maxPoints + "\"";
+    if (RenderedTrendGraph.isNotModified(
+        request, response, etag, dataLastModified / 1000 * 1000)) {
+      return;
+    }
+    final byte[] json = data.toJson().getBytes(StandardCharsets.UTF_8);
+    response.setContentType("application/json;charset=UTF-8");
+    response.setContentLength(json.length);
+    response.getOutputStream().write(json);
+  }
+
+  @CheckForNull
+  private RenderedTrendGraph getRenderedHistoryGraph(StaplerRequest request) throws IOException {
+    final int builds = getSize(request, "builds", 0, Integer.MAX_VALUE);
+    final int maxPoints =
+        getSize(request, "points", DEFAULT_HISTORY_POINTS, MAX_HISTORY_POINTS);
+    final int width = getSize(request, "width", TrendGraph.DEFAULT_WIDTH, MAX_GRAPH_WIDTH);
+    final int height = getSize(request, "height", TrendGraph.DEFAULT_HEIGHT, MAX_GRAPH_HEIGHT);
+    final List<FuzzHistory.Point> points = history.getPoints(builds, maxPoints);
+    if (points.isEmpty()) {
+      return null;
+    }
+    final long lastModified = history.getLastModified();
+    final String etag = "\"history-" + points.get(points.size() - 1).getNumber() + "-"
+        + Long.toHexString(lastModified) + "-" + builds + "-" + maxPoints + "-" + width + "x"
+        + height + "\"";
+    final String key = job.getFullName() + "/" + etag;
+    return TrendGraphCache.get().get(key,
+        () -> new HistoryGraph(points).render(width, height, etag, lastModified));
+  }
+
+  /**
+   * Returns the chart from {@link TrendGraphCache}, drawing it only if the trend data or requested
+   * size has changed since it was last drawn. Image and image map share the cached rendering.
+   *
+   * @return Rendered chart, or null if there is nothing to draw
+   */
+  @CheckForNull
+  private RenderedTrendGraph getRenderedGraph(StaplerRequest request) throws IOException {
+    if (entries.isEmpty()) {
+      return null;
+    }
+    final int width = getSize(request, "width", TrendGraph.DEFAULT_WIDTH, MAX_GRAPH_WIDTH);
+    final int height = getSize(request, "height", TrendGraph.DEFAULT_HEIGHT, MAX_GRAPH_HEIGHT);
+    final String etag = "\"" + entries.get(0).getNumber() + "-"
+        + Integer.toHexString(entries.hashCode()) + "-" + width + "x" + height + "\"";
+    final String key = job.getFullName() + "/" + etag;
+    return TrendGraphCache.get().get(key,
+        () -> new TrendGraph(entries).render(width, height, etag, lastModified));
+  }
+
+  private static int getSize(StaplerRequest request, String name, int defaultValue, int max) {
+    final String value = request.getParameter(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Math.max(1, Math.min(max, Integer.parseInt(value)));
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
   }
 }
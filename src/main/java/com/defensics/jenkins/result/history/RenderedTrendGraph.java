@@ -0,0 +1,157 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result.history;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import javax.servlet.http.HttpServletResponse;
+import org.jfree.chart.ChartRenderingInfo;
+import org.jfree.chart.ChartUtilities;
+import org.jfree.chart.JFreeChart;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+/**
+ * Trend chart rendered once into a PNG image and the matching image map, so both can be served
+ * from {@link TrendGraphCache} without drawing the chart again.
+ */
+public final class RenderedTrendGraph {
+
+  private final byte[] png;
+  private final String map;
+  private final String etag;
+  private final long lastModified;
+
+  RenderedTrendGraph(byte[] png, String map, String etag, long lastModified) {
+    this.png = png.clone();
+    this.map = map;
+    this.etag = etag;
+    // HTTP dates have one second precision.
+    this.lastModified = lastModified / 1000 * 1000;
+  }
+
+  /**
+   * Draws given chart once into a PNG image and the matching image map.
+   *
+   * @param chart        Chart to draw
+   * @param width        Image width
+   * @param height       Image height
+   * @param etag         Entity tag identifying the chart
+   * @param lastModified Time the chart data was last changed
+   * @return Rendered chart
+   * @throws IOException if PNG encoding fails
+   */
+  static RenderedTrendGraph render(JFreeChart chart, int width, int height, String etag,
+      long lastModified) throws IOException {
+    final ChartRenderingInfo info = new ChartRenderingInfo();
+    final ByteArrayOutputStream png = new ByteArrayOutputStream();
+    ChartUtilities.writeChartAsPNG(png, chart, width, height, info);
+    return new RenderedTrendGraph(
+        png.toByteArray(), ChartUtilities.getImageMap("map", info), etag, lastModified);
+  }
+
+  public String getEtag() {
+    return etag;
+  }
+
+  public long getLastModified() {
+    return lastModified;
+  }
+
+  /**
+   * Writes the PNG image to the response, or 304 if the client's copy is still valid.
+   *
+   * @param request  Stapler request
+   * @param response Stapler response
+   * @throws IOException if writing the response fails
+   */
+  public void writePng(StaplerRequest request, StaplerResponse response) throws IOException {
+    if (isNotModified(request, response)) {
+      return;
+    }
+    response.setContentType("image/png");
+    response.setContentLength(png.length);
+    response.getOutputStream().write(png);
+  }
+
+  /**
+   * Writes the image map to the response, or 304 if the client's copy is still valid.
+   *
+   * @param request  Stapler request
+   * @param response Stapler response
+   * @throws IOException if writing the response fails
+   */
+  public void writeMap(StaplerRequest request, StaplerResponse response) throws IOException {
+    if (isNotModified(request, response)) {
+      return;
+    }
+    final byte[] bytes = map.getBytes(StandardCharsets.UTF_8);
+    response.setContentType("text/plain;charset=UTF-8");
+    response.setContentLength(bytes.length);
+    response.getOutputStream().write(bytes);
+  }
+
+  boolean isNotModified(StaplerRequest request, StaplerResponse response) {
+    return isNotModified(request, response, etag, lastModified);
+  }
+
+  /**
+   * Sets validator headers and checks the conditional request headers. If-None-Match takes
+   * precedence over If-Modified-Since as required by RFC 9110.
+   *
+   * @param request      Stapler request
+   * @param response     Stapler response, status is set to 304 if not modified
+   * @param etag         Entity tag of the current representation
+   * @param lastModified Last modification time of the current representation, in whole seconds
+   * @return true if the client's copy is still valid and nothing more should be written
+   */
+  static boolean isNotModified(StaplerRequest request, StaplerResponse response, String etag,
+      long lastModified) {
+    response.setHeader("ETag", etag);
+    response.setDateHeader("Last-Modified", lastModified);
+    response.setHeader("Cache-Control", "no-cache");
+
+    final String ifNoneMatch = request.getHeader("If-None-Match");
+    final boolean notModified;
+    if (ifNoneMatch != null) {
+      notModified = matches(ifNoneMatch, etag);
+    } else {
+      long ifModifiedSince;
+      try {
+        ifModifiedSince = request.getDateHeader("If-Modified-Since");
+      } catch (IllegalArgumentException e) {
+        ifModifiedSince = -1;
+      }
+      notModified = ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
+    if (notModified) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    }
+    return notModified;
+  }
+
+  private static boolean matches(String ifNoneMatch, String etag) {
+    for (String tag : ifNoneMatch.split(",")) {
+      final String trimmed = tag.trim();
+      if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals("W/" + etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
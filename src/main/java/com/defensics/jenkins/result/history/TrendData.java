@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result.history;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Trend chart data served as JSON for the client-side chart. Data is in columns, one array per
+ * value, which keeps the response to a few kilobytes even for hundreds of points.
+ */
+public final class TrendData {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  /** Prefix of series names of failures by source. */
+  static final String SOURCE_SERIES_PREFIX = "source:";
+
+  private final List<Integer> builds = new ArrayList<>();
+  private final List<Long> timestamps = new ArrayList<>();
+  private final Map<String, List<Number>> series = new LinkedHashMap<>();
+  private final boolean downsampled;
+
+  private TrendData(boolean downsampled) {
+    this.downsampled = downsampled;
+  }
+
+  /**
+   * Creates trend data from long-horizon history points.
+   *
+   * @param points      History points, oldest first
+   * @param downsampled Tells if points were merged from more builds
+   * @return Trend data
+   */
+  static TrendData fromHistory(List<FuzzHistory.Point> points, boolean downsampled) {
+    final TrendData data = new TrendData(downsampled);
+    final List<Number> failures = data.addSeries("failures");
+    final List<Number> errors = data.addSeries("errors");
+    final List<Number> warnings = data.addSeries("warnings");
+    final List<Number> cases = data.addSeries("casesExecuted");
+    final List<Number> casesPerSecond = data.addSeries("casesPerSecond");
+    final List<Number> durations = data.addSeries("duration");
+    final Set<String> sources = new TreeSet<>();
+    for (FuzzHistory.Point point : points) {
+      data.builds.add(point.getNumber());
+      data.timestamps.add(point.getTimestamp());
+      failures.add(point.getFailures());
+      errors.add(point.getErrors());
+      warnings.add(point.getWarnings());
+      cases.add(point.getCasesExecuted());
+      casesPerSecond.add(Math.round(point.getCasesPerSecond() * 10) / 10d);
+      durations.add(point.getDuration());
+      sources.addAll(point.getFailuresBySource().keySet());
+    }
+    // One series per failure source seen in the selected builds.
+    for (String source : sources) {
+      final List<Number> values = data.addSeries(SOURCE_SERIES_PREFIX + source);
+      for (FuzzHistory.Point point : points) {
+        values.add(point.getFailuresBySource().getOrDefault(source, 0L));
+      }
+    }
+    return data;
+  }
+
+  private List<Number> addSeries(String name) {
+    final List<Number> values = new ArrayList<>();
+    series.put(name, values);
+    return values;
+  }
+
+  public List<Integer> getBuilds() {
+    return builds;
+  }
+
+  public Map<String, List<Number>> getSeries() {
+    return series;
+  }
+
+  /**
+   * Formats the data as JSON.
+   *
+   * @return JSON object
+   */
+  public String toJson() {
+    final Map<String, Object> json = new LinkedHashMap<>();
+    json.put("downsampled", downsampled);
+    json.put("builds", builds);
+    json.put("timestamps", timestamps);
+    json.put("series", series);
+    try {
+      return OBJECT_MAPPER.writeValueAsString(json);
+    } catch (JsonProcessingException e) {
+      // Only numbers and strings, can't happen.
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -16,11 +16,10 @@
 
 package com.defensics.jenkins.result.history;
 
-import com.defensics.jenkins.result.BuildResultAction;
-import hudson.model.Run;
 import hudson.util.DataSetBuilder;
 import hudson.util.Graph;
 import hudson.util.ShiftedCategoryAxis;
+import java.io.IOException;
 import java.util.List;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.JFreeChart;
@@ -38,17 +37,35 @@ import org.jfree.data.category.CategoryDataset;
  */
 public class TrendGraph extends Graph {
 
-  private final List<Run<?,?>> runs;
+  static final int DEFAULT_WIDTH = 500;
+  static final int DEFAULT_HEIGHT = 200;
+
+  private final List<FuzzHistory.TrendEntry> builds;
 
   /**
    * Constructor.
    *
-   * @param runs List of runs to use for the graph. A run is not required to contain Defenscis
-   *             steps, for those runs 0 is shown in the chart.
+   * @param builds Trend records of the builds to use for the graph, newest first. A build is not
+   *               required to contain Defensics steps, for those builds 0 is shown in the chart.
+   */
+  TrendGraph(List<FuzzHistory.TrendEntry> builds) {
+    super(builds.get(0).getTimestamp(), DEFAULT_WIDTH, DEFAULT_HEIGHT);
+    this.builds = builds;
+  }
+
+  /**
+   * Draws the chart once into a PNG image and the matching image map.
+   *
+   * @param width        Image width
+   * @param height       Image height
+   * @param etag         Entity tag identifying the chart
+   * @param lastModified Time the chart data was last changed
+   * @return Rendered chart
+   * @throws IOException if PNG encoding fails
    */
-  TrendGraph(List<Run<?,?>> runs) {
-    super(runs.get(0).getTime().getTime(), 500, 200);
-    this.runs = runs;
+  RenderedTrendGraph render(int width, int height, String etag, long lastModified)
+      throws IOException {
+    return RenderedTrendGraph.render(createGraph(), width, height, etag, lastModified);
   }
 
   @Override
@@ -75,16 +92,8 @@ public class TrendGraph extends Graph {
   private DataSetBuilder<String, BuildNumber> getDataSetBuilder() {
     DataSetBuilder<String, BuildNumber> dataSetBuilder = new DataSetBuilder<>();
 
-    for (Run<?,?> run : runs) {
-      BuildResultAction buildResultAction = run.getAction(BuildResultAction.class);
-      if (buildResultAction == null) {
-        dataSetBuilder.add(0, "Failures", new BuildNumber(run.getNumber()));
-      } else {
-        dataSetBuilder.add(
-            buildResultAction.getFailureCount(),
-            "Failures",
-            new BuildNumber(run.getNumber()));
-      }
+    for (FuzzHistory.TrendEntry build : builds) {
+      dataSetBuilder.add(build.getFailureCount(), "Failures", new BuildNumber(build.getNumber()));
     }
     return dataSetBuilder;
   }
@@ -93,11 +102,10 @@ public class TrendGraph extends Graph {
     AreaRenderer renderer = new AreaRenderer();
     CategoryURLGenerator urlGenerator = (CategoryDataset dataset, int series, int category) -> {
       if (category > 0) {
-        BuildResultAction action =
-            runs.get(runs.size() - category).getAction(BuildResultAction.class);
-        if (action != null) {
+        FuzzHistory.TrendEntry build = builds.get(builds.size() - category);
+        if (build.hasResults()) {
           return dataset.getColumnKey(category).toString().substring(1) + "/"
-              + action.getReportUrl();
+              + build.getReportUrl();
         } else {
           return null;
         }
@@ -110,11 +118,10 @@ public class TrendGraph extends Graph {
 
   private void setTooltipFormat(CategoryPlot plot) {
     plot.getRenderer().setBaseToolTipGenerator((CategoryDataset dataset, int row, int column) -> {
-      BuildResultAction action =
-          runs.get(runs.size() - column - 1).getAction(BuildResultAction.class);
-      if (action != null) {
+      FuzzHistory.TrendEntry build = builds.get(builds.size() - column - 1);
+      if (build.hasResults()) {
         return dataset.getColumnKey(column).toString() + ": "
-            + action.getFailureCount() + " failures";
+            + build.getFailureCount() + " failures";
       } else {
         return dataset.getColumnKey(column).toString() + ": " + "Defensics not run";
       }
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result.history;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import jenkins.util.SystemProperties;
+
+/**
+ * Least recently used cache of rendered trend charts. Charts are keyed by job, the trend data
+ * they were drawn from and the chart size, so a new build or changed results simply produce a new
+ * key and the old chart ages out of the cache.
+ */
+public final class TrendGraphCache {
+
+  /**
+   * Maximum number of cached charts. Charts are a few tens of kilobytes each.
+   */
+  static final int MAX_ENTRIES = SystemProperties.getInteger(
+      TrendGraphCache.class.getName() + ".maxEntries", 100);
+
+  private static final TrendGraphCache INSTANCE = new TrendGraphCache(MAX_ENTRIES);
+
+  private final Map<String, RenderedTrendGraph> graphs;
+
+  TrendGraphCache(int maxEntries) {
+    this.graphs = new LinkedHashMap<String, RenderedTrendGraph>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, RenderedTrendGraph> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  public static TrendGraphCache get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Renders chart of given data.
+   */
+  @FunctionalInterface
+  interface Renderer {
+
+    @CheckForNull
+    RenderedTrendGraph render() throws IOException;
+  }
+
+  /**
+   * Returns cached chart, rendering it if it's not cached. Concurrent requests for a chart which
+   * isn't cached yet may render it more than once, but rendering is never done under the cache
+   * lock.
+   *
+   * @param key      Cache key
+   * @param renderer Renders the chart on cache miss
+   * @return Rendered chart, or null if renderer had nothing to draw
+   * @throws IOException if rendering fails
+   */
+  @CheckForNull
+  RenderedTrendGraph get(String key, Renderer renderer) throws IOException {
+    synchronized (graphs) {
+      final RenderedTrendGraph cached = graphs.get(key);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    final RenderedTrendGraph rendered = renderer.render();
+    if (rendered != null) {
+      synchronized (graphs) {
+        graphs.put(key, rendered);
+      }
+    }
+    return rendered;
+  }
+
+  int size() {
+    synchronized (graphs) {
+      return graphs.size();
+    }
+  }
+}
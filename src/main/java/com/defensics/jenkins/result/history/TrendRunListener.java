@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result.history;
+
+import com.defensics.jenkins.configuration.PluginConfiguration;
+import com.defensics.jenkins.result.BuildResultAction;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import jenkins.model.GlobalConfiguration;
+
+/**
+ * Keeps {@link FuzzHistory} of each job up to date as builds complete and get deleted. Builds
+ * without Defensics results are ignored, so jobs which don't run Defensics never get a history
+ * loaded or built.
+ */
+@Extension
+public class TrendRunListener extends RunListener<Run<?, ?>> {
+
+  @Override
+  public void onCompleted(Run<?, ?> run, @NonNull TaskListener listener) {
+    if (run.getAction(BuildResultAction.class) == null) {
+      return;
+    }
+    FuzzHistory.forJob(run.getParent()).record(run, getHistoryRetention());
+  }
+
+  @Override
+  public void onDeleted(Run<?, ?> run) {
+    if (run.getAction(BuildResultAction.class) == null) {
+      return;
+    }
+    FuzzHistory.forJob(run.getParent()).remove(run.getNumber());
+  }
+
+  private static int getHistoryRetention() {
+    final PluginConfiguration configuration =
+        GlobalConfiguration.all().getInstance(PluginConfiguration.class);
+    return configuration == null
+        ? PluginConfiguration.DEFAULT_HISTORY_RETENTION
+        : configuration.getHistoryRetention();
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.timing;
+
+/**
+ * Phases of a Defensics build step whose durations are measured.
+ */
+public enum Phase {
+  CONNECTION("Connection"),
+  UPLOAD("Test plan upload"),
+  SUITE_LOAD("Suite load"),
+  SUITE_RELOAD("Suite reload after overrides"),
+  FUZZING("Fuzzing"),
+  REPORT_DOWNLOAD("Report download"),
+  RESULT_PACKAGE_DOWNLOAD("Result package download"),
+  PUBLISHING("Publishing"),
+  CLEANUP("Cleanup");
+
+  private final String displayName;
+
+  Phase(String displayName) {
+    this.displayName = displayName;
+  }
+
+  public String getDisplayName() {
+    return displayName;
+  }
+}
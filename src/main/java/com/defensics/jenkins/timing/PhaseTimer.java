@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.timing;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Measures wall time spent in each {@link Phase} of a build step. Only one phase is measured at a
+ * time, so beginning a phase ends the previous one. A phase can be entered more than once, in
+ * which case the durations are summed.
+ */
+public class PhaseTimer {
+
+  private final LongSupplier nanoClock;
+  private final Map<Phase, Long> durations = new EnumMap<>(Phase.class);
+  private final Map<Phase, Long> bytes = new EnumMap<>(Phase.class);
+
+  private Phase current;
+  private long currentStarted;
+
+  public PhaseTimer() {
+    this(System::nanoTime);
+  }
+
+  PhaseTimer(LongSupplier nanoClock) {
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Ends the current phase and starts measuring given phase.
+   *
+   * @param phase Phase to measure
+   */
+  public void begin(Phase phase) {
+    end();
+    current = phase;
+    currentStarted = nanoClock.getAsLong();
+    durations.putIfAbsent(phase, 0L);
+  }
+
+  /**
+   * Ends the current phase, if any.
+   */
+  public void end() {
+    if (current != null) {
+      durations.merge(current, nanoClock.getAsLong() - currentStarted, Long::sum);
+      current = null;
+    }
+  }
+
+  /**
+   * Records bytes transferred during given phase.
+   *
+   * @param phase Phase which transferred the bytes
+   * @param count Byte count
+   */
+  public void addBytes(Phase phase, long count) {
+    bytes.merge(phase, count, Long::sum);
+  }
+
+  /**
+   * Returns timings of all phases entered so far, in phase order.
+   *
+   * @param step Step name for the timings
+   * @return Phase timings
+   */
+  public List<PhaseTiming> getTimings(String step) {
+    final List<PhaseTiming> timings = new ArrayList<>();
+    for (Map.Entry<Phase, Long> entry : durations.entrySet()) {
+      long duration = entry.getValue();
+      if (entry.getKey() == current) {
+        duration += nanoClock.getAsLong() - currentStarted;
+      }
+      timings.add(new PhaseTiming(
+          step,
+          entry.getKey(),
+          TimeUnit.NANOSECONDS.toMillis(duration),
+          bytes.getOrDefault(entry.getKey(), 0L)));
+    }
+    return timings;
+  }
+}
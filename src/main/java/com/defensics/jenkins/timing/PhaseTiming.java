@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.timing;
+
+import hudson.Util;
+
+/**
+ * Measured duration of one phase of a Defensics build step.
+ */
+public final class PhaseTiming {
+
+  private final String step;
+  private final Phase phase;
+  private final long durationMillis;
+  private final long bytes;
+
+  /**
+   * Constructor.
+   *
+   * @param step           Name of the step, i.e. test plan name
+   * @param phase          Measured phase
+   * @param durationMillis Wall time spent in the phase
+   * @param bytes          Bytes transferred during the phase
+   */
+  public PhaseTiming(String step, Phase phase, long durationMillis, long bytes) {
+    this.step = step;
+    this.phase = phase;
+    this.durationMillis = durationMillis;
+    this.bytes = bytes;
+  }
+
+  public String getStep() {
+    return step;
+  }
+
+  public Phase getPhase() {
+    return phase;
+  }
+
+  public long getDurationMillis() {
+    return durationMillis;
+  }
+
+  public String getDurationString() {
+    return Util.getTimeSpanString(durationMillis);
+  }
+
+  public long getBytes() {
+    return bytes;
+  }
+}
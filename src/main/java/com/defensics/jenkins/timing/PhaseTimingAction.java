@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.timing;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.model.Run;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import jenkins.model.RunAction2;
+
+/**
+ * Shows how long each phase of the Defensics steps took in a build, and how many bytes were
+ * transferred.
+ */
+public class PhaseTimingAction implements RunAction2 {
+
+  private transient Run<?, ?> owner;
+
+  private final List<PhaseTiming> timings = new ArrayList<>();
+
+  @Override
+  public void onAttached(Run<?, ?> r) {
+    owner = r;
+  }
+
+  @Override
+  public void onLoad(Run<?, ?> r) {
+    owner = r;
+  }
+
+  public Run<?, ?> getOwner() {
+    return owner;
+  }
+
+  @CheckForNull
+  @Override
+  public String getIconFileName() {
+    return null;
+  }
+
+  @CheckForNull
+  @Override
+  public String getDisplayName() {
+    return "Defensics Phase Timing";
+  }
+
+  @CheckForNull
+  @Override
+  public String getUrlName() {
+    return null;
+  }
+
+  /**
+   * Adds timings of one step.
+   *
+   * @param stepTimings Timings to add
+   */
+  public synchronized void addTimings(List<PhaseTiming> stepTimings) {
+    timings.addAll(stepTimings);
+  }
+
+  public synchronized List<PhaseTiming> getTimings() {
+    return Collections.unmodifiableList(new ArrayList<>(timings));
+  }
+
+  /**
+   * Names of the measured steps in execution order.
+   *
+   * @return Step names
+   */
+  public synchronized List<String> getSteps() {
+    return timings.stream().map(PhaseTiming::getStep).distinct().collect(Collectors.toList());
+  }
+
+  /**
+   * Timings of given step.
+   *
+   * @param step Step name
+   * @return Timings of the step in phase order
+   */
+  public synchronized List<PhaseTiming> getTimings(String step) {
+    return timings.stream()
+        .filter(timing -> Objects.equals(timing.getStep(), step))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Sums durations of each phase over all steps of the build.
+   *
+   * @return Total milliseconds by phase
+   */
+  public synchronized Map<Phase, Long> getTotalMillisByPhase() {
+    final Map<Phase, Long> totals = new EnumMap<>(Phase.class);
+    for (PhaseTiming timing : timings) {
+      totals.merge(timing.getPhase(), timing.getDurationMillis(), Long::sum);
+    }
+    return totals;
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.timing;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Util;
+import hudson.model.Action;
+import hudson.model.Job;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Aggregates Defensics phase timings over the latest builds of a job, so the phase taking most of
+ * the time can be spotted. Phase totals of each build are read from
+ * {@link ProjectPhaseTimings}, so builds are not loaded when the page is rendered.
+ */
+public class ProjectPhaseTimingAction implements Action {
+
+  public static final int MAX_BUILDS = 20;
+
+  private final Job<?, ?> job;
+
+  public ProjectPhaseTimingAction(Job<?, ?> job) {
+    this.job = job;
+  }
+
+  public Job<?, ?> getJob() {
+    return job;
+  }
+
+  @CheckForNull
+  @Override
+  public String getIconFileName() {
+    return hasTimings() ? "/plugin/defensics/images/24x24/defensics-logo.png" : null;
+  }
+
+  @CheckForNull
+  @Override
+  public String getDisplayName() {
+    return "Defensics Phase Timing";
+  }
+
+  @CheckForNull
+  @Override
+  public String getUrlName() {
+    return "defensicsTiming";
+  }
+
+  private boolean hasTimings() {
+    return !ProjectPhaseTimings.forJob(job).getBuildTimings().isEmpty();
+  }
+
+  /**
+   * Phase totals of latest builds which have Defensics timings, newest first.
+   *
+   * @return Build timings
+   */
+  public List<BuildTiming> getBuildTimings() {
+    return ProjectPhaseTimings.forJob(job).getBuildTimings();
+  }
+
+  /**
+   * Phases present in any of the given builds, in phase order.
+   *
+   * @param buildTimings Build timings
+   * @return Phases
+   */
+  public Set<Phase> getPhases(List<BuildTiming> buildTimings) {
+    final Set<Phase> phases = EnumSet.noneOf(Phase.class);
+    buildTimings.forEach(timing -> phases.addAll(timing.getMillisByPhase().keySet()));
+    return phases;
+  }
+
+  /**
+   * Average duration of each phase over given builds. Builds which didn't enter the phase are not
+   * included in its average.
+   *
+   * @param buildTimings Build timings
+   * @return Average milliseconds by phase
+   */
+  public Map<Phase, Long> getAverageMillisByPhase(List<BuildTiming> buildTimings) {
+    final Map<Phase, Long> sums = new EnumMap<>(Phase.class);
+    final Map<Phase, Integer> counts = new EnumMap<>(Phase.class);
+    for (BuildTiming buildTiming : buildTimings) {
+      buildTiming.getMillisByPhase().forEach((phase, millis) -> {
+        sums.merge(phase, millis, Long::sum);
+        counts.merge(phase, 1, Integer::sum);
+      });
+    }
+    final Map<Phase, Long> averages = new EnumMap<>(Phase.class);
+    sums.forEach((phase, sum) -> averages.put(phase, sum / counts.get(phase)));
+    return averages;
+  }
+
+  public String formatMillis(Long millis) {
+    return millis == null ? "" : Util.getTimeSpanString(millis);
+  }
+
+  /**
+   * Phase totals of one build.
+   */
+  public static class BuildTiming {
+    private final int number;
+    private final Map<Phase, Long> millisByPhase;
+
+    BuildTiming(int number, Map<Phase, Long> millisByPhase) {
+      this.number = number;
+      this.millisByPhase = millisByPhase;
+    }
+
+    public int getNumber() {
+      return number;
+    }
+
+    public Map<Phase, Long> getMillisByPhase() {
+      return millisByPhase;
+    }
+
+    public long getTotalMillis() {
+      return millisByPhase.values().stream().mapToLong(Long::longValue).sum();
+    }
+  }
+}
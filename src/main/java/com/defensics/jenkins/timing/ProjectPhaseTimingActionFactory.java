@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.timing;
+
+import com.defensics.jenkins.FuzzBuildStep;
+import com.defensics.jenkins.FuzzPostBuildStep;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.Action;
+import hudson.model.Job;
+import hudson.model.Project;
+import java.util.Collection;
+import java.util.Collections;
+import jenkins.model.TransientActionFactory;
+
+/**
+ * Adds {@link ProjectPhaseTimingAction} to jobs which run Defensics.
+ */
+@Extension
+public class ProjectPhaseTimingActionFactory extends TransientActionFactory<Job> {
+
+  @Override
+  public Class<Job> type() {
+    return Job.class;
+  }
+
+  @NonNull
+  @Override
+  public Collection<? extends Action> createFor(@NonNull Job target) {
+    if (!isDefensicsJob(target)) {
+      return Collections.emptyList();
+    }
+    return Collections.singleton(new ProjectPhaseTimingAction(target));
+  }
+
+  /**
+   * Tells if the job has Defensics steps. Freestyle jobs are checked from their configuration,
+   * other jobs such as Pipelines once one of their latest builds has Defensics phase timings.
+   *
+   * @param job Jenkins job
+   * @return true if the job runs Defensics
+   */
+  static boolean isDefensicsJob(Job<?, ?> job) {
+    if (job instanceof Project) {
+      final Project<?, ?> project = (Project<?, ?>) job;
+      if (project.getBuildersList().get(FuzzBuildStep.class) != null
+          || project.getPublishersList().get(FuzzPostBuildStep.class) != null) {
+        return true;
+      }
+    }
+    return !ProjectPhaseTimings.forJob(job).getBuildTimings().isEmpty();
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.timing;
+
+import com.defensics.jenkins.timing.ProjectPhaseTimingAction.BuildTiming;
+import hudson.model.Job;
+import hudson.model.Run;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Phase totals of the latest builds of one job. The builds are read once, when the timings of the
+ * job are first needed, and then kept up to date by {@link PhaseTimingRunListener}, so rendering
+ * job pages doesn't load builds.
+ */
+final class ProjectPhaseTimings {
+
+  /**
+   * Loaded timings. Weak keys so timings of deleted jobs go away with the job.
+   */
+  private static final Map<Job<?, ?>, ProjectPhaseTimings> TIMINGS = new WeakHashMap<>();
+
+  /**
+   * Build timings ordered by build number, newest first.
+   */
+  private final List<BuildTiming> buildTimings = new ArrayList<>();
+
+  /**
+   * Returns timings of given job, reading them from the latest completed builds if needed.
+   *
+   * @param job Jenkins job
+   * @return Timings of the job
+   */
+  static ProjectPhaseTimings forJob(Job<?, ?> job) {
+    synchronized (TIMINGS) {
+      ProjectPhaseTimings timings = TIMINGS.get(job);
+      if (timings == null) {
+        timings = new ProjectPhaseTimings();
+        Run<?, ?> run = job.getLastCompletedBuild();
+        for (int i = 0; i < ProjectPhaseTimingAction.MAX_BUILDS && run != null; i++) {
+          timings.add(run);
+          run = run.getPreviousBuild();
+        }
+        TIMINGS.put(job, timings);
+      }
+      return timings;
+    }
+  }
+
+  /**
+   * Adds phase totals of given build, replacing earlier totals of the same build. Builds without
+   * Defensics timings are skipped.
+   *
+   * @param run Completed build
+   */
+  synchronized void add(Run<?, ?> run) {
+    final PhaseTimingAction action = run.getAction(PhaseTimingAction.class);
+    if (action == null) {
+      return;
+    }
+    final Map<Phase, Long> millisByPhase = action.getTotalMillisByPhase();
+    if (millisByPhase.isEmpty()) {
+      return;
+    }
+    remove(run.getNumber());
+    int position = 0;
+    while (position < buildTimings.size()
+        && buildTimings.get(position).getNumber() > run.getNumber()) {
+      position++;
+    }
+    buildTimings.add(position, new BuildTiming(run.getNumber(), millisByPhase));
+    if (buildTimings.size() > ProjectPhaseTimingAction.MAX_BUILDS) {
+      buildTimings.subList(ProjectPhaseTimingAction.MAX_BUILDS, buildTimings.size()).clear();
+    }
+  }
+
+  /**
+   * Removes phase totals of given build.
+   *
+   * @param number Build number
+   */
+  synchronized void remove(int number) {
+    buildTimings.removeIf(buildTiming -> buildTiming.getNumber() == number);
+  }
+
+  /**
+   * Returns snapshot of the build timings, newest first.
+   *
+   * @return Build timings
+   */
+  synchronized List<BuildTiming> getBuildTimings() {
+    return new ArrayList<>(buildTimings);
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.tracing;
+
+import com.defensics.tracing.InMemorySpanExporter;
+import com.defensics.tracing.Span;
+import com.defensics.tracing.SpanExporter;
+import com.defensics.tracing.SpanFormat;
+import com.defensics.tracing.Tracer;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Extension;
+import hudson.model.RootAction;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import javax.servlet.http.HttpServletResponse;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+/**
+ * Serves spans collected by the in-process collector from {@code <jenkins>/defensics-traces/} as
+ * one OTLP/JSON trace export request. Optional {@code traceId} query parameter limits the output to one trace.
+ */
+@Extension
+public class TraceCollectorAction implements RootAction {
+
+  public static final String URL_NAME = "defensics-traces";
+
+  @CheckForNull
+  @Override
+  public String getIconFileName() {
+    return null;
+  }
+
+  @CheckForNull
+  @Override
+  public String getDisplayName() {
+    return "Defensics Traces";
+  }
+
+  @CheckForNull
+  @Override
+  public String getUrlName() {
+    return URL_NAME;
+  }
+
+  /**
+   * Writes collected spans to the response.
+   *
+   * @param request  Stapler request
+   * @param response Stapler response
+   * @throws IOException if writing the response fails
+   */
+  public void doIndex(StaplerRequest request, StaplerResponse response) throws IOException {
+    Jenkins.get().checkPermission(Jenkins.SYSTEM_READ);
+    final SpanExporter exporter = Tracer.get().getExporter();
+    if (!(exporter instanceof InMemorySpanExporter)) {
+      response.sendError(HttpServletResponse.SC_NOT_FOUND,
+          "In-process trace collector is not enabled");
+      return;
+    }
+    final String traceId = request.getParameter("traceId");
+    response.setContentType("application/x-ndjson; charset=utf-8");
+    final List<Span> spans = new ArrayList<>();
+    for (Span span : ((InMemorySpanExporter) exporter).getSpans()) {
+      if (traceId == null || traceId.equals(span.getTraceId())) {
+        spans.add(span);
+      }
+    }
+    try (Writer writer = response.getWriter()) {
+      if (!spans.isEmpty()) {
+        writer.write(SpanFormat.toJson(spans));
+        writer.write('\n');
+      }
+    }
+  }
+}
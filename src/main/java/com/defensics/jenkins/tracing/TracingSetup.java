@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.tracing;
+
+import com.defensics.tracing.FileSpanExporter;
+import com.defensics.tracing.InMemorySpanExporter;
+import com.defensics.tracing.SpanExporter;
+import com.defensics.tracing.Tracer;
+import hudson.init.Terminator;
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import jenkins.model.Jenkins;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Configures span exporter of the {@link Tracer} from global plugin configuration.
+ */
+public final class TracingSetup {
+
+  /**
+   * Number of spans kept by the in-process collector.
+   */
+  static final int IN_MEMORY_CAPACITY = 10_000;
+
+  private TracingSetup() {
+  }
+
+  /**
+   * Enables or disables tracing. Enabled tracing exports spans to given file, or to in-process
+   * collector served by {@link TraceCollectorAction} if no file is given.
+   *
+   * @param enabled   Is tracing enabled
+   * @param traceFile Trace file path, relative paths are resolved against Jenkins home. Can be
+   *                  blank.
+   */
+  public static synchronized void configure(boolean enabled, String traceFile) {
+    final Tracer tracer = Tracer.get();
+    if (!enabled) {
+      replaceExporter(tracer, null);
+      return;
+    }
+    final SpanExporter current = tracer.getExporter();
+    if (StringUtils.isBlank(traceFile)) {
+      if (!(current instanceof InMemorySpanExporter)) {
+        replaceExporter(tracer, new InMemorySpanExporter(IN_MEMORY_CAPACITY));
+      }
+      return;
+    }
+    final Path path = resolve(traceFile.trim());
+    if (!(current instanceof FileSpanExporter)
+        || !((FileSpanExporter) current).getFile().equals(path)) {
+      replaceExporter(tracer, new FileSpanExporter(path));
+    }
+  }
+
+  /**
+   * Writes buffered spans when Jenkins shuts down.
+   */
+  @Terminator
+  public static synchronized void shutdown() {
+    replaceExporter(Tracer.get(), null);
+  }
+
+  private static void replaceExporter(Tracer tracer, SpanExporter exporter) {
+    final SpanExporter previous = tracer.getExporter();
+    tracer.setExporter(exporter);
+    if (previous != null && previous != exporter) {
+      previous.shutdown();
+    }
+  }
+
+  private static Path resolve(String traceFile) {
+    final Path path = Paths.get(traceFile);
+    final Jenkins jenkins = Jenkins.getInstanceOrNull();
+    if (path.isAbsolute() || jenkins == null) {
+      return path;
+    }
+    return new File(jenkins.getRootDir(), traceFile).toPath();
+  }
+}
@@ -36,6 +36,33 @@ public class DefensicsUtils {
     return run.getFailureSummary().stream().mapToInt(FailureSummaryEntry::getCount).sum();
   }
 
+  /**
+   * Formats test case indexes as ranges for Defensics {@code --index} setting, e.g.
+   * {@code 1-3,7} for indexes 1, 2, 3 and 7.
+   *
+   * @param indexes Distinct test case indexes in ascending order
+   * @return Index ranges separated by commas
+   */
+  public static String formatIndexRanges(long[] indexes) {
+    final StringBuilder ranges = new StringBuilder();
+    int i = 0;
+    while (i < indexes.length) {
+      int end = i;
+      while (end + 1 < indexes.length && indexes[end + 1] == indexes[end] + 1) {
+        end++;
+      }
+      if (ranges.length() > 0) {
+        ranges.append(',');
+      }
+      ranges.append(indexes[i]);
+      if (end > i) {
+        ranges.append('-').append(indexes[end]);
+      }
+      i = end + 1;
+    }
+    return ranges.toString();
+  }
+
   /**
    * Creates User-agent header value, e.g. Defensics-Jenkins-Plugin/1.2.3. or if version information
    * was not available, only product name, e.g. Defensics-Jenkins-Plugin.
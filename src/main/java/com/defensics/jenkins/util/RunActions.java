@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.util;
+
+import hudson.model.Action;
+import hudson.model.Run;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Helps Defensics steps running in parallel branches of one build to share build actions. Each
+ * build has its own lock, so steps of different builds never wait for each other, and actions
+ * shared by the steps keep their own state thread-safe.
+ */
+public final class RunActions {
+
+  /**
+   * Locks by build. Builds are weak keys so locks go away with the builds.
+   */
+  private static final Map<Run<?, ?>, Object> LOCKS =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private RunActions() {
+  }
+
+  /**
+   * Returns lock which guards adding and replacing Defensics actions of given build.
+   *
+   * @param run Jenkins build
+   * @return Lock object to synchronize on
+   */
+  public static Object lockFor(Run<?, ?> run) {
+    return LOCKS.computeIfAbsent(run, r -> new Object());
+  }
+
+  /**
+   * Returns action of given type from the build, adding a new one if the build doesn't have one
+   * yet. Concurrent callers get the same action instance.
+   *
+   * @param run     Jenkins build
+   * @param type    Action type
+   * @param factory Creates the action if needed
+   * @param <T>     Action type
+   * @return Action attached to the build
+   */
+  public static <T extends Action> T getOrAdd(Run<?, ?> run, Class<T> type,
+      Supplier<T> factory) {
+    synchronized (lockFor(run)) {
+      T action = run.getAction(type);
+      if (action == null) {
+        action = factory.get();
+        run.addAction(action);
+      }
+      return action;
+    }
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Extracts zip archives straight from a stream into a directory, without storing the archive
+ * first. Entries which would end up outside the target directory are rejected.
+ *
+ * <p>Text files can optionally be stored gzip-compressed, in which case {@value #GZIP_SUFFIX} is
+ * appended to their names. Already compressed formats, like images and fonts, are always stored
+ * as they are.
+ */
+public final class ZipExtractor {
+
+  public static final String GZIP_SUFFIX = ".gz";
+
+  private static final Set<String> COMPRESSIBLE_EXTENSIONS = new HashSet<>(Arrays.asList(
+      "html", "htm", "css", "js", "json", "svg", "txt", "xml", "csv"));
+
+  private ZipExtractor() {
+  }
+
+  /**
+   * Extracts zip archive into given directory without compressing the files.
+   *
+   * @param zip       Zip archive stream. Not closed by this method.
+   * @param targetDir Directory to extract to. Created if it doesn't exist.
+   * @param renamer   Maps entry names to file names relative to the target directory
+   * @return Number of bytes extracted
+   * @throws IOException if extraction fails, see
+   *                     {@link #extract(InputStream, File, UnaryOperator, boolean)}
+   */
+  public static long extract(InputStream zip, File targetDir, UnaryOperator<String> renamer)
+      throws IOException {
+    return extract(zip, targetDir, renamer, false);
+  }
+
+  /**
+   * Extracts zip archive into given directory. Existing files are overwritten.
+   *
+   * @param zip       Zip archive stream. Not closed by this method.
+   * @param targetDir Directory to extract to. Created if it doesn't exist.
+   * @param renamer   Maps entry names to file names relative to the target directory, e.g. for
+   *                  renaming some of the files during extraction
+   * @param compress  Whether text files are stored gzip-compressed
+   * @return Number of bytes extracted, before compression
+   * @throws IOException            if the archive can't be read, an entry points outside the target
+   *                                directory, or writing a file fails
+   * @throws InterruptedIOException if the thread is interrupted during extraction
+   */
+  public static long extract(InputStream zip, File targetDir, UnaryOperator<String> renamer,
+      boolean compress) throws IOException {
+    final Path root = targetDir.toPath().toAbsolutePath().normalize();
+    Files.createDirectories(root);
+    return forEachEntry(zip, (name, content) -> {
+      final String fileName = renamer.apply(name);
+      return write(content, resolve(root, fileName), compress && isCompressible(fileName));
+    });
+  }
+
+  /**
+   * Passes each file in zip archive to given handler, in archive order. Directory entries are
+   * skipped.
+   *
+   * @param zip     Zip archive stream. Not closed by this method.
+   * @param handler Handles the files
+   * @return Total number of bytes returned by the handler
+   * @throws IOException            if the archive can't be read or the handler fails
+   * @throws InterruptedIOException if the thread is interrupted during extraction
+   */
+  public static long forEachEntry(InputStream zip, EntryHandler handler) throws IOException {
+    long bytes = 0;
+    final ZipInputStream zipStream = new ZipInputStream(zip);
+    ZipEntry entry;
+    while ((entry = zipStream.getNextEntry()) != null) {
+      if (Thread.currentThread().isInterrupted()) {
+        throw new InterruptedIOException("Extracting archive was interrupted");
+      }
+      if (!entry.isDirectory()) {
+        bytes += handler.handle(entry.getName(), zipStream);
+      }
+      zipStream.closeEntry();
+    }
+    return bytes;
+  }
+
+  /**
+   * Writes stream into a file, creating missing parent directories. Existing file is overwritten.
+   *
+   * @param content Content to write. Not closed by this method.
+   * @param target  Target file
+   * @param gzip    Whether the content is stored gzip-compressed, in which case {@value #GZIP_SUFFIX} is
+   *                appended to the file name
+   * @return Number of bytes written, before compression
+   * @throws IOException if writing fails
+   */
+  public static long write(InputStream content, Path target, boolean gzip) throws IOException {
+    Files.createDirectories(target.getParent());
+    if (!gzip) {
+      return Files.copy(content, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+    final Path compressed = target.resolveSibling(target.getFileName() + GZIP_SUFFIX);
+    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+      return content.transferTo(out);
+    }
+  }
+
+  /**
+   * Checks if file is worth compressing, i.e. it's a text file.
+   *
+   * @param name File name
+   * @return true if the file should be compressed
+   */
+  public static boolean isCompressible(String name) {
+    final int dot = name.lastIndexOf('.');
+    return dot >= 0
+        && COMPRESSIBLE_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * Handles one file of zip archive.
+   */
+  @FunctionalInterface
+  public interface EntryHandler {
+
+    /**
+     * Handles file content.
+     *
+     * @param name    Entry name, i.e. file path in the archive
+     * @param content File content. Must not be closed by the handler.
+     * @return Number of bytes handled
+     * @throws IOException if handling fails
+     */
+    long handle(String name, InputStream content) throws IOException;
+  }
+
+  private static Path resolve(Path root, String name) throws IOException {
+    final Path target = root.resolve(name).normalize();
+    if (!target.startsWith(root) || target.equals(root)) {
+      throw new IOException("Archive entry '" + name + "' is outside the target directory");
+    }
+    return target;
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Monotonically increasing counter.
+ */
+public class Counter extends Metric<Counter.Child> {
+
+  public Counter(String name, String help, String... labelNames) {
+    super(name, help, labelNames);
+  }
+
+  @Override
+  Child newChild() {
+    return new Child();
+  }
+
+  @Override
+  String getType() {
+    return "counter";
+  }
+
+  @Override
+  void collect(List<Sample> samples) {
+    for (Map.Entry<List<String>, Child> entry : sortedChildren(getChildren())) {
+      samples.add(new Sample(getName(), getLabelNames(), entry.getKey(), entry.getValue().get()));
+    }
+  }
+
+  /**
+   * Counter value for certain label values.
+   */
+  public static class Child {
+    private final DoubleAdder value = new DoubleAdder();
+
+    public void inc() {
+      inc(1);
+    }
+
+    /**
+     * Increases counter by given amount. Negative amounts are ignored.
+     *
+     * @param amount Amount to add
+     */
+    public void inc(double amount) {
+      if (amount > 0) {
+        value.add(amount);
+      }
+    }
+
+    public double get() {
+      return value.sum();
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.metrics;
+
+/**
+ * Metrics collected by the plugin. Operation labels are the operation names used in API client
+ * error messages, e.g. "get run" or "upload test plan".
+ */
+public final class DefensicsMetrics {
+
+  public static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+  public static final Histogram API_REQUEST_SECONDS = REGISTRY.register(new Histogram(
+      "defensics_api_request_seconds",
+      "Latency of Defensics API requests by operation.",
+      Histogram.LATENCY_BUCKETS,
+      "operation"));
+
+  public static final Counter API_ERRORS = REGISTRY.register(new Counter(
+      "defensics_api_errors_total",
+      "Failed Defensics API requests by operation and HTTP status code, or 'io' if there was no "
+          + "response.",
+      "operation", "status"));
+
+  public static final Counter API_BYTES_SENT = REGISTRY.register(new Counter(
+      "defensics_api_sent_bytes_total",
+      "Request body bytes sent to Defensics API servers."));
+
+  public static final Counter API_BYTES_RECEIVED = REGISTRY.register(new Counter(
+      "defensics_api_received_bytes_total",
+      "Response body bytes received from Defensics API servers."));
+
+  public static final Gauge ACTIVE_RUNS = REGISTRY.register(new Gauge(
+      "defensics_active_runs",
+      "Defensics runs currently executed by builds, by instance.",
+      "instance"));
+
+  public static final Histogram SUITE_LOAD_SECONDS = REGISTRY.register(new Histogram(
+      "defensics_suite_load_seconds",
+      "Time spent waiting for the suite to load after test plan upload, by instance.",
+      new double[] {1, 5, 10, 30, 60, 120, 300, 600},
+      "instance"));
+
+  public static final Histogram CASES_PER_SECOND = REGISTRY.register(new Histogram(
+      "defensics_run_cases_per_second",
+      "Average test case execution rate of finished runs, by instance.",
+      new double[] {1, 5, 10, 50, 100, 500, 1000, 5000},
+      "instance"));
+
+  private DefensicsMetrics() {
+  }
+}
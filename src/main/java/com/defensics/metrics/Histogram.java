@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Histogram with fixed bucket upper bounds. Buckets are cumulative when exported, as in
+ * Prometheus.
+ */
+public class Histogram extends Metric<Histogram.Child> {
+
+  /**
+   * Default buckets for request latencies in seconds.
+   */
+  public static final double[] LATENCY_BUCKETS = {
+      0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60
+  };
+
+  private final double[] buckets;
+
+  /**
+   * Constructor.
+   *
+   * @param name       Metric name
+   * @param help       Help text
+   * @param buckets    Bucket upper bounds in ascending order, +Inf bucket is added automatically
+   * @param labelNames Label names
+   */
+  public Histogram(String name, String help, double[] buckets, String... labelNames) {
+    super(name, help, labelNames);
+    this.buckets = Arrays.copyOf(buckets, buckets.length);
+    Arrays.sort(this.buckets);
+  }
+
+  @Override
+  Child newChild() {
+    return new Child(buckets);
+  }
+
+  @Override
+  String getType() {
+    return "histogram";
+  }
+
+  @Override
+  void collect(List<Sample> samples) {
+    final List<String> bucketLabelNames = new ArrayList<>(getLabelNames());
+    bucketLabelNames.add("le");
+    for (Map.Entry<List<String>, Child> entry : sortedChildren(getChildren())) {
+      final Child child = entry.getValue();
+      long cumulative = 0;
+      for (int i = 0; i <= buckets.length; i++) {
+        cumulative += child.bucketCounts.get(i);
+        final List<String> labelValues = new ArrayList<>(entry.getKey());
+        labelValues.add(i < buckets.length ? formatBound(buckets[i]) : "+Inf");
+        samples.add(new Sample(getName() + "_bucket", bucketLabelNames, labelValues, cumulative));
+      }
+      samples.add(new Sample(getName() + "_count", getLabelNames(), entry.getKey(), cumulative));
+      samples.add(new Sample(getName() + "_sum", getLabelNames(), entry.getKey(), child.sum.sum()));
+    }
+  }
+
+  private static String formatBound(double bound) {
+    return bound == Math.rint(bound) ? String.valueOf((long) bound) : String.valueOf(bound);
+  }
+
+  /**
+   * Histogram for certain label values.
+   */
+  public static class Child {
+    private final double[] buckets;
+    private final AtomicLongArray bucketCounts;
+    private final DoubleAdder sum = new DoubleAdder();
+
+    Child(double[] buckets) {
+      this.buckets = buckets;
+      this.bucketCounts = new AtomicLongArray(buckets.length + 1);
+    }
+
+    /**
+     * Records one observation.
+     *
+     * @param value Observed value
+     */
+    public void observe(double value) {
+      int index = Arrays.binarySearch(buckets, value);
+      if (index < 0) {
+        index = -index - 1;
+      }
+      bucketCounts.incrementAndGet(index);
+      sum.add(value);
+    }
+
+    /**
+     * Records duration in seconds.
+     *
+     * @param nanos Duration in nanoseconds
+     */
+    public void observeNanos(long nanos) {
+      observe(nanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public long getCount() {
+      long count = 0;
+      for (int i = 0; i < bucketCounts.length(); i++) {
+        count += bucketCounts.get(i);
+      }
+      return count;
+    }
+
+    public double getSum() {
+      return sum.sum();
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Base class for metric families. A family has a name, help text and label names, and holds one
+ * child per distinct combination of label values.
+ *
+ * @param <T> Type of the children
+ */
+public abstract class Metric<T> {
+
+  private final String name;
+  private final String help;
+  private final List<String> labelNames;
+  private final Map<List<String>, T> children = new ConcurrentHashMap<>();
+
+  Metric(String name, String help, String... labelNames) {
+    this.name = name;
+    this.help = help;
+    this.labelNames = Collections.unmodifiableList(Arrays.asList(labelNames));
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getHelp() {
+    return help;
+  }
+
+  public List<String> getLabelNames() {
+    return labelNames;
+  }
+
+  /**
+   * Returns child for given label values, creating it if needed.
+   *
+   * @param labelValues Values in the same order as label names
+   * @return Child metric
+   */
+  public T labels(String... labelValues) {
+    if (labelValues.length != labelNames.size()) {
+      throw new IllegalArgumentException(String.format(
+          "Metric %s expects %d label value(s), got %d",
+          name, labelNames.size(), labelValues.length));
+    }
+    return children.computeIfAbsent(Arrays.asList(labelValues), key -> newChild());
+  }
+
+  /**
+   * Returns children by label values.
+   *
+   * @return Children
+   */
+  Map<List<String>, T> getChildren() {
+    return Collections.unmodifiableMap(children);
+  }
+
+  abstract T newChild();
+
+  /**
+   * Prometheus metric type.
+   *
+   * @return Type name as used in TYPE line
+   */
+  abstract String getType();
+
+  /**
+   * Adds samples of all children to given list.
+   *
+   * @param samples List to add samples to
+   */
+  abstract void collect(List<Sample> samples);
+
+  static <C> List<Map.Entry<List<String>, C>> sortedChildren(Map<List<String>, C> children) {
+    final List<Map.Entry<List<String>, C>> entries = new ArrayList<>(children.entrySet());
+    entries.sort((a, b) -> String.join("\u0000", a.getKey())
+        .compareTo(String.join("\u0000", b.getKey())));
+    return entries;
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds metric families and renders them in Prometheus text exposition format. The registry
+ * doesn't depend on Jenkins so it can be used from the API client too.
+ */
+public class MetricsRegistry {
+
+  private final Map<String, Metric<?>> metrics = new ConcurrentHashMap<>();
+  private final List<Metric<?>> order = new ArrayList<>();
+
+  /**
+   * Registers metric family. Names must be unique within the registry.
+   *
+   * @param metric Metric to register
+   * @param <M>    Metric type
+   * @return Registered metric
+   */
+  public synchronized <M extends Metric<?>> M register(M metric) {
+    if (metrics.putIfAbsent(metric.getName(), metric) != null) {
+      throw new IllegalArgumentException("Metric already registered: " + metric.getName());
+    }
+    order.add(metric);
+    return metric;
+  }
+
+  private synchronized List<Metric<?>> getMetrics() {
+    return new ArrayList<>(order);
+  }
+
+  /**
+   * Collects current samples of all metrics.
+   *
+   * @return Samples in registration order
+   */
+  public List<Sample> collect() {
+    final List<Sample> samples = new ArrayList<>();
+    for (Metric<?> metric : getMetrics()) {
+      metric.collect(samples);
+    }
+    return samples;
+  }
+
+  /**
+   * Writes all metrics in Prometheus text format version 0.0.4.
+   *
+   * @param writer Writer to write to
+   * @throws IOException if writing fails
+   */
+  public void writePrometheus(Writer writer) throws IOException {
+    for (Metric<?> metric : getMetrics()) {
+      writer.write("# HELP " + metric.getName() + " " + metric.getHelp() + "\n");
+      writer.write("# TYPE " + metric.getName() + " " + metric.getType() + "\n");
+      final List<Sample> samples = new ArrayList<>();
+      metric.collect(samples);
+      for (Sample sample : samples) {
+        writer.write(sample.getFullName() + " " + formatValue(sample.getValue()) + "\n");
+      }
+    }
+  }
+
+  private static String formatValue(double value) {
+    if (Double.isInfinite(value)) {
+      return value > 0 ? "+Inf" : "-Inf";
+    }
+    return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+  }
+}
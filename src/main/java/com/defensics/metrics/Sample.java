@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.metrics;
+
+import java.util.List;
+
+/**
+ * One value of a metric, e.g. a counter value for certain labels or a histogram bucket.
+ */
+public final class Sample {
+
+  private final String name;
+  private final List<String> labelNames;
+  private final List<String> labelValues;
+  private final double value;
+
+  Sample(String name, List<String> labelNames, List<String> labelValues, double value) {
+    this.name = name;
+    this.labelNames = labelNames;
+    this.labelValues = labelValues;
+    this.value = value;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public List<String> getLabelNames() {
+    return labelNames;
+  }
+
+  public List<String> getLabelValues() {
+    return labelValues;
+  }
+
+  public double getValue() {
+    return value;
+  }
+
+  /**
+   * Formats sample name with labels as in Prometheus text format, e.g.
+   * {@code defensics_api_errors_total{operation="get run",status="500"}}.
+   *
+   * @return Sample name with labels
+   */
+  public String getFullName() {
+    if (labelNames.isEmpty()) {
+      return name;
+    }
+    final StringBuilder builder = new StringBuilder(name).append('{');
+    for (int i = 0; i < labelNames.size(); i++) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      builder.append(labelNames.get(i)).append("=\"")
+          .append(escapeLabelValue(labelValues.get(i))).append('"');
+    }
+    return builder.append('}').toString();
+  }
+
+  private static String escapeLabelValue(String value) {
+    return String.valueOf(value)
+        .replace("\\", "\\\\")
+        .replace("\"", "\\\"")
+        .replace("\n", "\\n");
+  }
+}
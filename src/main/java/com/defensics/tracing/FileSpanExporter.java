@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.tracing;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Appends ended spans to a file as OTLP/JSON lines, which can be read by a local collector, e.g.
+ * OpenTelemetry Collector otlpjsonfile receiver. Spans are buffered in memory and written by a
+ * background thread, so exporting never blocks the traced request on file I/O. Spans are dropped
+ * if the writer falls more than {@link #MAX_PENDING_SPANS} spans behind.
+ */
+public class FileSpanExporter implements SpanExporter {
+
+  private static final Logger LOGGER = Logger.getLogger(FileSpanExporter.class.getName());
+
+  static final int MAX_PENDING_SPANS = 10_000;
+
+  /**
+   * Maximum number of spans written as one OTLP/JSON line.
+   */
+  static final int MAX_BATCH_SIZE = 512;
+
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+  private final Path file;
+  private final Queue<Span> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingCount = new AtomicInteger();
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
+  private final ExecutorService writer;
+
+  public FileSpanExporter(Path file) {
+    this.file = file;
+    this.writer = Executors.newSingleThreadExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "Defensics span writer " + file.getFileName());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  @Override
+  public void export(Span span) {
+    if (pendingCount.incrementAndGet() > MAX_PENDING_SPANS) {
+      pendingCount.decrementAndGet();
+      LOGGER.log(Level.FINE, "Span writer of {0} is behind, dropping span", file);
+      return;
+    }
+    pending.add(span);
+    if (drainScheduled.compareAndSet(false, true)) {
+      try {
+        writer.execute(this::drain);
+      } catch (RejectedExecutionException e) {
+        // Exporter has been shut down, remaining spans are dropped.
+        drainScheduled.set(false);
+      }
+    }
+  }
+
+  /**
+   * Waits until spans exported so far have been written to the file.
+   *
+   * @param timeoutMillis Maximum time to wait
+   * @return true if spans were written, false if writer did not finish in time or has been shut
+   *     down
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public boolean flush(long timeoutMillis) throws InterruptedException {
+    try {
+      writer.submit(this::drain).get(timeoutMillis, TimeUnit.MILLISECONDS);
+      return true;
+    } catch (RejectedExecutionException | TimeoutException e) {
+      return false;
+    } catch (ExecutionException e) {
+      LOGGER.log(Level.FINE, "Could not flush spans to " + file, e.getCause());
+      return false;
+    }
+  }
+
+  /**
+   * Writes pending spans and stops the background writer. Spans exported after shutdown are
+   * dropped.
+   */
+  @Override
+  public void shutdown() {
+    try {
+      writer.execute(this::drain);
+    } catch (RejectedExecutionException e) {
+      return;
+    }
+    writer.shutdown();
+    try {
+      if (!writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        LOGGER.log(Level.FINE, "Span writer of {0} did not stop in time", file);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void drain() {
+    drainScheduled.set(false);
+    while (!pending.isEmpty()) {
+      final List<Span> batch = new ArrayList<>();
+      Span span;
+      while (batch.size() < MAX_BATCH_SIZE && (span = pending.poll()) != null) {
+        batch.add(span);
+      }
+      pendingCount.addAndGet(-batch.size());
+      write(batch);
+    }
+  }
+
+  private void write(List<Span> batch) {
+    try {
+      if (file.getParent() != null) {
+        Files.createDirectories(file.getParent());
+      }
+      try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+        out.write(SpanFormat.toJson(batch));
+        out.write('\n');
+      }
+    } catch (IOException | RuntimeException e) {
+      LOGGER.log(Level.FINE, "Could not export spans to " + file, e);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * In-process collector which keeps the latest ended spans in memory.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+  private final int capacity;
+  private final Deque<Span> spans = new ArrayDeque<>();
+
+  /**
+   * Constructor.
+   *
+   * @param capacity Maximum number of spans kept, oldest spans are dropped first
+   */
+  public InMemorySpanExporter(int capacity) {
+    this.capacity = capacity;
+  }
+
+  @Override
+  public synchronized void export(Span span) {
+    if (spans.size() >= capacity) {
+      spans.removeFirst();
+    }
+    spans.addLast(span);
+  }
+
+  /**
+   * Returns collected spans in the order they ended.
+   *
+   * @return Copy of collected spans
+   */
+  public synchronized List<Span> getSpans() {
+    return new ArrayList<>(spans);
+  }
+
+  public synchronized void clear() {
+    spans.clear();
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.tracing;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Timed operation in a trace. Span identifiers follow W3C Trace Context, so spans can be
+ * correlated with server-side spans receiving the {@code traceparent} header.
+ *
+ * <p>Span is ended with {@link #close()}, which makes its parent the current span of the thread
+ * again. Non-recording spans are returned when tracing is disabled, and all operations on them are
+ * no-ops.
+ */
+public class Span implements AutoCloseable {
+
+  private final Tracer tracer;
+  private final boolean recording;
+  private final String name;
+  private final String traceId;
+  private final String spanId;
+  private final Span parent;
+  private final Span previous;
+  private final long startEpochNanos;
+  private final Map<String, Object> attributes = new LinkedHashMap<>();
+
+  private long endEpochNanos;
+  private boolean error;
+  private String statusMessage;
+
+  Span(Tracer tracer, boolean recording, String name, String traceId, String spanId, Span parent,
+      Span previous) {
+    this.tracer = tracer;
+    this.recording = recording;
+    this.name = name;
+    this.traceId = traceId;
+    this.spanId = spanId;
+    this.parent = parent;
+    this.previous = previous;
+    this.startEpochNanos = epochNanos();
+  }
+
+  public boolean isRecording() {
+    return recording;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getTraceId() {
+    return traceId;
+  }
+
+  public String getSpanId() {
+    return spanId;
+  }
+
+  public Span getParent() {
+    return parent;
+  }
+
+  /**
+   * Span which was current when this span was started.
+   */
+  Span getPrevious() {
+    return previous;
+  }
+
+  /**
+   * Parent span ID, or null for root span.
+   *
+   * @return Parent span ID
+   */
+  public String getParentSpanId() {
+    return parent != null ? parent.spanId : null;
+  }
+
+  public long getStartEpochNanos() {
+    return startEpochNanos;
+  }
+
+  public synchronized long getEndEpochNanos() {
+    return endEpochNanos;
+  }
+
+  public synchronized boolean isError() {
+    return error;
+  }
+
+  public synchronized String getStatusMessage() {
+    return statusMessage;
+  }
+
+  public synchronized Map<String, Object> getAttributes() {
+    return Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+  }
+
+  /**
+   * Sets attribute of the span. Null values are ignored. Numbers and booleans keep their type,
+   * other values are stored as strings.
+   *
+   * @param key   Attribute key, e.g. {@code http.status_code}
+   * @param value Attribute value
+   * @return This span
+   */
+  public synchronized Span setAttribute(String key, Object value) {
+    if (isRecording() && value != null) {
+      final boolean typed = value instanceof Long || value instanceof Integer
+          || value instanceof Double || value instanceof Boolean;
+      attributes.put(key, typed ? value : String.valueOf(value));
+    }
+    return this;
+  }
+
+  /**
+   * Marks span failed.
+   *
+   * @param message Error description
+   * @return This span
+   */
+  public synchronized Span setError(String message) {
+    if (isRecording()) {
+      error = true;
+      statusMessage = message;
+    }
+    return this;
+  }
+
+  /**
+   * Formats W3C {@code traceparent} header value for this span.
+   *
+   * @return Header value, e.g. {@code 00-<trace id>-<span id>-01}
+   */
+  public String getTraceparent() {
+    return "00-" + traceId + "-" + spanId + "-01";
+  }
+
+  /**
+   * Ends the span and exports it. Ending span more than once has no effect.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (endEpochNanos != 0) {
+        return;
+      }
+      endEpochNanos = Math.max(epochNanos(), startEpochNanos);
+    }
+    tracer.ended(this);
+  }
+
+  private static long epochNanos() {
+    final Instant now = Instant.now();
+    return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.tracing;
+
+/**
+ * Receives ended spans.
+ */
+public interface SpanExporter {
+
+  /**
+   * Exports ended span. Implementations must not throw, as tracing should never fail the traced
+   * operation.
+   *
+   * @param span Ended span
+   */
+  void export(Span span);
+
+  /**
+   * Releases resources of the exporter after it has been replaced or tracing has been disabled.
+   * Spans exported before should be delivered if possible.
+   */
+  default void shutdown() {
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.tracing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formats spans as single-line OTLP/JSON trace export requests, the format read by OpenTelemetry
+ * Collector {@code otlpjsonfile} receiver and written by its file exporter.
+ */
+public final class SpanFormat {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  static final String SERVICE_NAME = "jenkins-defensics-plugin";
+  static final String SCOPE_NAME = "com.defensics.tracing";
+
+  /**
+   * OTLP span kind and status codes, which are encoded as integers in OTLP/JSON.
+   */
+  private static final int SPAN_KIND_INTERNAL = 1;
+  private static final int STATUS_CODE_OK = 1;
+  private static final int STATUS_CODE_ERROR = 2;
+
+  private SpanFormat() {
+  }
+
+  /**
+   * Formats span as OTLP/JSON export request.
+   *
+   * @param span Span to format
+   * @return JSON object without line breaks
+   */
+  public static String toJson(Span span) {
+    return toJson(Collections.singletonList(span));
+  }
+
+  /**
+   * Formats spans as one OTLP/JSON export request.
+   *
+   * @param spans Spans to format
+   * @return JSON object without line breaks
+   */
+  public static String toJson(List<Span> spans) {
+    final List<Map<String, Object>> otlpSpans = new ArrayList<>(spans.size());
+    for (Span span : spans) {
+      otlpSpans.add(toOtlpSpan(span));
+    }
+    final Map<String, Object> scopeSpans = new LinkedHashMap<>();
+    scopeSpans.put("scope", Collections.singletonMap("name", SCOPE_NAME));
+    scopeSpans.put("spans", otlpSpans);
+
+    final Map<String, Object> resourceSpans = new LinkedHashMap<>();
+    resourceSpans.put("resource", Collections.singletonMap("attributes",
+        toOtlpAttributes(Collections.singletonMap("service.name", SERVICE_NAME))));
+    resourceSpans.put("scopeSpans", Collections.singletonList(scopeSpans));
+
+    final Map<String, Object> request =
+        Collections.singletonMap("resourceSpans", Collections.singletonList(resourceSpans));
+    try {
+      return OBJECT_MAPPER.writeValueAsString(request);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not format spans", e);
+    }
+  }
+
+  private static Map<String, Object> toOtlpSpan(Span span) {
+    final Map<String, Object> json = new LinkedHashMap<>();
+    json.put("traceId", span.getTraceId());
+    json.put("spanId", span.getSpanId());
+    if (span.getParentSpanId() != null) {
+      json.put("parentSpanId", span.getParentSpanId());
+    }
+    json.put("name", span.getName());
+    json.put("kind", SPAN_KIND_INTERNAL);
+    json.put("startTimeUnixNano", String.valueOf(span.getStartEpochNanos()));
+    json.put("endTimeUnixNano", String.valueOf(span.getEndEpochNanos()));
+    json.put("attributes", toOtlpAttributes(span.getAttributes()));
+    final Map<String, Object> status = new LinkedHashMap<>();
+    status.put("code", span.isError() ? STATUS_CODE_ERROR : STATUS_CODE_OK);
+    if (span.getStatusMessage() != null) {
+      status.put("message", span.getStatusMessage());
+    }
+    json.put("status", status);
+    return json;
+  }
+
+  /**
+   * Formats attributes as OTLP key-value list. 64-bit integers are strings in OTLP/JSON.
+   */
+  private static List<Map<String, Object>> toOtlpAttributes(Map<String, ?> attributes) {
+    final List<Map<String, Object>> list = new ArrayList<>(attributes.size());
+    attributes.forEach((key, value) -> {
+      final Map<String, Object> attribute = new LinkedHashMap<>();
+      attribute.put("key", key);
+      if (value instanceof Long || value instanceof Integer) {
+        attribute.put("value", Collections.singletonMap("intValue", String.valueOf(value)));
+      } else if (value instanceof Double) {
+        attribute.put("value", Collections.singletonMap("doubleValue", value));
+      } else if (value instanceof Boolean) {
+        attribute.put("value", Collections.singletonMap("boolValue", value));
+      } else {
+        attribute.put("value", Collections.singletonMap("stringValue", String.valueOf(value)));
+      }
+      list.add(attribute);
+    });
+    return list;
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.tracing;
+
+import java.security.SecureRandom;
+import java.util.Random;
+
+/**
+ * Creates spans and keeps track of the current span of each thread, so spans started while
+ * another span is current become its children.
+ *
+ * <p>Tracing is disabled until an exporter is set. Disabled tracer returns non-recording spans,
+ * which aren't exported or propagated to the API server.
+ */
+public final class Tracer {
+
+  private static final Tracer INSTANCE = new Tracer();
+
+  private final ThreadLocal<Span> current = new ThreadLocal<>();
+  private final Random random = new SecureRandom();
+
+  private volatile SpanExporter exporter;
+
+  Tracer() {
+  }
+
+  public static Tracer get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Sets exporter for ended spans. Null disables tracing.
+   *
+   * @param exporter Span exporter or null
+   */
+  public void setExporter(SpanExporter exporter) {
+    this.exporter = exporter;
+  }
+
+  public SpanExporter getExporter() {
+    return exporter;
+  }
+
+  public boolean isEnabled() {
+    return exporter != null;
+  }
+
+  /**
+   * Starts a span and makes it the current span of this thread. If there's a current span, the
+   * new span becomes its child, otherwise a new trace is started.
+   *
+   * @param name Span name
+   * @return Started span, which must be closed on the same thread
+   */
+  public Span startSpan(String name) {
+    final Span previous = current.get();
+    final Span span;
+    if (!isEnabled()) {
+      span = new Span(this, false, name, null, null, null, previous);
+    } else if (previous == null || !previous.isRecording()) {
+      span = new Span(this, true, name, randomHex(16), randomHex(8), null, previous);
+    } else {
+      span = new Span(this, true, name, previous.getTraceId(), randomHex(8), previous, previous);
+    }
+    current.set(span);
+    return span;
+  }
+
+  /**
+   * Returns current recording span of this thread.
+   *
+   * @return Current span, or null if there's no recording span
+   */
+  public Span currentSpan() {
+    final Span span = current.get();
+    return span != null && span.isRecording() ? span : null;
+  }
+
+  void ended(Span span) {
+    if (current.get() == span) {
+      if (span.getPrevious() != null) {
+        current.set(span.getPrevious());
+      } else {
+        current.remove();
+      }
+    }
+    final SpanExporter spanExporter = exporter;
+    if (span.isRecording() && spanExporter != null) {
+      spanExporter.export(span);
+    }
+  }
+
+  private String randomHex(int bytes) {
+    final byte[] buffer = new byte[bytes];
+    random.nextBytes(buffer);
+    final StringBuilder builder = new StringBuilder(bytes * 2);
+    for (byte b : buffer) {
+      builder.append(Character.forDigit((b >> 4) & 0xf, 16))
+          .append(Character.forDigit(b & 0xf, 16));
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/*
+ * Refreshes Defensics run progress widget on the build page while the build is running. The
+ * widget has a row for each Defensics run of the build.
+ */
+(function () {
+  var POLL_INTERVAL_MILLIS = 5000;
+
+  function formatEta(seconds) {
+    if (seconds < 0) {
+      return "";
+    }
+    var hours = Math.floor(seconds / 3600);
+    var minutes = Math.floor((seconds % 3600) / 60);
+    if (hours > 0) {
+      return hours + " h " + minutes + " min left";
+    }
+    return Math.max(minutes, 1) + " min left";
+  }
+
+  function setText(widget, className, text) {
+    var element = widget.querySelector("." + className);
+    if (element) {
+      element.textContent = text;
+    }
+  }
+
+  function renderRun(row, run, building) {
+    setText(row, "defensics-progress-state", run.state);
+    setText(row, "defensics-progress-percent", run.percentDone.toFixed(1));
+    setText(row, "defensics-progress-executed", run.casesExecuted);
+    setText(row, "defensics-progress-total", run.casesToBeExecuted);
+    setText(row, "defensics-progress-failures", run.failures);
+    if (building && run.casesPerSecond > 0) {
+      setText(row, "defensics-progress-rate",
+          run.casesPerSecond.toFixed(1) + " cases/s, " + formatEta(run.etaSeconds));
+    } else {
+      setText(row, "defensics-progress-rate", "");
+    }
+  }
+
+  function render(widget, progress) {
+    widget.querySelectorAll(".defensics-progress-run").forEach(function (row) {
+      var run = progress.runs.find(function (candidate) {
+        return candidate.runId === row.dataset.runId;
+      });
+      if (run) {
+        renderRun(row, run, progress.building);
+      }
+    });
+  }
+
+  function poll(widget) {
+    fetch(widget.dataset.url, {credentials: "same-origin"})
+        .then(function (response) {
+          return response.ok ? response.json() : null;
+        })
+        .then(function (progress) {
+          if (progress) {
+            render(widget, progress);
+            if (!progress.building) {
+              return;
+            }
+          }
+          setTimeout(function () { poll(widget); }, POLL_INTERVAL_MILLIS);
+        })
+        .catch(function () {
+          setTimeout(function () { poll(widget); }, POLL_INTERVAL_MILLIS);
+        });
+  }
+
+  document.querySelectorAll(".defensics-run-progress").forEach(function (widget) {
+    if (widget.dataset.building === "true" && !widget.dataset.polling) {
+      widget.dataset.polling = "true";
+      poll(widget);
+    }
+  });
+})();
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/*
+ * Draws Defensics trend charts in the browser from the trendData JSON endpoint. Charts support
+ * tooltips, toggling series from the legend and zooming by dragging over a range of builds, which
+ * fetches that range again at full resolution.
+ */
+(function () {
+  var SVG_NS = "http://www.w3.org/2000/svg";
+  var MARGIN = {top: 10, right: 50, bottom: 30, left: 50};
+
+  var SERIES = {
+    failures: {label: "Failures", color: "#d24939", axis: "left", visible: true},
+    errors: {label: "Errors", color: "#8e44ad", axis: "left", visible: false},
+    warnings: {label: "Warnings", color: "#e6a23c", axis: "left", visible: false},
+    casesExecuted: {label: "Cases executed", color: "#3a7bd5", axis: "right", visible: false},
+    casesPerSecond: {label: "Cases per second", color: "#17a2b8", axis: "right", visible: false,
+      format: function (value) { return value.toFixed(1) + "/s"; }},
+    duration: {label: "Duration", color: "#5a8f29", axis: "right", visible: false,
+      format: formatDuration}
+  };
+
+  var SOURCE_PREFIX = "source:";
+  var SOURCE_COLORS = ["#b03a2e", "#6c3483", "#1f618d", "#117a65", "#9a7d0a", "#873600"];
+  var sourceCount = 0;
+
+  // Failure source series aren't known beforehand, they are described when first seen.
+  function seriesInfo(key) {
+    if (!SERIES[key] && key.indexOf(SOURCE_PREFIX) === 0) {
+      SERIES[key] = {
+        label: "Source: " + key.substring(SOURCE_PREFIX.length),
+        color: SOURCE_COLORS[sourceCount++ % SOURCE_COLORS.length],
+        axis: "left",
+        visible: false
+      };
+    }
+    return SERIES[key];
+  }
+
+  function formatDuration(millis) {
+    var minutes = Math.round(millis / 60000);
+    if (minutes < 60) {
+      return minutes + " min";
+    }
+    return Math.floor(minutes / 60) + " h " + (minutes % 60) + " min";
+  }
+
+  function formatValue(key, value) {
+    var format = SERIES[key] && SERIES[key].format;
+    return format ? format(value) : String(value);
+  }
+
+  function svgElement(name, attributes) {
+    var element = document.createElementNS(SVG_NS, name);
+    Object.keys(attributes).forEach(function (attribute) {
+      element.setAttribute(attribute, attributes[attribute]);
+    });
+    return element;
+  }
+
+  function niceMax(value) {
+    if (value <= 0) {
+      return 1;
+    }
+    var magnitude = Math.pow(10, Math.floor(Math.log(value) / Math.LN10));
+    var steps = [1, 2, 5, 10];
+    for (var i = 0; i < steps.length; i++) {
+      if (value <= steps[i] * magnitude) {
+        return steps[i] * magnitude;
+      }
+    }
+    return 10 * magnitude;
+  }
+
+  function Chart(container) {
+    this.container = container;
+    this.baseUrl = container.dataset.url;
+    this.buildUrl = container.dataset.buildUrl;
+    this.width = parseInt(container.dataset.width || "500", 10);
+    this.height = parseInt(container.dataset.height || "200", 10);
+    this.visible = {};
+    this.zoom = null;
+    Object.keys(SERIES).forEach(function (key) {
+      this.visible[key] = SERIES[key].visible;
+    }, this);
+  }
+
+  Chart.prototype.load = function () {
+    var url = this.baseUrl;
+    if (this.zoom) {
+      url += (url.indexOf("?") < 0 ? "?" : "&") + "from=" + this.zoom.from + "&to=" + this.zoom.to;
+    }
+    var chart = this;
+    fetch(url, {credentials: "same-origin"})
+        .then(function (response) {
+          return response.ok ? response.json() : null;
+        })
+        .then(function (data) {
+          if (data) {
+            chart.data = data;
+            chart.render();
+          }
+        });
+  };
+
+  Chart.prototype.visibleKeys = function (axis) {
+    var chart = this;
+    return Object.keys(this.data.series).filter(function (key) {
+      var info = seriesInfo(key);
+      return chart.visible[key] && info && (!axis || info.axis === axis);
+    });
+  };
+
+  Chart.prototype.axisMax = function (axis) {
+    var data = this.data;
+    var max = 0;
+    this.visibleKeys(axis).forEach(function (key) {
+      data.series[key].forEach(function (value) {
+        max = Math.max(max, value);
+      });
+    });
+    return niceMax(max);
+  };
+
+  Chart.prototype.render = function () {
+    var chart = this;
+    var data = this.data;
+    var plotWidth = this.width - MARGIN.left - MARGIN.right;
+    var plotHeight = this.height - MARGIN.top - MARGIN.bottom;
+    var count = data.builds.length;
+    var x = function (index) {
+      return MARGIN.left + (count > 1 ? index * plotWidth / (count - 1) : plotWidth / 2);
+    };
+    var maxByAxis = {left: this.axisMax("left"), right: this.axisMax("right")};
+    var y = function (axis, value) {
+      return MARGIN.top + plotHeight - value * plotHeight / maxByAxis[axis];
+    };
+
+    this.container.innerHTML = "";
+    var svg = svgElement("svg", {width: this.width, height: this.height, role: "img"});
+    svg.style.cursor = "crosshair";
+    svg.style.userSelect = "none";
+
+    // Axes with max and mid value labels.
+    svg.appendChild(svgElement("line", {x1: MARGIN.left, y1: MARGIN.top + plotHeight,
+      x2: MARGIN.left + plotWidth, y2: MARGIN.top + plotHeight, stroke: "#999"}));
+    ["left", "right"].forEach(function (axis) {
+      var keys = chart.visibleKeys(axis);
+      if (keys.length === 0) {
+        return;
+      }
+      var axisX = axis === "left" ? MARGIN.left : MARGIN.left + plotWidth;
+      svg.appendChild(svgElement("line", {x1: axisX, y1: MARGIN.top, x2: axisX,
+        y2: MARGIN.top + plotHeight, stroke: "#999"}));
+      [0, maxByAxis[axis] / 2, maxByAxis[axis]].forEach(function (value) {
+        var label = svgElement("text", {x: axis === "left" ? axisX - 4 : axisX + 4,
+          y: y(axis, value) + 4, "text-anchor": axis === "left" ? "end" : "start",
+          "font-size": "10", fill: "#666"});
+        label.textContent = formatValue(keys[0], value);
+        svg.appendChild(label);
+      });
+    });
+
+    // Build number labels, at most ten.
+    var labelStep = Math.max(1, Math.ceil(count / 10));
+    for (var i = 0; i < count; i += labelStep) {
+      var label = svgElement("text", {x: x(i), y: this.height - 12, "text-anchor": "middle",
+        "font-size": "10", fill: "#666"});
+      label.textContent = "#" + data.builds[i];
+      svg.appendChild(label);
+    }
+
+    this.visibleKeys().forEach(function (key) {
+      var points = data.series[key].map(function (value, index) {
+        return x(index) + "," + y(SERIES[key].axis, value);
+      });
+      svg.appendChild(svgElement("polyline", {points: points.join(" "), fill: "none",
+        stroke: SERIES[key].color, "stroke-width": "2"}));
+    });
+
+    var cursor = svgElement("line", {y1: MARGIN.top, y2: MARGIN.top + plotHeight,
+      stroke: "#333", "stroke-dasharray": "3,3", visibility: "hidden"});
+    svg.appendChild(cursor);
+    var selection = svgElement("rect", {y: MARGIN.top, height: plotHeight,
+      fill: "rgba(58, 123, 213, 0.2)", visibility: "hidden"});
+    svg.appendChild(selection);
+
+    var tooltip = document.createElement("div");
+    tooltip.style.cssText = "position:absolute;pointer-events:none;background:#fff;"
+        + "border:1px solid #ccc;padding:4px 6px;font-size:12px;white-space:nowrap;display:none";
+
+    var indexAt = function (event) {
+      var rect = svg.getBoundingClientRect();
+      var offset = event.clientX - rect.left - MARGIN.left;
+      var index = count > 1 ? Math.round(offset * (count - 1) / plotWidth) : 0;
+      return Math.max(0, Math.min(count - 1, index));
+    };
+
+    var dragStart = null;
+    svg.addEventListener("mousedown", function (event) {
+      dragStart = indexAt(event);
+    });
+    svg.addEventListener("mousemove", function (event) {
+      var index = indexAt(event);
+      cursor.setAttribute("x1", x(index));
+      cursor.setAttribute("x2", x(index));
+      cursor.setAttribute("visibility", "visible");
+      // Source names come from the server, so tooltip is built from text nodes.
+      tooltip.textContent = "";
+      var title = document.createElement("b");
+      title.textContent = "#" + data.builds[index];
+      tooltip.appendChild(title);
+      if (data.downsampled) {
+        tooltip.appendChild(document.createTextNode(" (merged builds)"));
+      }
+      chart.visibleKeys().forEach(function (key) {
+        tooltip.appendChild(document.createElement("br"));
+        tooltip.appendChild(document.createTextNode(
+            SERIES[key].label + ": " + formatValue(key, data.series[key][index])));
+      });
+      tooltip.style.display = "block";
+      tooltip.style.left = (x(index) + 10) + "px";
+      tooltip.style.top = MARGIN.top + "px";
+      if (dragStart !== null) {
+        selection.setAttribute("x", Math.min(x(dragStart), x(index)));
+        selection.setAttribute("width", Math.abs(x(index) - x(dragStart)));
+        selection.setAttribute("visibility", "visible");
+      }
+    });
+    svg.addEventListener("mouseleave", function () {
+      cursor.setAttribute("visibility", "hidden");
+      selection.setAttribute("visibility", "hidden");
+      tooltip.style.display = "none";
+      dragStart = null;
+    });
+    svg.addEventListener("mouseup", function (event) {
+      var index = indexAt(event);
+      var start = dragStart;
+      dragStart = null;
+      selection.setAttribute("visibility", "hidden");
+      if (start === null) {
+        return;
+      }
+      if (start === index) {
+        if (chart.buildUrl) {
+          window.location.href = chart.buildUrl + data.builds[index] + "/";
+        }
+        return;
+      }
+      // With merged points a point's number is the bucket's latest build, so the range starts
+      // right after the previous point to include all merged builds.
+      var first = Math.min(start, index);
+      var last = Math.max(start, index);
+      chart.zoom = {
+        from: first > 0 ? data.builds[first - 1] + 1 : data.builds[0],
+        to: data.builds[last]
+      };
+      chart.load();
+    });
+
+    var wrapper = document.createElement("div");
+    wrapper.style.position = "relative";
+    wrapper.appendChild(svg);
+    wrapper.appendChild(tooltip);
+    this.container.appendChild(wrapper);
+    this.container.appendChild(this.renderLegend());
+  };
+
+  Chart.prototype.renderLegend = function () {
+    var chart = this;
+    var legend = document.createElement("div");
+    legend.style.fontSize = "12px";
+    Object.keys(this.data.series).forEach(function (key) {
+      if (!seriesInfo(key)) {
+        return;
+      }
+      var label = document.createElement("label");
+      label.style.marginRight = "10px";
+      label.style.color = SERIES[key].color;
+      var checkbox = document.createElement("input");
+      checkbox.type = "checkbox";
+      checkbox.checked = chart.visible[key];
+      checkbox.addEventListener("change", function () {
+        chart.visible[key] = checkbox.checked;
+        chart.render();
+      });
+      label.appendChild(checkbox);
+      label.appendChild(document.createTextNode(" " + SERIES[key].label));
+      legend.appendChild(label);
+    });
+    if (this.zoom) {
+      var reset = document.createElement("a");
+      reset.href = "#";
+      reset.textContent = "Reset zoom";
+      reset.addEventListener("click", function (event) {
+        event.preventDefault();
+        chart.zoom = null;
+        chart.load();
+      });
+      legend.appendChild(reset);
+    }
+    return legend;
+  };
+
+  if (typeof window.fetch !== "function") {
+    return;
+  }
+  document.querySelectorAll(".defensics-trend-chart").forEach(function (container) {
+    if (!container.dataset.loaded) {
+      container.dataset.loaded = "true";
+      new Chart(container).load();
+    }
+  });
+})();
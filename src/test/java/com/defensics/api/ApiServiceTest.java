@@ -19,6 +19,7 @@ package com.defensics.api;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThrows;
 
@@ -26,9 +27,14 @@ import com.defensics.apiserver.model.Run;
 import com.defensics.apiserver.model.RunState;
 import com.defensics.apiserver.model.RunVerdict;
 import com.defensics.client.DefensicsRequestException;
+import com.defensics.client.model.HtmlReport;
 import com.defensics.jenkins.test.utils.DefensicsMockServer;
+import com.defensics.jenkins.util.ZipExtractor;
 import hudson.FilePath;
 import java.io.File;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -123,10 +129,37 @@ public class ApiServiceTest {
   public void testFetchJobReport() throws Exception {
     TemporaryFolder temporaryFolder = new TemporaryFolder();
     temporaryFolder.create();
-    FilePath resultFolder = new FilePath(temporaryFolder.getRoot());
+    File resultFolder = temporaryFolder.getRoot();
     Run run = api.getRun(DefensicsMockServer.RUN_ID);
-    api.saveResults(run, resultFolder);
-    assertThat(resultFolder.exists(), is(equalTo(true)));
-    assertThat(resultFolder.child("report.html").exists(), is(equalTo(true)));
+    api.saveReport(run, HtmlReport.Cloud, report -> ZipExtractor.forEachEntry(report,
+        (name, content) ->
+            ZipExtractor.write(content, new File(resultFolder, name).toPath(), false)));
+    assertThat(new File(resultFolder, "report.html").isFile(), is(equalTo(true)));
+  }
+
+  @Test
+  public void testSaveReport() throws Exception {
+    final List<String> names = new ArrayList<>();
+    Run run = api.getRun(DefensicsMockServer.RUN_ID);
+    final long bytes = api.saveReport(run, HtmlReport.Cloud,
+        report -> ZipExtractor.forEachEntry(report, (name, content) -> {
+          names.add(name);
+          return content.transferTo(OutputStream.nullOutputStream());
+        }));
+    assertThat(names, hasItem("report.html"));
+    assertThat(bytes > 0, is(equalTo(true)));
+  }
+
+  @Test
+  public void testReadResultPackage() throws Exception {
+    final List<String> names = new ArrayList<>();
+    Run run = api.getRun(DefensicsMockServer.RUN_ID);
+    final long bytes = api.readResultPackage(run,
+        resultPackage -> ZipExtractor.forEachEntry(resultPackage, (name, content) -> {
+          names.add(name);
+          return content.transferTo(OutputStream.nullOutputStream());
+        }));
+    assertThat(names.isEmpty(), is(equalTo(false)));
+    assertThat(bytes > 0, is(equalTo(true)));
   }
 }
@@ -25,6 +25,8 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.Mockito.mock;
 
+import com.defensics.jenkins.result.JUnitReportMode;
+import com.defensics.jenkins.result.ReportFormat;
 import jenkins.model.Jenkins;
 import org.junit.Before;
 import org.junit.Test;
@@ -57,6 +59,48 @@ public class FuzzBuildStepTest {
     assertThat(fuzzBuildStep.getConfigurationOverrides(), is(equalTo(CONFIGURATION_OVERRIDES)));
   }
 
+  @Test
+  public void testProgressLogInterval() {
+    assertThat(fuzzBuildStep.getProgressLogInterval(), is(0));
+    fuzzBuildStep.setProgressLogInterval(10);
+    assertThat(fuzzBuildStep.getProgressLogInterval(), is(10));
+  }
+
+  @Test
+  public void testLazyReportVerdicts() {
+    assertThat(fuzzBuildStep.getLazyReportVerdicts(), is(""));
+    fuzzBuildStep.setLazyReportVerdicts("PASS");
+    assertThat(fuzzBuildStep.getLazyReportVerdicts(), is("PASS"));
+  }
+
+  @Test
+  public void testReportFormat() {
+    assertThat(fuzzBuildStep.getReportFormat(), is(ReportFormat.CLOUD));
+    fuzzBuildStep.setReportFormat(ReportFormat.SUMMARY);
+    assertThat(fuzzBuildStep.getReportFormat(), is(ReportFormat.SUMMARY));
+  }
+
+  @Test
+  public void testJunitReport() {
+    assertThat(fuzzBuildStep.getJunitReport(), is(JUnitReportMode.NONE));
+    fuzzBuildStep.setJunitReport(JUnitReportMode.FAILED_CASES);
+    assertThat(fuzzBuildStep.getJunitReport(), is(JUnitReportMode.FAILED_CASES));
+  }
+
+  @Test
+  public void testRecordFailures() {
+    assertThat(fuzzBuildStep.isRecordFailures(), is(false));
+    fuzzBuildStep.setRecordFailures(true);
+    assertThat(fuzzBuildStep.isRecordFailures(), is(true));
+  }
+
+  @Test
+  public void testFailuresFirst() {
+    assertThat(fuzzBuildStep.isFailuresFirst(), is(false));
+    fuzzBuildStep.setFailuresFirst(true);
+    assertThat(fuzzBuildStep.isFailuresFirst(), is(true));
+  }
+
   @Test
   public void testGetSettingFilePath() {
     assertThat(fuzzBuildStep.getConfigurationFilePath(), is(equalTo(SETTING_FILE_PATH)));
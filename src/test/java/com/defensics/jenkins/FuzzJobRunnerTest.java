@@ -19,38 +19,53 @@ package com.defensics.jenkins;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
 
 import com.defensics.api.ApiService;
-import com.defensics.apiserver.client.DefensicsApiClient.DefensicsClientException;
+import com.defensics.api.DownloadHandler;
 import com.defensics.apiserver.model.HealthCheckResult;
 import com.defensics.apiserver.model.Run;
 import com.defensics.apiserver.model.RunState;
 import com.defensics.apiserver.model.RunVerdict;
 import com.defensics.apiserver.model.SuiteInstance;
 import com.defensics.client.DefensicsRequestException;
+import com.defensics.client.model.HtmlReport;
+import com.defensics.jenkins.cleanup.RunCleanupQueue;
 import com.defensics.jenkins.configuration.InstanceConfiguration;
+import com.defensics.jenkins.result.FailureDiffAction;
+import com.defensics.jenkins.result.FailureFingerprints;
+import com.defensics.jenkins.result.MainLogFixture;
+import com.defensics.jenkins.result.ReportAction;
+import com.defensics.jenkins.result.ReportAction.Report;
+import com.defensics.jenkins.result.ReportFormat;
+import com.defensics.jenkins.result.ReportWriter;
 import com.defensics.jenkins.result.ResultPublisher;
 import hudson.AbortException;
 import hudson.FilePath;
 import hudson.Launcher;
-import hudson.Plugin;
-import hudson.PluginManager;
-import hudson.PluginWrapper;
+import hudson.model.Job;
 import hudson.model.Result;
-import hudson.util.VersionNumber;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -59,7 +74,6 @@ import org.junit.rules.TemporaryFolder;
 import org.junit.rules.Timeout;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
-import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.stubbing.Answer;
 
@@ -79,6 +93,9 @@ public class FuzzJobRunnerTest {
   @Mock
   private hudson.model.Run<?, ?> jenkinsRun;
 
+  @Mock
+  private Job<?, ?> job;
+
   @Mock
   private FilePath workspace;
 
@@ -103,9 +120,6 @@ public class FuzzJobRunnerTest {
   @Mock
   private ApiService apiService;
 
-  @Mock
-  private Plugin htmlPublisher;
-
   @Mock
   private ResultPublisher resultPublisher;
 
@@ -113,7 +127,7 @@ public class FuzzJobRunnerTest {
   private PollingIntervals pollingIntervals;
 
   @Mock
-  private PluginManager pluginManager;
+  private RunCleanupQueue runCleanupQueue;
 
   private static final boolean SAVE_RESULT_PACKAGE_FALSE = false;
 
@@ -148,6 +162,124 @@ public class FuzzJobRunnerTest {
     );
 
     verify(jenkinsRun).setResult(Result.SUCCESS);
+    verify(apiService, never()).deleteRun(RUN_ID);
+    verify(runCleanupQueue).submit(eq(RUN_ID), any(), any(), eq(apiService));
+  }
+
+  @Test
+  public void testRun_lazyReportIsNotDownloaded() throws Exception {
+    final FuzzJobRunner fuzzJobRunner = createFuzzJobRunnerWithMockServices();
+    fuzzJobRunner.setLazyReportVerdicts(EnumSet.of(RunVerdict.PASS));
+    setupMocks();
+
+    when(suiteInstance.getState()).thenReturn(RunState.LOADED);
+    when(defensicsRun.getState()).thenReturn(RunState.COMPLETED);
+    when(defensicsRun.getVerdict()).thenReturn(RunVerdict.PASS);
+    when(defensicsRun.getResultId()).thenReturn("result-1");
+
+    fuzzJobRunner.run(
+        jenkinsRun,
+        workspace,
+        launcher,
+        logger,
+        testplan,
+        "",
+        instanceConfiguration,
+        SAVE_RESULT_PACKAGE_FALSE
+    );
+
+    verify(jenkinsRun).setResult(Result.SUCCESS);
+    verify(apiService, never())
+        .saveReport(any(Run.class), any(HtmlReport.class), any(DownloadHandler.class));
+    final ArgumentCaptor<Report> reportCaptor = ArgumentCaptor.forClass(Report.class);
+    verify(resultPublisher).publishResults(eq(jenkinsRun), eq(defensicsRun),
+        reportCaptor.capture(), any());
+    assertThat(reportCaptor.getValue().isLazy(), is(true));
+    assertThat(reportCaptor.getValue().getResultId(), is("result-1"));
+  }
+
+  @Test
+  public void testRun_resultPackageNotReadByDefault() throws Exception {
+    final FuzzJobRunner fuzzJobRunner = createFuzzJobRunnerWithMockServices();
+    setupMocks();
+
+    when(suiteInstance.getState()).thenReturn(RunState.LOADED);
+    when(defensicsRun.getState()).thenReturn(RunState.COMPLETED);
+    when(defensicsRun.getVerdict()).thenReturn(RunVerdict.PASS);
+    when(defensicsRun.getResultId()).thenReturn("result-1");
+
+    fuzzJobRunner.run(
+        jenkinsRun,
+        workspace,
+        launcher,
+        logger,
+        testplan,
+        "",
+        instanceConfiguration,
+        SAVE_RESULT_PACKAGE_FALSE
+    );
+
+    verify(jenkinsRun).setResult(Result.SUCCESS);
+    verify(apiService, never()).readResultPackage(any(Run.class), any(DownloadHandler.class));
+  }
+
+  @Test
+  public void testRun_failuresRecordedFromStreamedResultPackage() throws Exception {
+    final FuzzJobRunner fuzzJobRunner = createFuzzJobRunnerWithMockServices();
+    fuzzJobRunner.setRecordFailures(true);
+    setupMocks();
+
+    when(testplan.getName()).thenReturn("http-server.testplan");
+    when(suiteInstance.getState()).thenReturn(RunState.LOADED);
+    when(defensicsRun.getState()).thenReturn(RunState.COMPLETED);
+    when(defensicsRun.getVerdict()).thenReturn(RunVerdict.PASS);
+    when(defensicsRun.getResultId()).thenReturn("result-1");
+
+    fuzzJobRunner.run(
+        jenkinsRun,
+        workspace,
+        launcher,
+        logger,
+        testplan,
+        "",
+        instanceConfiguration,
+        SAVE_RESULT_PACKAGE_FALSE
+    );
+
+    verify(jenkinsRun).setResult(Result.SUCCESS);
+    verify(apiService, times(1))
+        .readResultPackage(eq(defensicsRun), any(DownloadHandler.class));
+  }
+
+  @Test
+  public void testRun_summaryReportIsWrittenWithoutDownload() throws Exception {
+    final FuzzJobRunner fuzzJobRunner = createFuzzJobRunnerWithMockServices();
+    fuzzJobRunner.setReportFormat(ReportFormat.SUMMARY);
+    setupMocks();
+
+    when(suiteInstance.getState()).thenReturn(RunState.LOADED);
+    when(defensicsRun.getState()).thenReturn(RunState.COMPLETED);
+    when(defensicsRun.getVerdict()).thenReturn(RunVerdict.PASS);
+
+    fuzzJobRunner.run(
+        jenkinsRun,
+        workspace,
+        launcher,
+        logger,
+        testplan,
+        "",
+        instanceConfiguration,
+        SAVE_RESULT_PACKAGE_FALSE
+    );
+
+    verify(jenkinsRun).setResult(Result.SUCCESS);
+    verify(apiService, never())
+        .saveReport(any(Run.class), any(HtmlReport.class), any(DownloadHandler.class));
+    final ArgumentCaptor<Report> reportCaptor = ArgumentCaptor.forClass(Report.class);
+    verify(resultPublisher).publishResults(eq(jenkinsRun), eq(defensicsRun),
+        reportCaptor.capture(), any());
+    assertThat(new File(ReportAction.getReportDir(jenkinsRun, RUN_ID),
+        reportCaptor.getValue().getFileName()).isFile(), is(true));
   }
 
   @Test
@@ -213,12 +345,8 @@ public class FuzzJobRunnerTest {
     doAnswer(invocation -> {
       if (runState.get().equals(RunState.STARTING)) {
         // Starting run gets 409, but let's move run state internally to running.
-        // NOTE: These nested exceptions are bit cumbersome here.
         runState.set(RunState.RUNNING);
-        throw new DefensicsRequestException(
-            "Plugin exception",
-            new DefensicsClientException("409 Conflict API client exception")
-        );
+        throw new DefensicsRequestException("Could not stop run", 409);
       }
 
       // Second stop for RUNNING run should succeed
@@ -256,6 +384,46 @@ public class FuzzJobRunnerTest {
     verify(jenkinsRun).setResult(Result.ABORTED);
   }
 
+  /**
+   * Check that run interrupted while suite is loading is deleted right away without waiting for
+   * the suite load to complete.
+   */
+  @Test
+  public void testInterruption_LoadingSuiteDeletedWithoutWaiting()
+      throws DefensicsRequestException, IOException, InterruptedException {
+    final FuzzJobRunner fuzzJobRunner = createFuzzJobRunnerWithMockServices();
+    setupMocks();
+
+    when(suiteInstance.getState()).thenReturn(RunState.LOADING);
+
+    // Cause job interrupt in 3rd suite poll, suite keeps loading after that
+    final AtomicInteger counter = new AtomicInteger();
+    when(apiService.getConfigurationSuite(RUN_ID)).thenAnswer((Answer<?>) invocation -> {
+      if (counter.incrementAndGet() == 3) {
+        throw new InterruptedException("Job interrupted");
+      }
+      return Optional.of(suiteInstance);
+    });
+
+    Assert.assertThrows(
+        AbortException.class,
+        () -> fuzzJobRunner.run(
+            jenkinsRun,
+            workspace,
+            launcher,
+            logger,
+            testplan,
+            "",
+            instanceConfiguration,
+            SAVE_RESULT_PACKAGE_FALSE
+        )
+    );
+
+    verify(apiService, never()).stopRun(RUN_ID);
+    verify(runCleanupQueue).submit(eq(RUN_ID), any(), any(), eq(apiService));
+    verify(jenkinsRun).setResult(Result.ABORTED);
+  }
+
   /**
    * Check that error in suite loading results in job abort.
    */
@@ -347,15 +515,154 @@ public class FuzzJobRunnerTest {
     );
   }
 
+  @Test
+  public void testRun_stillFailingReplaySkipsFullRun() throws Exception {
+    final FuzzJobRunner fuzzJobRunner = createFuzzJobRunnerWithMockServices();
+    fuzzJobRunner.setFailuresFirst(true);
+    setupMocks();
+    setupPreviousFailures();
+
+    when(suiteInstance.getState()).thenReturn(RunState.LOADED);
+    when(defensicsRun.getState()).thenReturn(RunState.COMPLETED);
+    when(defensicsRun.getVerdict()).thenReturn(RunVerdict.FAIL);
+
+    Assert.assertThrows(AbortException.class, () -> fuzzJobRunner.run(
+        jenkinsRun,
+        workspace,
+        launcher,
+        logger,
+        testplan,
+        "--uri http://sut",
+        instanceConfiguration,
+        SAVE_RESULT_PACKAGE_FALSE
+    ));
+
+    verify(apiService, times(1)).createNewRun();
+    verify(apiService).setTestConfigurationSettings(RUN_ID, "--uri http://sut --index 3,5-6");
+    verify(runCleanupQueue, times(1)).submit(eq(RUN_ID), any(), any(), eq(apiService));
+  }
+
+  @Test
+  public void testRun_passingReplayContinuesWithFullRun() throws Exception {
+    final FuzzJobRunner fuzzJobRunner = createFuzzJobRunnerWithMockServices();
+    fuzzJobRunner.setFailuresFirst(true);
+    setupMocks();
+    setupPreviousFailures();
+
+    when(suiteInstance.getState()).thenReturn(RunState.LOADED);
+    when(defensicsRun.getState()).thenReturn(RunState.COMPLETED);
+    when(defensicsRun.getVerdict()).thenReturn(RunVerdict.PASS);
+
+    fuzzJobRunner.run(
+        jenkinsRun,
+        workspace,
+        launcher,
+        logger,
+        testplan,
+        "",
+        instanceConfiguration,
+        SAVE_RESULT_PACKAGE_FALSE
+    );
+
+    verify(jenkinsRun).setResult(Result.SUCCESS);
+    verify(apiService, times(2)).createNewRun();
+    verify(apiService, times(1)).setTestConfigurationSettings(RUN_ID, "--index 3,5-6");
+    // Both the replay run and the full run are cleaned up
+    verify(runCleanupQueue, times(2)).submit(eq(RUN_ID), any(), any(), eq(apiService));
+  }
+
+  @Test
+  public void testRun_failedReplayContinuesWithFullRun() throws Exception {
+    final FuzzJobRunner fuzzJobRunner = createFuzzJobRunnerWithMockServices();
+    fuzzJobRunner.setFailuresFirst(true);
+    setupMocks();
+    setupPreviousFailures();
+
+    doThrow(new DefensicsRequestException("Invalid setting"))
+        .when(apiService).setTestConfigurationSettings(RUN_ID, "--index 3,5-6");
+    when(suiteInstance.getState()).thenReturn(RunState.LOADED);
+    when(defensicsRun.getState()).thenReturn(RunState.COMPLETED);
+    when(defensicsRun.getVerdict()).thenReturn(RunVerdict.PASS);
+
+    fuzzJobRunner.run(
+        jenkinsRun,
+        workspace,
+        launcher,
+        logger,
+        testplan,
+        "",
+        instanceConfiguration,
+        SAVE_RESULT_PACKAGE_FALSE
+    );
+
+    verify(jenkinsRun).setResult(Result.SUCCESS);
+    verify(logger).logWarning(
+        "Replaying previous failures failed, running the full test plan: Invalid setting");
+    verify(apiService, times(2)).createNewRun();
+    // Both the failed replay run and the full run are cleaned up
+    verify(runCleanupQueue, times(2)).submit(eq(RUN_ID), any(), any(), eq(apiService));
+  }
+
+  @Test
+  public void testInterruption_ReplayRunStopped() throws Exception {
+    final FuzzJobRunner fuzzJobRunner = createFuzzJobRunnerWithMockServices();
+    fuzzJobRunner.setFailuresFirst(true);
+    setupMocks();
+    setupPreviousFailures();
+
+    final AtomicReference<RunState> runState = new AtomicReference<>(RunState.RUNNING);
+    when(suiteInstance.getState()).thenReturn(RunState.LOADED);
+    doAnswer(invocation -> {
+      runState.set(RunState.COMPLETED);
+      return null;
+    }).when(apiService).stopRun(RUN_ID);
+    final AtomicInteger counter = new AtomicInteger();
+    when(defensicsRun.getState()).thenAnswer((Answer<?>) invocation -> {
+      if (counter.incrementAndGet() == 5) {
+        throw new InterruptedException("Job interrupted");
+      }
+      return runState.get();
+    });
+
+    Assert.assertThrows(AbortException.class, () -> fuzzJobRunner.run(
+        jenkinsRun,
+        workspace,
+        launcher,
+        logger,
+        testplan,
+        "",
+        instanceConfiguration,
+        SAVE_RESULT_PACKAGE_FALSE
+    ));
+
+    verify(logger).println("Fuzzing was interrupted.");
+    verify(apiService).stopRun(RUN_ID);
+    verify(jenkinsRun).setResult(Result.ABORTED);
+    // The full test plan is not run, and the replay run is cleaned up once
+    verify(apiService, times(1)).createNewRun();
+    verify(runCleanupQueue, times(1)).submit(eq(RUN_ID), any(), any(), eq(apiService));
+  }
+
+  private void setupPreviousFailures() throws IOException {
+    final String log =
+        MainLogFixture.testCase(5, "http-suite.http-request.request.uri", "tcp-health-check")
+            + MainLogFixture.testCase(3, "http-suite.http-request.request.method", "valid-case")
+            + MainLogFixture.testCase(4, "http-suite.http-request.request.path", null)
+            + MainLogFixture.testCase(6, "http-suite.http-request.request.version", "valid-case");
+    final FailureFingerprints.Builder failures = new FailureFingerprints.Builder("http-server");
+    failures.read(new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8)));
+    final FailureDiffAction failureDiffAction = mock(FailureDiffAction.class);
+    when(failureDiffAction.getFailures("http-server")).thenReturn(failures.build());
+    final hudson.model.Run<?, ?> previousRun = mock(hudson.model.Run.class);
+    when(previousRun.getAction(FailureDiffAction.class)).thenReturn(failureDiffAction);
+    doReturn(previousRun).when(jenkinsRun).getPreviousBuild();
+    when(testplan.getName()).thenReturn("http-server.testplan");
+  }
+
   private void setupMocks() throws DefensicsRequestException, InterruptedException, IOException {
     when(instanceConfiguration.getUrl()).thenReturn("http://non.existent.invalid:9999");
     when(defensicsRun.getId()).thenReturn(RUN_ID);
 
-    // Mock HTML Publisher to be recent version
-    final PluginWrapper pluginWrapper = Mockito.mock(PluginWrapper.class);
-    when(pluginWrapper.getVersionNumber()).thenReturn(new VersionNumber("1.22"));
-    when(htmlPublisher.getWrapper()).thenReturn(pluginWrapper);
-
     // Make tests go fast. Zero should be OK since it's passed to Thread.sleep()
     when(pollingIntervals.getRunPollingInterval()).thenReturn(0);
     when(pollingIntervals.getTestplanLoadingInterval()).thenReturn(0);
@@ -366,18 +673,21 @@ public class FuzzJobRunnerTest {
     when(apiService.getConfigurationSuite(RUN_ID)).thenReturn(Optional.of(suiteInstance));
     when(apiService.getRun(RUN_ID)).thenReturn(defensicsRun);
 
-    // Setup HTML report download
-    when(workspace.createTempDir(any(), any()))
-        .thenReturn(new FilePath(temporaryFolder.newFolder()));
+    // Setup HTML report download into the build directory
+    when(jenkinsRun.getRootDir()).thenReturn(temporaryFolder.newFolder());
+    when(job.getRootDir()).thenReturn(temporaryFolder.newFolder());
+    doReturn(job).when(jenkinsRun).getParent();
 
     doAnswer(invocation -> {
-      final FilePath filePath = invocation.getArgument(1);
-      Files.write(
-          Paths.get(filePath.absolutize().getRemote(), "report.html"),
-          "<html/>".getBytes(StandardCharsets.UTF_8)
-      );
-      return null;
-    }).when(apiService).saveResults(any(Run.class), any(FilePath.class));
+      final DownloadHandler handler = invocation.getArgument(2);
+      final ByteArrayOutputStream report = new ByteArrayOutputStream();
+      try (ZipOutputStream zip = new ZipOutputStream(report)) {
+        zip.putNextEntry(new ZipEntry(ReportWriter.REPORT_FILE_NAME));
+        zip.write("<html/>".getBytes(StandardCharsets.UTF_8));
+      }
+      return handler.handle(new ByteArrayInputStream(report.toByteArray()));
+    }).when(apiService)
+        .saveReport(any(Run.class), any(HtmlReport.class), any(DownloadHandler.class));
   }
 
   /**
@@ -390,18 +700,18 @@ public class FuzzJobRunnerTest {
   private FuzzJobRunner createFuzzJobRunnerWithMockServices() {
     return new FuzzJobRunner() {
       @Override
-      Plugin getHtmlPublisher() {
-        return htmlPublisher;
+      ResultPublisher getResultPublisher() {
+        return resultPublisher;
       }
 
       @Override
-      ResultPublisher getResultPublisher() {
-        return resultPublisher;
+      boolean isReportCompressionEnabled() {
+        return false;
       }
 
       @Override
-      PluginManager getJenkinsPluginManager() {
-        return pluginManager;
+      RunCleanupQueue getRunCleanupQueue() {
+        return runCleanupQueue;
       }
 
       @Override
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.defensics.apiserver.model.Run;
+import com.defensics.apiserver.model.RunState;
+import java.util.Collections;
+import org.junit.Test;
+
+public class RunLoggerTest {
+
+  private final Logger logger = mock(Logger.class);
+
+  @Test
+  public void testEveryStatusLoggedByDefault() {
+    final RunLogger runLogger = new RunLogger(logger);
+
+    for (long executed = 0; executed <= 100; executed += 5) {
+      runLogger.log(mockRun(RunState.RUNNING, executed, 100));
+    }
+
+    verify(logger, times(21)).println(anyString());
+  }
+
+  @Test
+  public void testSparseLogging() {
+    final RunLogger runLogger = new RunLogger(logger, 25);
+
+    for (long executed = 0; executed <= 100; executed += 5) {
+      runLogger.log(mockRun(RunState.RUNNING, executed, 100));
+    }
+    // 0%, 25%, 50%, 75% and 100%
+    verify(logger, times(5)).println(anyString());
+
+    runLogger.log(mockRun(RunState.COMPLETED, 100, 100));
+    verify(logger, times(6)).println(anyString());
+  }
+
+  private static Run mockRun(RunState state, long executed, long total) {
+    final Run run = mock(Run.class);
+    when(run.getState()).thenReturn(state);
+    when(run.getTestCasesExecuted()).thenReturn(executed);
+    when(run.getCasesToBeExecuted()).thenReturn(total);
+    when(run.getFailureSummary()).thenReturn(Collections.emptyList());
+    return run;
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.cleanup;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.defensics.api.ApiService;
+import com.defensics.apiserver.model.Run;
+import com.defensics.apiserver.model.RunState;
+import com.defensics.client.DefensicsRequestException;
+import com.defensics.jenkins.Logger;
+import hudson.model.TaskListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+public class RunCleanupQueueTest {
+
+  private static final String RUN_ID = "5adcf4cc-7a86-4f3c-8fa4-ba316ce686c0";
+
+  private final List<Long> scheduledDelays = new ArrayList<>();
+
+  private long cancelDeadlineMillis = 2000;
+
+  /**
+   * Queue which processes tasks synchronously when they are first submitted and only records
+   * retries.
+   */
+  private final RunCleanupQueue queue = new RunCleanupQueue() {
+    @Override
+    void schedule(CleanupTask task, long delaySeconds) {
+      scheduledDelays.add(delaySeconds);
+      if (delaySeconds == 0) {
+        process(task);
+      }
+    }
+
+    @Override
+    RunCanceller createCanceller(ApiService apiService) {
+      return new RunCanceller(apiService, new Logger(TaskListener.NULL), cancelDeadlineMillis);
+    }
+  };
+
+  private ApiService apiService;
+  private Run run;
+
+  @Before
+  public void setUp() throws Exception {
+    apiService = mock(ApiService.class);
+    run = mock(Run.class);
+    when(apiService.findRun(RUN_ID)).thenReturn(Optional.of(run));
+    RunTracker.get().track(RUN_ID, "instance", "job#1");
+  }
+
+  @After
+  public void cleanup() {
+    RunTracker.get().untrack(RUN_ID);
+  }
+
+  @Test
+  public void testRunningRunStoppedAndDeleted() throws Exception {
+    when(run.getState()).thenReturn(RunState.RUNNING, RunState.RUNNING, RunState.COMPLETED);
+    when(apiService.getRun(RUN_ID)).thenReturn(run);
+
+    queue.submit(RUN_ID, "instance", "job #1", apiService);
+
+    final InOrder inOrder = inOrder(apiService);
+    inOrder.verify(apiService).stopRun(RUN_ID);
+    inOrder.verify(apiService).getRun(RUN_ID);
+    inOrder.verify(apiService).deleteRun(RUN_ID);
+    assertThat(queue.isPending(RUN_ID), is(false));
+    assertThat(queue.getTasks().get(0).getState(), is(CleanupTask.State.COMPLETED));
+    assertThat(RunTracker.get().getTrackedRuns(), is(empty()));
+  }
+
+  @Test
+  public void testCompletedRunOnlyDeleted() throws Exception {
+    when(run.getState()).thenReturn(RunState.COMPLETED);
+
+    queue.submit(RUN_ID, "instance", "job #1", apiService);
+
+    verify(apiService, never()).stopRun(RUN_ID);
+    verify(apiService).deleteRun(RUN_ID);
+  }
+
+  @Test
+  public void testFailedDeletionRetried() throws Exception {
+    when(run.getState()).thenReturn(RunState.COMPLETED);
+    doThrow(new DefensicsRequestException("Server unavailable"))
+        .when(apiService).deleteRun(RUN_ID);
+
+    queue.submit(RUN_ID, "instance", "job #1", apiService);
+
+    final CleanupTask task = queue.getTasks().get(0);
+    assertThat(task.getState(), is(CleanupTask.State.PENDING));
+    assertThat(task.getAttempts(), is(1));
+    assertThat(task.getLastError(), is("Server unavailable"));
+    assertThat(queue.isPending(RUN_ID), is(true));
+    assertThat(scheduledDelays, contains(0L, RunCleanupQueue.retryDelaySeconds(1)));
+    // Run stays tracked so reaper can pick it up if all retries fail
+    assertThat(RunTracker.get().getTrackedRuns().size(), is(1));
+  }
+
+  @Test
+  public void testRunNotStoppingRetriedWithoutDeletion() throws Exception {
+    cancelDeadlineMillis = 0;
+    when(run.getState()).thenReturn(RunState.STOPPING);
+    when(apiService.getRun(RUN_ID)).thenReturn(run);
+
+    queue.submit(RUN_ID, "instance", "job #1", apiService);
+
+    verify(apiService, never()).deleteRun(RUN_ID);
+    final CleanupTask task = queue.getTasks().get(0);
+    assertThat(task.getState(), is(CleanupTask.State.PENDING));
+    assertThat(scheduledDelays, contains(0L, RunCleanupQueue.retryDelaySeconds(1)));
+  }
+
+  @Test
+  public void testRetryDelayIsBounded() {
+    assertThat(RunCleanupQueue.retryDelaySeconds(1), is(5L));
+    assertThat(RunCleanupQueue.retryDelaySeconds(2), is(10L));
+    assertThat(RunCleanupQueue.retryDelaySeconds(20), is(300L));
+  }
+}
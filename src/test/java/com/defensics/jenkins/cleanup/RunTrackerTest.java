@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.cleanup;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Test;
+
+public class RunTrackerTest {
+
+  private static final String RUN_ID = "5adcf4cc-7a86-4f3c-8fa4-ba316ce686c0";
+  private static final String RUN_ID2 = "0b5dd1bc-2b8c-4a9e-9e5b-6c3f1f4c1d2e";
+
+  private final RunTracker runTracker = RunTracker.get();
+
+  @After
+  public void cleanup() {
+    runTracker.untrack(RUN_ID);
+    runTracker.untrack(RUN_ID2);
+  }
+
+  @Test
+  public void testTrackAndUntrack() {
+    runTracker.track(RUN_ID, "instance", "job#1");
+    runTracker.track(RUN_ID2, "instance", "job#2");
+
+    assertThat(
+        runTracker.getTrackedRuns().stream().map(TrackedRun::getRunId).collect(Collectors.toList()),
+        contains(RUN_ID, RUN_ID2));
+
+    runTracker.untrack(RUN_ID);
+    runTracker.untrack(RUN_ID2);
+
+    assertThat(runTracker.getTrackedRuns(), is(empty()));
+  }
+
+  @Test
+  public void testTrackedRunInformation() {
+    runTracker.track(RUN_ID, "instance", "job#1");
+
+    final TrackedRun trackedRun = runTracker.getTrackedRuns().get(0);
+    assertThat(trackedRun.getInstanceName(), is("instance"));
+    assertThat(trackedRun.getBuildId(), is("job#1"));
+  }
+}
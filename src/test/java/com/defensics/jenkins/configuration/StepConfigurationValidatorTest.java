@@ -17,11 +17,15 @@
 package com.defensics.jenkins.configuration;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 
+import com.defensics.apiserver.model.RunVerdict;
 import hudson.util.FormValidation.Kind;
 import org.junit.Before;
 import org.junit.Test;
@@ -83,6 +87,24 @@ public class StepConfigurationValidatorTest {
     validateConfigurationOverrides("--index 15-40 --another-setting value1 value2", error);
   }
 
+  @Test
+  public void testParseVerdicts() {
+    assertThat(StepConfigurationValidator.parseVerdicts(null), is(empty()));
+    assertThat(StepConfigurationValidator.parseVerdicts(" "), is(empty()));
+    assertThat(StepConfigurationValidator.parseVerdicts("pass"), contains(RunVerdict.PASS));
+    assertThat(StepConfigurationValidator.parseVerdicts(", PASS,WARNING "),
+        containsInAnyOrder(RunVerdict.PASS, RunVerdict.WARNING));
+  }
+
+  @Test
+  public void testValidateLazyReportVerdicts() {
+    assertThat(validator.validateLazyReportVerdicts("").kind, is(equalTo(Kind.OK)));
+    assertThat(validator.validateLazyReportVerdicts("PASS WARNING").kind,
+        is(equalTo(Kind.OK)));
+    assertThat(validator.validateLazyReportVerdicts("PASS, NONE").kind,
+        is(equalTo(Kind.ERROR)));
+  }
+
   private void validateConfigurationOverrides(String override, Kind expectedResult) {
     assertThat(validator.validateConfigurationOverrides(override).kind,
         is(equalTo(expectedResult)));
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.dashboard;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.defensics.jenkins.result.BuildResultAction;
+import com.defensics.jenkins.result.StepResult;
+import hudson.model.Result;
+import hudson.model.Run;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Test;
+
+public class DashboardIndexTest {
+
+  private final DashboardIndex index = new DashboardIndex();
+
+  @Test
+  public void testUpdateKeepsLatestBuild() {
+    index.update("job", summary(2));
+    index.update("job", summary(1));
+
+    assertThat(index.getSummaries("").get("job").getBuildNumber(), is(2));
+
+    index.update("job", summary(3));
+
+    assertThat(index.getSummaries("").get("job").getBuildNumber(), is(3));
+  }
+
+  @Test
+  public void testFolderSummaries() {
+    index.update("folder/a", summary(1));
+    index.update("folder/b", summary(1));
+    index.update("folder2/c", summary(1));
+    index.update("d", summary(1));
+
+    assertThat(index.getSummaries("").keySet(), contains("d", "folder/a", "folder/b", "folder2/c"));
+    assertThat(index.getSummaries("folder").keySet(), contains("folder/a", "folder/b"));
+  }
+
+  @Test
+  public void testRemoveFolder() {
+    index.update("folder/a", summary(1));
+    index.update("folder2/b", summary(1));
+
+    index.remove("folder");
+
+    assertThat(index.getSummaries("").keySet(), contains("folder2/b"));
+  }
+
+  @Test
+  public void testRenameFolder() {
+    index.update("folder", summary(1));
+    index.update("folder/a", summary(1));
+    index.update("folder2/b", summary(1));
+
+    index.rename("folder", "renamed");
+
+    assertThat(index.getSummaries("").keySet(), contains("folder2/b", "renamed", "renamed/a"));
+  }
+
+  @Test
+  public void testSummaryOfBuild() {
+    final Run<?, ?> run = mock(Run.class);
+    when(run.getNumber()).thenReturn(7);
+    when(run.getTimeInMillis()).thenReturn(1000L);
+    when(run.getResult()).thenReturn(Result.UNSTABLE);
+    final BuildResultAction action = new BuildResultAction("report-url", 5);
+    action.addStepResult(new StepResult("a.set", "run-1", "local", "FAIL",
+        Map.of("ERROR", 3L), Map.of("instrumentation", 3L), 100, 200, 10000));
+    action.addStepResult(new StepResult("b.set", "run-2", "remote", "PASS",
+        Map.of("ERROR", 2L), Map.of("instrumentation", 2L), 50, 50, 5000));
+    when(run.getAction(BuildResultAction.class)).thenReturn(action);
+
+    final JobSummary summary = JobSummary.of(run);
+
+    assertThat(summary.getBuildNumber(), is(7));
+    assertThat(summary.getResult(), is("UNSTABLE"));
+    assertThat(summary.getVerdict(), is("FAIL, PASS"));
+    assertThat(summary.getFailureCount(), is(5L));
+    assertThat(summary.getTestCasesExecuted(), is(150L));
+    assertThat(summary.getCasesPerSecond(), is(10d));
+    assertThat(summary.getInstanceNames(), contains("local", "remote"));
+  }
+
+  @Test
+  public void testSummaryOfBuildWithoutResults() {
+    assertThat(JobSummary.of(mock(Run.class)), is(nullValue()));
+  }
+
+  private static JobSummary summary(int number) {
+    return new JobSummary(number, 1000L * number, "SUCCESS", "PASS", 0, 10, 1000,
+        Collections.singletonList("local"));
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.progress;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.Test;
+
+public class RunProgressActionTest {
+
+  private static final String RUN_ID = "5adcf4cc-7a86-4f3c-8fa4-ba316ce686c0";
+  private static final String OTHER_RUN_ID = "0d4e3b2a-1f5c-4a8e-9b7d-6c2f1e0a9b8c";
+
+  private final RunProgressAction action = new RunProgressAction();
+
+  @Test
+  public void testInitialState() {
+    assertThat(action.getUrlName(), is(RunProgressAction.URL_NAME));
+    assertThat(action.getRuns().isEmpty(), is(true));
+    assertThat(action.getRun(RUN_ID), is(nullValue()));
+    assertThat(action.isBuilding(), is(false));
+  }
+
+  @Test
+  public void testRunsKeptSeparately() {
+    final RunProgress first = action.start(RUN_ID, "instance");
+    final RunProgress second = action.start(OTHER_RUN_ID, "other");
+
+    assertThat(action.start(RUN_ID, "instance"), is(sameInstance(first)));
+    assertThat(action.getRun(OTHER_RUN_ID), is(sameInstance(second)));
+    assertThat(action.getRuns(), contains(first, second));
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.progress;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.defensics.apiserver.model.FailureLevel;
+import com.defensics.apiserver.model.FailureSummaryEntry;
+import com.defensics.apiserver.model.Run;
+import com.defensics.apiserver.model.RunState;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RunProgressTest {
+
+  private static final String RUN_ID = "5adcf4cc-7a86-4f3c-8fa4-ba316ce686c0";
+
+  private RunProgress progress;
+
+  @Before
+  public void setup() {
+    progress = new RunProgress(RUN_ID, "instance");
+  }
+
+  @Test
+  public void testInitialState() {
+    assertThat(progress.getRunId(), is(RUN_ID));
+    assertThat(progress.getPercentDone(), is(0d));
+    assertThat(progress.getEtaSeconds(), is(-1L));
+  }
+
+  @Test
+  public void testRateAndEta() {
+    progress.update(mockRun(100, 1000), 10_000);
+    assertThat(progress.getCasesPerSecond(), is(0d));
+    assertThat(progress.getEtaSeconds(), is(-1L));
+
+    progress.update(mockRun(300, 1000), 20_000);
+    assertThat(progress.getState(), is("RUNNING"));
+    assertThat(progress.getCasesExecuted(), is(300L));
+    assertThat(progress.getPercentDone(), closeTo(30d, 0.001));
+    assertThat(progress.getCasesPerSecond(), closeTo(20d, 0.001));
+    assertThat(progress.getEtaSeconds(), is(35L));
+  }
+
+  @Test
+  public void testFailuresByLevel() {
+    final Run run = mockRun(10, 100);
+    when(run.getFailureSummary()).thenReturn(Arrays.asList(
+        new FailureSummaryEntry("instrumentation", FailureLevel.ERROR, 2),
+        new FailureSummaryEntry("valid-case", FailureLevel.ERROR, 1),
+        new FailureSummaryEntry("instrumentation", FailureLevel.WARNING, 4)));
+
+    progress.update(run, 1000);
+
+    assertThat(progress.getFailures(), is(7));
+    assertThat(progress.getFailuresByLevel().get("ERROR"), is(3));
+    assertThat(progress.getFailuresByLevel().get("WARNING"), is(4));
+  }
+
+  private static Run mockRun(long executed, long total) {
+    final Run run = mock(Run.class);
+    when(run.getState()).thenReturn(RunState.RUNNING);
+    when(run.getTestCasesExecuted()).thenReturn(executed);
+    when(run.getCasesToBeExecuted()).thenReturn(total);
+    when(run.getFailureSummary()).thenReturn(Collections.emptyList());
+    return run;
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AssetStoreTest {
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File dir;
+  private AssetStore store;
+
+  @Before
+  public void setup() {
+    dir = new File(temporaryFolder.getRoot(), AssetStore.DIR_NAME);
+    store = new AssetStore(dir);
+  }
+
+  @Test
+  public void testIdenticalAssetsAreStoredOnce() throws IOException {
+    final String first = store.add(stream("body {}"), false);
+    final String second = store.add(stream("body {}"), false);
+    final String other = store.add(stream("p {}"), false);
+
+    assertThat(second, is(first));
+    assertThat(store.getReferences().get(first), is(2));
+    assertThat(store.getReferences().get(other), is(1));
+    // Two assets and the index, no leftover temporary files
+    assertThat(dir.list().length, is(3));
+    assertThat(read(store.getFile(first)), is("body {}"));
+  }
+
+  @Test
+  public void testAssetIsDeletedWithLastReference() throws IOException {
+    final String hash = store.add(stream("body {}"), false);
+    store.add(stream("body {}"), false);
+
+    store.release(Collections.singletonList(hash));
+    assertThat(store.getFile(hash), is(notNullValue()));
+
+    store.release(Collections.singletonList(hash));
+    assertThat(store.getFile(hash), is(nullValue()));
+    assertThat(store.getReferences().containsKey(hash), is(false));
+  }
+
+  @Test
+  public void testCompressedAsset() throws IOException {
+    final String hash = store.add(stream("body {}"), true);
+
+    assertThat(store.getFile(hash).getName(), is(hash + ".gz"));
+    // Same content is found regardless of how it was stored
+    assertThat(store.add(stream("body {}"), false), is(hash));
+    assertThat(new File(dir, hash).exists(), is(false));
+  }
+
+  @Test
+  public void testReferencesArePersisted() throws IOException {
+    final String hash = store.add(stream("body {}"), false);
+
+    final AssetStore loaded = AssetStore.load(dir);
+
+    assertThat(loaded.getReferences().get(hash), is(1));
+    loaded.release(Arrays.asList(hash, hash));
+    assertThat(loaded.getFile(hash), is(nullValue()));
+  }
+
+  @Test
+  public void testInvalidHash() {
+    assertThat(store.getFile("../" + AssetStore.INDEX_FILE_NAME), is(nullValue()));
+  }
+
+  @Test
+  public void testReportWriter() throws IOException {
+    final File reportDir = temporaryFolder.newFolder("report");
+    final ReportWriter writer = new ReportWriter(reportDir, "report-1.html", store, false);
+
+    writer.handle(ReportWriter.REPORT_FILE_NAME, stream("<html/>"));
+    final long bytes = writer.handle("style.css", stream("body {}"));
+    writer.handle("script.js", stream("let a;"));
+    // Assets are not in the store until the whole report has been read
+    assertThat(store.getReferences().isEmpty(), is(true));
+    writer.finish();
+
+    assertThat(bytes, is(7L));
+    assertThat(AssetStore.load(dir).getReferences().size(), is(2));
+    assertThat(read(new File(reportDir, "report-1.html")), is("<html/>"));
+    assertThat(new File(reportDir, "style.css").exists(), is(false));
+    assertThat(read(store.getFile(writer.getAssets().get("style.css"))), is("body {}"));
+  }
+
+  @Test
+  public void testDiscardedReportLeavesNoFiles() throws IOException {
+    final ReportWriter writer =
+        new ReportWriter(temporaryFolder.newFolder("report"), "report-1.html", store, false);
+
+    writer.handle("style.css", stream("body {}"));
+    writer.discard();
+
+    assertThat(store.getReferences().isEmpty(), is(true));
+    assertThat(dir.list().length, is(0));
+  }
+
+  private static ByteArrayInputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String read(File file) throws IOException {
+    return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+  }
+}
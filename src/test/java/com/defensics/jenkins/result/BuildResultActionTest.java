@@ -20,6 +20,14 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -56,4 +64,52 @@ public class BuildResultActionTest {
     buildResultAction.setFailureCount(newFailureCount);
     assertThat(buildResultAction.getFailureCount(), is(newFailureCount));
   }
+
+  @Test
+  public void testStepResultsAreSummed() {
+    assertThat(buildResultAction.getStepResults().isEmpty(), is(true));
+    assertThat(buildResultAction.getFailuresByLevel().isEmpty(), is(true));
+
+    buildResultAction.addStepResult(new StepResult("a.set", "run-1", "local", "FAIL",
+        Map.of("ERROR", 3L, "WARNING", 1L), Map.of("instrumentation", 4L), 100, 200, 10000));
+    buildResultAction.addStepResult(new StepResult("b.set", "run-2", "local", "FAIL",
+        Map.of("ERROR", 2L), Map.of("instrumentation", 1L, "valid case", 1L), 50, 50, 5000));
+
+    assertThat(buildResultAction.getStepResults().size(), is(2));
+    assertThat(buildResultAction.getFailuresByLevel().get("ERROR"), is(5L));
+    assertThat(buildResultAction.getFailuresByLevel().get("WARNING"), is(1L));
+    assertThat(buildResultAction.getFailuresBySource().get("instrumentation"), is(5L));
+    assertThat(buildResultAction.getFailuresBySource().get("valid case"), is(1L));
+    assertThat(buildResultAction.getTestCasesExecuted(), is(150L));
+    assertThat(buildResultAction.getCasesToBeExecuted(), is(250L));
+    assertThat(buildResultAction.getDurationMillis(), is(15000L));
+    assertThat(buildResultAction.getStepResults().get(0).getCasesPerSecond(), is(10.0));
+  }
+
+  @Test
+  public void testParallelStepsDontLoseResults() throws Exception {
+    final int steps = 50;
+    final List<Callable<Void>> tasks = new ArrayList<>();
+    for (int i = 0; i < steps; i++) {
+      final String name = "plan" + i + ".set";
+      tasks.add(() -> {
+        buildResultAction.addFailureCount(2);
+        buildResultAction.addStepResult(new StepResult(name, name, "local", "FAIL",
+            Map.of("ERROR", 2L), Collections.emptyMap(), 10, 10, 1000));
+        return null;
+      });
+    }
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      for (Future<Void> future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertThat(buildResultAction.getFailureCount(), is(FAILURE_COUNT + 2 * steps));
+    assertThat(buildResultAction.getStepResults().size(), is(steps));
+    assertThat(buildResultAction.getFailuresByLevel().get("ERROR"), is(2L * steps));
+  }
 }
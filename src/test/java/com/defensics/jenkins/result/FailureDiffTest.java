@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import com.defensics.apiserver.model.FailureLevel;
+import com.defensics.jenkins.result.FailureDiff.Failure;
+import com.defensics.jenkins.result.FailureDiff.StepDiff;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class FailureDiffTest {
+
+  @Test
+  public void testCompare() {
+    final FailureDiff diff = FailureDiff.compare(
+        Collections.singletonList(failures("http-server", 1, 4, 5, 9)),
+        Collections.singletonList(failures("http-server", 2, 4, 5, 7)));
+
+    assertThat(diff.getNewCount(), is(2L));
+    assertThat(diff.getFixedCount(), is(2L));
+    assertThat(diff.getRecurringCount(), is(2L));
+    final StepDiff step = diff.getSteps().get(0);
+    assertThat(step.isInBaseline(), is(true));
+    assertThat(caseIndexes(step.getNewFailures()), contains(1L, 9L));
+    assertThat(caseIndexes(step.getFixedFailures()), contains(2L, 7L));
+    assertThat(caseIndexes(step.getRecurringFailures()), contains(4L, 5L));
+    assertThat(step.getNewFailures().get(0).getSource(), is("tcp-health-check"));
+  }
+
+  @Test
+  public void testSameCaseWithDifferentLevelIsNewFailure() {
+    final FailureFingerprints current = new FailureFingerprints("http-server",
+        new long[] {FailureFingerprints.encode(1, "instrumentation", FailureLevel.ERROR)},
+        Collections.emptyMap());
+    final FailureFingerprints baseline = new FailureFingerprints("http-server",
+        new long[] {FailureFingerprints.encode(1, "instrumentation", FailureLevel.WARNING)},
+        Collections.emptyMap());
+
+    final FailureDiff diff = FailureDiff.compare(
+        Collections.singletonList(current), Collections.singletonList(baseline));
+
+    assertThat(diff.getNewCount(), is(1L));
+    assertThat(diff.getFixedCount(), is(1L));
+  }
+
+  @Test
+  public void testStepsAreMatchedByTestPlan() {
+    final FailureDiff diff = FailureDiff.compare(
+        Arrays.asList(failures("http-server", 1), failures("tls-server", 1)),
+        Arrays.asList(failures("tls-server", 1), failures("dns-server", 3)));
+
+    assertThat(diff.getSteps(), hasSize(2));
+    assertThat(diff.getSteps().get(0).isInBaseline(), is(false));
+    assertThat(diff.getSteps().get(0).getNewCount(), is(1L));
+    assertThat(diff.getSteps().get(1).isInBaseline(), is(true));
+    assertThat(diff.getSteps().get(1).getRecurringCount(), is(1L));
+  }
+
+  @Test
+  public void testListedFailuresAreLimited() {
+    final long[] caseIndexes = new long[FailureDiff.MAX_LISTED_FAILURES + 10];
+    for (int i = 0; i < caseIndexes.length; i++) {
+      caseIndexes[i] = i;
+    }
+
+    final FailureDiff diff = FailureDiff.compare(
+        Collections.singletonList(failures("http-server", caseIndexes)),
+        Collections.emptyList());
+
+    assertThat(diff.getNewCount(), is((long) caseIndexes.length));
+    assertThat(diff.getSteps().get(0).getNewFailures(), hasSize(FailureDiff.MAX_LISTED_FAILURES));
+  }
+
+  private static FailureFingerprints failures(String testPlanName, long... caseIndexes) {
+    final StringBuilder log = new StringBuilder();
+    for (long caseIndex : caseIndexes) {
+      log.append(MainLogFixture.testCase(caseIndex, "http-suite.http-request.request.element",
+          "tcp-health-check"));
+    }
+    final FailureFingerprints.Builder builder = new FailureFingerprints.Builder(testPlanName);
+    try {
+      builder.read(new ByteArrayInputStream(log.toString().getBytes(StandardCharsets.UTF_8)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return builder.build();
+  }
+
+  private static List<Long> caseIndexes(List<Failure> failures) {
+    return failures.stream().map(Failure::getCaseIndex).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.defensics.apiserver.model.FailureLevel;
+import com.defensics.jenkins.util.ZipExtractor;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FailureFingerprintsTest {
+
+  private static final String VERSION_CASE = String.join("\n",
+      "0000000100T 5 TEST CASE",
+      "0000000101G http-suite.http-request.request.version - 5 0x36350351df5f4d7e 0 0 0 -",
+      "0000000102I 5 valid-case warning slow+response",
+      "0000000103I 5 valid-case warning slow+response",
+      "0000000104V 5 pass -",
+      "0000000105t 5 test case completed",
+      "");
+  private static final String METHOD_CASE = String.join("\n",
+      "0000000106T 3 TEST CASE",
+      "0000000107G http-suite.http-request.request.method - 3 0x36350351df5f4d7e 0 0 0 -",
+      "0000000108V 3 fail connection+closed",
+      "0000000109t 3 test case completed",
+      "");
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testEncode() {
+    final long fingerprint =
+        FailureFingerprints.encode(1234567, "instrumentation", FailureLevel.WARNING);
+
+    assertThat(FailureFingerprints.caseIndex(fingerprint), is(1234567L));
+    assertThat(FailureFingerprints.level(fingerprint), is(FailureLevel.WARNING));
+    // Fingerprints sort by case index first
+    assertThat(fingerprint
+        < FailureFingerprints.encode(1234568, "instrumentation", FailureLevel.ERROR), is(true));
+  }
+
+  @Test
+  public void testBuildSortsAndRemovesDuplicates() throws Exception {
+    final FailureFingerprints.Builder builder = new FailureFingerprints.Builder("http-server");
+
+    final long cases = builder.read(log());
+    final FailureFingerprints failures = builder.build();
+
+    assertThat(cases, is(4L));
+    assertThat(failures.size(), is(3));
+    final long[] fingerprints = failures.getFingerprints();
+    assertThat(FailureFingerprints.caseIndex(fingerprints[0]), is(3L));
+    assertThat(failures.getSource(fingerprints[0]), is(CaseLogParser.VERDICT_SOURCE));
+    assertThat(FailureFingerprints.level(fingerprints[0]), is(FailureLevel.ERROR));
+    assertThat(FailureFingerprints.caseIndex(fingerprints[1]), is(5L));
+    assertThat(failures.getSource(fingerprints[1]), is("valid-case"));
+    assertThat(FailureFingerprints.level(fingerprints[1]), is(FailureLevel.WARNING));
+    assertThat(FailureFingerprints.caseIndex(fingerprints[2]), is(15L));
+    assertThat(failures.getSource(fingerprints[2]), is("tcp-health-check"));
+    assertThat(FailureFingerprints.level(fingerprints[2]), is(FailureLevel.ERROR));
+  }
+
+  @Test
+  public void testPassedResultPackageHasNoFailures() throws Exception {
+    final FailureFingerprints.Builder builder = new FailureFingerprints.Builder("http-server");
+
+    try (InputStream resultPackage = MainLogFixture.openResultPackage()) {
+      ZipExtractor.forEachEntry(resultPackage, builder);
+    }
+
+    assertThat(builder.getCaseCount(), is(2L));
+    assertThat(builder.build().size(), is(0));
+  }
+
+  @Test
+  public void testSameFailureHasSameFingerprint() throws Exception {
+    final FailureFingerprints.Builder first = new FailureFingerprints.Builder("http-server");
+    first.read(log());
+    final FailureFingerprints.Builder second = new FailureFingerprints.Builder("http-server");
+    // Messages differ from one run to another, so they are not part of the fingerprint
+    second.read(new ByteArrayInputStream(
+        (MainLogFixture.fail(MainLogFixture.read(), 15, "tcp-health-check", "timeout")
+            + VERSION_CASE + METHOD_CASE).getBytes(StandardCharsets.UTF_8)));
+
+    assertThat(second.build().getFingerprints(), is(first.build().getFingerprints()));
+  }
+
+  @Test
+  public void testGetCaseIndexes() throws Exception {
+    final FailureFingerprints.Builder builder = new FailureFingerprints.Builder("http-server");
+    builder.read(log());
+    final FailureFingerprints failures = builder.build();
+
+    assertThat(failures.getCaseIndexes(10), is(new long[] {3, 5, 15}));
+    assertThat(failures.getCaseIndexes(2), is(new long[] {3, 5}));
+  }
+
+  @Test
+  public void testWriteAndRead() throws Exception {
+    final FailureFingerprints.Builder builder = new FailureFingerprints.Builder("http-server");
+    builder.read(log());
+    final FailureFingerprints failures = builder.build();
+    final File file = new File(temporaryFolder.getRoot(), "failures/run-1.bin");
+
+    failures.write(file);
+    final FailureFingerprints read = FailureFingerprints.read(file);
+
+    assertThat(read.getTestPlanName(), is("http-server"));
+    assertThat(read.getFingerprints(), is(failures.getFingerprints()));
+    assertThat(read.getSources(), is(failures.getSources()));
+  }
+
+  private static InputStream log() throws IOException {
+    final String log =
+        MainLogFixture.fail(MainLogFixture.read(), 15, "tcp-health-check", "no response");
+    return new ByteArrayInputStream(
+        (log + VERSION_CASE + METHOD_CASE).getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThrows;
+
+import com.defensics.jenkins.util.ZipExtractor;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class JUnitReportWriterTest {
+
+  @Test
+  public void testCaseGroupsOfResultPackage() throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final JUnitReportWriter writer =
+        new JUnitReportWriter("http-server", JUnitReportMode.CASE_GROUPS, out);
+
+    try (InputStream resultPackage = MainLogFixture.openResultPackage()) {
+      ZipExtractor.forEachEntry(resultPackage, writer);
+    }
+    writer.finish();
+
+    assertThat(writer.getCaseCount(), is(2L));
+    final String report = out.toString(StandardCharsets.UTF_8);
+    assertThat(report, containsString("<testsuite name=\"http-server\">"));
+    assertThat(report, containsString(
+        "name=\"http-suite\"><system-out>1 test cases passed"));
+    assertThat(report, containsString(
+        "name=\"http-suite.http-request.request\"><system-out>1 test cases passed"));
+    assertThat(report, not(containsString("<failure")));
+  }
+
+  @Test
+  public void testFailedCaseGroup() throws Exception {
+    final String log = MainLogFixture.fail(MainLogFixture.read(), 15, "valid-case",
+        "no response from \u0001SUT");
+
+    final String report = write(log, JUnitReportMode.CASE_GROUPS);
+
+    assertThat(report, containsString("name=\"http-suite.http-request.request\">"
+        + "<failure message=\"1 of 1 test cases failed\">"
+        + "Test case #15 http-suite.http-request.request.element\n"
+        + "  ERROR valid-case: no response from ?SUT\n"));
+    // Control characters are not allowed in XML
+    assertThat(report, not(containsString("\u0001")));
+  }
+
+  @Test
+  public void testFailedCases() throws Exception {
+    final String log = MainLogFixture.fail(MainLogFixture.read(), 15, "valid-case",
+        "no response");
+
+    final String report = write(log, JUnitReportMode.FAILED_CASES);
+
+    assertThat(report, containsString("name=\"http-suite.http-request.request.element\">"
+        + "<failure message=\"ERROR valid-case: no response\">"));
+    assertThat(report, containsString("name=\"" + JUnitReportWriter.PASSED_CASES_NAME
+        + "\"><system-out>1 test cases passed"));
+    assertThat(report, not(containsString("name=\"http-suite.valid\"")));
+  }
+
+  @Test
+  public void testPassedVerdictIsNotFailure() throws Exception {
+    // Text mentioning failures in other records doesn't fail the case
+    final String log = MainLogFixture.read()
+        .replace("normal HTTP Response", "no failures HTTP Response");
+
+    final String report = write(log, JUnitReportMode.FAILED_CASES);
+
+    assertThat(report, not(containsString("<failure")));
+    assertThat(report, containsString("<system-out>2 test cases passed"));
+  }
+
+  @Test
+  public void testLogWithoutCases() throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final JUnitReportWriter writer =
+        new JUnitReportWriter("http-server", JUnitReportMode.FAILED_CASES, out);
+
+    final long cases = writer.add(new ByteArrayInputStream(
+        "0000000000: 2020-05-06 10:30:21.031".getBytes(StandardCharsets.UTF_8)));
+    writer.finish();
+
+    assertThat(cases, is(0L));
+    assertThat(out.toString(StandardCharsets.UTF_8), containsString("<testsuite"));
+  }
+
+  @Test
+  public void testCaseLogsAppendedToSameReport() throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final JUnitReportWriter writer =
+        new JUnitReportWriter("http-server", JUnitReportMode.FAILED_CASES, out);
+    final byte[] log = MainLogFixture.fail(MainLogFixture.read(), 15, "valid-case", "timeout")
+        .getBytes(StandardCharsets.UTF_8);
+
+    final long bytes = writer.handle("results/1/main.log", new ByteArrayInputStream(log));
+    writer.handle("results/2/main.log", new ByteArrayInputStream(log));
+    writer.handle("results/2/domain.log", new ByteArrayInputStream(log));
+    writer.finish();
+
+    assertThat(bytes, is((long) log.length));
+    assertThat(writer.getCaseCount(), is(4L));
+    final String report = out.toString(StandardCharsets.UTF_8);
+    assertThat(report.indexOf("http-suite.http-request.request.element"),
+        is(not(report.lastIndexOf("http-suite.http-request.request.element"))));
+    assertThat(report, containsString("<system-out>2 test cases passed"));
+  }
+
+  @Test
+  public void testIsCaseLog() {
+    assertThat(JUnitReportWriter.isCaseLog("main.log"), is(true));
+    assertThat(JUnitReportWriter.isCaseLog(MainLogFixture.MAIN_LOG), is(true));
+    assertThat(JUnitReportWriter.isCaseLog("results/domain.log"), is(false));
+  }
+
+  @Test
+  public void testModeMustBeChosen() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new JUnitReportWriter("http-server", JUnitReportMode.NONE,
+            new ByteArrayOutputStream()));
+  }
+
+  private static String write(String log, JUnitReportMode mode) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final JUnitReportWriter writer = new JUnitReportWriter("http-server", mode, out);
+    final long cases = writer.add(new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8)));
+    writer.finish();
+    assertThat(cases, is(2L));
+    return out.toString(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Main log of the result package served by the Defensics mock server. The package has only
+ * passed test cases, so failures are added with records in the same format.
+ */
+public final class MainLogFixture {
+
+  /**
+   * Result package resource, shared with the integration tests.
+   */
+  public static final String RESULT_PACKAGE = "/com/defensics/jenkins/test/result-package.zip";
+
+  /**
+   * Main log entry of the result package.
+   */
+  public static final String MAIN_LOG = "HTTP-Server/20200506-1030-04/main.log";
+
+  private MainLogFixture() {
+  }
+
+  /**
+   * Opens the result package.
+   *
+   * @return Result package zip
+   */
+  public static InputStream openResultPackage() {
+    return MainLogFixture.class.getResourceAsStream(RESULT_PACKAGE);
+  }
+
+  /**
+   * Reads main log of the result package. It has passed test cases #0
+   * {@code http-suite.valid} and #15 {@code http-suite.http-request.request.element}.
+   *
+   * @return Main log
+   * @throws IOException if reading the package fails
+   */
+  public static String read() throws IOException {
+    try (ZipInputStream zip = new ZipInputStream(openResultPackage())) {
+      ZipEntry entry;
+      while ((entry = zip.getNextEntry()) != null) {
+        if (entry.getName().equals(MAIN_LOG)) {
+          return new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+      }
+    }
+    throw new IOException(MAIN_LOG + " not found in " + RESULT_PACKAGE);
+  }
+
+  /**
+   * Fails a passed test case of the log, as if an instrumentation source reported a failure.
+   *
+   * @param log     Main log
+   * @param index   Index of the passed case
+   * @param source  Instrumentation source
+   * @param message Failure message
+   * @return Log with the case failed
+   */
+  public static String fail(String log, long index, String source, String message) {
+    final String verdict = "V " + index + " pass -";
+    final int at = log.indexOf(verdict);
+    if (at < 10) {
+      throw new IllegalArgumentException("Test case #" + index + " has no passed verdict");
+    }
+    final String sequence = log.substring(at - 10, at);
+    return log.substring(0, at)
+        + "I " + index + " " + encode(source) + " fail " + encode(message) + "\n"
+        + sequence + "V " + index + " fail " + encode(message)
+        + log.substring(at + verdict.length());
+  }
+
+  /**
+   * Writes records of a test case.
+   *
+   * @param index         Test case index
+   * @param name          Test case name
+   * @param failureSource Instrumentation source which failed the case, or null if it passed
+   * @return Records of the case
+   */
+  public static String testCase(long index, String name, String failureSource) {
+    final StringBuilder records = new StringBuilder()
+        .append(record('T', index + " TEST CASE"))
+        .append(record('G', name + " - " + index + " 0x36350351df5f4d7e 0 0 0 -"));
+    if (failureSource == null) {
+      records.append(record('V', index + " pass -"));
+    } else {
+      records.append(record('I', index + " " + encode(failureSource) + " fail -"))
+          .append(record('V', index + " fail -"));
+    }
+    return records.append(record('t', index + " test case completed")).toString();
+  }
+
+  private static String record(char type, String fields) {
+    return String.format("%010d%c %s\n", 0, type, fields);
+  }
+
+  private static String encode(String field) {
+    return URLEncoder.encode(field, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class OpenResultPackageTest {
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testReadEntries() throws Exception {
+    final String log = "case 1 failed\n".repeat(1000);
+    final File zip = temporaryFolder.newFile("result.zip");
+    try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip.toPath()))) {
+      out.setComment("result package");
+      add(out, "logs/main.log", log, ZipEntry.DEFLATED);
+      add(out, "summary.txt", "verdict: FAIL", ZipEntry.STORED);
+    }
+
+    try (OpenResultPackage resultPackage = OpenResultPackage.open(zip)) {
+      assertThat(read(resultPackage, "logs/main.log"), is(log));
+      assertThat(read(resultPackage, "summary.txt"), is("verdict: FAIL"));
+      assertThat(resultPackage.getEntry("logs/main.log").getSize(), is((long) log.length()));
+      assertThat(resultPackage.getEntry("main.log") == null, is(true));
+      assertThat(resultPackage.isStale(), is(false));
+    }
+  }
+
+  @Test
+  public void testList() throws Exception {
+    final File zip = temporaryFolder.newFile("result.zip");
+    try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip.toPath()))) {
+      out.putNextEntry(new ZipEntry("logs/"));
+      add(out, "logs/b.log", "b", ZipEntry.DEFLATED);
+      add(out, "logs/a.log", "a", ZipEntry.DEFLATED);
+      add(out, "logs/cases/1.log", "1", ZipEntry.DEFLATED);
+      add(out, "logs/cases/2.log", "2", ZipEntry.DEFLATED);
+      add(out, "logs.txt", "logs", ZipEntry.DEFLATED);
+      add(out, "pcap/1.pcap", "1", ZipEntry.DEFLATED);
+    }
+
+    try (OpenResultPackage resultPackage = OpenResultPackage.open(zip)) {
+      assertThat(resultPackage.list("", 100), contains("logs.txt", "logs/", "pcap/"));
+      assertThat(resultPackage.list("logs/", 100), contains("a.log", "b.log", "cases/"));
+      assertThat(resultPackage.list("logs/", 2), contains("a.log", "b.log"));
+      assertThat(resultPackage.isDirectory("logs/cases/"), is(true));
+      assertThat(resultPackage.isDirectory("logs/a.log/"), is(false));
+    }
+  }
+
+  @Test
+  public void testCachedPackageReopenedWhenFileChanges() throws Exception {
+    final File zip = temporaryFolder.newFile("result.zip");
+    try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip.toPath()))) {
+      add(out, "a.log", "a", ZipEntry.DEFLATED);
+    }
+    final OpenResultPackage first = OpenResultPackage.open(zip);
+    first.close();
+    try (OpenResultPackage cached = OpenResultPackage.open(zip)) {
+      assertThat(cached == first, is(true));
+    }
+
+    try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip.toPath()))) {
+      add(out, "a.log", "a", ZipEntry.DEFLATED);
+      add(out, "b.log", "b", ZipEntry.DEFLATED);
+    }
+
+    assertThat(first.isStale(), is(true));
+    try (OpenResultPackage reopened = OpenResultPackage.open(zip)) {
+      assertThat(reopened == first, is(false));
+      assertThat(read(reopened, "b.log"), is("b"));
+    }
+  }
+
+  @Test
+  public void testEvictedPackageClosedOnceRead() throws Exception {
+    final OpenResultPackage first = OpenResultPackage.open(newPackage("first.zip"));
+    for (int i = 0; i < ResultPackageBrowser.MAX_OPEN_PACKAGES; i++) {
+      OpenResultPackage.open(newPackage(i + ".zip")).close();
+    }
+
+    assertThat(read(first, "a.log"), is("a"));
+    first.close();
+    assertThrows(IllegalStateException.class, () -> read(first, "a.log"));
+  }
+
+  @Test
+  public void testNotZip() throws Exception {
+    final File file = temporaryFolder.newFile("result.zip");
+    Files.writeString(file.toPath(), "not a zip archive");
+
+    assertThrows(ZipException.class, () -> OpenResultPackage.open(file));
+  }
+
+  private File newPackage(String name) throws IOException {
+    final File zip = temporaryFolder.newFile(name);
+    try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip.toPath()))) {
+      add(out, "a.log", "a", ZipEntry.DEFLATED);
+    }
+    return zip;
+  }
+
+  private static void add(ZipOutputStream out, String name, String content, int method)
+      throws IOException {
+    final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    final ZipEntry entry = new ZipEntry(name);
+    entry.setMethod(method);
+    if (method == ZipEntry.STORED) {
+      final CRC32 crc = new CRC32();
+      crc.update(bytes);
+      entry.setSize(bytes.length);
+      entry.setCrc(crc.getValue());
+    }
+    out.putNextEntry(entry);
+    out.write(bytes);
+    out.closeEntry();
+  }
+
+  private static String read(OpenResultPackage resultPackage, String name) throws IOException {
+    try (InputStream in = resultPackage.getInputStream(resultPackage.getEntry(name))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+}
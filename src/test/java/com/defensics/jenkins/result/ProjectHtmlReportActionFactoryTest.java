@@ -43,16 +43,14 @@ public class ProjectHtmlReportActionFactoryTest {
   private HtmlReportAction reportAction;
   @Mock
   private FreeStyleBuild run;
+  @Mock
+  private FreeStyleBuild newRun;
 
   private ProjectHtmlReportActionFactory factory;
 
   @Before
   public void setup() {
     factory = new ProjectHtmlReportActionFactory();
-
-    when(project.getLastCompletedBuild()).thenReturn(run);
-    when(run.getActions(HtmlReportAction.class)).thenReturn(Collections.singletonList(
-        reportAction));
   }
 
   @Test
@@ -67,6 +65,19 @@ public class ProjectHtmlReportActionFactoryTest {
 
   @Test
   public void testCreateAction() {
+    final ReportAction newReportAction = new ReportAction();
+    when(project.getLastCompletedBuild()).thenReturn(newRun);
+    when(newRun.getAction(ReportAction.class)).thenReturn(newReportAction);
+
+    assertThat(factory.createFor(project), contains(newReportAction));
+  }
+
+  @Test
+  public void testCreateActionForOldBuild() {
+    when(project.getLastCompletedBuild()).thenReturn(run);
+    when(run.getActions(HtmlReportAction.class)).thenReturn(Collections.singletonList(
+        reportAction));
+
     assertThat(factory.createFor(project), contains(reportAction));
   }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import com.defensics.jenkins.result.ReportAction.Report;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReportActionTest {
+
+  private ReportAction reportAction;
+
+  @Before
+  public void setup() {
+    reportAction = new ReportAction();
+    reportAction.addReport(new Report("http.testplan", "run-1", "report-run-1.html"));
+  }
+
+  @Test
+  public void testReportsAreKeptInOrder() {
+    reportAction.addReport(new Report("tls.testplan", "run-2", "report-run-2.html"));
+
+    assertThat(
+        reportAction.getReports().stream().map(Report::getRunId).collect(Collectors.toList()),
+        contains("run-1", "run-2"));
+    assertThat(reportAction.getReports().get(1).getPath(), is("run-2/report-run-2.html"));
+  }
+
+  @Test
+  public void testFindReportByRunIdOrStepName() {
+    assertThat(reportAction.getReport("run-1").getTitle(), is("http.testplan"));
+    assertThat(reportAction.getReport("http.testplan").getRunId(), is("run-1"));
+
+    // Reports added after the index has been built are found too
+    reportAction.addReport(new Report("tls.testplan", "run-2", "report-run-2.html"));
+    assertThat(reportAction.getReport("tls.testplan").getRunId(), is("run-2"));
+    assertThat(reportAction.getReport("run-3"), is(nullValue()));
+  }
+
+  @Test
+  public void testFirstStepWinsForSameTestPlan() {
+    reportAction.addReport(new Report("http.testplan", "run-2", "report-run-2.html"));
+
+    assertThat(reportAction.getReport("http.testplan").getRunId(), is("run-1"));
+    assertThat(reportAction.getReport("run-2").getTitle(), is("http.testplan"));
+  }
+
+  @Test
+  public void testLazyReportIsReplacedWhenFetched() {
+    final Report lazy = Report.lazy("tls.testplan", "run-2", "report-run-2.html", "result-2",
+        "defensics", ReportFormat.SINGLE);
+    reportAction.addReport(lazy);
+    assertThat(reportAction.getReport("run-2").isLazy(), is(true));
+    assertThat(reportAction.getReport("run-2").getFormat(), is(ReportFormat.SINGLE));
+    assertThat(reportAction.getReport("run-1").isLazy(), is(false));
+
+    reportAction.replaceReport(lazy, new Report("tls.testplan", "run-2", "report-run-2.html"));
+
+    assertThat(reportAction.getReport("run-2").isLazy(), is(false));
+    assertThat(reportAction.getReport("run-2").getResultId(), is(nullValue()));
+    assertThat(
+        reportAction.getReports().stream().map(Report::getRunId).collect(Collectors.toList()),
+        contains("run-1", "run-2"));
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+public class ReportFileTest {
+
+  private static final String REPORT = "<html>report</html>";
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File reportsDir;
+  private StaplerRequest req;
+  private StaplerResponse rsp;
+  private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+  @Before
+  public void setup() throws IOException {
+    reportsDir = temporaryFolder.newFolder("defensics-reports");
+    final File runDir = new File(reportsDir, "run-1");
+    Files.createDirectories(runDir.toPath());
+    try (OutputStream out = new GZIPOutputStream(
+        Files.newOutputStream(new File(runDir, "report-1.html.gz").toPath()))) {
+      out.write(REPORT.getBytes(StandardCharsets.UTF_8));
+    }
+
+    req = mock(StaplerRequest.class);
+    final ServletContext servletContext = mock(ServletContext.class);
+    when(req.getServletContext()).thenReturn(servletContext);
+    when(servletContext.getMimeType("report-1.html")).thenReturn("text/html");
+    rsp = mock(StaplerResponse.class);
+    when(rsp.getOutputStream()).thenReturn(new ServletOutputStream() {
+      @Override
+      public boolean isReady() {
+        return true;
+      }
+
+      @Override
+      public void setWriteListener(WriteListener writeListener) {
+      }
+
+      @Override
+      public void write(int b) {
+        body.write(b);
+      }
+    });
+  }
+
+  @Test
+  public void testFind() throws IOException {
+    temporaryFolder.newFile("outside.html.gz");
+
+    assertThat(ReportFile.find(reportsDir, "/run-1/report-1.html"), is(notNullValue()));
+    assertThat(ReportFile.find(reportsDir, "/run-1/style.css"), is(nullValue()));
+    assertThat(ReportFile.find(reportsDir, "/run-1/"), is(nullValue()));
+    assertThat(ReportFile.find(reportsDir, "/../outside.html"), is(nullValue()));
+  }
+
+  @Test
+  public void testServeCompressed() throws IOException {
+    when(req.getHeader("Accept-Encoding")).thenReturn("gzip, deflate");
+
+    ReportFile.find(reportsDir, "/run-1/report-1.html").serve(req, rsp);
+
+    verify(rsp).setContentType("text/html");
+    verify(rsp).setHeader("Content-Encoding", "gzip");
+    assertThat(body.size() > 0 && body.toByteArray()[0] == (byte) 0x1f, is(true));
+  }
+
+  @Test
+  public void testServeDecompressed() throws IOException {
+    ReportFile.find(reportsDir, "/run-1/report-1.html").serve(req, rsp);
+
+    verify(rsp, never()).setHeader("Content-Encoding", "gzip");
+    assertThat(new String(body.toByteArray(), StandardCharsets.UTF_8), is(REPORT));
+  }
+
+  @Test
+  public void testServeAsset() throws IOException {
+    final File asset = temporaryFolder.newFile("0123abcd");
+    Files.write(asset.toPath(), "body {}".getBytes(StandardCharsets.UTF_8));
+    when(req.getServletContext().getMimeType("style.css")).thenReturn("text/css");
+    when(req.getHeader("Accept-Encoding")).thenReturn("gzip");
+
+    ReportFile.asset(asset, "css/style.css").serve(req, rsp);
+
+    verify(rsp).setContentType("text/css");
+    verify(rsp, never()).setHeader("Content-Encoding", "gzip");
+    assertThat(new String(body.toByteArray(), StandardCharsets.UTF_8), is("body {}"));
+  }
+}
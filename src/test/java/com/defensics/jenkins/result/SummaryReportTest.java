@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.defensics.apiserver.model.FailureLevel;
+import com.defensics.apiserver.model.FailureSummaryEntry;
+import com.defensics.apiserver.model.Run;
+import com.defensics.apiserver.model.RunState;
+import com.defensics.apiserver.model.RunVerdict;
+import com.defensics.jenkins.util.ZipExtractor;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SummaryReportTest {
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Run defensicsRun;
+
+  @Before
+  public void setup() {
+    defensicsRun = mock(Run.class);
+    when(defensicsRun.getId()).thenReturn("run-1");
+    when(defensicsRun.getState()).thenReturn(RunState.COMPLETED);
+    when(defensicsRun.getVerdict()).thenReturn(RunVerdict.FAIL);
+    when(defensicsRun.getTestCasesExecuted()).thenReturn(100L);
+    when(defensicsRun.getCasesToBeExecuted()).thenReturn(200L);
+    when(defensicsRun.getFailureSummary()).thenReturn(Arrays.asList(
+        new FailureSummaryEntry("<script>", FailureLevel.ERROR, 3),
+        new FailureSummaryEntry("valid-case", FailureLevel.WARNING, 0)));
+  }
+
+  @Test
+  public void testRender() {
+    final String html = SummaryReport.render(defensicsRun,
+        StepResult.of("http.testplan", "defensics", defensicsRun, 60_000), null);
+
+    assertThat(html, containsString("<h1>http.testplan</h1>"));
+    assertThat(html, containsString("<td>FAIL</td>"));
+    assertThat(html, containsString("<td>100 / 200</td>"));
+    assertThat(html, containsString("<td>&lt;script&gt;</td>"));
+    assertThat(html, not(containsString("<script>")));
+    // Sources without failures are left out
+    assertThat(html, not(containsString("valid-case")));
+    assertThat(html, not(containsString("Failed test cases")));
+  }
+
+  @Test
+  public void testRenderFailedCases() throws Exception {
+    final StringBuilder log = new StringBuilder();
+    for (long index : new long[] {3, 4, 5}) {
+      log.append(MainLogFixture.testCase(index, "http-suite.http-request.request.uri",
+          "tcp-health-check"));
+    }
+    log.append(MainLogFixture.fail(MainLogFixture.read(), 15, "valid-case", "no response"));
+    final FailureFingerprints.Builder failures = new FailureFingerprints.Builder("http");
+    failures.read(new ByteArrayInputStream(log.toString().getBytes(StandardCharsets.UTF_8)));
+
+    final String html = SummaryReport.render(defensicsRun,
+        StepResult.of("http.testplan", "defensics", defensicsRun, 60_000), failures.build());
+
+    assertThat(html, containsString("<h2>Failed test cases</h2>\n<p>3-5, 15</p>"));
+  }
+
+  @Test
+  public void testRenderPassedResultPackage() throws Exception {
+    final FailureFingerprints.Builder failures = new FailureFingerprints.Builder("http");
+    try (InputStream resultPackage = MainLogFixture.openResultPackage()) {
+      ZipExtractor.forEachEntry(resultPackage, failures);
+    }
+
+    final String html = SummaryReport.render(defensicsRun,
+        StepResult.of("http.testplan", "defensics", defensicsRun, 60_000), failures.build());
+
+    assertThat(html, not(containsString("Failed test cases")));
+  }
+
+  @Test
+  public void testWrite() throws Exception {
+    final File file = new File(temporaryFolder.getRoot(), "run-1/report-run-1.html");
+
+    final long bytes = SummaryReport.write(file, defensicsRun,
+        StepResult.of("http.testplan", "defensics", defensicsRun, 60_000), null, false);
+
+    assertThat(file.length(), is(bytes));
+    assertThat(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8),
+        containsString("http.testplan"));
+  }
+}
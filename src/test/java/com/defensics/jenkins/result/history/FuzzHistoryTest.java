@@ -0,0 +1,240 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result.history;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.defensics.jenkins.result.BuildResultAction;
+import com.defensics.jenkins.result.ReportAction;
+import com.defensics.jenkins.result.StepResult;
+import hudson.model.Job;
+import hudson.model.Run;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FuzzHistoryTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private Job<?, ?> job;
+  private File historyFile;
+
+  @Before
+  public void setup() throws Exception {
+    final File jobDir = folder.newFolder("job");
+    job = mock(Job.class);
+    when(job.getRootDir()).thenReturn(jobDir);
+    historyFile = new File(jobDir, FuzzHistory.FILE_NAME);
+  }
+
+  @Test
+  public void testRecordAppendsAndReloads() throws Exception {
+    final FuzzHistory history = FuzzHistory.load(historyFile);
+    history.record(mockRun(1, 4, 3, 1), 0);
+    history.record(mockRun(2, 0, 0, 0), 0);
+    history.record(mockRunWithoutResults(3), 0);
+
+    assertThat(Files.readAllLines(historyFile.toPath(), StandardCharsets.UTF_8), contains(
+        FuzzHistory.HEADER,
+        "1,1000,100,10,4,3,1,50,instrumentation=4",
+        "2,2000,200,20,0,0,0,100,instrumentation=0"));
+
+    final FuzzHistory loaded = FuzzHistory.load(historyFile);
+    assertThat(numbers(loaded.getPoints()), contains(1, 2));
+    assertThat(loaded.getPoints().get(0).getErrors(), is(3L));
+    assertThat(loaded.getPoints().get(0).getCasesExecuted(), is(10L));
+    assertThat(loaded.getPoints().get(0).getCasesPerSecond(), is(200.0));
+  }
+
+  @Test
+  public void testLatestBuildsAddedWhenFirstRead() {
+    final Run<?, ?> first = mockRun(1, 2, 0, 0);
+    final Run<?, ?> second = mockRunWithoutResults(2);
+    final Run<?, ?> third = mockRun(3, 1, 0, 0);
+    doReturn(second).when(third).getPreviousBuild();
+    doReturn(first).when(second).getPreviousBuild();
+    doReturn(third).when(job).getLastCompletedBuild();
+
+    final FuzzHistory history = FuzzHistory.forJob(job);
+
+    assertThat(numbers(history.getPoints()), contains(1, 3));
+    assertThat(numbers(FuzzHistory.load(historyFile).getPoints()), contains(1, 3));
+  }
+
+  @Test
+  public void testJobWithoutResultsHasNoHistoryFile() {
+    final Run<?, ?> run = mockRunWithoutResults(1);
+    doReturn(run).when(job).getLastCompletedBuild();
+
+    assertThat(FuzzHistory.forJob(job).size(), is(0));
+    assertThat(historyFile.exists(), is(false));
+  }
+
+  @Test
+  public void testHistoryReloadedAfterJobIsMoved() throws Exception {
+    final FuzzHistory history = FuzzHistory.forJob(job);
+    history.record(mockRun(1, 1, 0, 0), 0);
+    assertThat(FuzzHistory.forJob(job), is(sameInstance(history)));
+
+    final File movedDir = folder.newFolder("moved");
+    when(job.getRootDir()).thenReturn(movedDir);
+    final FuzzHistory moved = FuzzHistory.forJob(job);
+    moved.record(mockRun(2, 1, 0, 0), 0);
+
+    assertThat(moved, is(not(sameInstance(history))));
+    assertThat(new File(movedDir, FuzzHistory.FILE_NAME).exists(), is(true));
+    assertThat(numbers(history.getPoints()), contains(1));
+  }
+
+  @Test
+  public void testCsvRoundTripWithSources() {
+    final FuzzHistory.Point point = new FuzzHistory.Point(
+        5, 1000, 2000, 30, 3, 2, 1, 1500, Map.of("valid case", 1L, "a,b;c=d", 2L));
+
+    final FuzzHistory.Point parsed = FuzzHistory.Point.parse(point.toCsv());
+
+    assertThat(parsed.getFailuresBySource(), is(Map.of("valid case", 1L, "a,b;c=d", 2L)));
+    assertThat(parsed.getFuzzingDuration(), is(1500L));
+    assertThat(FuzzHistory.Point.parse("1,1000,100,10,4,3,1").getFuzzingDuration(), is(0L));
+    assertThat(FuzzHistory.Point.parse(FuzzHistory.HEADER), is(nullValue()));
+  }
+
+  @Test
+  public void testRetention() throws Exception {
+    final FuzzHistory history = FuzzHistory.load(historyFile);
+    for (int i = 1; i <= 30; i++) {
+      history.record(mockRun(i, i, 0, 0), 10);
+    }
+
+    assertThat(history.size(), is(10));
+    assertThat(history.getPoints().get(0).getNumber(), is(21));
+    final int fileLines = Files.readAllLines(historyFile.toPath(), StandardCharsets.UTF_8).size();
+    assertThat(fileLines <= 1 + 10 + 10 / 4 + 1, is(true));
+  }
+
+  @Test
+  public void testRemoveAndOutOfOrderRecord() {
+    final FuzzHistory history = FuzzHistory.load(historyFile);
+    history.record(mockRun(1, 1, 0, 0), 0);
+    history.record(mockRun(3, 3, 0, 0), 0);
+    history.record(mockRun(2, 2, 0, 0), 0);
+    history.record(mockRun(3, 5, 0, 0), 0);
+    history.remove(1);
+
+    final FuzzHistory loaded = FuzzHistory.load(historyFile);
+    assertThat(numbers(loaded.getPoints()), contains(2, 3));
+    assertThat(loaded.getPoints().get(1).getFailures(), is(5L));
+  }
+
+  @Test
+  public void testDownsample() {
+    final List<FuzzHistory.Point> points = new ArrayList<>();
+    for (int i = 1; i <= 10; i++) {
+      points.add(new FuzzHistory.Point(i, i * 1000L, i * 10L, 100, i == 3 ? 50 : 1, 0, 0));
+    }
+
+    final List<FuzzHistory.Point> downsampled = FuzzHistory.downsample(points, 3);
+
+    assertThat(numbers(downsampled), contains(3, 6, 10));
+    assertThat(downsampled.get(0).getFailures(), is(50L));
+    assertThat(downsampled.get(0).getDuration(), is(20L));
+    assertThat(downsampled.get(2).getCasesExecuted(), is(100L));
+    assertThat(FuzzHistory.downsample(points, 20).size(), is(10));
+  }
+
+  @Test
+  public void testLatestBuilds() {
+    final FuzzHistory history = new FuzzHistory(null);
+    for (int i = 1; i <= 10; i++) {
+      history.record(mockRun(i, 0, 0, 0), 0);
+    }
+
+    assertThat(numbers(history.getPoints(3, 100)), contains(8, 9, 10));
+  }
+
+  @Test
+  public void testTrendOfBuildsWithoutPointsIsNotRun() {
+    final FuzzHistory history = new FuzzHistory(null);
+    history.record(mockRun(3, 2, 0, 0), 0);
+    history.record(mockRun(5, 4, 0, 0), 0);
+
+    final List<FuzzHistory.TrendEntry> entries = history.getLatestBuilds(20);
+
+    assertThat(entries.stream().map(FuzzHistory.TrendEntry::getNumber)
+        .collect(Collectors.toList()), contains(5, 4, 3, 2, 1));
+    assertThat(entries.get(0).hasResults(), is(true));
+    assertThat(entries.get(0).getFailureCount(), is(4L));
+    assertThat(entries.get(0).getReportUrl(), is(ReportAction.URL_NAME));
+    assertThat(entries.get(1).hasResults(), is(false));
+    assertThat(entries.get(2).getFailureCount(), is(2L));
+  }
+
+  @Test
+  public void testTrendOfLatestBuilds() {
+    final FuzzHistory history = new FuzzHistory(null);
+    for (int i = 1; i <= 30; i++) {
+      history.record(mockRun(i, i, 0, 0), 0);
+    }
+
+    final List<FuzzHistory.TrendEntry> entries = history.getLatestBuilds(20);
+
+    assertThat(entries.size(), is(20));
+    assertThat(entries.get(0).getNumber(), is(30));
+    assertThat(entries.get(19).getNumber(), is(11));
+    assertThat(new FuzzHistory(null).getLatestBuilds(20).isEmpty(), is(true));
+  }
+
+  private static List<Integer> numbers(List<FuzzHistory.Point> points) {
+    return points.stream().map(FuzzHistory.Point::getNumber).collect(Collectors.toList());
+  }
+
+  private static Run<?, ?> mockRunWithoutResults(int number) {
+    final Run<?, ?> run = mock(Run.class);
+    when(run.getNumber()).thenReturn(number);
+    return run;
+  }
+
+  static Run<?, ?> mockRun(int number, long failures, long errors, long warnings) {
+    final Run<?, ?> run = mockRunWithoutResults(number);
+    when(run.getTimeInMillis()).thenReturn(1000L * number);
+    when(run.getDuration()).thenReturn(100L * number);
+    final BuildResultAction action = new BuildResultAction("report-url", failures);
+    action.addStepResult(new StepResult("plan.set", "run-" + number, "local", "FAIL",
+        Map.of("ERROR", errors, "WARNING", warnings), Map.of("instrumentation", failures),
+        10L * number, 20L * number, 50L * number));
+    when(run.getAction(BuildResultAction.class)).thenReturn(action);
+    return run;
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result.history;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+public class RenderedTrendGraphTest {
+
+  private static final String ETAG = "\"5-abc-500x200\"";
+  private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
+  private RenderedTrendGraph graph;
+  private StaplerRequest request;
+  private StaplerResponse response;
+
+  @Before
+  public void setup() {
+    graph = new RenderedTrendGraph(new byte[] {1, 2, 3}, "<map/>", ETAG, LAST_MODIFIED + 123);
+    request = mock(StaplerRequest.class);
+    response = mock(StaplerResponse.class);
+    when(request.getDateHeader("If-Modified-Since")).thenReturn(-1L);
+  }
+
+  @Test
+  public void testValidatorsAreSet() {
+    assertThat(graph.isNotModified(request, response), is(false));
+
+    verify(response).setHeader("ETag", ETAG);
+    verify(response).setDateHeader("Last-Modified", LAST_MODIFIED);
+  }
+
+  @Test
+  public void testMatchingEtag() {
+    when(request.getHeader("If-None-Match")).thenReturn("\"other\", " + ETAG);
+
+    assertThat(graph.isNotModified(request, response), is(true));
+    verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+  }
+
+  @Test
+  public void testEtagTakesPrecedenceOverDate() {
+    when(request.getHeader("If-None-Match")).thenReturn("\"other\"");
+    when(request.getDateHeader("If-Modified-Since")).thenReturn(LAST_MODIFIED);
+
+    assertThat(graph.isNotModified(request, response), is(false));
+    verify(response, never()).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+  }
+
+  @Test
+  public void testIfModifiedSince() {
+    when(request.getDateHeader("If-Modified-Since")).thenReturn(LAST_MODIFIED);
+    assertThat(graph.isNotModified(request, response), is(true));
+
+    when(request.getDateHeader("If-Modified-Since")).thenReturn(LAST_MODIFIED - 1000);
+    assertThat(graph.isNotModified(request, response), is(false));
+  }
+
+  @Test
+  public void testCacheRendersOnlyOnMiss() throws Exception {
+    final TrendGraphCache cache = new TrendGraphCache(2);
+    final AtomicInteger renders = new AtomicInteger();
+    final TrendGraphCache.Renderer renderer = () -> {
+      renders.incrementAndGet();
+      return graph;
+    };
+
+    assertThat(cache.get("a", renderer), is(graph));
+    assertThat(cache.get("a", renderer), is(graph));
+    assertThat(renders.get(), is(1));
+
+    cache.get("b", renderer);
+    cache.get("a", renderer);
+    cache.get("c", renderer);
+    assertThat(cache.size(), is(2));
+    cache.get("a", renderer);
+    assertThat(renders.get(), is(3));
+  }
+
+  @Test
+  public void testNothingToRenderIsNotCached() throws Exception {
+    final TrendGraphCache cache = new TrendGraphCache(2);
+
+    assertThat(cache.get("a", () -> null), is(nullValue()));
+    assertThat(cache.size(), is(0));
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.result.history;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.Test;
+
+public class TrendDataTest {
+
+  @Test
+  public void testFromHistory() {
+    final TrendData data = TrendData.fromHistory(Arrays.asList(
+        new FuzzHistory.Point(4, 4000, 60000, 100, 3, 2, 1),
+        new FuzzHistory.Point(5, 5000, 120000, 200, 0, 0, 0)), true);
+
+    assertThat(data.toJson(), is("{\"downsampled\":true,\"builds\":[4,5],"
+        + "\"timestamps\":[4000,5000],\"series\":{\"failures\":[3,0],\"errors\":[2,0],"
+        + "\"warnings\":[1,0],\"casesExecuted\":[100,200],\"casesPerSecond\":[0.0,0.0],"
+        + "\"duration\":[60000,120000]}}"));
+  }
+
+  @Test
+  public void testSourceAndThroughputSeries() {
+    final TrendData data = TrendData.fromHistory(Arrays.asList(
+        new FuzzHistory.Point(1, 1000, 0, 100, 1, 1, 0, 4000, Map.of("instrumentation", 1L)),
+        new FuzzHistory.Point(2, 2000, 0, 300, 2, 2, 0, 4000, Map.of("valid case", 2L))), false);
+
+    assertThat(data.getSeries().get("casesPerSecond"), contains((Number) 25.0, 75.0));
+    assertThat(data.getSeries().get("source:instrumentation"), contains((Number) 1L, 0L));
+    assertThat(data.getSeries().get("source:valid case"), contains((Number) 0L, 2L));
+  }
+}
@@ -20,13 +20,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
 
-import com.defensics.jenkins.result.BuildResultAction;
-import hudson.model.Run;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 import org.apache.commons.lang3.SystemUtils;
 import org.jfree.chart.JFreeChart;
@@ -38,7 +33,7 @@ import org.junit.Test;
 
 public class TrendGraphTest {
 
-  private List<Run<?,?>> runs;
+  private List<FuzzHistory.TrendEntry> builds;
   private TrendGraph trendGraph;
 
   @Before
@@ -47,22 +42,16 @@ public class TrendGraphTest {
       "TrendGraphTests are ignored on Windows as they stall in Github Jenkins build but pass locally",
       SystemUtils.IS_OS_WINDOWS
     );
-    runs = new ArrayList<>();
+    builds = new ArrayList<>();
     for (int i = 0; i < 10; i++) {
-      Run<?,?> run = mock(Run.class);
-      when(run.getTime()).thenReturn(new Date());
-      when(run.getNumber()).thenReturn(i + 1);
-      BuildResultAction buildResultAction = mock(BuildResultAction.class);
       if (i % 2 == 0) {
-        when(run.getAction(BuildResultAction.class)).thenReturn(buildResultAction);
+        builds.add(new FuzzHistory.TrendEntry(
+            i + 1, System.currentTimeMillis(), true, 1234567890L + i, "report-url"));
       } else {
-        when(run.getAction(BuildResultAction.class)).thenReturn(null);
+        builds.add(new FuzzHistory.TrendEntry(i + 1, System.currentTimeMillis(), false, 0, null));
       }
-      when(buildResultAction.getReportUrl()).thenReturn("report-url");
-      when(buildResultAction.getFailureCount()).thenReturn(1234567890L + i);
-      runs.add(run);
     }
-    trendGraph = new TrendGraph(runs);
+    trendGraph = new TrendGraph(builds);
   }
 
   @Test
@@ -137,7 +126,7 @@ public class TrendGraphTest {
 
   @Test
   public void testUrlGenerationDefensicsNotRun() {
-    TrendGraph trendGraph = new TrendGraph(runs);
+    TrendGraph trendGraph = new TrendGraph(builds);
     JFreeChart chart = trendGraph.createGraph();
     DefaultCategoryDataset dataset = new DefaultCategoryDataset();
     dataset.addValue(0, Integer.valueOf(0), "#0");
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.timing;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class PhaseTimerTest {
+
+  private final AtomicLong clock = new AtomicLong();
+  private final PhaseTimer phaseTimer = new PhaseTimer(clock::get);
+
+  @Test
+  public void testPhasesMeasuredInOrder() {
+    phaseTimer.begin(Phase.CONNECTION);
+    advanceMillis(100);
+    phaseTimer.begin(Phase.UPLOAD);
+    phaseTimer.addBytes(Phase.UPLOAD, 2048);
+    advanceMillis(50);
+    phaseTimer.begin(Phase.FUZZING);
+    advanceMillis(1000);
+    phaseTimer.end();
+    advanceMillis(500);
+
+    final List<PhaseTiming> timings = phaseTimer.getTimings("test.set");
+
+    assertThat(
+        timings.stream().map(PhaseTiming::getPhase).collect(Collectors.toList()),
+        contains(Phase.CONNECTION, Phase.UPLOAD, Phase.FUZZING));
+    assertThat(
+        timings.stream().map(PhaseTiming::getDurationMillis).collect(Collectors.toList()),
+        contains(100L, 50L, 1000L));
+    assertThat(timings.get(1).getBytes(), is(2048L));
+    assertThat(timings.get(0).getStep(), is("test.set"));
+  }
+
+  @Test
+  public void testReenteredPhaseIsSummed() {
+    phaseTimer.begin(Phase.PUBLISHING);
+    advanceMillis(10);
+    phaseTimer.begin(Phase.CLEANUP);
+    advanceMillis(20);
+    phaseTimer.begin(Phase.PUBLISHING);
+    advanceMillis(30);
+
+    final List<PhaseTiming> timings = phaseTimer.getTimings("test.set");
+
+    // Current phase is included up to now
+    assertThat(
+        timings.stream().map(PhaseTiming::getDurationMillis).collect(Collectors.toList()),
+        contains(40L, 20L));
+  }
+
+  private void advanceMillis(long millis) {
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.timing;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hudson.model.Job;
+import hudson.model.Run;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class ProjectPhaseTimingActionTest {
+
+  private final ProjectPhaseTimingAction action = new ProjectPhaseTimingAction(mock(Job.class));
+
+  @Test
+  public void testTimingsReadFromLatestBuilds() {
+    final Job<?, ?> job = mock(Job.class);
+    final Run<?, ?> first = mockRun(1, null);
+    final Run<?, ?> second = mockRun(2, Map.of(Phase.FUZZING, 5000L));
+    doReturn(first).when(second).getPreviousBuild();
+    doReturn(second).when(job).getLastCompletedBuild();
+
+    final List<ProjectPhaseTimingAction.BuildTiming> buildTimings =
+        new ProjectPhaseTimingAction(job).getBuildTimings();
+
+    assertThat(buildTimings.size(), is(1));
+    assertThat(buildTimings.get(0).getNumber(), is(2));
+    assertThat(buildTimings.get(0).getMillisByPhase().get(Phase.FUZZING), is(5000L));
+    assertThat(ProjectPhaseTimingActionFactory.isDefensicsJob(job), is(true));
+    assertThat(ProjectPhaseTimingActionFactory.isDefensicsJob(mock(Job.class)), is(false));
+  }
+
+  @Test
+  public void testCompletedBuildsAdded() {
+    final Job<?, ?> job = mock(Job.class);
+    final ProjectPhaseTimings timings = ProjectPhaseTimings.forJob(job);
+    for (int i = 1; i <= ProjectPhaseTimingAction.MAX_BUILDS + 5; i++) {
+      timings.add(mockRun(i, Map.of(Phase.FUZZING, 1000L * i)));
+    }
+    timings.remove(ProjectPhaseTimingAction.MAX_BUILDS + 5);
+
+    final List<ProjectPhaseTimingAction.BuildTiming> buildTimings =
+        new ProjectPhaseTimingAction(job).getBuildTimings();
+
+    // Latest builds are kept, newest first
+    assertThat(buildTimings.size(), is(ProjectPhaseTimingAction.MAX_BUILDS - 1));
+    assertThat(buildTimings.get(0).getNumber(), is(ProjectPhaseTimingAction.MAX_BUILDS + 4));
+  }
+
+  @Test
+  public void testAverageOnlyOverBuildsHavingPhase() {
+    final List<ProjectPhaseTimingAction.BuildTiming> buildTimings = Arrays.asList(
+        buildTiming(1000L, 10_000L, null),
+        buildTiming(3000L, 20_000L, 600L));
+
+    final Map<Phase, Long> averages = action.getAverageMillisByPhase(buildTimings);
+
+    assertThat(action.getPhases(buildTimings),
+        contains(Phase.SUITE_LOAD, Phase.SUITE_RELOAD, Phase.FUZZING));
+    assertThat(averages.get(Phase.SUITE_LOAD), is(2000L));
+    assertThat(averages.get(Phase.FUZZING), is(15_000L));
+    assertThat(averages.get(Phase.SUITE_RELOAD), is(600L));
+    assertThat(buildTimings.get(1).getTotalMillis(), is(23_600L));
+  }
+
+  private static Run<?, ?> mockRun(int number, Map<Phase, Long> millisByPhase) {
+    final Run<?, ?> run = mock(Run.class);
+    when(run.getNumber()).thenReturn(number);
+    if (millisByPhase != null) {
+      final PhaseTimingAction timingAction = new PhaseTimingAction();
+      millisByPhase.forEach((phase, millis) -> timingAction.addTimings(
+          List.of(new PhaseTiming("step", phase, millis, 0))));
+      when(run.getAction(PhaseTimingAction.class)).thenReturn(timingAction);
+    }
+    return run;
+  }
+
+  private static ProjectPhaseTimingAction.BuildTiming buildTiming(
+      Long suiteLoad, Long fuzzing, Long reload) {
+    final Map<Phase, Long> millis = new EnumMap<>(Phase.class);
+    millis.put(Phase.SUITE_LOAD, suiteLoad);
+    millis.put(Phase.FUZZING, fuzzing);
+    if (reload != null) {
+      millis.put(Phase.SUITE_RELOAD, reload);
+    }
+    return new ProjectPhaseTimingAction.BuildTiming(1, millis);
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Test;
+
+public class DefensicsUtilsTest {
+
+  @Test
+  public void testFormatIndexRanges() {
+    assertThat(DefensicsUtils.formatIndexRanges(new long[0]), is(""));
+    assertThat(DefensicsUtils.formatIndexRanges(new long[] {7}), is("7"));
+    assertThat(DefensicsUtils.formatIndexRanges(new long[] {1, 2, 3, 7, 9, 10}), is("1-3,7,9-10"));
+  }
+}
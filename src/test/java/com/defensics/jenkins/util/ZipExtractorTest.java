@@ -0,0 +1,100 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.jenkins.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.function.UnaryOperator;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ZipExtractorTest {
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testExtractAndRename() throws Exception {
+    final File targetDir = new File(temporaryFolder.getRoot(), "report");
+    final byte[] zip = zip("report.html", "<html/>", "css/style.css", "body {}");
+
+    final long bytes = ZipExtractor.extract(new ByteArrayInputStream(zip), targetDir,
+        name -> name.equals("report.html") ? "report-1.html" : name);
+
+    assertThat(bytes, is(14L));
+    assertThat(read(new File(targetDir, "report-1.html")), is("<html/>"));
+    assertThat(read(new File(targetDir, "css/style.css")), is("body {}"));
+    assertThat(new File(targetDir, "report.html").exists(), is(false));
+  }
+
+  @Test
+  public void testExtractCompressed() throws Exception {
+    final File targetDir = new File(temporaryFolder.getRoot(), "report");
+    final byte[] zip = zip("report.html", "<html/>", "logo.png", "png");
+
+    ZipExtractor.extract(new ByteArrayInputStream(zip), targetDir, UnaryOperator.identity(),
+        true);
+
+    assertThat(new File(targetDir, "report.html").exists(), is(false));
+    try (InputStream in = new GZIPInputStream(
+        new FileInputStream(new File(targetDir, "report.html.gz")))) {
+      assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8), is("<html/>"));
+    }
+    // Images are already compressed
+    assertThat(read(new File(targetDir, "logo.png")), is("png"));
+  }
+
+  @Test
+  public void testEntryOutsideTargetIsRejected() throws Exception {
+    final File targetDir = temporaryFolder.newFolder("report");
+    final byte[] zip = zip("../evil.html", "<html/>");
+
+    assertThrows(IOException.class, () -> ZipExtractor.extract(
+        new ByteArrayInputStream(zip), targetDir, UnaryOperator.identity()));
+    assertThat(new File(temporaryFolder.getRoot(), "evil.html").exists(), is(false));
+  }
+
+  private static byte[] zip(String... namesAndContents) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+      for (int i = 0; i < namesAndContents.length; i += 2) {
+        zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+        zip.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static String read(File file) throws IOException {
+    return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+
+  private MetricsRegistry registry;
+
+  @Before
+  public void setup() {
+    registry = new MetricsRegistry();
+  }
+
+  @Test
+  public void testCounterOutput() throws IOException {
+    final Counter counter = registry.register(
+        new Counter("test_errors_total", "Errors.", "operation", "status"));
+    counter.labels("get run", "500").inc();
+    counter.labels("get run", "500").inc();
+    counter.labels("upload \"plan\"", "io").inc(3);
+
+    final String output = write();
+
+    assertThat(output, containsString("# HELP test_errors_total Errors.\n"));
+    assertThat(output, containsString("# TYPE test_errors_total counter\n"));
+    assertThat(output,
+        containsString("test_errors_total{operation=\"get run\",status=\"500\"} 2\n"));
+    assertThat(output,
+        containsString("test_errors_total{operation=\"upload \\\"plan\\\"\",status=\"io\"} 3\n"));
+  }
+
+  @Test
+  public void testHistogramBucketsAreCumulative() throws IOException {
+    final Histogram histogram = registry.register(
+        new Histogram("test_seconds", "Latency.", new double[] {0.125, 1}, "operation"));
+    histogram.labels("get run").observe(0.0625);
+    histogram.labels("get run").observe(0.125);
+    histogram.labels("get run").observe(0.5);
+    histogram.labels("get run").observe(4);
+
+    final String output = write();
+
+    assertThat(output,
+        containsString("test_seconds_bucket{operation=\"get run\",le=\"0.125\"} 2\n"));
+    assertThat(output, containsString("test_seconds_bucket{operation=\"get run\",le=\"1\"} 3\n"));
+    assertThat(output,
+        containsString("test_seconds_bucket{operation=\"get run\",le=\"+Inf\"} 4\n"));
+    assertThat(output, containsString("test_seconds_count{operation=\"get run\"} 4\n"));
+    assertThat(output, containsString("test_seconds_sum{operation=\"get run\"} 4.6875\n"));
+  }
+
+  @Test
+  public void testGauge() {
+    final Gauge gauge = registry.register(new Gauge("test_active", "Active.", "instance"));
+    gauge.labels("a").inc();
+    gauge.labels("a").inc();
+    gauge.labels("a").dec();
+
+    assertThat(gauge.labels("a").get(), is(1L));
+    assertThat(registry.collect().get(0).getFullName(), is("test_active{instance=\"a\"}"));
+  }
+
+  @Test
+  public void testWrongLabelCount() {
+    final Counter counter = registry.register(new Counter("test_total", "Test.", "operation"));
+    Assert.assertThrows(IllegalArgumentException.class, () -> counter.labels("a", "b"));
+  }
+
+  @Test
+  public void testDuplicateName() {
+    registry.register(new Counter("test_total", "Test."));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> registry.register(new Counter("test_total", "Test.")));
+  }
+
+  private String write() throws IOException {
+    final StringWriter writer = new StringWriter();
+    registry.writePrometheus(writer);
+    return writer.toString();
+  }
+}
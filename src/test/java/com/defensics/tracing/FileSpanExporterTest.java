@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.tracing;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileSpanExporterTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path file;
+  private FileSpanExporter exporter;
+  private Tracer tracer;
+
+  @Before
+  public void setup() throws IOException {
+    file = temporaryFolder.getRoot().toPath().resolve("traces").resolve("spans.json");
+    exporter = new FileSpanExporter(file);
+    tracer = new Tracer();
+    tracer.setExporter(exporter);
+  }
+
+  @After
+  public void teardown() {
+    exporter.shutdown();
+  }
+
+  @Test
+  public void testSpansWrittenInBackground() throws Exception {
+    tracer.startSpan("span1").close();
+    tracer.startSpan("span2").close();
+
+    assertThat(exporter.flush(5000), is(true));
+
+    final String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    assertThat(content, containsString("\"name\":\"span1\""));
+    assertThat(content, containsString("\"name\":\"span2\""));
+    assertThat(content.endsWith("\n"), is(true));
+  }
+
+  @Test
+  public void testShutdownWritesPendingSpans() throws Exception {
+    tracer.startSpan("span1").close();
+
+    exporter.shutdown();
+    tracer.startSpan("dropped").close();
+
+    final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    assertThat(String.join("\n", lines), containsString("\"name\":\"span1\""));
+    assertThat(exporter.flush(5000), is(false));
+  }
+}
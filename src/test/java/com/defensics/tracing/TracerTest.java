@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 Black Duck Software, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.defensics.tracing;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TracerTest {
+
+  private Tracer tracer;
+  private InMemorySpanExporter exporter;
+
+  @Before
+  public void setup() {
+    tracer = new Tracer();
+    exporter = new InMemorySpanExporter(10);
+    tracer.setExporter(exporter);
+  }
+
+  @Test
+  public void testChildSpansShareTrace() {
+    try (Span root = tracer.startSpan("build")) {
+      try (Span child = tracer.startSpan("get run")) {
+        assertThat(child.getTraceId(), is(root.getTraceId()));
+        assertThat(child.getParentSpanId(), is(root.getSpanId()));
+        assertThat(tracer.currentSpan(), is(child));
+      }
+      assertThat(tracer.currentSpan(), is(root));
+    }
+    assertThat(tracer.currentSpan(), is(nullValue()));
+
+    final List<Span> spans = exporter.getSpans();
+    assertThat(spans.size(), is(2));
+    assertThat(spans.get(0).getName(), is("get run"));
+    assertThat(spans.get(1).getName(), is("build"));
+    assertThat(spans.get(1).getParentSpanId(), is(nullValue()));
+  }
+
+  @Test
+  public void testTraceparentFormat() {
+    try (Span span = tracer.startSpan("build")) {
+      assertThat(span.getTraceparent().matches("00-[0-9a-f]{32}-[0-9a-f]{16}-01"), is(true));
+    }
+  }
+
+  @Test
+  public void testDisabledTracerDoesNotRecord() {
+    tracer.setExporter(null);
+    try (Span span = tracer.startSpan("build")) {
+      span.setAttribute("key", "value");
+      assertThat(span.isRecording(), is(false));
+      assertThat(span.getAttributes().isEmpty(), is(true));
+      assertThat(tracer.currentSpan(), is(nullValue()));
+    }
+    assertThat(exporter.getSpans(), is(empty()));
+  }
+
+  @Test
+  public void testSpanFormat() {
+    final Span span = tracer.startSpan("upload test plan");
+    span.setAttribute("http.response.status_code", 409).setError("HTTP 409");
+    span.close();
+
+    final String json = SpanFormat.toJson(span);
+
+    assertThat(json, containsString("\"traceId\":\"" + span.getTraceId() + "\""));
+    assertThat(json, containsString("\"name\":\"upload test plan\""));
+    assertThat(json, containsString("\"resourceSpans\":[{\"resource\":{\"attributes\":[{"
+        + "\"key\":\"service.name\","
+        + "\"value\":{\"stringValue\":\"jenkins-defensics-plugin\"}}]}"));
+    assertThat(json, containsString(
+        "{\"key\":\"http.response.status_code\",\"value\":{\"intValue\":\"409\"}}"));
+    assertThat(json, containsString("\"status\":{\"code\":2,\"message\":\"HTTP 409\"}"));
+    assertThat(json, not(containsString("\n")));
+  }
+
+  @Test
+  public void testInMemoryExporterCapacity() {
+    final InMemorySpanExporter small = new InMemorySpanExporter(2);
+    tracer.setExporter(small);
+    for (int i = 0; i < 3; i++) {
+      tracer.startSpan("span" + i).close();
+    }
+    assertThat(small.getSpans().size(), is(2));
+    assertThat(small.getSpans().get(0).getName(), is("span1"));
+  }
+}